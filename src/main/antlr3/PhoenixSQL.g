@@ -371,6 +371,7 @@ fam_prop_name returns [PropertyName ret]
     
 prop_value returns [Object ret]
     :   l=literal { $ret = l.getValue(); }
+    |   i=identifier { $ret = i; }
     ;
     
 column_def_name returns [ColumnDefName ret]
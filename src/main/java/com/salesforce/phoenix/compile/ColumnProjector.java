@@ -73,5 +73,25 @@ public interface ColumnProjector {
      */
     Object getValue(Tuple tuple, PDataType type, ImmutableBytesWritable ptr) throws SQLException;
     
+    /**
+     * Get the value of the column as a long, decoding it directly from its bytes
+     * instead of creating an Object when the column has an integral type.
+     * @param tuple the row containing the column
+     * @param ptr used to retrieve the value. Has a length of zero afterwards if the value is null.
+     * @return the long value of the column or 0 if the value is null
+     * @throws SQLException
+     */
+    long getLong(Tuple tuple, ImmutableBytesWritable ptr) throws SQLException;
+    
+    /**
+     * Get the value of the column as an int. See {@link #getLong(Tuple, ImmutableBytesWritable)}.
+     */
+    int getInt(Tuple tuple, ImmutableBytesWritable ptr) throws SQLException;
+    
+    /**
+     * Get the value of the column as a double. See {@link #getLong(Tuple, ImmutableBytesWritable)}.
+     */
+    double getDouble(Tuple tuple, ImmutableBytesWritable ptr) throws SQLException;
+    
     boolean isCaseSensitive();
 }
@@ -0,0 +1,111 @@
+/*******************************************************************************
+ * Copyright (c) 2013, Salesforce.com, Inc.
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     Redistributions of source code must retain the above copyright notice,
+ *     this list of conditions and the following disclaimer.
+ *     Redistributions in binary form must reproduce the above copyright notice,
+ *     this list of conditions and the following disclaimer in the documentation
+ *     and/or other materials provided with the distribution.
+ *     Neither the name of Salesforce.com nor the names of its contributors may 
+ *     be used to endorse or promote products derived from this software without 
+ *     specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE 
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL 
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR 
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER 
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, 
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE 
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package com.salesforce.phoenix.compile;
+
+import java.sql.ParameterMetaData;
+import java.sql.SQLException;
+
+import com.salesforce.phoenix.execute.MutationState;
+import com.salesforce.phoenix.jdbc.PhoenixConnection;
+import com.salesforce.phoenix.schema.MetaDataClient;
+import com.salesforce.phoenix.schema.TableRef;
+
+
+/**
+ * Plan for a mutation run on the server whose execution is deferred until the
+ * connection commits. Executing the plan only adds the mutation to the connection's
+ * MutationState, where it is ordered relative to the rows mutated by the other
+ * statements and updates no rows yet. At commit time, the statement is compiled
+ * again and run at a time stamp after that of the rows committed before it, so that
+ * they are visible to its scan, and before that of the rows committed after it, so
+ * that they are not affected by it.
+ *
+ * @author jtaylor
+ * @since 1.2
+ */
+public abstract class DeferredMutationPlan implements MutationPlan {
+    private final PhoenixConnection connection;
+    private final TableRef tableRef;
+    private final ParameterMetaData parameterMetaData;
+    private final long maxSize;
+    
+    public DeferredMutationPlan(PhoenixConnection connection, TableRef tableRef, ParameterMetaData parameterMetaData, long maxSize) {
+        this.connection = connection;
+        this.tableRef = tableRef;
+        this.parameterMetaData = parameterMetaData;
+        this.maxSize = maxSize;
+    }
+    
+    /**
+     * Compiles the statement at commit time into the plan that runs it on the server
+     * @param connection the connection to compile the statement against
+     */
+    protected abstract MutationPlan compile(PhoenixConnection connection) throws SQLException;
+    
+    /**
+     * Runs the mutation on the server, reading the rows with a time stamp before
+     * the given one and writing at the given one
+     */
+    public MutationState execute(long timeStamp) throws SQLException {
+        PhoenixConnection connection = new PhoenixConnection(this.connection, timeStamp);
+        try {
+            return compile(connection).execute();
+        } finally {
+            connection.close();
+        }
+    }
+    
+    /**
+     * @return the current time stamp of the server, as of the last update of the
+     * meta data of the table mutated
+     */
+    public long getServerTimeStamp() throws SQLException {
+        MetaDataClient client = new MetaDataClient(connection);
+        return Math.abs(client.updateCache(tableRef.getSchema().getName(), tableRef.getTable().getName().getString()));
+    }
+    
+    @Override
+    public PhoenixConnection getConnection() {
+        return connection;
+    }
+
+    @Override
+    public ParameterMetaData getParameterMetaData() {
+        return parameterMetaData;
+    }
+
+    @Override
+    public MutationState execute() {
+        return new MutationState(this, maxSize, connection);
+    }
+
+    @Override
+    public ExplainPlan getExplainPlan() throws SQLException {
+        return compile(connection).getExplainPlan();
+    }
+}
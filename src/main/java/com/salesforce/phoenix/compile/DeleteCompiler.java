@@ -62,6 +62,14 @@ public class DeleteCompiler {
     }
     
     public MutationPlan compile(DeleteStatement statement, List<Object> binds) throws SQLException {
+        return compile(statement, binds, false);
+    }
+    
+    /**
+     * @param isDeferred true if the statement is being compiled at commit time, after
+     *  its execution was deferred, in which case the rows are deleted on the server
+     */
+    private MutationPlan compile(final DeleteStatement statement, final List<Object> binds, boolean isDeferred) throws SQLException {
         boolean isAutoCommit = connection.getAutoCommit();
         ConnectionQueryServices services = connection.getQueryServices();
         final ColumnResolver resolver = FromCompiler.getResolver(statement, connection);
@@ -101,7 +109,15 @@ public class DeleteCompiler {
                     return connection;
                 }
             };
-        } else if (isAutoCommit) {
+        } else if (!isAutoCommit && !isDeferred && connection.isDeferServerMutations()) {
+            return new DeferredMutationPlan(connection, tableRef, context.getBindManager().getParameterMetaData(), maxSize) {
+
+                @Override
+                protected MutationPlan compile(PhoenixConnection connection) throws SQLException {
+                    return new DeleteCompiler(connection).compile(statement, binds, true);
+                }
+            };
+        } else if (isAutoCommit || isDeferred) {
             // Build an ungrouped aggregate query: select COUNT(*) from <table> where <where>
             // The coprocessor will delete each row returned from the scan
             List<AliasedParseNode> select = Collections.<AliasedParseNode>singletonList(
@@ -368,10 +368,11 @@ public class ExpressionCompiler extends UnsupportedAllParseNodeVisitor<Expressio
     @Override
     public Expression visit(ColumnParseNode node) throws SQLException {
         ColumnRef ref = resolveColumn(node);
+        Expression expression = ref.newColumnExpression();
         if (!SchemaUtil.isPKColumn(ref.getColumn())) { // project only kv columns
-            context.getScan().addColumn(ref.getColumn().getFamilyName().getBytes(), ref.getColumn().getName().getBytes());
+            KeyValueColumnExpression kvExpression = (KeyValueColumnExpression)expression;
+            context.getScan().addColumn(kvExpression.getColumnFamily(), kvExpression.getColumnName());
         }
-        Expression expression = ref.newColumnExpression();
         Expression wrappedExpression = wrapGroupByExpression(expression);
         // If we're in an aggregate expression
         // and we're not in the context of an aggregate function
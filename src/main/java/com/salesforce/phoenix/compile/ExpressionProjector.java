@@ -28,6 +28,7 @@
 package com.salesforce.phoenix.compile;
 
 
+import java.math.BigDecimal;
 import java.sql.SQLException;
 
 import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
@@ -35,6 +36,7 @@ import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
 import com.salesforce.phoenix.expression.Expression;
 import com.salesforce.phoenix.schema.PDataType;
 import com.salesforce.phoenix.schema.tuple.Tuple;
+import com.salesforce.phoenix.util.ByteUtil;
 
 
 
@@ -85,6 +87,67 @@ public class ExpressionProjector implements ColumnProjector {
         return type.toObject(ptr, expression.getDataType(), expression.getColumnModifier());
     }
 
+    @Override
+    public final long getLong(Tuple tuple, ImmutableBytesWritable ptr) throws SQLException {
+        Expression expression = getExpression();
+        PDataType type = expression.getDataType();
+        if (!isIntegral(type)) {
+            Long value = (Long)getValue(tuple, PDataType.LONG, ptr);
+            return value == null ? nullValue(ptr) : value;
+        }
+        if (!evaluate(expression, tuple, ptr)) {
+            return 0;
+        }
+        return type.getCodec().decodeLong(ptr, expression.getColumnModifier());
+    }
+
+    @Override
+    public final int getInt(Tuple tuple, ImmutableBytesWritable ptr) throws SQLException {
+        Expression expression = getExpression();
+        PDataType type = expression.getDataType();
+        if (!isIntegral(type)) {
+            Integer value = (Integer)getValue(tuple, PDataType.INTEGER, ptr);
+            return value == null ? nullValue(ptr) : value;
+        }
+        if (!evaluate(expression, tuple, ptr)) {
+            return 0;
+        }
+        return type.getCodec().decodeInt(ptr, expression.getColumnModifier());
+    }
+
+    @Override
+    public final double getDouble(Tuple tuple, ImmutableBytesWritable ptr) throws SQLException {
+        Expression expression = getExpression();
+        PDataType type = expression.getDataType();
+        if (!isIntegral(type)) {
+            BigDecimal value = (BigDecimal)getValue(tuple, PDataType.DECIMAL, ptr);
+            return value == null ? nullValue(ptr) : value.doubleValue();
+        }
+        if (!evaluate(expression, tuple, ptr)) {
+            return 0;
+        }
+        return type.getCodec().decodeLong(ptr, expression.getColumnModifier());
+    }
+
+    // Evaluates the expression, leaving ptr empty if the value is null
+    private static boolean evaluate(Expression expression, Tuple tuple, ImmutableBytesWritable ptr) {
+        if (!expression.evaluate(tuple, ptr)) {
+            ptr.set(ByteUtil.EMPTY_BYTE_ARRAY);
+            return false;
+        }
+        return ptr.getLength() != 0;
+    }
+
+    private static int nullValue(ImmutableBytesWritable ptr) {
+        ptr.set(ByteUtil.EMPTY_BYTE_ARRAY);
+        return 0;
+    }
+
+    // Types for which a codec decodes the value the same way toObject would
+    private static boolean isIntegral(PDataType type) {
+        return type == PDataType.LONG || type == PDataType.INTEGER || type == PDataType.UNSIGNED_LONG || type == PDataType.UNSIGNED_INT;
+    }
+
     @Override
     public boolean isCaseSensitive() {
         return isCaseSensitive;
@@ -35,6 +35,8 @@ import org.apache.hadoop.hbase.HConstants;
 import org.apache.hadoop.hbase.util.Pair;
 
 import com.google.common.collect.*;
+import com.salesforce.phoenix.exception.SQLExceptionCode;
+import com.salesforce.phoenix.exception.SQLExceptionInfo;
 import com.salesforce.phoenix.jdbc.PhoenixConnection;
 import com.salesforce.phoenix.parse.*;
 import com.salesforce.phoenix.query.QueryConstants;
@@ -129,6 +131,11 @@ public class FromCompiler {
 
             //If dynamic columns have been specified add them to the table declaration
             if(dynamicColumnDefs!=null && !dynamicColumnDefs.isEmpty()) {
+                // The fields of a packed key value are fixed by the table declaration
+                if (theTable.getStorageScheme() == StorageScheme.PACKED) {
+                    throw new SQLExceptionInfo.Builder(SQLExceptionCode.CANNOT_ALTER_PACKED_TABLE)
+                        .setSchemaName(schemaName).setTableName(tableName).build().buildException();
+                }
                 int ordinalPosition = theTable.getColumns().size();
                 List<PColumn> dynamicColumns = new ArrayList<PColumn>();
                 dynamicColumns.addAll(theTable.getColumns());
@@ -138,7 +145,7 @@ public class FromCompiler {
                 }
                 //redeclare the new tableImpl with the dynamicColumnDefs
                 theTable = new PTableImpl(theTable.getName(), theTable.getType(), theTable.getTimeStamp(),
-                        theTable.getSequenceNumber(), theTable.getPKName(), theTable.getBucketNum(), dynamicColumns);
+                        theTable.getSequenceNumber(), theTable.getPKName(), theTable.getBucketNum(), theTable.isColumnEncoded(), theTable.getColumnQualifierCounter(), theTable.getStorageScheme(), dynamicColumns);
             }
             TableRef tableRef = new TableRef(alias, theTable, theSchema, timeStamp);
             return tableRef;
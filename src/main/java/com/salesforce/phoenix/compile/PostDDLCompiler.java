@@ -125,10 +125,10 @@ public class PostDDLCompiler  {
                     } else {
                         PColumn column = deleteList.get(0);
                         if (emptyCF == null) {
-                            scan.addColumn(column.getFamilyName().getBytes(), column.getName().getBytes());
+                            scan.addColumn(column.getFamilyName().getBytes(), column.getQualifier());
                         }
                         scan.setAttribute(UngroupedAggregateRegionObserver.DELETE_CF, column.getFamilyName().getBytes());
-                        scan.setAttribute(UngroupedAggregateRegionObserver.DELETE_CQ, column.getName().getBytes());
+                        scan.setAttribute(UngroupedAggregateRegionObserver.DELETE_CQ, column.getQualifier());
                     }
                 }
                 RowProjector projector = ProjectionCompiler.getRowProjector(context, select, GroupBy.EMPTY_GROUP_BY, OrderBy.EMPTY_ORDER_BY, null);
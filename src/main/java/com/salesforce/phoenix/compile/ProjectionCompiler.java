@@ -35,6 +35,7 @@ import org.apache.hadoop.hbase.client.Scan;
 import org.apache.hadoop.hbase.filter.FirstKeyOnlyFilter;
 
 import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import com.salesforce.phoenix.compile.GroupByCompiler.GroupBy;
 import com.salesforce.phoenix.compile.OrderByCompiler.OrderBy;
@@ -42,6 +43,7 @@ import com.salesforce.phoenix.coprocessor.GroupedAggregateRegionObserver;
 import com.salesforce.phoenix.coprocessor.UngroupedAggregateRegionObserver;
 import com.salesforce.phoenix.expression.CoerceExpression;
 import com.salesforce.phoenix.expression.Expression;
+import com.salesforce.phoenix.expression.MemoizedExpression;
 import com.salesforce.phoenix.expression.aggregator.ClientAggregators;
 import com.salesforce.phoenix.expression.aggregator.ServerAggregators;
 import com.salesforce.phoenix.expression.function.CountAggregateFunction;
@@ -160,7 +162,7 @@ public class ProjectionCompiler {
         }
 
         selectVisitor.compile();
-        RowProjector projector = new RowProjector(projectedColumns);
+        RowProjector projector = new RowProjector(memoize(projectedColumns));
         boolean projectNotNull = true;
         if (context.isAggregate()) {
             if (groupBy.isEmpty()) {
@@ -192,6 +194,27 @@ public class ProjectionCompiler {
         return projector;
     }
         
+    /**
+     * Evaluates the subexpressions repeated across the projected columns once per row. Done once the
+     * projection has been compiled, since the expressions are matched against the GROUP BY and ORDER BY
+     * expressions by equality while compiling and memoizing them changes their equality.
+     */
+    private static List<ExpressionProjector> memoize(List<ExpressionProjector> projectedColumns) {
+        List<Expression> expressions = Lists.newArrayListWithExpectedSize(projectedColumns.size());
+        for (ExpressionProjector projectedColumn : projectedColumns) {
+            expressions.add(projectedColumn.getExpression());
+        }
+        expressions = MemoizedExpression.memoize(expressions);
+        List<ExpressionProjector> memoizedColumns = Lists.newArrayListWithExpectedSize(projectedColumns.size());
+        for (int i = 0; i < projectedColumns.size(); i++) {
+            ExpressionProjector projectedColumn = projectedColumns.get(i);
+            Expression expression = expressions.get(i);
+            memoizedColumns.add(expression == projectedColumn.getExpression() ? projectedColumn
+                    : new ExpressionProjector(projectedColumn.getName(), projectedColumn.getTableName(), expression, projectedColumn.isCaseSensitive()));
+        }
+        return memoizedColumns;
+    }
+        
     private static class SelectClauseVisitor extends ExpressionCompiler {
         private static int getMinNullableIndex(List<SingleAggregateFunction> aggFuncs, boolean isUngroupedAggregation) {
             int minNullableIndex = aggFuncs.size();
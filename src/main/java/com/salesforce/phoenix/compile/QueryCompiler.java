@@ -32,16 +32,20 @@ import java.sql.SQLFeatureNotSupportedException;
 import java.util.List;
 
 import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.filter.Filter;
+import org.apache.hadoop.hbase.filter.FirstKeyOnlyFilter;
 
 import com.salesforce.phoenix.compile.GroupByCompiler.GroupBy;
 import com.salesforce.phoenix.compile.OrderByCompiler.OrderBy;
-import com.salesforce.phoenix.execute.AggregatePlan;
-import com.salesforce.phoenix.execute.ScanPlan;
+import com.salesforce.phoenix.execute.*;
 import com.salesforce.phoenix.expression.Expression;
+import com.salesforce.phoenix.expression.RowKeyColumnExpression;
+import com.salesforce.phoenix.expression.aggregator.ClientAggregators;
+import com.salesforce.phoenix.expression.function.*;
 import com.salesforce.phoenix.jdbc.PhoenixConnection;
 import com.salesforce.phoenix.parse.RHSLiteralStatementRewriter;
 import com.salesforce.phoenix.parse.SelectStatement;
-import com.salesforce.phoenix.query.QueryConstants;
+import com.salesforce.phoenix.query.*;
 import com.salesforce.phoenix.schema.*;
 
 
@@ -54,13 +58,6 @@ import com.salesforce.phoenix.schema.*;
  * @since 0.1
  */
 public class QueryCompiler {
-    /* 
-     * Not using Scan.setLoadColumnFamiliesOnDemand(true) because we don't 
-     * want to introduce a dependency on 0.94.5 (where this feature was
-     * introduced). This will do the same thing. Once we do have a 
-     * dependency on 0.94.5 or above, switch this around.
-     */
-    private static final String LOAD_COLUMN_FAMILIES_ON_DEMAND_ATTR = "_ondemand_";
     private final PhoenixConnection connection;
     private final Scan scan;
     private final int maxRows;
@@ -83,7 +80,68 @@ public class QueryCompiler {
         this.maxRows = maxRows;
         this.scan = scan;
         this.targetColumns = targetDatums;
-        this.scan.setAttribute(LOAD_COLUMN_FAMILIES_ON_DEMAND_ATTR, QueryConstants.TRUE);
+    }
+
+    /**
+     * Determines whether the rows of a non aggregate query may be read through
+     * batched gets, which is the case when the WHERE clause fully qualifies a
+     * bounded number of row keys.
+     */
+    private boolean isPointLookup(StatementContext context) {
+        ScanRanges scanRanges = context.getScanRanges();
+        if (!scanRanges.isPointLookup()) {
+            return false;
+        }
+        int maxPointLookupKeys = connection.getQueryServices().getConfig().getInt(
+                QueryServices.MAX_POINT_LOOKUP_KEYS_ATTRIB, QueryServicesOptions.DEFAULT_MAX_POINT_LOOKUP_KEYS);
+        return scanRanges.getPointLookupCount() <= maxPointLookupKeys;
+    }
+
+    /**
+     * Determines whether an aggregate query may be answered by seeking to the first
+     * and last row of its key range, which is the case when only MIN and MAX of the
+     * first row key column not constrained to a single value are computed and the
+     * WHERE clause is fully expressed by a single contiguous key range.
+     */
+    private static boolean isRowKeyMinMax(StatementContext context, TableRef tableRef, GroupBy groupBy) {
+        PTable table = tableRef.getTable();
+        // Salted rows of a key range are spread across buckets and views have no empty key value to seek on
+        if (!groupBy.isEmpty() || table.getBucketNum() != null || table.getType() == PTableType.VIEW) {
+            return false;
+        }
+        Filter filter = context.getScan().getFilter();
+        if (filter != null && !(filter instanceof FirstKeyOnlyFilter)) {
+            return false;
+        }
+        ScanRanges scanRanges = context.getScanRanges();
+        if (scanRanges.isDegenerate() || scanRanges.useSkipScanFilter()) {
+            return false;
+        }
+        int position = 0;
+        for (List<KeyRange> orRanges : scanRanges.getRanges()) {
+            if (!orRanges.get(0).isSingleKey()) {
+                break;
+            }
+            position++;
+        }
+        // A null value would sort first, so we cannot tell the MIN from the first row
+        if (position >= table.getPKColumns().size() || table.getPKColumns().get(position).isNullable()) {
+            return false;
+        }
+        ClientAggregators aggregators = context.getAggregationManager().getAggregators();
+        if (aggregators == null) {
+            return false;
+        }
+        for (SingleAggregateFunction function : aggregators.getFunctions()) {
+            if (!(function instanceof MinAggregateFunction || function instanceof MaxAggregateFunction)) {
+                return false;
+            }
+            Expression expression = function.getAggregatorExpression();
+            if (!(expression instanceof RowKeyColumnExpression) || ((RowKeyColumnExpression)expression).getPosition() != position) {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -121,6 +179,9 @@ public class QueryCompiler {
         // Final step is to build the query plan
         TableRef table = resolver.getTables().get(0);
         if (context.isAggregate()) {
+            if (isRowKeyMinMax(context, table, groupBy)) {
+                return new RowKeyMinMaxPlan(context, table, projector, limit, having, orderBy, maxRows);
+            }
             return new AggregatePlan(context, table, projector, limit, groupBy, having, orderBy, maxRows);
         } else {
             if (maxRows > 0) {
@@ -130,6 +191,9 @@ public class QueryCompiler {
                     limit = maxRows;
                 }
             }
+            if (isPointLookup(context)) {
+                return new PointLookupPlan(context, table, projector, limit, orderBy);
+            }
             return new ScanPlan(context, table, projector, limit, orderBy);
         }
     }
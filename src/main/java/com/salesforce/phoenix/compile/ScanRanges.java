@@ -27,13 +27,15 @@
  ******************************************************************************/
 package com.salesforce.phoenix.compile;
 
-import java.util.Collections;
-import java.util.List;
+import java.util.*;
 
 import org.apache.hadoop.hbase.client.Scan;
 import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
+import org.apache.hadoop.hbase.util.Bytes;
 
+import com.google.common.collect.Lists;
 import com.salesforce.phoenix.query.KeyRange;
+import com.salesforce.phoenix.query.KeyRange.Bound;
 import com.salesforce.phoenix.schema.RowKeySchema;
 import com.salesforce.phoenix.schema.ValueBitSet;
 import com.salesforce.phoenix.util.ScanUtil;
@@ -115,6 +117,51 @@ public class ScanRanges {
         return isSingleKey;
     }
 
+    /**
+     * @return true if the ranges fully qualify a set of row keys, such that each
+     * row may be read directly instead of scanned for.
+     */
+    public boolean isPointLookup() {
+        if (!ScanUtil.isAllSingleRowScan(ranges, schema, true)) {
+            return false;
+        }
+        for (List<KeyRange> orRanges : ranges) {
+            for (KeyRange range : orRanges) {
+                // A null key part would terminate the key we form early
+                if (range.getLowerRange().length == 0) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the number of row keys formed by the cross product of the key ranges
+     * of each slot, capped at Integer.MAX_VALUE.
+     */
+    public int getPointLookupCount() {
+        return ScanUtil.getKeyCount(ranges);
+    }
+
+    /**
+     * Forms the row keys being looked up. Only valid if {@link #isPointLookup()} is true.
+     * @return the row keys in ascending order
+     */
+    public List<byte[]> getPointKeys() {
+        assert(isPointLookup());
+        List<byte[]> keys = Lists.newArrayListWithExpectedSize(getPointLookupCount());
+        int[] position = new int[ranges.size()];
+        byte[] key = new byte[ScanUtil.estimateMaximumKeyLength(schema, 0, ranges)];
+        do {
+            int length = ScanUtil.setKey(schema, ranges, position, Bound.LOWER, key, 0, 0, ranges.size());
+            keys.add(Arrays.copyOf(key, length));
+        } while (ScanUtil.incrementKey(ranges, position));
+        // Ranges of DESC columns may not be in ascending byte order, so sort explicitly.
+        Collections.sort(keys, Bytes.BYTES_COMPARATOR);
+        return keys;
+    }
+
     public void setScanStartStopRow(Scan scan) {
         if (isEverything()) {
             return;
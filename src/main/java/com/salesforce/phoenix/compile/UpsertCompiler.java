@@ -87,6 +87,14 @@ public class UpsertCompiler {
     }
     
     public MutationPlan compile(UpsertStatement upsert, List<Object> binds) throws SQLException {
+        return compile(upsert, binds, false);
+    }
+    
+    /**
+     * @param isDeferred true if the statement is being compiled at commit time, after
+     *  its execution was deferred, in which case the UPSERT SELECT is run on the server
+     */
+    private MutationPlan compile(final UpsertStatement upsert, final List<Object> binds, boolean isDeferred) throws SQLException {
         final PhoenixConnection connection = statement.getConnection();
         ConnectionQueryServices services = connection.getQueryServices();
         final int maxSize = services.getConfig().getInt(QueryServices.MAX_MUTATION_SIZE_ATTRIB,QueryServicesOptions.DEFAULT_MAX_MUTATION_SIZE);
@@ -176,18 +184,54 @@ public class UpsertCompiler {
                 .build().buildException();
         }
         
+        if (table.getStorageScheme() == StorageScheme.PACKED) {
+            // The packed key value of a column family is written whole, so the columns
+            // of the family that are not upserted would otherwise be set to null
+            BitSet columnsSet = new BitSet(allColumns.size());
+            for (int columnIndex : columnIndexesToBe) {
+                columnsSet.set(columnIndex);
+            }
+            for (PColumnFamily family : table.getColumnFamilies()) {
+                int nColumnsSet = 0;
+                for (PColumn column : family.getColumns()) {
+                    if (columnsSet.get(column.getPosition())) {
+                        nColumnsSet++;
+                    }
+                }
+                if (nColumnsSet > 0 && nColumnsSet < family.getColumns().size()) {
+                    throw new SQLExceptionInfo.Builder(SQLExceptionCode.PACKED_FAMILY_PARTIALLY_SET)
+                        .setTableName(table.getName().getString()).setFamilyName(family.getName().getString())
+                        .build().buildException();
+                }
+            }
+        }
+        
         final int[] columnIndexes = columnIndexesToBe;
         final int[] pkSlotIndexes = pkSlotIndexesToBe;
         if (valueNodes == null) { // UPSERT SELECT
             /* We can run the upsert in a coprocessor if:
-             * 1) the into table matches from table
+             * 1) the into table matches from table, since a region server may only write
+             *    through the region it scans without risking a deadlock between the handlers
+             *    of the region servers
              * 2) the select query isn't doing aggregation
-             * 3) autoCommit is on
+             * 3) autoCommit is on, or the connection defers server mutations until commit
+             * 4) the table does not pack its columns, since the packed key value of
+             *    a family must be written from all of the family's columns
              * Otherwise, run the query to pull the data from the server
              * and populate the MutationState (upto a limit).
             */
             final boolean isAutoCommit = connection.getAutoCommit();
-            if (isAutoCommit && !plan.isAggregate() && sameTable) { // UPSERT SELECT run server-side
+            boolean isDeferrable = !isAutoCommit && !isDeferred && connection.isDeferServerMutations();
+            if ((isAutoCommit || isDeferred || isDeferrable) && !plan.isAggregate() && sameTable && table.getStorageScheme() != StorageScheme.PACKED) { // UPSERT SELECT run server-side
+                if (isDeferrable) {
+                    return new DeferredMutationPlan(connection, tableRef, context.getBindManager().getParameterMetaData(), maxSize) {
+
+                        @Override
+                        protected MutationPlan compile(PhoenixConnection connection) throws SQLException {
+                            return new UpsertCompiler(new PhoenixStatement(connection)).compile(upsert, binds, true);
+                        }
+                    };
+                }
                 // At most this array will grow bigger my the number of PK columns
                 int[] allColumnsIndexes = Arrays.copyOf(columnIndexes, columnIndexes.length + nValuesToSet);
                 int[] reverseColumnIndexes = new int[table.getColumns().size()];
@@ -223,8 +267,8 @@ public class UpsertCompiler {
                     int tempPos = allColumnsIndexes[i];
                     allColumnsIndexes[i] = allColumnsIndexes[pos];
                     allColumnsIndexes[pos] = tempPos;
-                    reverseColumnIndexes[tempPos] = reverseColumnIndexes[i];
-                    reverseColumnIndexes[i] = i;
+                    reverseColumnIndexes[tempPos] = pos;
+                    reverseColumnIndexes[column.getPosition()] = i;
                 }
                 // Iterate through columns being projected
                 List<PColumn> projectedColumns = Lists.newArrayListWithExpectedSize(projectedExpressions.size());
@@ -234,7 +278,7 @@ public class UpsertCompiler {
                     projectedColumns.add(column.getPosition() == i ? column : new PColumnImpl(column, i));
                 }
                 // Build table from projectedColumns
-                PTable projectedTable = new PTableImpl(table.getName(), table.getType(), table.getTimeStamp(), table.getSequenceNumber(), table.getPKName(), table.getBucketNum(), projectedColumns);
+                PTable projectedTable = new PTableImpl(table.getName(), table.getType(), table.getTimeStamp(), table.getSequenceNumber(), table.getPKName(), table.getBucketNum(), table.isColumnEncoded(), table.getColumnQualifierCounter(), table.getStorageScheme(), projectedColumns);
                 
                 List<AliasedParseNode> select = Collections.<AliasedParseNode>singletonList(
                         NODE_FACTORY.aliasedNode(null, 
@@ -115,10 +115,14 @@ public class WhereCompiler {
             PTable table = ref.getTable();
             // Track if we need to compare KeyValue during filter evaluation
             // using column family. If the column qualifier is enough, we
-            // just use that.
+            // just use that. With packed storage, every column family uses
+            // the same column qualifier.
             try {
                 if (!SchemaUtil.isPKColumn(ref.getColumn())) {
                     table.getColumn(ref.getColumn().getName().getString());
+                    if (table.getStorageScheme() == StorageScheme.PACKED) {
+                        disambiguateWithFamily = true;
+                    }
                 }
             } catch (AmbiguousColumnException e) {
                 disambiguateWithFamily = true;
@@ -201,6 +205,10 @@ public class WhereCompiler {
         }
 
         scan.setFilter(filter);
+        // Let the region server read only the column families the filter declares essential,
+        // fetching the other projected families just for the rows that pass it. Without a
+        // filter over the where clause, there's nothing to decide which families are essential.
+        scan.setLoadColumnFamiliesOnDemand(filter != null);
         ScanRanges scanRanges = context.getScanRanges();
         boolean forcedSkipScan = hints == null ? false : hints.hasHint(HintNode.FORCE_SKIP_SCAN_ON_SELECT);
         boolean forcedRangeScan = hints == null ? false : hints.hasHint(HintNode.FORCE_RANGE_SCAN_ON_SELECT);
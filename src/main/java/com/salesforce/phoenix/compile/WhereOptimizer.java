@@ -38,7 +38,7 @@ import com.salesforce.phoenix.expression.*;
 import com.salesforce.phoenix.expression.function.ScalarFunction;
 import com.salesforce.phoenix.expression.visitor.TraverseNoExpressionVisitor;
 import com.salesforce.phoenix.parse.HintNode;
-import com.salesforce.phoenix.query.KeyRange;
+import com.salesforce.phoenix.query.*;
 import com.salesforce.phoenix.schema.*;
 import com.salesforce.phoenix.util.*;
 
@@ -151,7 +151,13 @@ public class WhereOptimizer {
         }
         ScanRanges range;
         if (table.getBucketNum() != null) {
-            if (ScanUtil.isAllSingleRowScan(cnf, table.getRowKeySchema(), false)) {
+            // Only materialize the salted point keys when there are few enough of them. Otherwise,
+            // lead with a slot for every salt bucket so that the skip scan enumerates the cross
+            // product of the slots lazily as it navigates.
+            int maxExpandedKeys = context.getConnection().getQueryServices().getConfig().getInt(
+                    QueryServices.MAX_POINT_LOOKUP_KEYS_ATTRIB, QueryServicesOptions.DEFAULT_MAX_POINT_LOOKUP_KEYS);
+            if (ScanUtil.isAllSingleRowScan(cnf, table.getRowKeySchema(), false)
+                    && ScanUtil.getKeyCount(cnf) <= maxExpandedKeys) {
                 List<List<KeyRange>> expandedRanges = SaltingUtil.expandScanRangesToSaltedKeyRange(
                         cnf, table.getRowKeySchema(), table.getBucketNum());
                 range = ScanRanges.create(expandedRanges, SaltingUtil.BINARY_SCHEMA);
@@ -45,8 +45,10 @@ import org.slf4j.LoggerFactory;
 
 import com.salesforce.phoenix.cache.GlobalCache;
 import com.salesforce.phoenix.cache.TenantCache;
+import com.salesforce.phoenix.expression.BaseExpression;
 import com.salesforce.phoenix.expression.Expression;
 import com.salesforce.phoenix.expression.ExpressionType;
+import com.salesforce.phoenix.expression.MemoizedExpression;
 import com.salesforce.phoenix.expression.aggregator.Aggregator;
 import com.salesforce.phoenix.expression.aggregator.ServerAggregators;
 import com.salesforce.phoenix.memory.MemoryManager.MemoryChunk;
@@ -70,9 +72,13 @@ public class GroupedAggregateRegionObserver extends BaseScannerRegionObserver {
     public static final String UNORDERED_GROUP_BY_EXPRESSIONS = "UnorderedGroupByExpressions";
     public static final String KEY_ORDERED_GROUP_BY_EXPRESSIONS = "OrderedGroupByExpressions";
 
+    // Set when the client merges the groups by hash, in which case they needn't be sorted
+    public static final String UNSORTED_GROUPS = "UnsortedGroups";
     public static final String ESTIMATED_DISTINCT_VALUES = "EstDistinctValues";
     public static final int DEFAULT_ESTIMATED_DISTINCT_VALUES = 10000;
     public static final int MIN_DISTINCT_VALUES = 100;
+    // Initial size of the buffer into which a group by key of more than one expression is built
+    private static final int ESTIMATED_GROUP_BY_KEY_SIZE = 64;
     
 
     /**
@@ -104,9 +110,9 @@ public class GroupedAggregateRegionObserver extends BaseScannerRegionObserver {
             }
             keyOrdered = true;
         }
-        List<Expression> expressions = deserializeGroupByExpressions(expressionBytes);
+        List<Expression> expressions = MemoizedExpression.memoize(GROUP_BY_EXPRESSIONS_CACHE.get(expressionBytes));
         
-        ServerAggregators aggregators = ServerAggregators.deserialize(scan.getAttribute(GroupedAggregateRegionObserver.AGGREGATORS));
+        ServerAggregators aggregators = AGGREGATORS_CACHE.get(scan.getAttribute(AGGREGATORS));
         if (keyOrdered) { // Optimize by taking advantage that the rows are already in the required group by key order
             return scanOrdered(c, scan, s, expressions, aggregators);
         } else { // Otherwse, collect them all up and sort them at the end
@@ -118,7 +124,37 @@ public class GroupedAggregateRegionObserver extends BaseScannerRegionObserver {
         return SizedUtil.sizeOfMap(nRows, SizedUtil.IMMUTABLE_BYTES_WRITABLE_SIZE, valueSize);
     }
 
-    private List<Expression> deserializeGroupByExpressions(byte[] expressionBytes) throws IOException {
+    // The aggregators and group by expressions are deserialized once per region server
+    // for all the scans of a query, with each scan aggregating with its own copy of them.
+    static final ScanAttributeCache<ServerAggregators> AGGREGATORS_CACHE = new ScanAttributeCache<ServerAggregators>() {
+        @Override
+        protected ServerAggregators deserialize(byte[] b) {
+            return ServerAggregators.deserialize(b);
+        }
+        
+        @Override
+        protected ServerAggregators copy(ServerAggregators aggregators) {
+            return aggregators.copy();
+        }
+    };
+    
+    private static final ScanAttributeCache<List<Expression>> GROUP_BY_EXPRESSIONS_CACHE = new ScanAttributeCache<List<Expression>>() {
+        @Override
+        protected List<Expression> deserialize(byte[] b) {
+            try {
+                return deserializeGroupByExpressions(b);
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        
+        @Override
+        protected List<Expression> copy(List<Expression> expressions) {
+            return BaseExpression.copy(expressions);
+        }
+    };
+    
+    private static List<Expression> deserializeGroupByExpressions(byte[] expressionBytes) throws IOException {
         List<Expression> expressions = new ArrayList<Expression>(3);
         ByteArrayInputStream stream = new ByteArrayInputStream(expressionBytes);
         try {
@@ -126,7 +162,7 @@ public class GroupedAggregateRegionObserver extends BaseScannerRegionObserver {
             while (true) {
                 try {
                     int expressionOrdinal = WritableUtils.readVInt(input);
-                    Expression expression = ExpressionType.values()[expressionOrdinal].newInstance();
+                    Expression expression = ExpressionType.fromValue(expressionOrdinal).newInstance();
                     expression.readFields(input);
                     expressions.add(expression);
                 } catch (EOFException e) {
@@ -139,8 +175,16 @@ public class GroupedAggregateRegionObserver extends BaseScannerRegionObserver {
         return expressions;
     }
     
-    private ImmutableBytesWritable getKey(List<Expression> expressions, Tuple result) throws IOException {
-        ImmutableBytesWritable groupByValue = new ImmutableBytesWritable(ByteUtil.EMPTY_BYTE_ARRAY);
+    /**
+     * Evaluates the group by key of a row. To keep the per row work free of allocations, the key is
+     * evaluated into buffers owned by the caller and reused for the next row, so it must be copied
+     * before it's held onto.
+     * @param groupByValue set to the key
+     * @param output buffer into which the key is concatenated when grouping by more than one expression
+     * @return groupByValue
+     */
+    // package private for GroupByKeyBenchmark
+    static ImmutableBytesWritable getKey(List<Expression> expressions, Tuple result, ImmutableBytesWritable groupByValue, TrustedByteArrayOutputStream output) throws IOException {
         Expression expression = expressions.get(0);
         boolean evaluated = expression.evaluate(result, groupByValue);
         
@@ -150,31 +194,27 @@ public class GroupedAggregateRegionObserver extends BaseScannerRegionObserver {
             }
             return groupByValue;
         } else {
-            TrustedByteArrayOutputStream output = new TrustedByteArrayOutputStream(groupByValue.getLength() * expressions.size());
-            try {
-                if (evaluated) {
-                    output.write(groupByValue.get(), groupByValue.getOffset(), groupByValue.getLength());
+            output.reset();
+            if (evaluated) {
+                output.write(groupByValue.get(), groupByValue.getOffset(), groupByValue.getLength());
+            }
+            for (int i = 1; i < expressions.size(); i++) {
+                if (!expression.getDataType().isFixedWidth()) {
+                    output.write(QueryConstants.SEPARATOR_BYTE);
                 }
-                for (int i = 1; i < expressions.size(); i++) {
-                    if (!expression.getDataType().isFixedWidth()) {
-                        output.write(QueryConstants.SEPARATOR_BYTE);
-                    }
-                    expression = expressions.get(i);
-                    // TODO: should we track trailing null values and ommit the separator bytes?
-                    if (expression.evaluate(result, groupByValue)) {
-                        output.write(groupByValue.get(), groupByValue.getOffset(), groupByValue.getLength());
-                    } else if (i < expressions.size()-1 && expression.getDataType().isFixedWidth()) {
-                        // This should never happen, because any non terminating nullable fixed width type (i.e. INT or LONG) is
-                        // converted to a variable length type (i.e. DECIMAL) to allow an empty byte array to represent null.
-                        throw new DoNotRetryIOException("Non terminating null value found for fixed width GROUP BY expression (" + expression + ") in row: " + result);
-                    }
+                expression = expressions.get(i);
+                // TODO: should we track trailing null values and ommit the separator bytes?
+                if (expression.evaluate(result, groupByValue)) {
+                    output.write(groupByValue.get(), groupByValue.getOffset(), groupByValue.getLength());
+                } else if (i < expressions.size()-1 && expression.getDataType().isFixedWidth()) {
+                    // This should never happen, because any non terminating nullable fixed width type (i.e. INT or LONG) is
+                    // converted to a variable length type (i.e. DECIMAL) to allow an empty byte array to represent null.
+                    throw new DoNotRetryIOException("Non terminating null value found for fixed width GROUP BY expression (" + expression + ") in row: " + result);
                 }
-                byte[] outputBytes = output.getBuffer();
-                groupByValue.set(outputBytes, 0, output.size());
-                return groupByValue;
-            } finally {
-                output.close();
             }
+            byte[] outputBytes = output.getBuffer();
+            groupByValue.set(outputBytes, 0, output.size());
+            return groupByValue;
         }
     }
     
@@ -203,22 +243,27 @@ public class GroupedAggregateRegionObserver extends BaseScannerRegionObserver {
             boolean hasMore;
             int estValueSize = aggregators.getSize();
             MultiKeyValueTuple result = new MultiKeyValueTuple();
+            List<KeyValue> results = new ArrayList<KeyValue>();
+            ImmutableBytesWritable groupByValue = new ImmutableBytesWritable();
+            TrustedByteArrayOutputStream output = new TrustedByteArrayOutputStream(ESTIMATED_GROUP_BY_KEY_SIZE);
             Map<ImmutableBytesWritable, Aggregator[]> aggregateMap = new HashMap<ImmutableBytesWritable, Aggregator[]>(estDistVals);
             HRegion region = c.getEnvironment().getRegion();
             MultiVersionConsistencyControl.setThreadReadPoint(s.getMvccReadPoint());
             region.startRegionOperation();
             try {
                 do {
-                    List<KeyValue> results = new ArrayList<KeyValue>();
+                    results.clear();
                     // Results are potentially returned even when the return value of s.next is false
                     // since this is an indication of whether or not there are more values after the
                     // ones returned
                     hasMore = s.nextRaw(results, null) && !s.isFilterDone();
                     if (!results.isEmpty()) {
                         result.setKeyValues(results);
-                        ImmutableBytesWritable key = getKey(expressions, result);
+                        ImmutableBytesWritable key = getKey(expressions, result, groupByValue, output);
                         Aggregator[] rowAggregators = aggregateMap.get(key);
                         if (rowAggregators == null) {
+                            // Copy the key, since its buffers are reused for the next row
+                            key = new ImmutableBytesWritable(key.copyBytes());
                             // If Aggregators not found for this distinct value, clone our original one (we need one per distinct value)
                             if (logger.isDebugEnabled()) {
                                 logger.debug("Adding new aggregate bucket for row key " + Bytes.toStringBinary(key.get(),key.getOffset(),key.getLength()));
@@ -262,7 +307,9 @@ public class GroupedAggregateRegionObserver extends BaseScannerRegionObserver {
                 KeyValue keyValue = KeyValueUtil.newKeyValue(key.get(),key.getOffset(), key.getLength(),SINGLE_COLUMN_FAMILY, SINGLE_COLUMN, AGG_TIMESTAMP, value, 0, value.length);
                 aggResults.add(keyValue);
             }
-            Collections.sort(aggResults, KeyValue.COMPARATOR);
+            if (scan.getAttribute(UNSORTED_GROUPS) == null) {
+                Collections.sort(aggResults, KeyValue.COMPARATOR);
+            }
             RegionScanner scanner = new BaseRegionScanner() {
                 private int index = 0;
     
@@ -307,6 +354,11 @@ public class GroupedAggregateRegionObserver extends BaseScannerRegionObserver {
         }
         return new BaseRegionScanner() {
             private ImmutableBytesWritable currentKey = null;
+            // Reused across rows and calls to next
+            private final MultiKeyValueTuple result = new MultiKeyValueTuple();
+            private final List<KeyValue> kvs = new ArrayList<KeyValue>();
+            private final ImmutableBytesWritable groupByValue = new ImmutableBytesWritable();
+            private final TrustedByteArrayOutputStream output = new TrustedByteArrayOutputStream(ESTIMATED_GROUP_BY_KEY_SIZE);
 
             @Override
             public HRegionInfo getRegionInfo() {
@@ -322,7 +374,6 @@ public class GroupedAggregateRegionObserver extends BaseScannerRegionObserver {
             public boolean next(List<KeyValue> results) throws IOException {
                 boolean hasMore;
                 boolean aggBoundary = false;
-                MultiKeyValueTuple result = new MultiKeyValueTuple();
                 ImmutableBytesWritable key = null;
                 Aggregator[] rowAggregators = aggregators.getAggregators();
                 HRegion region = c.getEnvironment().getRegion();
@@ -330,21 +381,24 @@ public class GroupedAggregateRegionObserver extends BaseScannerRegionObserver {
                 region.startRegionOperation();
                 try {
                     do {
-                        List<KeyValue> kvs = new ArrayList<KeyValue>();
+                        kvs.clear();
                         // Results are potentially returned even when the return value of s.next is false
                         // since this is an indication of whether or not there are more values after the
                         // ones returned
                         hasMore = s.nextRaw(kvs, null) && !s.isFilterDone();
                         if (!kvs.isEmpty()) {
                             result.setKeyValues(kvs);
-                            key = getKey(expressions, result);
+                            key = getKey(expressions, result, groupByValue, output);
                             aggBoundary = currentKey != null && currentKey.compareTo(key) != 0;
                             if (!aggBoundary) {
                                 aggregators.aggregate(rowAggregators, result);
                                 if (logger.isDebugEnabled()) {
                                     logger.debug("Row passed filters: " + kvs + ", aggregated values: " + Arrays.asList(rowAggregators));
                                 }
-                                currentKey = key;
+                                // Only copy the key when a group starts, since its buffers are reused for the next row
+                                if (currentKey == null) {
+                                    currentKey = new ImmutableBytesWritable(key.copyBytes());
+                                }
                             }
                         }
                     } while (hasMore && !aggBoundary);
@@ -364,7 +418,7 @@ public class GroupedAggregateRegionObserver extends BaseScannerRegionObserver {
                     if (aggBoundary) {
                         aggregators.reset(rowAggregators);
                         aggregators.aggregate(rowAggregators, result);
-                        currentKey = key;
+                        currentKey = new ImmutableBytesWritable(key.copyBytes());
                     }
                 }
                 // Continue if there are more
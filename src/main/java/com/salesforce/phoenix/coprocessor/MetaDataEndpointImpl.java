@@ -98,12 +98,18 @@ public class MetaDataEndpointImpl extends BaseEndpointCoprocessor implements Met
     private static final KeyValue COLUMN_COUNT_KV = KeyValue.createFirstOnRow(ByteUtil.EMPTY_BYTE_ARRAY, TABLE_FAMILY_BYTES, COLUMN_COUNT_BYTES);
     private static final KeyValue SALT_BUCKETS_KV = KeyValue.createFirstOnRow(ByteUtil.EMPTY_BYTE_ARRAY, TABLE_FAMILY_BYTES, SALT_BUCKETS_BYTES);
     private static final KeyValue PK_NAME_KV = KeyValue.createFirstOnRow(ByteUtil.EMPTY_BYTE_ARRAY, TABLE_FAMILY_BYTES, PK_NAME_BYTES);
+    private static final KeyValue COLUMN_ENCODED_KV = KeyValue.createFirstOnRow(ByteUtil.EMPTY_BYTE_ARRAY, TABLE_FAMILY_BYTES, COLUMN_ENCODED_BYTES);
+    private static final KeyValue COLUMN_QUALIFIER_COUNTER_KV = KeyValue.createFirstOnRow(ByteUtil.EMPTY_BYTE_ARRAY, TABLE_FAMILY_BYTES, COLUMN_QUALIFIER_COUNTER_BYTES);
+    private static final KeyValue STORAGE_SCHEME_KV = KeyValue.createFirstOnRow(ByteUtil.EMPTY_BYTE_ARRAY, TABLE_FAMILY_BYTES, STORAGE_SCHEME_BYTES);
     private static final List<KeyValue> TABLE_KV_COLUMNS = Arrays.<KeyValue>asList(
             TABLE_TYPE_KV,
             TABLE_SEQ_NUM_KV,
             COLUMN_COUNT_KV,
             SALT_BUCKETS_KV,
-            PK_NAME_KV
+            PK_NAME_KV,
+            COLUMN_ENCODED_KV,
+            COLUMN_QUALIFIER_COUNTER_KV,
+            STORAGE_SCHEME_KV
             );
     static {
         Collections.sort(TABLE_KV_COLUMNS, KeyValue.COMPARATOR);
@@ -113,6 +119,9 @@ public class MetaDataEndpointImpl extends BaseEndpointCoprocessor implements Met
     private static final int COLUMN_COUNT_INDEX = TABLE_KV_COLUMNS.indexOf(COLUMN_COUNT_KV);
     private static final int SALT_BUCKETS_INDEX = TABLE_KV_COLUMNS.indexOf(SALT_BUCKETS_KV);
     private static final int PK_NAME_INDEX = TABLE_KV_COLUMNS.indexOf(PK_NAME_KV);
+    private static final int COLUMN_ENCODED_INDEX = TABLE_KV_COLUMNS.indexOf(COLUMN_ENCODED_KV);
+    private static final int COLUMN_QUALIFIER_COUNTER_INDEX = TABLE_KV_COLUMNS.indexOf(COLUMN_QUALIFIER_COUNTER_KV);
+    private static final int STORAGE_SCHEME_INDEX = TABLE_KV_COLUMNS.indexOf(STORAGE_SCHEME_KV);
     
     // KeyValues for Column
     private static final KeyValue DECIMAL_DIGITS_KV = KeyValue.createFirstOnRow(ByteUtil.EMPTY_BYTE_ARRAY, TABLE_FAMILY_BYTES, Bytes.toBytes(DECIMAL_DIGITS));
@@ -121,13 +130,15 @@ public class MetaDataEndpointImpl extends BaseEndpointCoprocessor implements Met
     private static final KeyValue DATA_TYPE_KV = KeyValue.createFirstOnRow(ByteUtil.EMPTY_BYTE_ARRAY, TABLE_FAMILY_BYTES, Bytes.toBytes(DATA_TYPE));
     private static final KeyValue ORDINAL_POSITION_KV = KeyValue.createFirstOnRow(ByteUtil.EMPTY_BYTE_ARRAY, TABLE_FAMILY_BYTES, Bytes.toBytes(ORDINAL_POSITION));
     private static final KeyValue COLUMN_MODIFIER_KV = KeyValue.createFirstOnRow(ByteUtil.EMPTY_BYTE_ARRAY, TABLE_FAMILY_BYTES, Bytes.toBytes(COLUMN_MODIFIER));
+    private static final KeyValue COLUMN_QUALIFIER_KV = KeyValue.createFirstOnRow(ByteUtil.EMPTY_BYTE_ARRAY, TABLE_FAMILY_BYTES, Bytes.toBytes(COLUMN_QUALIFIER));
     private static final List<KeyValue> COLUMN_KV_COLUMNS = Arrays.<KeyValue>asList(
             DECIMAL_DIGITS_KV,
             COLUMN_SIZE_KV,
             NULLABLE_KV,
             DATA_TYPE_KV,
             ORDINAL_POSITION_KV,
-            COLUMN_MODIFIER_KV
+            COLUMN_MODIFIER_KV,
+            COLUMN_QUALIFIER_KV
             );
     static {
         Collections.sort(COLUMN_KV_COLUMNS, KeyValue.COMPARATOR);
@@ -138,6 +149,7 @@ public class MetaDataEndpointImpl extends BaseEndpointCoprocessor implements Met
     private static final int SQL_DATA_TYPE_INDEX = COLUMN_KV_COLUMNS.indexOf(DATA_TYPE_KV);
     private static final int ORDINAL_POSITION_INDEX = COLUMN_KV_COLUMNS.indexOf(ORDINAL_POSITION_KV);
     private static final int COLUMN_MODIFIER_INDEX = COLUMN_KV_COLUMNS.indexOf(COLUMN_MODIFIER_KV);
+    private static final int COLUMN_QUALIFIER_INDEX = COLUMN_KV_COLUMNS.indexOf(COLUMN_QUALIFIER_KV);
 
     private static PName newPName(byte[] keyBuffer, int keyOffset, int keyLength) {
         if (keyLength == 0) {
@@ -209,6 +221,12 @@ public class MetaDataEndpointImpl extends BaseEndpointCoprocessor implements Met
         String pkName = pkNameKv != null ? (String)PDataType.VARCHAR.toObject(pkNameKv.getBuffer(), pkNameKv.getValueOffset(), pkNameKv.getValueLength()) : null;
         KeyValue saltBucketNumKv = tableKeyValues[SALT_BUCKETS_INDEX];
         Integer saltBucketNum = saltBucketNumKv != null ? (Integer)PDataType.INTEGER.getCodec().decodeInt(saltBucketNumKv.getBuffer(), saltBucketNumKv.getValueOffset(), null) : null;
+        KeyValue columnEncodedKv = tableKeyValues[COLUMN_ENCODED_INDEX];
+        boolean isColumnEncoded = columnEncodedKv != null && Boolean.TRUE.equals(PDataType.BOOLEAN.toObject(columnEncodedKv.getBuffer(), columnEncodedKv.getValueOffset(), columnEncodedKv.getValueLength()));
+        KeyValue columnQualifierCounterKv = tableKeyValues[COLUMN_QUALIFIER_COUNTER_INDEX];
+        Integer columnQualifierCounter = columnQualifierCounterKv == null ? null : PDataType.INTEGER.getCodec().decodeInt(columnQualifierCounterKv.getBuffer(), columnQualifierCounterKv.getValueOffset(), null);
+        KeyValue storageSchemeKv = tableKeyValues[STORAGE_SCHEME_INDEX];
+        StorageScheme storageScheme = storageSchemeKv == null ? StorageScheme.COLUMNS : StorageScheme.fromSerializedValue(PDataType.INTEGER.getCodec().decodeInt(storageSchemeKv.getBuffer(), storageSchemeKv.getValueOffset(), null));
         
         List<PColumn> columns = Lists.newArrayListWithExpectedSize(columnCount);
         while (true) {
@@ -253,11 +271,13 @@ public class MetaDataEndpointImpl extends BaseEndpointCoprocessor implements Met
             PDataType dataType = PDataType.fromSqlType(PDataType.INTEGER.getCodec().decodeInt(sqlDataTypeKv.getBuffer(), sqlDataTypeKv.getValueOffset(), null));
             KeyValue columnModifierKv = colKeyValues[COLUMN_MODIFIER_INDEX];
             ColumnModifier sortOrder = columnModifierKv == null ? null : ColumnModifier.fromSystemValue(PDataType.INTEGER.getCodec().decodeInt(columnModifierKv.getBuffer(), columnModifierKv.getValueOffset(), null));
-            PColumn column = new PColumnImpl(colName, famName, dataType, maxLength, scale, isNullable, position-1, sortOrder);
+            KeyValue columnQualifierKv = colKeyValues[COLUMN_QUALIFIER_INDEX];
+            Integer encodedQualifier = columnQualifierKv == null ? null : PDataType.INTEGER.getCodec().decodeInt(columnQualifierKv.getBuffer(), columnQualifierKv.getValueOffset(), null);
+            PColumn column = new PColumnImpl(colName, famName, dataType, maxLength, scale, isNullable, position-1, sortOrder, encodedQualifier);
             columns.add(column);
         }
         
-        return new PTableImpl(tableName, tableType, timeStamp, tableSeqNum, pkName, saltBucketNum, columns);
+        return new PTableImpl(tableName, tableType, timeStamp, tableSeqNum, pkName, saltBucketNum, isColumnEncoded, columnQualifierCounter, storageScheme, columns);
     }
     
     private PTable buildDeletedTable(byte[] key, ImmutableBytesPtr cacheKey, HRegion region, long clientTimeStamp) throws IOException {
@@ -0,0 +1,78 @@
+/*******************************************************************************
+ * Copyright (c) 2013, Salesforce.com, Inc.
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     Redistributions of source code must retain the above copyright notice,
+ *     this list of conditions and the following disclaimer.
+ *     Redistributions in binary form must reproduce the above copyright notice,
+ *     this list of conditions and the following disclaimer in the documentation
+ *     and/or other materials provided with the distribution.
+ *     Neither the name of Salesforce.com nor the names of its contributors may 
+ *     be used to endorse or promote products derived from this software without 
+ *     specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE 
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL 
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR 
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER 
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, 
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE 
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package com.salesforce.phoenix.coprocessor;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.salesforce.phoenix.util.ImmutableBytesPtr;
+
+/**
+ * 
+ * Region server wide cache of an object deserialized from a scan attribute, keyed
+ * by the serialized bytes. Every region scanned by a query is sent the same
+ * attribute, so the scans of a query, and of later runs of the same query, share
+ * one deserialized instance instead of each parsing their own. The cached instance
+ * is shared by concurrent scans, so objects that are modified while scanning, such
+ * as expressions and aggregators, must override {@link #copy(Object)} to hand each
+ * scan its own copy of their state.
+ *
+ * @author jtaylor
+ * @since 1.2
+ */
+abstract class ScanAttributeCache<T> {
+    private static final int MAX_CACHED_ATTRIBUTES = 1000;
+    private final Cache<ImmutableBytesPtr,T> cache = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_ATTRIBUTES)
+            .build();
+    
+    /**
+     * Deserializes the attribute value on a cache miss
+     */
+    protected abstract T deserialize(byte[] b);
+    
+    /**
+     * Copies the cached instance for a scan to use. By default, the
+     * cached instance itself is returned.
+     */
+    protected T copy(T value) {
+        return value;
+    }
+    
+    public T get(byte[] b) {
+        if (b == null) {
+            return deserialize(b);
+        }
+        ImmutableBytesPtr key = new ImmutableBytesPtr(b);
+        T value = cache.getIfPresent(key);
+        if (value == null) {
+            value = deserialize(b);
+            cache.put(key, value);
+        }
+        return copy(value);
+    }
+}
@@ -27,7 +27,9 @@
  ******************************************************************************/
 package com.salesforce.phoenix.coprocessor;
 
-import java.io.IOException;
+import static com.salesforce.phoenix.query.QueryConstants.*;
+
+import java.io.*;
 import java.util.List;
 
 import org.apache.hadoop.hbase.HRegionInfo;
@@ -35,10 +37,16 @@ import org.apache.hadoop.hbase.KeyValue;
 import org.apache.hadoop.hbase.client.Scan;
 import org.apache.hadoop.hbase.coprocessor.ObserverContext;
 import org.apache.hadoop.hbase.coprocessor.RegionCoprocessorEnvironment;
+import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
 import org.apache.hadoop.hbase.regionserver.RegionScanner;
 import org.apache.hadoop.hbase.util.Bytes;
 
-import com.salesforce.phoenix.schema.PDataType;
+import com.salesforce.phoenix.expression.Expression;
+import com.salesforce.phoenix.expression.MemoizedExpression;
+import com.salesforce.phoenix.expression.ProjectedColumnExpression;
+import com.salesforce.phoenix.schema.*;
+import com.salesforce.phoenix.schema.tuple.MultiKeyValueTuple;
+import com.salesforce.phoenix.util.KeyValueUtil;
 import com.salesforce.phoenix.util.ServerUtil;
 
 
@@ -48,16 +56,27 @@ import com.salesforce.phoenix.util.ServerUtil;
  * if a Phoenix bug is encountered from our custom filter expression evaluation.
  * Unfortunately, until HBASE-7481 gets fixed, there's no way to do this from our
  * custom filters.
+ * 
+ * If the select expressions of the query are serialized into the scan, they are
+ * evaluated here instead of on the client and each row is returned as a single
+ * cell holding their values packed according to {@link ProjectedColumnExpression#newSchema(List)}.
  *
  * @author jtaylor
  * @since 0.1
  */
 public class ScanRegionObserver extends BaseScannerRegionObserver {
     public static final String NON_AGGREGATE_QUERY = "NonAggregateQuery";
+    public static final String PROJECTED_EXPRESSIONS = "ProjectedExprs";
+    public static final String PROJECTED_SCHEMA = "ProjectedSchema";
 
     @Override
     protected RegionScanner doPostScannerOpen(final ObserverContext<RegionCoprocessorEnvironment> c, Scan scan,
             final RegionScanner s) throws IOException {
+        byte[] projectedExpressions = scan.getAttribute(PROJECTED_EXPRESSIONS);
+        if (projectedExpressions != null) {
+            KeyValueSchema schema = SCHEMA_CACHE.get(scan.getAttribute(PROJECTED_SCHEMA));
+            return getProjectingScanner(c, s, MemoizedExpression.memoize(UngroupedAggregateRegionObserver.EXPRESSIONS_CACHE.get(projectedExpressions)), schema);
+        }
         byte[] isScanQuery = scan.getAttribute(NON_AGGREGATE_QUERY);
 
         if (isScanQuery == null || Bytes.compareTo(PDataType.TRUE_BYTES, isScanQuery) == 0) {
@@ -158,4 +177,129 @@ public class ScanRegionObserver extends BaseScannerRegionObserver {
         };
     }
 
+    /**
+     * Return wrapped scanner that replaces the key values of each row with a single
+     * key value containing the packed values of the projected expressions.
+     */
+    private static RegionScanner getProjectingScanner(final ObserverContext<RegionCoprocessorEnvironment> c, final RegionScanner s,
+            List<Expression> projectedExpressions, final KeyValueSchema schema) {
+        final Expression[] expressions = projectedExpressions.toArray(new Expression[projectedExpressions.size()]);
+        final ValueBitSet valueSet = ValueBitSet.newInstance(schema);
+        final ImmutableBytesWritable ptr = new ImmutableBytesWritable();
+        final MultiKeyValueTuple tuple = new MultiKeyValueTuple();
+        return new BaseRegionScanner() {
+
+            private void project(List<KeyValue> results, int offset) {
+                if (results.size() == offset) {
+                    return;
+                }
+                List<KeyValue> row = results.subList(offset, results.size());
+                tuple.setKeyValues(row);
+                byte[] value = schema.toBytes(tuple, expressions, valueSet, ptr);
+                KeyValue first = row.get(0);
+                KeyValue keyValue = KeyValueUtil.newKeyValue(first.getBuffer(), first.getRowOffset(), first.getRowLength(), SINGLE_COLUMN_FAMILY, SINGLE_COLUMN, AGG_TIMESTAMP, value, 0, value.length);
+                row.clear();
+                results.add(keyValue);
+            }
+
+            @Override
+            public boolean next(List<KeyValue> results) throws IOException {
+                try {
+                    int offset = results.size();
+                    boolean hasMore = s.next(results);
+                    project(results, offset);
+                    return hasMore;
+                } catch (Throwable t) {
+                    ServerUtil.throwIOException(c.getEnvironment().getRegion().getRegionNameAsString(), t);
+                    return false; // impossible
+                }
+            }
+
+            @Override
+            public boolean nextRaw(List<KeyValue> results, String metric) throws IOException {
+                try {
+                    int offset = results.size();
+                    boolean hasMore = s.nextRaw(results, metric);
+                    project(results, offset);
+                    return hasMore;
+                } catch (Throwable t) {
+                    ServerUtil.throwIOException(c.getEnvironment().getRegion().getRegionNameAsString(), t);
+                    return false; // impossible
+                }
+            }
+
+            @Override
+            public void close() throws IOException {
+                s.close();
+            }
+
+            @Override
+            public HRegionInfo getRegionInfo() {
+                return s.getRegionInfo();
+            }
+
+            @Override
+            public boolean isFilterDone() {
+                return s.isFilterDone();
+            }
+
+            @Override
+            public boolean reseek(byte[] row) throws IOException {
+                return s.reseek(row);
+            }
+            
+            @Override
+            public long getMvccReadPoint() {
+                return s.getMvccReadPoint();
+            }
+        };
+    }
+
+    /**
+     * Serialize the schema of the packed cell, since the types of the projected
+     * expressions (for example of a null literal) may not survive their own serialization.
+     */
+    public static byte[] serialize(KeyValueSchema schema) {
+        ByteArrayOutputStream stream = new ByteArrayOutputStream();
+        try {
+            DataOutputStream output = new DataOutputStream(stream);
+            schema.write(output);
+            return stream.toByteArray();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            try {
+                stream.close();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    // The schema is only read while rows are packed, so the scans of a query across
+    // the regions of this server share one deserialized copy.
+    private static final ScanAttributeCache<KeyValueSchema> SCHEMA_CACHE = new ScanAttributeCache<KeyValueSchema>() {
+        @Override
+        protected KeyValueSchema deserialize(byte[] b) {
+            return deserializeSchema(b);
+        }
+    };
+    
+    private static KeyValueSchema deserializeSchema(byte[] b) {
+        ByteArrayInputStream stream = new ByteArrayInputStream(b);
+        try {
+            DataInputStream input = new DataInputStream(stream);
+            KeyValueSchema schema = new KeyValueSchema();
+            schema.readFields(input);
+            return schema;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            try {
+                stream.close();
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
 }
@@ -49,6 +49,7 @@ import org.slf4j.LoggerFactory;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 import com.salesforce.phoenix.exception.ValueTypeIncompatibleException;
+import com.salesforce.phoenix.expression.BaseExpression;
 import com.salesforce.phoenix.expression.Expression;
 import com.salesforce.phoenix.expression.ExpressionType;
 import com.salesforce.phoenix.expression.aggregator.*;
@@ -56,6 +57,7 @@ import com.salesforce.phoenix.query.QueryConstants;
 import com.salesforce.phoenix.query.QueryServicesOptions;
 import com.salesforce.phoenix.schema.*;
 import com.salesforce.phoenix.schema.tuple.MultiKeyValueTuple;
+import com.salesforce.phoenix.schema.tuple.Tuple;
 import com.salesforce.phoenix.util.*;
 
 
@@ -67,6 +69,8 @@ import com.salesforce.phoenix.util.*;
  */
 public class UngroupedAggregateRegionObserver extends BaseScannerRegionObserver {
     private static final Logger logger = LoggerFactory.getLogger(UngroupedAggregateRegionObserver.class);
+    // Number of rows aggregated at a time by a scan that does not mutate the rows
+    private static final int AGGREGATE_BATCH_SIZE = 1024;
     // TODO: move all constants into a single class
     public static final String UNGROUPED_AGG = "UngroupedAgg";
     public static final String DELETE_AGG = "DeleteAgg";
@@ -101,8 +105,8 @@ public class UngroupedAggregateRegionObserver extends BaseScannerRegionObserver
         ImmutableBytesWritable ptr = null;
         if (upsertSelectTable != null) {
             isUpsert = true;
-            projectedTable = deserializeTable(upsertSelectTable);
-            selectExpressions = deserializeExpressions(scan.getAttribute(UPSERT_SELECT_EXPRS));
+            projectedTable = TABLE_CACHE.get(upsertSelectTable);
+            selectExpressions = EXPRESSIONS_CACHE.get(scan.getAttribute(UPSERT_SELECT_EXPRS));
             values = new byte[projectedTable.getPKColumns().size()][];
             ptr = new ImmutableBytesWritable();
         } else {
@@ -119,16 +123,18 @@ public class UngroupedAggregateRegionObserver extends BaseScannerRegionObserver
         long ts = scan.getTimeRange().getMax();
         HRegion region = c.getEnvironment().getRegion();
         List<Pair<Mutation,Integer>> mutations = Collections.emptyList();
-        if (isDelete || isUpsert || (deleteCQ != null && deleteCF != null) || emptyCF != null) {
+        boolean isMutating = isDelete || isUpsert || (deleteCQ != null && deleteCF != null) || emptyCF != null;
+        if (isMutating) {
             // TODO: size better
             mutations = Lists.newArrayListWithExpectedSize(1024);
             batchSize = c.getEnvironment().getConfiguration().getInt(MUTATE_BATCH_SIZE_ATTRIB, QueryServicesOptions.DEFAULT_MUTATE_BATCH_SIZE);
         }
-        Aggregators aggregators = ServerAggregators.deserialize(scan.getAttribute(GroupedAggregateRegionObserver.AGGREGATORS));
+        ServerAggregators aggregators = GroupedAggregateRegionObserver.AGGREGATORS_CACHE.get(scan.getAttribute(GroupedAggregateRegionObserver.AGGREGATORS));
         Aggregator[] rowAggregators = aggregators.getAggregators();
-        boolean hasMore;
+        boolean hasMore = true;
         boolean hasAny = false;
         MultiKeyValueTuple result = new MultiKeyValueTuple();
+        List<KeyValue> results = new ArrayList<KeyValue>();
         if (logger.isInfoEnabled()) {
         	logger.info("Starting ungrouped coprocessor scan " + scan);
         }
@@ -136,8 +142,13 @@ public class UngroupedAggregateRegionObserver extends BaseScannerRegionObserver
         MultiVersionConsistencyControl.setThreadReadPoint(s.getMvccReadPoint());
         region.startRegionOperation();
         try {
-            do {
-                List<KeyValue> results = new ArrayList<KeyValue>();
+            if (!isMutating) {
+                rowCount = aggregateBatches(s, aggregators, rowAggregators);
+                hasAny = rowCount > 0;
+                hasMore = false;
+            }
+            while (hasMore) {
+                results.clear();
                 // Results are potentially returned even when the return value of s.next is false
                 // since this is an indication of whether or not there are more values after the
                 // ones returned
@@ -213,7 +224,7 @@ public class UngroupedAggregateRegionObserver extends BaseScannerRegionObserver
                         }
                         // Commit in batches based on UPSERT_BATCH_SIZE_ATTRIB in config
                         if (!mutations.isEmpty() && batchSize > 0 && mutations.size() % batchSize == 0) {
-                            commitBatch(region,mutations);
+                            commitBatch(region, mutations);
                             mutations.clear();
                         }
                     } catch (ConstraintViolationException e) {
@@ -224,7 +235,10 @@ public class UngroupedAggregateRegionObserver extends BaseScannerRegionObserver
                     aggregators.aggregate(rowAggregators, result);
                     hasAny = true;
                 }
-            } while (hasMore);
+            }
+            if (!mutations.isEmpty()) {
+                commitBatch(region, mutations);
+            }
         } finally {
             region.closeRegionOperation();
         }
@@ -233,10 +247,6 @@ public class UngroupedAggregateRegionObserver extends BaseScannerRegionObserver
         	logger.info("Finished scanning " + rowCount + " rows for ungrouped coprocessor scan " + scan);
         }
 
-        if (!mutations.isEmpty()) {
-            commitBatch(region,mutations);
-        }
-
         final boolean hadAny = hasAny;
         KeyValue keyValue = null;
         if (hadAny) {
@@ -274,6 +284,50 @@ public class UngroupedAggregateRegionObserver extends BaseScannerRegionObserver
         return scanner;
     }
     
+    /**
+     * Aggregates the rows of a scan that doesn't mutate them a batch at a time, so that sums over
+     * integral expressions are evaluated with a loop over the batch per expression node.
+     * @return the number of rows aggregated
+     */
+    private static long aggregateBatches(RegionScanner s, ServerAggregators aggregators, Aggregator[] rowAggregators) throws IOException {
+        Tuple[] tuples = new Tuple[AGGREGATE_BATCH_SIZE];
+        List<List<KeyValue>> batchResults = Lists.newArrayListWithExpectedSize(AGGREGATE_BATCH_SIZE);
+        for (int i = 0; i < AGGREGATE_BATCH_SIZE; i++) {
+            List<KeyValue> results = new ArrayList<KeyValue>();
+            batchResults.add(results);
+            tuples[i] = new MultiKeyValueTuple(results);
+        }
+        long rowCount = 0;
+        int count = 0;
+        boolean hasMore;
+        do {
+            List<KeyValue> results = batchResults.get(count);
+            results.clear();
+            // Results are potentially returned even when the return value of s.next is false
+            // since this is an indication of whether or not there are more values after the
+            // ones returned
+            hasMore = s.nextRaw(results, null) && !s.isFilterDone();
+            if (!results.isEmpty()) {
+                count++;
+            }
+            if (count == AGGREGATE_BATCH_SIZE || (!hasMore && count > 0)) {
+                aggregators.aggregate(rowAggregators, tuples, count);
+                rowCount += count;
+                count = 0;
+            }
+        } while (hasMore);
+        return rowCount;
+    }
+    
+    // The projected table is only read while rows are upserted, so the scans of an
+    // UPSERT SELECT across the regions of this server share one deserialized copy.
+    private static final ScanAttributeCache<PTable> TABLE_CACHE = new ScanAttributeCache<PTable>() {
+        @Override
+        protected PTable deserialize(byte[] b) {
+            return deserializeTable(b);
+        }
+    };
+    
     private static PTable deserializeTable(byte[] b) {
         ByteArrayInputStream stream = new ByteArrayInputStream(b);
         try {
@@ -292,14 +346,28 @@ public class UngroupedAggregateRegionObserver extends BaseScannerRegionObserver
         }
     }
 
-    private static List<Expression> deserializeExpressions(byte[] b) {
+    // Each scan evaluates its own copy of the expressions, since expressions hold
+    // state while they're evaluated.
+    static final ScanAttributeCache<List<Expression>> EXPRESSIONS_CACHE = new ScanAttributeCache<List<Expression>>() {
+        @Override
+        protected List<Expression> deserialize(byte[] b) {
+            return deserializeExpressions(b);
+        }
+        
+        @Override
+        protected List<Expression> copy(List<Expression> expressions) {
+            return BaseExpression.copy(expressions);
+        }
+    };
+    
+    static List<Expression> deserializeExpressions(byte[] b) {
         ByteArrayInputStream stream = new ByteArrayInputStream(b);
         try {
             DataInputStream input = new DataInputStream(stream);
             int size = WritableUtils.readVInt(input);
             List<Expression> selectExpressions = Lists.newArrayListWithExpectedSize(size);
             for (int i = 0; i < size; i++) {
-                ExpressionType type = ExpressionType.values()[WritableUtils.readVInt(input)];
+                ExpressionType type = ExpressionType.fromValue(WritableUtils.readVInt(input));
                 Expression selectExpression = type.newInstance();
                 selectExpression.readFields(input);
                 selectExpressions.add(selectExpression);
@@ -116,6 +116,10 @@ public enum SQLExceptionCode {
     UPSERT_COLUMN_NUMBERS_MISMATCH(1020, "42Y60", "Number of columns upserting must match number of values."),
     // Table properties exception.
     INVALID_BUCKET_NUM(1021, "42Y80", "Salt bucket numbers should be with 1 and 256."),
+    INVALID_STORAGE_SCHEME(1022, "42Y81", "Storage must be either COLUMNS or PACKED."),
+    CANNOT_ALTER_PACKED_TABLE(1023, "42Y82", "Key value columns may not be added to or dropped from a table with packed storage."),
+    PACKED_FAMILY_PARTIALLY_SET(1024, "42Y83", "Either all or none of the columns of a column family with packed storage must be upserted."),
+    INVALID_COLUMN_ENCODED(1025, "42Y84", "Column encoded must be either true or false."),
     
     /** Parser error. (errorcode 06, sqlState 42P) */
     PARSER_ERROR(601, "42P00", "Syntax error."),
@@ -35,9 +35,11 @@ import com.salesforce.phoenix.compile.GroupByCompiler.GroupBy;
 import com.salesforce.phoenix.compile.OrderByCompiler.OrderBy;
 import com.salesforce.phoenix.compile.*;
 import com.salesforce.phoenix.expression.Expression;
-import com.salesforce.phoenix.expression.aggregator.Aggregators;
+import com.salesforce.phoenix.coprocessor.GroupedAggregateRegionObserver;
+import com.salesforce.phoenix.expression.aggregator.ClientAggregators;
 import com.salesforce.phoenix.iterate.*;
 import com.salesforce.phoenix.query.*;
+import com.salesforce.phoenix.schema.PDataType;
 import com.salesforce.phoenix.schema.TableRef;
 
 
@@ -50,7 +52,7 @@ import com.salesforce.phoenix.schema.TableRef;
  * @since 0.1
  */
 public class AggregatePlan extends BasicQueryPlan {
-    private final Aggregators aggregators;
+    private final ClientAggregators aggregators;
     private final GroupBy groupBy;
     private final Expression having;
     private final int maxRows;
@@ -78,7 +80,10 @@ public class AggregatePlan extends BasicQueryPlan {
     @Override
     protected Scanner newScanner(ConnectionQueryServices services) throws SQLException {
         ResultIterators iterators;
-        if (limit == null) {
+        // The groups of a salted table are spread across buckets, so they may only
+        // be limited once the buckets have been merged back together
+        boolean isLimitedAfterMerge = limit != null && !groupBy.isEmpty() && table.getTable().getBucketNum() != null;
+        if (limit == null || isLimitedAfterMerge) {
             ParallelIterators parallelIterators = new ParallelIterators(context, table, RowCounter.UNLIMIT_ROW_COUNTER);
             iterators = parallelIterators;
             splits = parallelIterators.getSplits();
@@ -87,9 +92,16 @@ public class AggregatePlan extends BasicQueryPlan {
         }
 
         AggregatingResultIterator resultScanner;
+        int clientAggregateThreads = context.getConnection().getClientAggregateThreads();
         // No need to merge sort for ungrouped aggregation
         if (groupBy.isEmpty()) {
             resultScanner = new UngroupedAggregatingResultIterator(new ConcatResultIterator(iterators), aggregators);
+        } else if (clientAggregateThreads > 1 && iterators instanceof ParallelIterators) {
+            // Merge the groups by hash in parallel. They're then returned in no particular order
+            // unless an ORDER BY sorts them afterwards, so the regions needn't sort them either.
+            context.getScan().setAttribute(GroupedAggregateRegionObserver.UNSORTED_GROUPS, PDataType.TRUE_BYTES);
+            int timeoutMs = services.getConfig().getInt(QueryServices.THREAD_TIMEOUT_MS_ATTRIB, QueryServicesOptions.DEFAULT_THREAD_TIMEOUT_MS);
+            resultScanner = new PartitionedAggregatingResultIterator(iterators, aggregators, clientAggregateThreads, services.getExecutor(), services.getMemoryManager(), timeoutMs);
         } else {
             resultScanner = new GroupedAggregatingResultIterator(new MergeSortResultIterator(iterators), aggregators);
         }
@@ -102,6 +114,10 @@ public class AggregatePlan extends BasicQueryPlan {
             resultScanner = new OrderedAggregatingResultIterator(context, resultScanner, orderBy.getOrderingColumns());
         }
 
-        return new WrappedScanner(resultScanner, getProjector(), maxRows);
+        ResultIterator scanner = resultScanner;
+        if (isLimitedAfterMerge) {
+            scanner = new LimitingResultIterator(scanner, limit);
+        }
+        return new WrappedScanner(scanner, getProjector(), maxRows);
     }
 }
@@ -35,9 +35,11 @@ import java.util.Map.Entry;
 import org.apache.hadoop.hbase.HConstants;
 import org.apache.hadoop.hbase.client.HTableInterface;
 import org.apache.hadoop.hbase.client.Mutation;
+import org.apache.hadoop.hbase.util.Pair;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.salesforce.phoenix.compile.DeferredMutationPlan;
 import com.salesforce.phoenix.exception.PhoenixIOException;
 import com.salesforce.phoenix.jdbc.PhoenixConnection;
 import com.salesforce.phoenix.schema.*;
@@ -52,11 +54,15 @@ import com.salesforce.phoenix.util.SQLCloseable;
  * @since 0.1
  */
 public class MutationState implements SQLCloseable {
+    private static final List<Map.Entry<TableRef, Map<ImmutableBytesPtr,Map<PColumn,byte[]>>>> NO_ROWS = Collections.emptyList();
     private PhoenixConnection connection;
     private final long maxSize;
     private final Map<TableRef, Map<ImmutableBytesPtr,Map<PColumn,byte[]>>> mutations = Maps.newHashMapWithExpectedSize(3); // TODO: Sizing?
     private final long sizeOffset;
     private int numEntries = 0;
+    // Mutations run on the server at commit time, each paired with the rows
+    // joined before it, which must be committed before it runs.
+    private final List<Pair<MutationState,DeferredMutationPlan>> serverMutations = Lists.newArrayListWithExpectedSize(0);
 
     public MutationState(int maxSize, PhoenixConnection connection) {
         this.maxSize = maxSize;
@@ -64,6 +70,17 @@ public class MutationState implements SQLCloseable {
         this.sizeOffset = 0;
     }
     
+    /**
+     * Constructor for a mutation that is deferred until commit and then run on the server.
+     * @param serverMutation plan that executes the mutation on the server
+     */
+    public MutationState(DeferredMutationPlan serverMutation, long maxSize, PhoenixConnection connection) {
+        this.maxSize = maxSize;
+        this.connection = connection;
+        this.sizeOffset = 0;
+        this.serverMutations.add(new Pair<MutationState,DeferredMutationPlan>(new MutationState(NO_ROWS, 0, maxSize, connection), serverMutation));
+    }
+    
     public MutationState(TableRef table, Map<ImmutableBytesPtr,Map<PColumn,byte[]>> mutations, long sizeOffset, long maxSize, PhoenixConnection connection) {
         this.maxSize = maxSize;
         this.connection = connection;
@@ -100,6 +117,19 @@ public class MutationState implements SQLCloseable {
      * @param newMutation the newer mutation
      */
     public void join(MutationState newMutation) {
+        for (Pair<MutationState,DeferredMutationPlan> serverMutation : newMutation.serverMutations) {
+            // Rows joined so far must be committed before the server mutation runs, so that
+            // the server mutation applies to them and rows joined after it are not affected.
+            MutationState priorState = serverMutation.getFirst();
+            if (!this.mutations.isEmpty()) {
+                MutationState rows = new MutationState(Lists.newArrayList(this.mutations.entrySet()), 0, maxSize, connection);
+                rows.join(priorState);
+                priorState = rows;
+                this.mutations.clear();
+                this.numEntries = 0;
+            }
+            this.serverMutations.add(new Pair<MutationState,DeferredMutationPlan>(priorState, serverMutation.getSecond()));
+        }
         // Merge newMutation with this one, keeping state from newMutation for any overlaps
         for (Map.Entry<TableRef, Map<ImmutableBytesPtr,Map<PColumn,byte[]>>> entry : newMutation.mutations.entrySet()) {
             // Replace existing entries for the table with new entries
@@ -168,12 +198,12 @@ public class MutationState implements SQLCloseable {
      * Validates that the meta data is still valid based on the current server time
      * and returns the server time to use for the upsert for each table.
      * @param connection
+     * @param scn the time stamp to use for the upsert instead of the server time, if not null
      * @return the server time to use for the upsert
      * @throws SQLException if the table or any columns no longer exist
      */
-    private long[] validate() throws SQLException {
+    private long[] validate(Long scn) throws SQLException {
         int i = 0;
-        Long scn = connection.getSCN();
         MetaDataClient client = new MetaDataClient(connection);
         long[] timeStamps = new long[this.mutations.size()];
         for (Map.Entry<TableRef, Map<ImmutableBytesPtr,Map<PColumn,byte[]>>> entry : mutations.entrySet()) {
@@ -208,8 +238,45 @@ public class MutationState implements SQLCloseable {
     }
     
     public void commit() throws SQLException {
+        Long scn = connection.getSCN();
+        if (serverMutations.isEmpty()) {
+            commit(scn);
+            return;
+        }
+        // Each server mutation runs at a time stamp after that of the rows joined before it
+        // and before that of the rows joined after it, so that it only sees and affects the
+        // former, even when the latter are for the same rows. The time stamps start at the
+        // SCN if there is one and otherwise at the current time of the server.
+        long startTime = System.currentTimeMillis();
+        long startTimeStamp = scn == null ? serverMutations.get(0).getSecond().getServerTimeStamp() : scn;
+        long timeStamp = startTimeStamp;
+        Iterator<Pair<MutationState,DeferredMutationPlan>> serverIterator = serverMutations.iterator();
+        while (serverIterator.hasNext()) {
+            Pair<MutationState,DeferredMutationPlan> serverMutation = serverIterator.next();
+            serverMutation.getFirst().commit(timeStamp);
+            serverMutation.getSecond().execute(timeStamp + 1);
+            timeStamp += 2;
+            serverIterator.remove(); // Remove server mutations as we run them
+        }
+        commit(timeStamp);
+        if (scn == null) {
+            // Since the last rows were committed ahead of the time of the server, wait for the
+            // time of the server to pass them. Otherwise, rows committed next by this connection
+            // at the time of the server could be masked by them.
+            long waitMs = (timeStamp - startTimeStamp) - (System.currentTimeMillis() - startTime);
+            if (waitMs > 0) {
+                try {
+                    Thread.sleep(waitMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+    
+    private void commit(Long scn) throws SQLException {
         int i = 0;
-        long[] serverTimeStamps = validate();
+        long[] serverTimeStamps = validate(scn);
         Iterator<Map.Entry<TableRef, Map<ImmutableBytesPtr,Map<PColumn,byte[]>>>> iterator = this.mutations.entrySet().iterator();
         List<Map.Entry<TableRef, Map<ImmutableBytesPtr,Map<PColumn,byte[]>>>> committedList = Lists.newArrayListWithCapacity(this.mutations.size());
         while (iterator.hasNext()) {
@@ -252,6 +319,7 @@ public class MutationState implements SQLCloseable {
     
     public void rollback(PhoenixConnection connection) throws SQLException {
         this.mutations.clear();
+        this.serverMutations.clear();
         numEntries = 0;
     }
     
@@ -0,0 +1,90 @@
+/*******************************************************************************
+ * Copyright (c) 2013, Salesforce.com, Inc.
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     Redistributions of source code must retain the above copyright notice,
+ *     this list of conditions and the following disclaimer.
+ *     Redistributions in binary form must reproduce the above copyright notice,
+ *     this list of conditions and the following disclaimer in the documentation
+ *     and/or other materials provided with the distribution.
+ *     Neither the name of Salesforce.com nor the names of its contributors may 
+ *     be used to endorse or promote products derived from this software without 
+ *     specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE 
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL 
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR 
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER 
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, 
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE 
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package com.salesforce.phoenix.execute;
+
+
+import java.sql.SQLException;
+import java.util.List;
+
+import com.salesforce.phoenix.compile.OrderByCompiler.OrderBy;
+import com.salesforce.phoenix.compile.*;
+import com.salesforce.phoenix.expression.Expression;
+import com.salesforce.phoenix.expression.aggregator.Aggregators;
+import com.salesforce.phoenix.iterate.*;
+import com.salesforce.phoenix.query.*;
+import com.salesforce.phoenix.schema.TableRef;
+
+
+
+/**
+ *
+ * Query plan for an ungrouped aggregate query that only computes the MIN and/or MAX
+ * of the first row key column not constrained to a single value. The values are taken
+ * from the first and last row of the key range, found through seeks instead of an
+ * aggregation over every row.
+ *
+ * @author jtaylor
+ * @since 1.2
+ */
+public class RowKeyMinMaxPlan extends BasicQueryPlan {
+    private final Aggregators aggregators;
+    private final Expression having;
+    private final int maxRows;
+
+    public RowKeyMinMaxPlan(StatementContext context, TableRef table, RowProjector projector, Integer limit,
+            Expression having, OrderBy orderBy, int maxRows) {
+        super(context, table, projector, context.getBindManager().getParameterMetaData(), limit, orderBy);
+        this.having = having;
+        this.aggregators = context.getAggregationManager().getAggregators();
+        this.maxRows = maxRows;
+    }
+
+    @Override
+    public boolean isAggregate() {
+        return true;
+    }
+
+    @Override
+    public List<KeyRange> getSplits() {
+        return null;
+    }
+
+    @Override
+    protected Scanner newScanner(ConnectionQueryServices services) throws SQLException {
+        AggregatingResultIterator resultScanner = new UngroupedAggregatingResultIterator(new RowKeyMinMaxResultIterator(context, table), aggregators);
+        if (having != null) {
+            resultScanner = new FilterAggregatingResultIterator(resultScanner, having);
+        }
+
+        if (!orderBy.getOrderingColumns().isEmpty()) {
+            resultScanner = new OrderedAggregatingResultIterator(context, resultScanner, orderBy.getOrderingColumns());
+        }
+
+        return new WrappedScanner(resultScanner, getProjector(), maxRows);
+    }
+}
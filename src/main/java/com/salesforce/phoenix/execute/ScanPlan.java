@@ -31,12 +31,19 @@ package com.salesforce.phoenix.execute;
 import java.sql.SQLException;
 import java.util.List;
 
+import org.apache.hadoop.hbase.filter.PageFilter;
+
+import com.google.common.collect.Lists;
 import com.salesforce.phoenix.compile.OrderByCompiler.OrderBy;
 import com.salesforce.phoenix.compile.*;
 import com.salesforce.phoenix.coprocessor.ScanRegionObserver;
+import com.salesforce.phoenix.coprocessor.UngroupedAggregateRegionObserver;
+import com.salesforce.phoenix.expression.Expression;
+import com.salesforce.phoenix.expression.ProjectedColumnExpression;
 import com.salesforce.phoenix.iterate.*;
 import com.salesforce.phoenix.query.*;
-import com.salesforce.phoenix.schema.TableRef;
+import com.salesforce.phoenix.schema.*;
+import com.salesforce.phoenix.util.ScanUtil;
 
 
 
@@ -64,15 +71,54 @@ public class ScanPlan extends BasicQueryPlan {
         return false;
     }
     
+    /**
+     * Serializes the select expressions into the scan so that they are evaluated on the server
+     * @return projector that accesses the values packed by the server into a single cell per row
+     */
+    private RowProjector projectOnServer(RowProjector projector) {
+        List<Expression> expressions = Lists.newArrayListWithExpectedSize(projector.getColumnCount());
+        for (ColumnProjector columnProjector : projector.getColumnProjectors()) {
+            expressions.add(columnProjector.getExpression());
+        }
+        KeyValueSchema schema = ProjectedColumnExpression.newSchema(expressions);
+        context.getScan().setAttribute(ScanRegionObserver.PROJECTED_EXPRESSIONS, UngroupedAggregateRegionObserver.serialize(expressions));
+        context.getScan().setAttribute(ScanRegionObserver.PROJECTED_SCHEMA, ScanRegionObserver.serialize(schema));
+        List<ColumnProjector> columnProjectors = Lists.newArrayListWithExpectedSize(expressions.size());
+        for (int i = 0; i < expressions.size(); i++) {
+            ColumnProjector columnProjector = projector.getColumnProjector(i);
+            Expression expression = new ProjectedColumnExpression(expressions.get(i), schema, i);
+            columnProjectors.add(new ExpressionProjector(columnProjector.getName(), columnProjector.getTableName(), expression, columnProjector.isCaseSensitive()));
+        }
+        return new RowProjector(columnProjectors);
+    }
+    
     @Override
     protected Scanner newScanner(ConnectionQueryServices services) throws SQLException {
         // Set any scan attributes before creating the scanner, as it will be too later afterwards
         context.getScan().setAttribute(ScanRegionObserver.NON_AGGREGATE_QUERY, QueryConstants.TRUE);
+        RowProjector projector = getProjector();
+        // The client needs the full row to evaluate the ORDER BY expressions
+        if (orderBy.getOrderingColumns().isEmpty() && context.getConnection().isServerProjection()) {
+            projector = projectOnServer(projector);
+        }
         ResultIterator scanner;
+        Integer bucketNum = table.getTable().getBucketNum();
         /* If no limit, use parallel iterator so that we get results faster. Otherwise, if
-         * limit is provided, run query serially.
+         * limit is provided, run query serially. A salted table is scanned in parallel one
+         * bucket at a time and the buckets are merged back into row key order, limiting
+         * the rows each region returns to the limit when one is provided.
          */
-        if (limit == null) {
+        if (bucketNum != null && orderBy.getOrderingColumns().isEmpty()) {
+            if (limit != null) {
+                ScanUtil.andFilter(context.getScan(), new PageFilter(limit));
+            }
+            ParallelIterators iterators = new ParallelIterators(context, table, RowCounter.UNLIMIT_ROW_COUNTER);
+            scanner = new MergeSortRowKeyResultIterator(iterators, SaltingUtil.NUM_SALTING_BYTES);
+            if (limit != null) {
+                scanner = new LimitingResultIterator(scanner, limit);
+            }
+            splits = iterators.getSplits();
+        } else if (limit == null) {
             ParallelIterators iterators = new ParallelIterators(context, table, RowCounter.UNLIMIT_ROW_COUNTER);
             scanner = new ConcatResultIterator(iterators);
             splits = iterators.getSplits();
@@ -85,6 +131,6 @@ public class ScanPlan extends BasicQueryPlan {
             scanner = new OrderedResultIterator(context, scanner, orderBy.getOrderingColumns());
         }
 
-        return new WrappedScanner(scanner, getProjector());
+        return new WrappedScanner(scanner, projector);
     }
 }
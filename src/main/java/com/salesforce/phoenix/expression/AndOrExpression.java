@@ -64,6 +64,15 @@ public abstract class AndOrExpression extends BaseCompoundExpression {
         return PDataType.BOOLEAN;
     }
 
+    @Override
+    public AndOrExpression copy() {
+        AndOrExpression copy = (AndOrExpression)super.copy();
+        if (partialEvalState != null) {
+            copy.partialEvalState = (BitSet)partialEvalState.clone();
+        }
+        return copy;
+    }
+
     @Override
     public void reset() {
         if (partialEvalState == null) {
@@ -86,7 +86,7 @@ public abstract class BaseCompoundExpression extends BaseExpression {
         int len = WritableUtils.readVInt(input);
         List<Expression>children = new ArrayList<Expression>(len);
         for (int i = 0; i < len; i++) {
-            Expression child = ExpressionType.values()[WritableUtils.readVInt(input)].newInstance();
+            Expression child = ExpressionType.fromValue(WritableUtils.readVInt(input)).newInstance();
             child.readFields(input);
             isNullable |= child.isNullable();
             children.add(child);
@@ -111,6 +111,13 @@ public abstract class BaseCompoundExpression extends BaseExpression {
         }
     }
     
+    @Override
+    public BaseCompoundExpression copy() {
+        BaseCompoundExpression copy = (BaseCompoundExpression)clone();
+        copy.children = ImmutableList.copyOf(copy(children));
+        return copy;
+    }
+    
     @Override
     public String toString() {
         return this.getClass().getName() + " [children=" + children + "]";
@@ -48,7 +48,7 @@ import com.salesforce.phoenix.schema.ColumnModifier;
  * @author jtaylor
  * @since 0.1
  */
-public abstract class BaseExpression implements Expression {
+public abstract class BaseExpression implements Expression, Cloneable {
     @Override
     public boolean isNullable() {
         return false;
@@ -86,6 +86,36 @@ public abstract class BaseExpression implements Expression {
     public void reset() {
     }
     
+    @Override
+    public Expression copy() {
+        return this;
+    }
+    
+    /**
+     * Shallow copy of the expression, for expressions that copy themselves by then
+     * replacing their children and the state modified during evaluation
+     */
+    @Override
+    protected BaseExpression clone() {
+        try {
+            return (BaseExpression)super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new AssertionError(e); // Impossible, since we're Cloneable
+        }
+    }
+    
+    /**
+     * Copies each of a list of expressions
+     * @see Expression#copy()
+     */
+    public static List<Expression> copy(List<Expression> expressions) {
+        List<Expression> copies = new ArrayList<Expression>(expressions.size());
+        for (int i = 0; i < expressions.size(); i++) {
+            copies.add(expressions.get(i).copy());
+        }
+        return copies;
+    }
+    
     protected final <T> List<T> acceptChildren(ExpressionVisitor<T> visitor, Iterator<Expression> iterator) {
         if (iterator == null) {
             iterator = visitor.defaultIterator(this);
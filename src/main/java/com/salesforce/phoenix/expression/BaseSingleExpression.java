@@ -62,7 +62,7 @@ public abstract class BaseSingleExpression extends BaseExpression {
     
     @Override
     public void readFields(DataInput input) throws IOException {
-        Expression expression = ExpressionType.values()[WritableUtils.readVInt(input)].newInstance();
+        Expression expression = ExpressionType.fromValue(WritableUtils.readVInt(input)).newInstance();
         expression.readFields(input);
         children = ImmutableList.of(expression);
     }
@@ -82,6 +82,13 @@ public abstract class BaseSingleExpression extends BaseExpression {
     public void reset() {
         children.get(0).reset();
     }
+    
+    @Override
+    public BaseSingleExpression copy() {
+        BaseSingleExpression copy = (BaseSingleExpression)clone();
+        copy.children = ImmutableList.of(children.get(0).copy());
+        return copy;
+    }
 
     final <T> void acceptChild(ExpressionVisitor<T> visitor)  {
         children.get(0).accept(visitor);
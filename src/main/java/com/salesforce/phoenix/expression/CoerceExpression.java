@@ -86,10 +86,12 @@ public class CoerceExpression extends BaseSingleExpression {
     @Override
     public boolean evaluate(Tuple tuple, ImmutableBytesWritable ptr) {
         if (getChild().evaluate(tuple, ptr)) {
-            // TODO: use Native to prevent creating object
-            // TODO: if type matches don't go to object and back again
+            // Convert directly on the bytes when possible. A shared buffer isn't used for the result,
+            // since the coerced value may be held onto as a GROUP BY key.
+            if (getDataType().coerceBytes(ptr, getChild().getDataType())) {
+                return true;
+            }
             Object o = getDataType().toObject(ptr, getChild().getDataType());
-            // TODO: use shared buffer: need a way of the buffer indicating that it must be consumed immediately, though.
             byte[] b = getDataType().toBytes(o);
             ptr.set(b);
             return true;
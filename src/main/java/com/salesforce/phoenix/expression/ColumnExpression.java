@@ -134,6 +134,11 @@ abstract public class ColumnExpression extends BaseTerminalExpression {
             byteSize = WritableUtils.readVInt(input);
         }
         columnModifier = ColumnModifier.fromSystemValue(WritableUtils.readVInt(input));
+        if (type == PDataType.DECIMAL) {
+            // Needed on the server to sum DECIMAL values as scaled longs
+            maxLength = readNullableVInt(input);
+            scale = readNullableVInt(input);
+        }
     }
 
     @Override
@@ -145,5 +150,18 @@ abstract public class ColumnExpression extends BaseTerminalExpression {
             WritableUtils.writeVInt(output, byteSize);
         }
         WritableUtils.writeVInt(output, ColumnModifier.toSystemValue(columnModifier));
+        if (type == PDataType.DECIMAL) {
+            writeNullableVInt(output, maxLength);
+            writeNullableVInt(output, scale);
+        }
+    }
+
+    private static Integer readNullableVInt(DataInput input) throws IOException {
+        int value = WritableUtils.readVInt(input);
+        return value < 0 ? null : value;
+    }
+
+    private static void writeNullableVInt(DataOutput output, Integer value) throws IOException {
+        WritableUtils.writeVInt(output, value == null ? -1 : value);
     }
 }
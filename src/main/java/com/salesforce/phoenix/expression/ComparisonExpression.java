@@ -36,9 +36,11 @@ import org.apache.hadoop.hbase.filter.CompareFilter.CompareOp;
 import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
 import org.apache.hadoop.io.WritableUtils;
 
+import com.google.common.primitives.Longs;
 import com.salesforce.phoenix.expression.visitor.ExpressionVisitor;
 import com.salesforce.phoenix.schema.ColumnModifier;
 import com.salesforce.phoenix.schema.PDataType;
+import com.salesforce.phoenix.schema.PDataType.PDataCodec;
 import com.salesforce.phoenix.schema.tuple.Tuple;
 import com.salesforce.phoenix.util.ByteUtil;
 
@@ -51,6 +53,10 @@ import com.salesforce.phoenix.util.ByteUtil;
  */
 public class ComparisonExpression extends BaseCompoundExpression {
     private CompareOp op;
+    // Set when an integral expression is compared against an integral constant, in which case
+    // the lhs is decoded as a long and compared against the constant decoded up front.
+    private PDataCodec lhsCodec;
+    private long rhsValue;
     private static final String[] CompareOpString = new String[CompareOp.values().length];
     static {
         CompareOpString[CompareOp.EQUAL.ordinal()] = " = ";
@@ -70,6 +76,29 @@ public class ComparisonExpression extends BaseCompoundExpression {
             throw new NullPointerException();
         }
         this.op = op;
+        init();
+    }
+
+    private static boolean isIntegral(PDataType type) {
+        return type == PDataType.LONG || type == PDataType.INTEGER || type == PDataType.UNSIGNED_LONG || type == PDataType.UNSIGNED_INT;
+    }
+
+    private void init() {
+        lhsCodec = null;
+        Expression lhs = children.get(0);
+        Expression rhs = children.get(1);
+        PDataType lhsDataType = lhs.getDataType();
+        PDataType rhsDataType = rhs.getDataType();
+        // PDataType.compareTo compares the decoded longs of different integral types, and the bytes of the
+        // same integral type, which sort in numeric order, so comparing the decoded longs gives the same result.
+        // Date types are excluded since their codec does not decode the nanos of a timestamp.
+        if (rhs instanceof LiteralExpression && isIntegral(lhsDataType) && isIntegral(rhsDataType)) {
+            ImmutableBytesWritable ptr = new ImmutableBytesWritable();
+            if (rhs.evaluate(null, ptr) && ptr.getLength() != 0) {
+                rhsValue = rhsDataType.getCodec().decodeLong(ptr, rhs.getColumnModifier());
+                lhsCodec = lhsDataType.getCodec();
+            }
+        }
     }
 
     @Override
@@ -103,8 +132,14 @@ public class ComparisonExpression extends BaseCompoundExpression {
         byte[] lhsBytes = ptr.get();
         int lhsOffset = ptr.getOffset();
         int lhsLength = ptr.getLength();
-        PDataType lhsDataType = children.get(0).getDataType();
         ColumnModifier lhsColumnModifier = children.get(0).getColumnModifier();
+        if (lhsCodec != null && lhsLength != 0) {
+            // Avoids evaluating the constant and inverting the bytes of a descending lhs for every row
+            int comparisonResult = Longs.compare(lhsCodec.decodeLong(lhsBytes, lhsOffset, lhsColumnModifier), rhsValue);
+            ptr.set(ByteUtil.compare(op, comparisonResult) ? PDataType.TRUE_BYTES : PDataType.FALSE_BYTES);
+            return true;
+        }
+        PDataType lhsDataType = children.get(0).getDataType();
         
         if (!children.get(1).evaluate(tuple, ptr)) {
             return false;
@@ -124,6 +159,7 @@ public class ComparisonExpression extends BaseCompoundExpression {
     public void readFields(DataInput input) throws IOException {
         op = CompareOp.values()[WritableUtils.readVInt(input)];
         super.readFields(input);
+        init();
     }
 
     @Override
@@ -32,6 +32,7 @@ import java.util.List;
 
 import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
 
+import com.google.common.math.LongMath;
 import com.salesforce.phoenix.exception.ValueTypeIncompatibleException;
 import com.salesforce.phoenix.schema.ColumnModifier;
 import com.salesforce.phoenix.schema.PDataType;
@@ -64,6 +65,9 @@ public class DecimalAddExpression extends AddExpression {
     @Override
     public boolean evaluate(Tuple tuple, ImmutableBytesWritable ptr) {
         BigDecimal result = null;
+        // Use long arithmetic scaled by the result scale for as long as the children allow it
+        boolean isScaledLong = maxLength != null && scale != null;
+        long scaledResult = 0;
         for (int i=0; i<children.size(); i++) {
             Expression childExpr = children.get(i);
             if (!childExpr.evaluate(tuple, ptr)) {
@@ -75,6 +79,21 @@ public class DecimalAddExpression extends AddExpression {
             
             PDataType childType = childExpr.getDataType();
             ColumnModifier childColumnModifier = childExpr.getColumnModifier();
+            if (isScaledLong) {
+                if (childType == PDataType.DECIMAL) {
+                    try {
+                        long l = PDataType.toScaledLong(ptr.get(), ptr.getOffset(), ptr.getLength(), childColumnModifier, scale);
+                        scaledResult = i == 0 ? l : LongMath.checkedAdd(scaledResult, l);
+                        continue;
+                    } catch (ArithmeticException e) {
+                        // Fall through to BigDecimal arithmetic
+                    }
+                }
+                isScaledLong = false;
+                if (i > 0) {
+                    result = BigDecimal.valueOf(scaledResult, scale);
+                }
+            }
             BigDecimal bd = (BigDecimal)PDataType.DECIMAL.toObject(ptr, childType, childColumnModifier);
             
             if (result == null) {
@@ -83,6 +102,13 @@ public class DecimalAddExpression extends AddExpression {
                 result = result.add(bd);
             }
         }
+        if (isScaledLong) {
+            if (NumberUtil.isWithinPrecision(scaledResult, maxLength)) {
+                ptr.set(PDataType.toBytes(scaledResult, scale));
+                return true;
+            }
+            result = BigDecimal.valueOf(scaledResult, scale);
+        }
         if (maxLength != null && scale != null) {
             result = NumberUtil.setDecimalWidthAndScale(result, maxLength, scale);
         }
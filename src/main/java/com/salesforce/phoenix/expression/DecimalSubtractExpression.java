@@ -32,6 +32,7 @@ import java.util.List;
 
 import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
 
+import com.google.common.math.LongMath;
 import com.salesforce.phoenix.exception.ValueTypeIncompatibleException;
 import com.salesforce.phoenix.schema.ColumnModifier;
 import com.salesforce.phoenix.schema.PDataType;
@@ -71,6 +72,9 @@ public class DecimalSubtractExpression extends SubtractExpression {
     @Override
     public boolean evaluate(Tuple tuple, ImmutableBytesWritable ptr) {
         BigDecimal result = null;
+        // Use long arithmetic scaled by the result scale for as long as the children allow it
+        boolean isScaledLong = maxLength != null && scale != null;
+        long scaledResult = 0;
         for (int i=0; i<children.size(); i++) {
             Expression childExpr = children.get(i);
             if (!childExpr.evaluate(tuple, ptr)) { 
@@ -83,6 +87,21 @@ public class DecimalSubtractExpression extends SubtractExpression {
             PDataType childType = childExpr.getDataType();
             boolean isDate = childType.isCoercibleTo(PDataType.DATE);
             ColumnModifier childColumnModifier = childExpr.getColumnModifier();
+            if (isScaledLong) {
+                if (childType == PDataType.DECIMAL) {
+                    try {
+                        long l = PDataType.toScaledLong(ptr.get(), ptr.getOffset(), ptr.getLength(), childColumnModifier, scale);
+                        scaledResult = i == 0 ? l : LongMath.checkedSubtract(scaledResult, l);
+                        continue;
+                    } catch (ArithmeticException e) {
+                        // Fall through to BigDecimal arithmetic
+                    }
+                }
+                isScaledLong = false;
+                if (i > 0) {
+                    result = BigDecimal.valueOf(scaledResult, scale);
+                }
+            }
             BigDecimal bd = isDate ?
                     BigDecimal.valueOf(childType.getCodec().decodeLong(ptr, childColumnModifier)) :
                     (BigDecimal)PDataType.DECIMAL.toObject(ptr, childType, childColumnModifier);
@@ -100,6 +119,13 @@ public class DecimalSubtractExpression extends SubtractExpression {
                 }
             }
         }
+        if (isScaledLong) {
+            if (NumberUtil.isWithinPrecision(scaledResult, maxLength)) {
+                ptr.set(PDataType.toBytes(scaledResult, scale));
+                return true;
+            }
+            result = BigDecimal.valueOf(scaledResult, scale);
+        }
         if (maxLength != null && scale != null) {
             result = NumberUtil.setDecimalWidthAndScale(result, maxLength, scale);
         }
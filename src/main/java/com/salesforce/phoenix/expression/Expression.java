@@ -76,4 +76,15 @@ public interface Expression extends PDatum, Writable {
      * processing a new row.
      */
     void reset();
+    
+    /**
+     * Copies the expression, so that the copy can be evaluated concurrently with
+     * this expression. The copy shares none of the state that is modified while
+     * evaluating the expression. Expressions with children are always copied to
+     * new instances, so that the children of a copy may be replaced without
+     * affecting this expression. Leaf expressions without any such state may
+     * return themselves.
+     * @return the copy of the expression
+     */
+    Expression copy();
 }
@@ -85,7 +85,8 @@ public enum ExpressionType {
     RTrimFunction(RTrimFunction.class),
     UpperFunction(UpperFunction.class),
     LowerFunction(LowerFunction.class),
-    TrimFunction(TrimFunction.class);
+    TrimFunction(TrimFunction.class),
+    MemoizedExpression(MemoizedExpression.class);
 
     ExpressionType(Class<? extends Expression> clazz) {
         this.clazz = clazz;
@@ -115,6 +116,17 @@ public enum ExpressionType {
         return type;
     }
 
+    private static final ExpressionType[] VALUES = values();
+
+    /**
+     * Return the ExpressionType for a serialized ordinal. Unlike values(),
+     * which copies the array on each call, this is cheap enough to call for
+     * every node of every expression tree deserialized on the server.
+     */
+    public static ExpressionType fromValue(int ordinal) {
+        return VALUES[ordinal];
+    }
+
     /**
      * Instantiates a DataAccessor based on its DataAccessorType
      */
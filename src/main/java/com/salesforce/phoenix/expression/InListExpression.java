@@ -101,6 +101,13 @@ public class InListExpression extends BaseSingleExpression {
         return true;
     }
 
+    @Override
+    public InListExpression copy() {
+        InListExpression copy = (InListExpression)super.copy();
+        copy.value = new ImmutableBytesPtr();
+        return copy;
+    }
+
     @Override
     public int hashCode() {
         final int prime = 31;
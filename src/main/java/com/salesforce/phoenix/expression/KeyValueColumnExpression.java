@@ -33,10 +33,11 @@ import java.util.Arrays;
 import org.apache.hadoop.hbase.KeyValue;
 import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
 import org.apache.hadoop.hbase.util.Bytes;
+import org.apache.hadoop.io.WritableUtils;
 
 import com.salesforce.phoenix.expression.visitor.ExpressionVisitor;
 import com.salesforce.phoenix.query.QueryConstants;
-import com.salesforce.phoenix.schema.PColumn;
+import com.salesforce.phoenix.schema.*;
 import com.salesforce.phoenix.schema.tuple.Tuple;
 
 
@@ -50,6 +51,13 @@ import com.salesforce.phoenix.schema.tuple.Tuple;
 public class KeyValueColumnExpression extends ColumnExpression {
     private byte[] cf;
     private byte[] cq;
+    // Column name for display when cq is an encoded qualifier. Not serialized.
+    private String name;
+    // For STORAGE=PACKED, the schema of the key value holding the values of all
+    // columns of the family and the position of this column within it
+    private KeyValueSchema packedSchema;
+    private int packedPosition = -1;
+    private ValueBitSet packedValueSet;
 
     public KeyValueColumnExpression() {
     }
@@ -57,7 +65,16 @@ public class KeyValueColumnExpression extends ColumnExpression {
     public KeyValueColumnExpression(PColumn column) {
         super(column);
         this.cf = column.getFamilyName().getBytes();
-        this.cq = column.getName().getBytes();
+        this.cq = column.getQualifier();
+        this.name = column.getName().getString();
+    }
+
+    public KeyValueColumnExpression(PColumn column, KeyValueSchema packedSchema, int packedPosition) {
+        this(column);
+        this.cq = QueryConstants.PACKED_COLUMN_BYTES;
+        this.packedSchema = packedSchema;
+        this.packedPosition = packedPosition;
+        this.packedValueSet = ValueBitSet.newInstance(packedSchema);
     }
 
     public byte[] getColumnFamily() {
@@ -74,6 +91,7 @@ public class KeyValueColumnExpression extends ColumnExpression {
         int result = 1;
         result = prime * result + Arrays.hashCode(cf);
         result = prime * result + Arrays.hashCode(cq);
+        result = prime * result + packedPosition;
         return result;
     }
 
@@ -86,12 +104,13 @@ public class KeyValueColumnExpression extends ColumnExpression {
         KeyValueColumnExpression other = (KeyValueColumnExpression)obj;
         if (!Arrays.equals(cf, other.cf)) return false;
         if (!Arrays.equals(cq, other.cq)) return false;
+        if (packedPosition != other.packedPosition) return false;
         return true;
     }
 
     @Override
     public String toString() {
-        return (Bytes.compareTo(cf, QueryConstants.DEFAULT_COLUMN_FAMILY_BYTES) == 0 ? "" : (Bytes.toStringBinary(cf) + QueryConstants.NAME_SEPARATOR)) + Bytes.toStringBinary(cq);
+        return (Bytes.compareTo(cf, QueryConstants.DEFAULT_COLUMN_FAMILY_BYTES) == 0 ? "" : (Bytes.toStringBinary(cf) + QueryConstants.NAME_SEPARATOR)) + (name == null ? Bytes.toStringBinary(cq) : name);
     }
 
     @Override
@@ -99,16 +118,37 @@ public class KeyValueColumnExpression extends ColumnExpression {
         KeyValue keyValue = tuple.getValue(cf, cq);
         if (keyValue != null) {
             ptr.set(keyValue.getBuffer(), keyValue.getValueOffset(), keyValue.getValueLength());
-            return true;
+            if (packedSchema == null) {
+                return true;
+            }
+            packedValueSet.clear();
+            packedValueSet.or(ptr);
+            return packedSchema.setAccessor(ptr, packedPosition, packedValueSet);
         }
         return false;
     }
 
+    @Override
+    public KeyValueColumnExpression copy() {
+        if (packedSchema == null) {
+            return this;
+        }
+        KeyValueColumnExpression copy = (KeyValueColumnExpression)clone();
+        copy.packedValueSet = ValueBitSet.newInstance(packedSchema);
+        return copy;
+    }
+
     @Override
     public void readFields(DataInput input) throws IOException {
         super.readFields(input);
         cf = Bytes.readByteArray(input);
         cq = Bytes.readByteArray(input);
+        packedPosition = WritableUtils.readVInt(input);
+        if (packedPosition >= 0) {
+            packedSchema = new KeyValueSchema();
+            packedSchema.readFields(input);
+            packedValueSet = ValueBitSet.newInstance(packedSchema);
+        }
     }
 
     @Override
@@ -116,6 +156,10 @@ public class KeyValueColumnExpression extends ColumnExpression {
         super.write(output);
         Bytes.writeByteArray(output, cf);
         Bytes.writeByteArray(output, cq);
+        WritableUtils.writeVInt(output, packedPosition);
+        if (packedPosition >= 0) {
+            packedSchema.write(output);
+        }
     }
 
     @Override
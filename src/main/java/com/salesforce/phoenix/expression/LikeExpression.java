@@ -29,7 +29,7 @@ package com.salesforce.phoenix.expression;
 
 import java.io.DataInput;
 import java.io.IOException;
-import java.util.List;
+import java.util.*;
 import java.util.regex.Pattern;
 
 import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
@@ -37,8 +37,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.salesforce.phoenix.expression.visitor.ExpressionVisitor;
+import com.salesforce.phoenix.schema.ColumnModifier;
 import com.salesforce.phoenix.schema.PDataType;
 import com.salesforce.phoenix.schema.tuple.Tuple;
+import com.salesforce.phoenix.util.ImmutableBytesPtr;
+import com.salesforce.phoenix.util.PatternUtil;
 import com.salesforce.phoenix.util.StringUtil;
 
 
@@ -65,6 +68,8 @@ public class LikeExpression extends BaseCompoundExpression {
     public final static char SINGLE_CHAR_WILDCARD = '?';
     private final static String[] LIKE_ESCAPE_SEQS = new String[]{"\\"+SINGLE_CHAR_LIKE, "\\"+MULTI_CHAR_LIKE};
     private final static String[] LIKE_UNESCAPED_SEQS = new String[]{""+SINGLE_CHAR_LIKE, ""+MULTI_CHAR_LIKE};
+    // Number of matchers kept for patterns that are not a literal
+    private static final int MAX_CACHED_MATCHERS = 16;
     
     public static String unescapeLike(String s) {
         return StringUtil.replace(s, LIKE_ESCAPE_SEQS, LIKE_UNESCAPED_SEQS);
@@ -156,7 +161,7 @@ public class LikeExpression extends BaseCompoundExpression {
         }
     }
 
-    private static String toPattern(String s) {
+    static String toPattern(String s) {
         StringBuilder sb = new StringBuilder(s.length());
 
         // From the JDK doc: \Q and \E protect everything between them
@@ -206,6 +211,10 @@ public class LikeExpression extends BaseCompoundExpression {
 //    }
 
     private Pattern pattern;
+    private LikeMatcher matcher;
+    private Map<ImmutableBytesPtr,LikeMatcher> matcherCache;
+    private ImmutableBytesPtr patternPtr = new ImmutableBytesPtr();
+    private byte[] invertedValue = new byte[0];
     
     public LikeExpression() {
     }
@@ -224,7 +233,8 @@ public class LikeExpression extends BaseCompoundExpression {
         if (e instanceof LiteralExpression) {
             LiteralExpression patternExpression = (LiteralExpression)e;
             String value = (String)patternExpression.getValue();
-            pattern = Pattern.compile(toPattern(value));
+            pattern = PatternUtil.getPattern(toPattern(value));
+            matcher = LikeMatcher.get(value);
         }
     }
 
@@ -236,21 +246,41 @@ public class LikeExpression extends BaseCompoundExpression {
         return children.get(1);
     }
 
+    private LikeMatcher getMatcher(ImmutableBytesWritable ptr) {
+        if (matcherCache == null) {
+            matcherCache = new LinkedHashMap<ImmutableBytesPtr,LikeMatcher>(MAX_CACHED_MATCHERS, 0.75f, true) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<ImmutableBytesPtr,LikeMatcher> eldest) {
+                    return size() > MAX_CACHED_MATCHERS;
+                }
+            };
+        }
+        patternPtr.set(ptr.get(), ptr.getOffset(), ptr.getLength());
+        LikeMatcher matcher = matcherCache.get(patternPtr);
+        if (matcher == null) {
+            String value = (String)PDataType.VARCHAR.toObject(ptr, getPatternExpression().getColumnModifier());
+            matcher = LikeMatcher.get(value);
+            matcherCache.put(new ImmutableBytesPtr(ptr.copyBytes()), matcher);
+            if (logger.isDebugEnabled()) {
+                logger.debug("LIKE pattern is expression: " + value);
+            }
+        }
+        return matcher;
+    }
+    
     @Override
     public boolean evaluate(Tuple tuple, ImmutableBytesWritable ptr) {
-        Pattern pattern = this.pattern;
-        if (pattern == null) { // TODO: don't allow? this is going to be slooowwww
+        LikeMatcher matcher = this.matcher;
+        if (matcher == null) {
             if (!getPatternExpression().evaluate(tuple, ptr)) {
                 if (logger.isDebugEnabled()) {
                     logger.debug("LIKE is FALSE: pattern is null");
                 }
                 return false;
             }
-            String value = (String)PDataType.VARCHAR.toObject(ptr, getPatternExpression().getColumnModifier());
-            pattern = Pattern.compile(toPattern(value));
-            if (logger.isDebugEnabled()) {
-                logger.debug("LIKE pattern is expression: " + pattern.pattern());
-            }
+            matcher = getMatcher(ptr);
         }
         
         if (!getStrExpression().evaluate(tuple, ptr)) {
@@ -260,15 +290,37 @@ public class LikeExpression extends BaseCompoundExpression {
             return false;
         }
         
-        String value = (String)PDataType.VARCHAR.toObject(ptr, getStrExpression().getColumnModifier());
-        boolean matched = pattern.matcher(value).matches();
-        ptr.set(matched ? PDataType.TRUE_BYTES : PDataType.FALSE_BYTES);
+        byte[] bytes = ptr.get();
+        int offset = ptr.getOffset();
+        int length = ptr.getLength();
+        ColumnModifier columnModifier = getStrExpression().getColumnModifier();
+        if (columnModifier != null) {
+            if (invertedValue.length < length) {
+                invertedValue = new byte[length];
+            }
+            for (int i = 0; i < length; i++) {
+                invertedValue[i] = columnModifier.apply(bytes[offset + i]);
+            }
+            bytes = invertedValue;
+            offset = 0;
+        }
+        boolean matched = matcher.matches(bytes, offset, length);
         if (logger.isDebugEnabled()) {
-            logger.debug("LIKE(value='" + value + "'pattern='" + pattern.pattern() + "' is " + matched);
+            logger.debug("LIKE(value='" + PDataType.VARCHAR.toObject(bytes, offset, length) + "'pattern='" + getPatternExpression() + "' is " + matched);
         }
+        ptr.set(matched ? PDataType.TRUE_BYTES : PDataType.FALSE_BYTES);
         return true;
     }
 
+    @Override
+    public LikeExpression copy() {
+        LikeExpression copy = (LikeExpression)super.copy();
+        copy.matcherCache = null;
+        copy.patternPtr = new ImmutableBytesPtr();
+        copy.invertedValue = new byte[0];
+        return copy;
+    }
+
     @Override
     public void readFields(DataInput input) throws IOException {
         super.readFields(input);
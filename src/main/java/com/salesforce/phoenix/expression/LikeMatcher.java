@@ -0,0 +1,274 @@
+/*******************************************************************************
+ * Copyright (c) 2013, Salesforce.com, Inc.
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     Redistributions of source code must retain the above copyright notice,
+ *     this list of conditions and the following disclaimer.
+ *     Redistributions in binary form must reproduce the above copyright notice,
+ *     this list of conditions and the following disclaimer in the documentation
+ *     and/or other materials provided with the distribution.
+ *     Neither the name of Salesforce.com nor the names of its contributors may 
+ *     be used to endorse or promote products derived from this software without 
+ *     specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE 
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL 
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR 
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER 
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, 
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE 
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package com.salesforce.phoenix.expression;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+import org.apache.hadoop.hbase.util.Bytes;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Lists;
+
+/**
+ * 
+ * Matches the UTF-8 bytes of a value against a LIKE pattern without decoding
+ * them into a String. Patterns that only use '%' are matched with byte
+ * comparisons of their literal parts: an anchored prefix, an anchored
+ * suffix and, in between, a Boyer-Moore-Horspool search for each
+ * remaining part. Patterns that only use '_' step over one code point per
+ * wildcard. Since UTF-8 is self-synchronizing, a byte match of a literal
+ * part is always a match of whole characters. Only patterns that combine
+ * both wildcards fall back to a regular expression.
+ *
+ * @author jtaylor
+ * @since 1.2
+ */
+public abstract class LikeMatcher {
+    private static final int MAX_CACHED_MATCHERS = 1000;
+    // Matchers are immutable and thread safe, so the ones for literal patterns are shared
+    // by all the expressions that use them instead of being compiled again each time an
+    // expression is deserialized.
+    private static final Cache<String,LikeMatcher> CACHE = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_MATCHERS)
+            .build();
+    
+    public abstract boolean matches(byte[] b, int offset, int length);
+    
+    /**
+     * Gets the matcher for a LIKE pattern from a cache bounded in size.
+     */
+    public static LikeMatcher get(String likePattern) {
+        LikeMatcher matcher = CACHE.getIfPresent(likePattern);
+        if (matcher == null) {
+            matcher = compile(likePattern);
+            CACHE.put(likePattern, matcher);
+        }
+        return matcher;
+    }
+    
+    /**
+     * Compiles a LIKE pattern, in which '%' matches zero or more characters,
+     * '_' matches exactly one character, and '\' escapes the next character.
+     */
+    public static LikeMatcher compile(String likePattern) {
+        List<String> parts = Lists.newArrayList();
+        StringBuilder part = new StringBuilder();
+        boolean hasSingleCharWildcard = false;
+        boolean hasMultiCharWildcard = false;
+        boolean wasSlash = false;
+        for (int i = 0; i < likePattern.length(); i++) {
+            char c = likePattern.charAt(i);
+            if (wasSlash) {
+                part.append(c);
+                wasSlash = false;
+            } else if (c == '\\') {
+                wasSlash = true;
+            } else if (c == LikeExpression.MULTI_CHAR_LIKE) {
+                hasMultiCharWildcard = true;
+                parts.add(part.toString());
+                part.setLength(0);
+            } else if (c == LikeExpression.SINGLE_CHAR_LIKE) {
+                hasSingleCharWildcard = true;
+                // A null part marks the position of the wildcard
+                parts.add(part.toString());
+                parts.add(null);
+                part.setLength(0);
+            } else {
+                part.append(c);
+            }
+        }
+        parts.add(part.toString());
+        if (!hasSingleCharWildcard) {
+            return new MultiCharMatcher(parts);
+        }
+        if (!hasMultiCharWildcard) {
+            return new SingleCharMatcher(parts);
+        }
+        return new RegexMatcher(likePattern);
+    }
+    
+    /**
+     * Returns the number of bytes of the UTF-8 encoded code point that starts with b.
+     * Bytes that cannot start a code point are counted as a character of their own.
+     */
+    private static int codePointLength(byte b) {
+        if ((b & 0x80) == 0) {
+            return 1;
+        } else if ((b & 0xE0) == 0xC0) {
+            return 2;
+        } else if ((b & 0xF0) == 0xE0) {
+            return 3;
+        } else if ((b & 0xF8) == 0xF0) {
+            return 4;
+        }
+        return 1;
+    }
+    
+    private static boolean startsWith(byte[] b, int offset, int length, byte[] prefix) {
+        return length >= prefix.length && Bytes.compareTo(b, offset, prefix.length, prefix, 0, prefix.length) == 0;
+    }
+    
+    /**
+     * Matches a pattern made up of literal parts separated by '%'
+     */
+    private static class MultiCharMatcher extends LikeMatcher {
+        private final byte[] prefix;
+        private final byte[] suffix;
+        private final Finder[] finders;
+        private final int minLength;
+        
+        private MultiCharMatcher(List<String> parts) {
+            this.prefix = Bytes.toBytes(parts.get(0));
+            if (parts.size() == 1) {
+                this.suffix = null;
+                this.finders = new Finder[0];
+                this.minLength = prefix.length;
+            } else {
+                this.suffix = Bytes.toBytes(parts.get(parts.size()-1));
+                List<Finder> finders = Lists.newArrayListWithExpectedSize(parts.size() - 2);
+                int minLength = prefix.length + suffix.length;
+                for (String part : parts.subList(1, parts.size()-1)) {
+                    if (part.length() > 0) {
+                        Finder finder = new Finder(Bytes.toBytes(part));
+                        finders.add(finder);
+                        minLength += finder.needle.length;
+                    }
+                }
+                this.finders = finders.toArray(new Finder[finders.size()]);
+                this.minLength = minLength;
+            }
+        }
+        
+        @Override
+        public boolean matches(byte[] b, int offset, int length) {
+            if (suffix == null) {
+                return length == prefix.length && startsWith(b, offset, length, prefix);
+            }
+            if (length < minLength || !startsWith(b, offset, length, prefix)) {
+                return false;
+            }
+            int end = offset + length - suffix.length;
+            if (Bytes.compareTo(b, end, suffix.length, suffix, 0, suffix.length) != 0) {
+                return false;
+            }
+            // Taking the leftmost match of each part leaves the most room for the ones after it
+            int position = offset + prefix.length;
+            for (Finder finder : finders) {
+                int index = finder.indexOf(b, position, end);
+                if (index < 0) {
+                    return false;
+                }
+                position = index + finder.needle.length;
+            }
+            return true;
+        }
+    }
+    
+    /**
+     * Boyer-Moore-Horspool search for a non empty sequence of bytes
+     */
+    private static class Finder {
+        private final byte[] needle;
+        private final int[] skip = new int[256];
+        
+        private Finder(byte[] needle) {
+            this.needle = needle;
+            int last = needle.length - 1;
+            for (int i = 0; i < skip.length; i++) {
+                skip[i] = needle.length;
+            }
+            for (int i = 0; i < last; i++) {
+                skip[needle[i] & 0xFF] = last - i;
+            }
+        }
+        
+        private int indexOf(byte[] b, int from, int to) {
+            int last = needle.length - 1;
+            for (int i = from; i + last < to; i += skip[b[i + last] & 0xFF]) {
+                int j = last;
+                while (b[i + j] == needle[j]) {
+                    if (j-- == 0) {
+                        return i;
+                    }
+                }
+            }
+            return -1;
+        }
+    }
+    
+    /**
+     * Matches a pattern made up of literal parts and '_', where a null part stands for the '_'
+     */
+    private static class SingleCharMatcher extends LikeMatcher {
+        private final byte[][] parts;
+        
+        private SingleCharMatcher(List<String> parts) {
+            this.parts = new byte[parts.size()][];
+            for (int i = 0; i < parts.size(); i++) {
+                String part = parts.get(i);
+                this.parts[i] = part == null ? null : Bytes.toBytes(part);
+            }
+        }
+        
+        @Override
+        public boolean matches(byte[] b, int offset, int length) {
+            int position = offset;
+            int end = offset + length;
+            for (byte[] part : parts) {
+                if (part == null) {
+                    if (position >= end) {
+                        return false;
+                    }
+                    position += codePointLength(b[position]);
+                } else {
+                    if (!startsWith(b, position, end - position, part)) {
+                        return false;
+                    }
+                    position += part.length;
+                }
+            }
+            return position == end;
+        }
+    }
+    
+    private static class RegexMatcher extends LikeMatcher {
+        private final Pattern pattern;
+        
+        private RegexMatcher(String likePattern) {
+            // Let '_' and '%' match line terminators too, as they do for the other matchers
+            this.pattern = Pattern.compile(LikeExpression.toPattern(likePattern), Pattern.DOTALL);
+        }
+        
+        @Override
+        public boolean matches(byte[] b, int offset, int length) {
+            return pattern.matcher(Bytes.toString(b, offset, length)).matches();
+        }
+    }
+}
@@ -35,7 +35,9 @@ import com.salesforce.phoenix.schema.PDataType;
 import com.salesforce.phoenix.schema.tuple.Tuple;
 
 
-public class LongAddExpression extends AddExpression {
+public class LongAddExpression extends AddExpression implements LongBatchExpression {
+    // Evaluates the children over a batch of rows, created on first use
+    private LongBatchCombiner batchCombiner;
 
     public LongAddExpression() {
     }
@@ -67,4 +69,25 @@ public class LongAddExpression extends AddExpression {
         return PDataType.LONG;
     }
 
+    @Override
+    public LongAddExpression copy() {
+        LongAddExpression copy = (LongAddExpression)super.copy();
+        copy.batchCombiner = null;
+        return copy;
+    }
+
+    @Override
+    public void evaluate(Tuple[] tuples, int count, long[] values, boolean[] nulls, ImmutableBytesWritable ptr) {
+        if (batchCombiner == null) {
+            batchCombiner = new LongBatchCombiner() {
+                @Override
+                protected void combine(Expression child, long[] values, long[] childValues, int count) {
+                    for (int j = 0; j < count; j++) {
+                        values[j] += childValues[j];
+                    }
+                }
+            };
+        }
+        batchCombiner.evaluate(children, tuples, count, values, nulls, ptr);
+    }
 }
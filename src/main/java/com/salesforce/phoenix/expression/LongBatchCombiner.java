@@ -0,0 +1,79 @@
+/*******************************************************************************
+ * Copyright (c) 2013, Salesforce.com, Inc.
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     Redistributions of source code must retain the above copyright notice,
+ *     this list of conditions and the following disclaimer.
+ *     Redistributions in binary form must reproduce the above copyright notice,
+ *     this list of conditions and the following disclaimer in the documentation
+ *     and/or other materials provided with the distribution.
+ *     Neither the name of Salesforce.com nor the names of its contributors may 
+ *     be used to endorse or promote products derived from this software without 
+ *     specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE 
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL 
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR 
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER 
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, 
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE 
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package com.salesforce.phoenix.expression;
+
+import java.util.List;
+
+import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
+
+import com.salesforce.phoenix.schema.tuple.Tuple;
+import com.salesforce.phoenix.util.ExpressionUtil;
+
+/**
+ * 
+ * Evaluates the children of an arithmetic {@link LongBatchExpression} over a batch of rows,
+ * combining the values of each child after the first into the values of the batch. A row
+ * is null if the value of any child is null for it. The values of a child are evaluated into
+ * scratch arrays that are reused across batches, so an instance may only be used by the
+ * expression that created it.
+ *
+ * @author jtaylor
+ * @since 1.2
+ */
+public abstract class LongBatchCombiner {
+    private long[] childValues;
+    private boolean[] childNulls;
+    
+    /**
+     * Combine the values of a child into the values of the batch
+     * @param child the child expression
+     * @param values the values of the batch, updated in place
+     * @param childValues the values of the child for each row
+     * @param count the number of rows in the batch
+     */
+    protected abstract void combine(Expression child, long[] values, long[] childValues, int count);
+    
+    /**
+     * @see LongBatchExpression#evaluate(Tuple[], int, long[], boolean[], ImmutableBytesWritable)
+     */
+    public void evaluate(List<Expression> children, Tuple[] tuples, int count, long[] values, boolean[] nulls, ImmutableBytesWritable ptr) {
+        ExpressionUtil.evaluate(children.get(0), tuples, count, values, nulls, ptr);
+        if (childValues == null || childValues.length < count) {
+            childValues = new long[count];
+            childNulls = new boolean[count];
+        }
+        for (int i = 1; i < children.size(); i++) {
+            Expression child = children.get(i);
+            ExpressionUtil.evaluate(child, tuples, count, childValues, childNulls, ptr);
+            combine(child, values, childValues, count);
+            for (int j = 0; j < count; j++) {
+                nulls[j] |= childNulls[j];
+            }
+        }
+    }
+}
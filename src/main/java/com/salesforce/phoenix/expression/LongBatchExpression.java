@@ -0,0 +1,56 @@
+/*******************************************************************************
+ * Copyright (c) 2013, Salesforce.com, Inc.
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     Redistributions of source code must retain the above copyright notice,
+ *     this list of conditions and the following disclaimer.
+ *     Redistributions in binary form must reproduce the above copyright notice,
+ *     this list of conditions and the following disclaimer in the documentation
+ *     and/or other materials provided with the distribution.
+ *     Neither the name of Salesforce.com nor the names of its contributors may 
+ *     be used to endorse or promote products derived from this software without 
+ *     specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE 
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL 
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR 
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER 
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, 
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE 
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package com.salesforce.phoenix.expression;
+
+import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
+
+import com.salesforce.phoenix.schema.tuple.Tuple;
+
+/**
+ * 
+ * Implemented by expressions of an integral type that can evaluate a batch of rows
+ * in one call, looping over the rows within each node of the expression tree instead
+ * of walking the whole tree once per row. Use
+ * {@link com.salesforce.phoenix.util.ExpressionUtil#evaluate(Expression, Tuple[], int, long[], boolean[], ImmutableBytesWritable)}
+ * to evaluate any expression this way, since it falls back to row at a time evaluation
+ * for children that don't implement this interface.
+ *
+ * @author jtaylor
+ * @since 1.2
+ */
+public interface LongBatchExpression extends Expression {
+    /**
+     * Evaluate the expression for the first count rows of a batch
+     * @param tuples the rows of the batch
+     * @param count the number of rows in the batch
+     * @param values set to the value for each row that isn't null
+     * @param nulls set to true for each row for which the value is null and false otherwise
+     * @param ptr scratch pointer
+     */
+    public void evaluate(Tuple[] tuples, int count, long[] values, boolean[] nulls, ImmutableBytesWritable ptr);
+}
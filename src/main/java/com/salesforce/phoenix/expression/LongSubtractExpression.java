@@ -44,7 +44,10 @@ import com.salesforce.phoenix.schema.tuple.Tuple;
  * @author kmahadik
  * @since 0.1
  */
-public class LongSubtractExpression extends SubtractExpression {
+public class LongSubtractExpression extends SubtractExpression implements LongBatchExpression {
+    // Evaluates the children over a batch of rows, created on first use
+    private LongBatchCombiner batchCombiner;
+    
     public LongSubtractExpression() {
     }
 
@@ -87,5 +90,28 @@ public class LongSubtractExpression extends SubtractExpression {
 	public final PDataType getDataType() {
 		return PDataType.LONG;
 	}
-	
+
+    @Override
+    public LongSubtractExpression copy() {
+        LongSubtractExpression copy = (LongSubtractExpression)super.copy();
+        copy.batchCombiner = null;
+        return copy;
+    }
+
+    @Override
+    public void evaluate(Tuple[] tuples, int count, long[] values, boolean[] nulls, ImmutableBytesWritable ptr) {
+        if (batchCombiner == null) {
+            batchCombiner = new LongBatchCombiner() {
+                @Override
+                protected void combine(Expression child, long[] values, long[] childValues, int count) {
+                    // Same special case for date subtraction as above
+                    long divisor = child.getDataType().isCoercibleTo(PDataType.DATE) ? QueryConstants.MILLIS_IN_DAY : 1;
+                    for (int j = 0; j < count; j++) {
+                        values[j] = (values[j] - childValues[j]) / divisor;
+                    }
+                }
+            };
+        }
+        batchCombiner.evaluate(children, tuples, count, values, nulls, ptr);
+    }
 }
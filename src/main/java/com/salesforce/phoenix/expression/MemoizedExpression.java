@@ -0,0 +1,319 @@
+/*******************************************************************************
+ * Copyright (c) 2013, Salesforce.com, Inc.
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     Redistributions of source code must retain the above copyright notice,
+ *     this list of conditions and the following disclaimer.
+ *     Redistributions in binary form must reproduce the above copyright notice,
+ *     this list of conditions and the following disclaimer in the documentation
+ *     and/or other materials provided with the distribution.
+ *     Neither the name of Salesforce.com nor the names of its contributors may 
+ *     be used to endorse or promote products derived from this software without 
+ *     specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE 
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL 
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR 
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER 
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, 
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE 
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package com.salesforce.phoenix.expression;
+
+import java.util.*;
+
+import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.salesforce.phoenix.expression.function.AggregateFunction;
+import com.salesforce.phoenix.expression.visitor.ExpressionVisitor;
+import com.salesforce.phoenix.schema.ColumnModifier;
+import com.salesforce.phoenix.schema.PDataType;
+import com.salesforce.phoenix.schema.tuple.Tuple;
+
+
+/**
+ * 
+ * Expression that remembers the value of its child expression for the last row
+ * it was evaluated against, so that a subexpression that appears more than once
+ * across a set of expressions is only evaluated once per row. Use {@link #memoize(List)}
+ * to have all the structurally equal occurrences of a subexpression share a single
+ * instance of this expression. Since the remembered value is tied to a row, the
+ * expressions sharing it must be evaluated by a single thread.
+ *
+ * @author jtaylor
+ * @since 1.2
+ */
+public class MemoizedExpression extends BaseSingleExpression {
+    private final ImmutableBytesWritable keyPtr = new ImmutableBytesWritable();
+    private final ImmutableBytesWritable value = new ImmutableBytesWritable();
+    private boolean isEvaluated;
+    private Tuple tuple;
+    private byte[] key;
+    private int keyOffset;
+    private int keyLength;
+
+    public MemoizedExpression() {
+    }
+
+    public MemoizedExpression(Expression expression) {
+        super(expression);
+    }
+
+    @Override
+    public boolean evaluate(Tuple tuple, ImmutableBytesWritable ptr) {
+        // Nothing to remember the value for when evaluating a constant expression
+        if (tuple == null) {
+            return getChild().evaluate(tuple, ptr);
+        }
+        // Tuples are reused across rows, so the row is identified by the tuple along with
+        // the position of its key. Comparing the key bytes themselves would cost as much
+        // as evaluating most expressions.
+        tuple.getKey(keyPtr);
+        if (isEvaluated && this.tuple == tuple && key == keyPtr.get() && keyOffset == keyPtr.getOffset() && keyLength == keyPtr.getLength()) {
+            ptr.set(value.get(), value.getOffset(), value.getLength());
+            return true;
+        }
+        // If the child can't be evaluated yet, as when a filter hasn't seen all the columns
+        // of the row, evaluate it again next time.
+        if (!getChild().evaluate(tuple, ptr)) {
+            return false;
+        }
+        isEvaluated = true;
+        this.tuple = tuple;
+        key = keyPtr.get();
+        keyOffset = keyPtr.getOffset();
+        keyLength = keyPtr.getLength();
+        value.set(ptr.get(), ptr.getOffset(), ptr.getLength());
+        return true;
+    }
+
+    @Override
+    public MemoizedExpression copy() {
+        return new MemoizedExpression(getChild().copy());
+    }
+
+    @Override
+    public void reset() {
+        isEvaluated = false;
+        tuple = null;
+        key = null;
+        super.reset();
+    }
+
+    @Override
+    public PDataType getDataType() {
+        return getChild().getDataType();
+    }
+
+    @Override
+    public Integer getByteSize() {
+        return getChild().getByteSize();
+    }
+
+    @Override
+    public Integer getMaxLength() {
+        return getChild().getMaxLength();
+    }
+
+    @Override
+    public Integer getScale() {
+        return getChild().getScale();
+    }
+
+    @Override
+    public ColumnModifier getColumnModifier() {
+        return getChild().getColumnModifier();
+    }
+
+    /**
+     * Visits the child expression directly, so that visitors see the same tree
+     * whether or not it has been memoized.
+     */
+    @Override
+    public final <T> T accept(ExpressionVisitor<T> visitor) {
+        return getChild().accept(visitor);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 + getChild().hashCode();
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) return true;
+        if (obj == null) return false;
+        if (getClass() != obj.getClass()) return false;
+        MemoizedExpression other = (MemoizedExpression)obj;
+        return getChild().equals(other.getChild());
+    }
+
+    @Override
+    public String toString() {
+        return getChild().toString();
+    }
+
+    /**
+     * Rewrites a set of expressions evaluated against the same rows so that each subexpression
+     * appearing more than once across them, based on {@link Object#equals(Object)}, is evaluated
+     * only once per row. The occurrences are replaced by a single {@link MemoizedExpression} shared
+     * between them. Aggregate functions and the expressions containing them are left alone, since
+     * their value depends on the state of the aggregators rather than just on the row. Existing
+     * {@link MemoizedExpression} instances are unwrapped first, so that the expressions may be
+     * rewritten again after being deserialized on the server, where each occurrence would
+     * otherwise have its own instance.
+     * 
+     * The expressions are rewritten in place, so this should be done once nothing relies any
+     * longer on matching them against other expressions by equality.
+     * @param expressions the expressions to rewrite
+     * @return the rewritten expressions, the same as the ones passed in unless one of them
+     * is itself repeated.
+     */
+    public static List<Expression> memoize(List<Expression> expressions) {
+        Map<Expression,Integer> counts = Maps.newHashMap();
+        boolean isRepeated = false;
+        for (Expression expression : expressions) {
+            isRepeated |= count(expression, counts);
+        }
+        Map<Expression,MemoizedExpression> memos = Maps.newHashMap();
+        Map<Expression,Expression> replacements = new IdentityHashMap<Expression,Expression>();
+        if (isRepeated) {
+            for (Expression expression : expressions) {
+                assign(expression, counts, memos, replacements);
+            }
+        }
+        Set<Expression> rewritten = Collections.newSetFromMap(new IdentityHashMap<Expression,Boolean>());
+        List<Expression> memoizedExpressions = Lists.newArrayListWithExpectedSize(expressions.size());
+        for (Expression expression : expressions) {
+            memoizedExpressions.add(rewrite(expression, replacements, rewritten));
+        }
+        return memoizedExpressions;
+    }
+
+    /**
+     * Rewrites a single expression, for which only subexpressions can be repeated, in place.
+     * @see #memoize(List)
+     */
+    public static Expression memoize(Expression expression) {
+        return memoize(Collections.singletonList(expression)).get(0);
+    }
+
+    private static Expression unwrap(Expression expression) {
+        while (expression instanceof MemoizedExpression) {
+            expression = ((MemoizedExpression)expression).getChild();
+        }
+        return expression;
+    }
+
+    private static boolean containsAggregate(Expression expression) {
+        if (expression instanceof AggregateFunction) {
+            return true;
+        }
+        for (Expression child : expression.getChildren()) {
+            if (containsAggregate(child)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isMemoizable(Expression expression) {
+        // Column references and literals are as cheap to evaluate as a remembered value
+        return !expression.getChildren().isEmpty() && !containsAggregate(expression);
+    }
+
+    /**
+     * Counts the occurrences of each memoizable subexpression. Only the first occurrence
+     * is descended into, since the others will be replaced by it.
+     * @return true if any subexpression occurs more than once
+     */
+    private static boolean count(Expression expression, Map<Expression,Integer> counts) {
+        expression = unwrap(expression);
+        if (expression instanceof AggregateFunction) {
+            return false;
+        }
+        if (isMemoizable(expression)) {
+            Integer count = counts.get(expression);
+            if (count != null) {
+                counts.put(expression, count + 1);
+                return true;
+            }
+            counts.put(expression, 1);
+        }
+        boolean isRepeated = false;
+        for (Expression child : expression.getChildren()) {
+            isRepeated |= count(child, counts);
+        }
+        return isRepeated;
+    }
+
+    /**
+     * Determines the replacement of each occurrence of a repeated subexpression, traversing
+     * the expressions in the same order as {@link #count(Expression, Map)}. The lookups by
+     * equality are all done here, before any expression is rewritten, since rewriting an
+     * expression changes its hash code.
+     */
+    private static void assign(Expression expression, Map<Expression,Integer> counts, Map<Expression,MemoizedExpression> memos, Map<Expression,Expression> replacements) {
+        expression = unwrap(expression);
+        if (expression instanceof AggregateFunction) {
+            return;
+        }
+        Integer count = counts.get(expression);
+        if (count != null && count > 1) {
+            MemoizedExpression memo = memos.get(expression);
+            if (memo != null) {
+                replacements.put(expression, memo);
+                return;
+            }
+            memo = new MemoizedExpression(expression);
+            memos.put(expression, memo);
+            replacements.put(expression, memo);
+        }
+        for (Expression child : expression.getChildren()) {
+            assign(child, counts, memos, replacements);
+        }
+    }
+
+    private static Expression rewrite(Expression expression, Map<Expression,Expression> replacements, Set<Expression> rewritten) {
+        expression = unwrap(expression);
+        Expression replacement = replacements.get(expression);
+        // Only the occurrence wrapped by the replacement remains in the tree. An instance may
+        // occur more than once, so only rewrite its children the first time it's seen.
+        if ((replacement == null || unwrap(replacement) == expression) && !(expression instanceof AggregateFunction) && rewritten.add(expression)) {
+            List<Expression> children = expression.getChildren();
+            List<Expression> rewrittenChildren = null;
+            for (int i = 0; i < children.size(); i++) {
+                Expression child = children.get(i);
+                Expression rewrittenChild = rewrite(child, replacements, rewritten);
+                if (rewrittenChild != child) {
+                    if (rewrittenChildren == null) {
+                        rewrittenChildren = Lists.newArrayList(children);
+                    }
+                    rewrittenChildren.set(i, rewrittenChild);
+                }
+            }
+            if (rewrittenChildren != null) {
+                setChildren(expression, rewrittenChildren);
+            }
+        }
+        return replacement == null ? expression : replacement;
+    }
+
+    private static void setChildren(Expression expression, List<Expression> children) {
+        if (expression instanceof BaseCompoundExpression) {
+            ((BaseCompoundExpression)expression).children = ImmutableList.copyOf(children);
+        } else if (expression instanceof BaseSingleExpression) {
+            ((BaseSingleExpression)expression).children = ImmutableList.copyOf(children);
+        }
+    }
+}
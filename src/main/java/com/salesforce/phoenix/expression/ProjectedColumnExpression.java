@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (c) 2013, Salesforce.com, Inc.
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     Redistributions of source code must retain the above copyright notice,
+ *     this list of conditions and the following disclaimer.
+ *     Redistributions in binary form must reproduce the above copyright notice,
+ *     this list of conditions and the following disclaimer in the documentation
+ *     and/or other materials provided with the distribution.
+ *     Neither the name of Salesforce.com nor the names of its contributors may 
+ *     be used to endorse or promote products derived from this software without 
+ *     specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE 
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL 
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR 
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER 
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, 
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE 
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package com.salesforce.phoenix.expression;
+
+import java.util.List;
+
+import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
+
+import com.salesforce.phoenix.schema.*;
+import com.salesforce.phoenix.schema.KeyValueSchema.KeyValueSchemaBuilder;
+import com.salesforce.phoenix.schema.tuple.Tuple;
+import com.salesforce.phoenix.util.TupleUtil;
+
+
+/**
+ * 
+ * Client-side expression that accesses the value of a select expression that was
+ * evaluated on the server and packed, together with the values of the other select
+ * expressions, into the single cell returned for each row.
+ *
+ * @author jtaylor
+ * @since 1.2
+ */
+public class ProjectedColumnExpression extends BaseTerminalExpression {
+    private final Expression expression;
+    private final KeyValueSchema schema;
+    private final ValueBitSet bitSet;
+    private final int position;
+    
+    public ProjectedColumnExpression(Expression expression, KeyValueSchema schema, int position) {
+        this.expression = expression;
+        this.schema = schema;
+        this.bitSet = ValueBitSet.newInstance(schema);
+        this.position = position;
+    }
+    
+    /**
+     * Build the schema of the packed cell holding the values of the given expressions.
+     * Fixed width types without an intrinsic byte size (i.e. CHAR and BINARY) are stored
+     * as variable length, since their values are not guaranteed to be padded out to the
+     * max length, as are expressions of unknown type such as a null literal. All fields
+     * are nullable.
+     */
+    public static KeyValueSchema newSchema(List<Expression> expressions) {
+        KeyValueSchemaBuilder builder = new KeyValueSchemaBuilder();
+        for (Expression expression : expressions) {
+            PDataType type = expression.getDataType();
+            final PDataType fieldType = type != null && type.isFixedWidth() && type.getByteSize() != null ? type : PDataType.VARCHAR;
+            builder.addField(new PDatum() {
+                @Override
+                public boolean isNullable() {
+                    return true;
+                }
+                @Override
+                public PDataType getDataType() {
+                    return fieldType;
+                }
+                @Override
+                public Integer getByteSize() {
+                    return fieldType.getByteSize();
+                }
+                @Override
+                public Integer getMaxLength() {
+                    return null;
+                }
+                @Override
+                public Integer getScale() {
+                    return null;
+                }
+                @Override
+                public ColumnModifier getColumnModifier() {
+                    return null;
+                }
+            });
+        }
+        return builder.setMinNullable(0).build();
+    }
+
+    @Override
+    public boolean evaluate(Tuple tuple, ImmutableBytesWritable ptr) {
+        TupleUtil.getAggregateValue(tuple, ptr);
+        bitSet.clear();
+        bitSet.or(ptr);
+        return schema.setAccessor(ptr, position, bitSet);
+    }
+
+    @Override
+    public ProjectedColumnExpression copy() {
+        return new ProjectedColumnExpression(expression, schema, position);
+    }
+
+    @Override
+    public PDataType getDataType() {
+        return expression.getDataType();
+    }
+
+    @Override
+    public boolean isNullable() {
+        return expression.isNullable();
+    }
+
+    @Override
+    public Integer getByteSize() {
+        return expression.getByteSize();
+    }
+
+    @Override
+    public Integer getMaxLength() {
+        return expression.getMaxLength();
+    }
+
+    @Override
+    public Integer getScale() {
+        return expression.getScale();
+    }
+
+    @Override
+    public ColumnModifier getColumnModifier() {
+        return expression.getColumnModifier();
+    }
+
+    @Override
+    public String toString() {
+        return expression.toString();
+    }
+}
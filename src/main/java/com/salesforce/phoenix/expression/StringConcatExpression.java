@@ -28,6 +28,7 @@
 package com.salesforce.phoenix.expression;
 
 
+import java.util.Arrays;
 import java.util.List;
 
 import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
@@ -47,6 +48,9 @@ import com.salesforce.phoenix.util.ByteUtil;
  */
 
 public class StringConcatExpression extends BaseCompoundExpression {
+    // Concatenation happens here, so that each evaluation makes a single copy of the result
+    private byte[] buffer = ByteUtil.EMPTY_BYTE_ARRAY;
+
     public StringConcatExpression() {
     }
 
@@ -75,27 +79,51 @@ public class StringConcatExpression extends BaseCompoundExpression {
         return t;
     }
 
+    @Override
+    public StringConcatExpression copy() {
+        StringConcatExpression copy = (StringConcatExpression)super.copy();
+        copy.buffer = ByteUtil.EMPTY_BYTE_ARRAY;
+        return copy;
+    }
+
     @Override
     public boolean evaluate(Tuple tuple, ImmutableBytesWritable ptr) {
-        byte[] result = ByteUtil.EMPTY_BYTE_ARRAY;
+        int length = 0;
         for (int i=0; i<children.size(); i++) {
             if (children.get(i).getDataType() == null || !children.get(i).evaluate(tuple, ptr)) {
                 continue;
             }
             PDataType childType = children.get(i).getDataType();
             ColumnModifier columnModifier = children.get(i).getColumnModifier();
-            // We could potentially not invert the bytes, but we might as well since we're allocating
-            // additional space here anyway.
+            // We could potentially not invert the bytes, but we might as well since we're copying
+            // them into the buffer anyway.
             if (childType.isCoercibleTo(PDataType.VARCHAR)) {
-                result = ByteUtil.concat(result, ByteUtil.concat(columnModifier, ptr));
+                length = append(length, ptr.get(), ptr.getOffset(), ptr.getLength(), columnModifier);
             } else {
-                result = ByteUtil.concat(result, PDataType.VARCHAR.toBytes(childType.toObject(ptr, columnModifier).toString()));
+                byte[] bytes = PDataType.VARCHAR.toBytes(childType.toObject(ptr, columnModifier).toString());
+                length = append(length, bytes, 0, bytes.length, null);
             }
         }
-        ptr.set(result);
+        // The result may be held onto by the caller (for example as a group by key), so it
+        // gets its own array instead of pointing into the reused buffer.
+        ptr.set(length == 0 ? ByteUtil.EMPTY_BYTE_ARRAY : Arrays.copyOf(buffer, length));
         return true;
     }
 
+    private int append(int length, byte[] bytes, int offset, int count, ColumnModifier columnModifier) {
+        if (length + count > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(length + count, buffer.length * 2));
+        }
+        if (columnModifier == null) {
+            System.arraycopy(bytes, offset, buffer, length, count);
+        } else {
+            for (int i = 0; i < count; i++) {
+                buffer[length + i] = columnModifier.apply(bytes[offset + i]);
+            }
+        }
+        return length + count;
+    }
+
     @Override
     public PDataType getDataType() {
         return PDataType.VARCHAR;
@@ -119,6 +119,10 @@ abstract public class Aggregators {
         return aggregators;
     }
     
+    public SingleAggregateFunction[] getFunctions() {
+        return functions;
+    }
+    
     abstract public Aggregator[] newAggregators();
     
     public void reset(Aggregator[] aggregators) {
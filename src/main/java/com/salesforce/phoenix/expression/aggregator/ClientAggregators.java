@@ -27,6 +27,7 @@
  ******************************************************************************/
 package com.salesforce.phoenix.expression.aggregator;
 
+import java.util.Arrays;
 import java.util.List;
 
 import com.salesforce.phoenix.expression.function.SingleAggregateFunction;
@@ -45,6 +46,7 @@ import com.salesforce.phoenix.util.TupleUtil;
  */
 public class ClientAggregators extends Aggregators {
     private final ValueBitSet tempValueSet; 
+    private final int minNullableIndex;
   
     private static Aggregator[] getAggregators(List<SingleAggregateFunction> aggFuncs) {
         Aggregator[] aggregators = new Aggregator[aggFuncs.size()];
@@ -57,6 +59,15 @@ public class ClientAggregators extends Aggregators {
     public ClientAggregators(List<SingleAggregateFunction> functions, int minNullableIndex) {
         super(functions.toArray(new SingleAggregateFunction[functions.size()]), getAggregators(functions), minNullableIndex);
         this.tempValueSet = ValueBitSet.newInstance(schema);
+        this.minNullableIndex = minNullableIndex;
+    }
+    
+    /**
+     * Create aggregators for the same functions that don't share the state used while
+     * aggregating with this instance, so that they may be used by another thread.
+     */
+    public ClientAggregators copy() {
+        return new ClientAggregators(Arrays.asList(functions), minNullableIndex);
     }
     
     @Override
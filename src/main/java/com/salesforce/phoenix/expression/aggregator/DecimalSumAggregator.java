@@ -31,6 +31,7 @@ import java.math.BigDecimal;
 
 import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
 
+import com.google.common.math.LongMath;
 import com.salesforce.phoenix.schema.ColumnModifier;
 import com.salesforce.phoenix.schema.PDataType;
 import com.salesforce.phoenix.schema.tuple.Tuple;
@@ -39,17 +40,28 @@ import com.salesforce.phoenix.util.SizedUtil;
 
 /**
  * 
- * Aggregator that sums BigDecimal values
+ * Aggregator that sums BigDecimal values. If the scale of the values is known,
+ * they are summed as a long scaled by that scale for as long as the sum fits,
+ * switching over to BigDecimal arithmetic otherwise.
  *
  * @author jtaylor
  * @since 0.1
  */
 public class DecimalSumAggregator extends BaseAggregator {
-    private BigDecimal sum = BigDecimal.ZERO;
+    private final Integer scale;
+    private long scaledSum;
+    // Null while the sum is being kept in scaledSum
+    private BigDecimal sum;
     private byte[] sumBuffer;
     
     public DecimalSumAggregator(ColumnModifier columnModifier) {
+        this(columnModifier, null);
+    }
+    
+    public DecimalSumAggregator(ColumnModifier columnModifier, Integer scale) {
         super(columnModifier);
+        this.scale = scale;
+        this.sum = scale == null ? BigDecimal.ZERO : null;
     }
     
     private PDataType getInputDataType() {
@@ -58,11 +70,21 @@ public class DecimalSumAggregator extends BaseAggregator {
     
     @Override
     public void aggregate(Tuple tuple, ImmutableBytesWritable ptr) {
-        BigDecimal value = (BigDecimal)getDataType().toObject(ptr, getInputDataType(), columnModifier);
-        sum = sum.add(value);
         if (sumBuffer == null) {
             sumBuffer = new byte[getDataType().getByteSize()];
         }
+        if (sum == null) {
+            try {
+                scaledSum = LongMath.checkedAdd(scaledSum, PDataType.toScaledLong(ptr.get(), ptr.getOffset(), ptr.getLength(), columnModifier, scale));
+                return;
+            } catch (ArithmeticException e) {
+                // Either the sum no longer fits into a long or the value has more fractional
+                // digits than expected, so continue with BigDecimal arithmetic from here on.
+                sum = BigDecimal.valueOf(scaledSum, scale);
+            }
+        }
+        BigDecimal value = (BigDecimal)getDataType().toObject(ptr, getInputDataType(), columnModifier);
+        sum = sum.add(value);
     }
     
     @Override
@@ -70,7 +92,7 @@ public class DecimalSumAggregator extends BaseAggregator {
         if (sumBuffer == null) {
             return false;
         }
-        int len = getDataType().toBytes(sum, sumBuffer, 0);
+        int len = sum == null ? PDataType.toBytes(scaledSum, scale, sumBuffer, 0) : getDataType().toBytes(sum, sumBuffer, 0);
         ptr.set(sumBuffer, 0, len);
         return true;
     }
@@ -82,18 +104,19 @@ public class DecimalSumAggregator extends BaseAggregator {
     
     @Override
     public void reset() {
-        sum = BigDecimal.ZERO;
+        scaledSum = 0;
+        sum = scale == null ? BigDecimal.ZERO : null;
         sumBuffer = null;
         super.reset();
     }
 
     @Override
     public String toString() {
-        return "DECIMAL SUM [sum=" + sum + "]";
+        return "DECIMAL SUM [sum=" + (sum == null ? BigDecimal.valueOf(scaledSum, scale) : sum) + "]";
     }
 
     @Override
     public int getSize() {
-        return super.getSize() + SizedUtil.BIG_DECIMAL_SIZE + SizedUtil.ARRAY_SIZE + getDataType().getByteSize();
+        return super.getSize() + SizedUtil.LONG_SIZE + SizedUtil.BIG_DECIMAL_SIZE + SizedUtil.ARRAY_SIZE + getDataType().getByteSize();
     }
 }
@@ -42,7 +42,7 @@ import com.salesforce.phoenix.util.SizedUtil;
  * @author jtaylor
  * @since 0.1
  */
-abstract public class NumberSumAggregator extends BaseAggregator {
+abstract public class NumberSumAggregator extends BaseAggregator implements LongBatchAggregator {
     private long sum = 0;
     private byte[] buffer;
     
@@ -70,6 +70,24 @@ abstract public class NumberSumAggregator extends BaseAggregator {
         }
     }
     
+    @Override
+    public void aggregate(long[] values, boolean[] nulls, int count) {
+        long batchSum = 0;
+        int nonNullCount = 0;
+        for (int i = 0; i < count; i++) {
+            if (!nulls[i]) {
+                batchSum += values[i];
+                nonNullCount++;
+            }
+        }
+        if (nonNullCount > 0) {
+            sum += batchSum;
+            if (buffer == null) {
+                initBuffer();
+            }
+        }
+    }
+    
     @Override
     public boolean evaluate(Tuple tuple, ImmutableBytesWritable ptr) {
         if (buffer == null) {
@@ -37,6 +37,7 @@ import com.salesforce.phoenix.expression.Expression;
 import com.salesforce.phoenix.expression.ExpressionType;
 import com.salesforce.phoenix.expression.function.SingleAggregateFunction;
 import com.salesforce.phoenix.schema.tuple.Tuple;
+import com.salesforce.phoenix.util.ExpressionUtil;
 
 
 /**
@@ -49,6 +50,10 @@ import com.salesforce.phoenix.schema.tuple.Tuple;
 public class ServerAggregators extends Aggregators {
     public static final ServerAggregators EMPTY_AGGREGATORS = new ServerAggregators(new SingleAggregateFunction[0], new Aggregator[0], new Expression[0], 0);
     private final Expression[] expressions;
+    private final int minNullableIndex;
+    // Values of a batch of rows, reused across batches
+    private long[] batchValues;
+    private boolean[] batchNulls;
     
     private ServerAggregators(SingleAggregateFunction[] functions, Aggregator[] aggregators, Expression[] expressions, int minNullableIndex) {
         super(functions, aggregators, minNullableIndex);
@@ -57,6 +62,29 @@ public class ServerAggregators extends Aggregators {
                     + ") must match the number of expressions (" + Arrays.toString(expressions) + ")");
         }
         this.expressions = expressions;
+        this.minNullableIndex = minNullableIndex;
+    }
+    
+    private static ServerAggregators newServerAggregators(SingleAggregateFunction[] functions, int minNullableIndex) {
+        Aggregator[] aggregators = new Aggregator[functions.length];
+        Expression[] expressions = new Expression[functions.length];
+        for (int i = 0; i < functions.length; i++) {
+            aggregators[i] = functions[i].getAggregator();
+            expressions[i] = functions[i].getAggregatorExpression();
+        }
+        return new ServerAggregators(functions, aggregators, expressions, minNullableIndex);
+    }
+    
+    /**
+     * Copy the aggregators, so that a scan may use them while other scans use the
+     * original. The copy shares none of the aggregator or expression state of the original.
+     */
+    public ServerAggregators copy() {
+        SingleAggregateFunction[] functions = new SingleAggregateFunction[this.functions.length];
+        for (int i = 0; i < functions.length; i++) {
+            functions[i] = this.functions[i].copy();
+        }
+        return newServerAggregators(functions, minNullableIndex);
     }
     
     @Override
@@ -68,6 +96,32 @@ public class ServerAggregators extends Aggregators {
         }
     }
     
+    /**
+     * Aggregate the first count rows of a batch, one aggregator at a time. Aggregators that
+     * implement {@link LongBatchAggregator} over an expression that may be evaluated into
+     * longs aggregate the whole batch in one call, while the others aggregate row by row.
+     */
+    public void aggregate(Aggregator[] aggregators, Tuple[] results, int count) {
+        for (int i = 0; i < expressions.length; i++) {
+            Expression expression = expressions[i];
+            Aggregator aggregator = aggregators[i];
+            if (aggregator instanceof LongBatchAggregator && ExpressionUtil.isLongBatchEvaluable(expression)) {
+                if (batchValues == null || batchValues.length < count) {
+                    batchValues = new long[count];
+                    batchNulls = new boolean[count];
+                }
+                ExpressionUtil.evaluate(expression, results, count, batchValues, batchNulls, ptr);
+                ((LongBatchAggregator)aggregator).aggregate(batchValues, batchNulls, count);
+            } else {
+                for (int j = 0; j < count; j++) {
+                    if (expression.evaluate(results[j], ptr)) {
+                        aggregator.aggregate(results[j], ptr);
+                    }
+                }
+            }
+        }
+    }
+    
     /**
      * Serialize an Aggregator into a byte array
      * @param aggFuncs list of aggregator to serialize
@@ -119,17 +173,13 @@ public class ServerAggregators extends Aggregators {
             DataInputStream input = new DataInputStream(stream);
             int minNullableIndex = WritableUtils.readVInt(input);
             int len = WritableUtils.readVInt(input);
-            Aggregator[] aggregators = new Aggregator[len];
-            Expression[] expressions = new Expression[len];
             SingleAggregateFunction[] functions = new SingleAggregateFunction[len];
-            for (int i = 0; i < aggregators.length; i++) {
-                SingleAggregateFunction aggFunc = (SingleAggregateFunction)ExpressionType.values()[WritableUtils.readVInt(input)].newInstance();
+            for (int i = 0; i < functions.length; i++) {
+                SingleAggregateFunction aggFunc = (SingleAggregateFunction)ExpressionType.fromValue(WritableUtils.readVInt(input)).newInstance();
                 aggFunc.readFields(input);
                 functions[i] = aggFunc;
-                aggregators[i] = aggFunc.getAggregator();
-                expressions[i] = aggFunc.getAggregatorExpression();
             }
-            return new ServerAggregators(functions, aggregators,expressions, minNullableIndex);
+            return newServerAggregators(functions, minNullableIndex);
         } catch (IOException e) {
             throw new RuntimeException(e);
         } finally {
@@ -29,8 +29,9 @@ package com.salesforce.phoenix.expression.function;
 
 import java.io.DataInput;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.regex.Matcher;
 
 import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
 
@@ -40,6 +41,7 @@ import com.salesforce.phoenix.parse.FunctionParseNode.Argument;
 import com.salesforce.phoenix.parse.FunctionParseNode.BuiltInFunction;
 import com.salesforce.phoenix.schema.PDataType;
 import com.salesforce.phoenix.schema.tuple.Tuple;
+import com.salesforce.phoenix.util.*;
 
 
 /**
@@ -64,8 +66,12 @@ import com.salesforce.phoenix.schema.tuple.Tuple;
 public class RegexpReplaceFunction extends ScalarFunction {
     public static final String NAME = "REGEXP_REPLACE";
 
-    private boolean hasReplaceStr;
-    private Pattern pattern;
+    private String replaceStr;
+    private Matcher matcher;
+    // Reused across rows so that values are not decoded into Strings
+    private Utf8CharSequence sourceChars = new Utf8CharSequence();
+    private StringBuffer replacedChars = new StringBuffer();
+    private byte[] encodeBuffer = ByteUtil.EMPTY_BYTE_ARRAY;
     
     public RegexpReplaceFunction() { }
 
@@ -76,39 +82,62 @@ public class RegexpReplaceFunction extends ScalarFunction {
     }
 
     private void init() {
-        hasReplaceStr = ((LiteralExpression)getReplaceStrExpression()).getValue() != null;
+        replaceStr = (String)((LiteralExpression)getReplaceStrExpression()).getValue();
+        if (replaceStr == null) {
+            replaceStr = "";
+        }
         Object patternString = ((LiteralExpression)children.get(1)).getValue();
         if (patternString != null) {
-            pattern = Pattern.compile((String)patternString);
+            matcher = PatternUtil.getPattern((String)patternString).matcher("");
+        }
+    }
+
+    @Override
+    public RegexpReplaceFunction copy() {
+        RegexpReplaceFunction copy = (RegexpReplaceFunction)super.copy();
+        if (matcher != null) {
+            copy.matcher = matcher.pattern().matcher("");
         }
+        copy.sourceChars = new Utf8CharSequence();
+        copy.replacedChars = new StringBuffer();
+        copy.encodeBuffer = ByteUtil.EMPTY_BYTE_ARRAY;
+        return copy;
     }
 
     @Override
     public boolean evaluate(Tuple tuple, ImmutableBytesWritable ptr) {
         // Can't parse if there is no replacement pattern.
-        if (pattern == null) {
+        if (matcher == null) {
             return false;
         }
         Expression sourceStrExpression = getSourceStrExpression();
         if (!sourceStrExpression.evaluate(tuple, ptr)) {
             return false;
         }
-        String sourceStr = (String)PDataType.VARCHAR.toObject(ptr, sourceStrExpression.getColumnModifier());
-        if (sourceStr == null) {
+        if (ptr.getLength() == 0) {
             return false;
         }
-        String replaceStr;
-        if (hasReplaceStr) {
-            Expression replaceStrExpression = this.getReplaceStrExpression();
-            if (!replaceStrExpression.evaluate(tuple, ptr)) {
-                return false;
+        sourceChars.set(ptr.get(), ptr.getOffset(), ptr.getLength(), sourceStrExpression.getColumnModifier());
+        matcher.reset(sourceChars);
+        if (!matcher.find()) {
+            // Nothing to replace, so the value is returned as is
+            if (sourceStrExpression.getColumnModifier() != null) {
+                ptr.set(Arrays.copyOfRange(sourceChars.getBytes(), sourceChars.getOffset(), sourceChars.getOffset() + sourceChars.getByteLength()));
             }
-            replaceStr = (String)PDataType.VARCHAR.toObject(ptr, replaceStrExpression.getColumnModifier());
-        } else {
-            replaceStr = "";
+            return true;
+        }
+        replacedChars.setLength(0);
+        do {
+            matcher.appendReplacement(replacedChars, replaceStr);
+        } while (matcher.find());
+        matcher.appendTail(replacedChars);
+        int maxLength = replacedChars.length() * 3;
+        if (encodeBuffer.length < maxLength) {
+            encodeBuffer = new byte[maxLength];
         }
-        String replacedStr = pattern.matcher(sourceStr).replaceAll(replaceStr);
-        ptr.set(PDataType.VARCHAR.toBytes(replacedStr));
+        // The result is copied out of the buffer, since callers such as the grouping
+        // of rows by key may hold on to it while the next row is evaluated
+        ptr.set(Arrays.copyOf(encodeBuffer, StringUtil.encodeUtf8(replacedChars, encodeBuffer)));
         return true;
     }
 
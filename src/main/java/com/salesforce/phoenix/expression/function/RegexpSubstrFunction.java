@@ -27,9 +27,11 @@
  ******************************************************************************/
 package com.salesforce.phoenix.expression.function;
 
+import java.io.DataInput;
+import java.io.IOException;
+import java.util.Arrays;
 import java.util.List;
 import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
 
@@ -39,7 +41,7 @@ import com.salesforce.phoenix.parse.FunctionParseNode.Argument;
 import com.salesforce.phoenix.parse.FunctionParseNode.BuiltInFunction;
 import com.salesforce.phoenix.schema.PDataType;
 import com.salesforce.phoenix.schema.tuple.Tuple;
-import com.salesforce.phoenix.util.ByteUtil;
+import com.salesforce.phoenix.util.*;
 
 
 /**
@@ -61,7 +63,8 @@ import com.salesforce.phoenix.util.ByteUtil;
 public class RegexpSubstrFunction extends PrefixFunction {
     public static final String NAME = "REGEXP_SUBSTR";
 
-    private Pattern pattern;
+    private Matcher matcher;
+    private Utf8CharSequence sourceChars = new Utf8CharSequence();
     private boolean isOffsetConstant;
     private Integer byteSize;
 
@@ -75,7 +78,7 @@ public class RegexpSubstrFunction extends PrefixFunction {
     private void init() {
         Object patternString = ((LiteralExpression)children.get(1)).getValue();
         if (patternString != null) {
-            pattern = Pattern.compile((String)patternString);
+            matcher = PatternUtil.getPattern((String)patternString).matcher("");
         }
         // If the source string has a fixed width, then the max length would be the length 
         // of the source string minus the offset, or the absolute value of the offset if 
@@ -95,18 +98,31 @@ public class RegexpSubstrFunction extends PrefixFunction {
         }
     }
 
+    @Override
+    public RegexpSubstrFunction copy() {
+        RegexpSubstrFunction copy = (RegexpSubstrFunction)super.copy();
+        if (matcher != null) {
+            copy.matcher = matcher.pattern().matcher("");
+        }
+        copy.sourceChars = new Utf8CharSequence();
+        return copy;
+    }
+
     @Override
     public boolean evaluate(Tuple tuple, ImmutableBytesWritable ptr) {
-        if (pattern == null) {
+        if (matcher == null) {
             return false;
         }
-        if (!getSourceStrExpression().evaluate(tuple, ptr)) {
+        Expression sourceStrExpression = getSourceStrExpression();
+        if (!sourceStrExpression.evaluate(tuple, ptr)) {
             return false;
         }
-        String sourceStr = (String)PDataType.VARCHAR.toObject(ptr, getSourceStrExpression().getColumnModifier());
-        if (sourceStr == null) {
+        if (ptr.getLength() == 0) {
             return false;
         }
+        // Match against the bytes of the value in place, so that the substring found
+        // can be returned as a slice of them
+        sourceChars.set(ptr.get(), ptr.getOffset(), ptr.getLength(), sourceStrExpression.getColumnModifier());
 
         Expression offsetExpression = getOffsetExpression();
         if (!offsetExpression.evaluate(tuple, ptr)) {
@@ -114,7 +130,7 @@ public class RegexpSubstrFunction extends PrefixFunction {
         }
         int offset = offsetExpression.getDataType().getCodec().decodeInt(ptr, offsetExpression.getColumnModifier());
 
-        int strlen = sourceStr.length();
+        int strlen = sourceChars.length();
         // Account for 1 versus 0-based offset
         offset = offset - (offset <= 0 ? 0 : 1);
         if (offset < 0) { // Offset < 0 means get from end
@@ -124,17 +140,29 @@ public class RegexpSubstrFunction extends PrefixFunction {
             return false;
         }
 
-        Matcher matcher = pattern.matcher(sourceStr);
+        matcher.reset(sourceChars);
         boolean hasSubString = matcher.find(offset);
         if (!hasSubString) {
             ptr.set(ByteUtil.EMPTY_BYTE_ARRAY);
             return true;
         }
-        String subString = matcher.group();
-        ptr.set(PDataType.VARCHAR.toBytes(subString));
+        int start = sourceChars.getByteOffset(matcher.start());
+        int end = sourceChars.getByteOffset(matcher.end());
+        if (sourceStrExpression.getColumnModifier() == null) {
+            ptr.set(sourceChars.getBytes(), start, end - start);
+        } else {
+            // Don't point into the buffer the value was inverted into, as it's reused for the next row
+            ptr.set(Arrays.copyOfRange(sourceChars.getBytes(), start, end));
+        }
         return true;
     }
 
+    @Override
+    public void readFields(DataInput input) throws IOException {
+        super.readFields(input);
+        init();
+    }
+
     @Override
     public Integer getByteSize() {
         return byteSize;
@@ -149,6 +149,17 @@ abstract public class SingleAggregateFunction extends AggregateFunction {
         aggregator = newServerAggregator();
     }
 
+    /**
+     * Copies of aggregate functions are only made of the ones deserialized on the
+     * server side, so the copy gets a new server-side aggregator.
+     */
+    @Override
+    public SingleAggregateFunction copy() {
+        SingleAggregateFunction copy = (SingleAggregateFunction)super.copy();
+        copy.aggregator = newServerAggregator();
+        return copy;
+    }
+
     @Override
     public boolean isNullable() {
         return true;
@@ -127,21 +127,33 @@ public class SubstrFunction extends PrefixFunction {
         try {
             boolean isCharType = getStrExpression().getDataType() == PDataType.CHAR;
             ColumnModifier columnModifier = getStrExpression().getColumnModifier();
-            int strlen = isCharType ? ptr.getLength() : StringUtil.calculateUTF8Length(ptr.get(), ptr.getOffset(), ptr.getLength(), columnModifier);
             
             // Account for 1 versus 0-based offset
             offset = offset - (offset <= 0 ? 0 : 1);
-            if (offset < 0) { // Offset < 0 means get from end
-                offset = strlen + offset;
-            }
-            if (offset < 0 || offset >= strlen) {
-                return false;
+            int byteOffset, byteLength;
+            if (offset >= 0 && !isCharType) {
+                // Walk forward from the start, so that only the bytes up to the end of the
+                // substring are looked at rather than calculating the length of the whole string
+                int endOffset = ptr.getOffset() + ptr.getLength();
+                byteOffset = StringUtil.getByteLengthForUtf8SubStr(ptr.get(), ptr.getOffset(), endOffset, offset, columnModifier);
+                if (ptr.getOffset() + byteOffset >= endOffset) {
+                    return false;
+                }
+                byteLength = length == -1 ? ptr.getLength() - byteOffset : StringUtil.getByteLengthForUtf8SubStr(ptr.get(), ptr.getOffset() + byteOffset, endOffset, length, columnModifier);
+            } else {
+                int strlen = isCharType ? ptr.getLength() : StringUtil.calculateUTF8Length(ptr.get(), ptr.getOffset(), ptr.getLength(), columnModifier);
+                if (offset < 0) { // Offset < 0 means get from end
+                    offset = strlen + offset;
+                }
+                if (offset < 0 || offset >= strlen) {
+                    return false;
+                }
+                int maxLength = strlen - offset;
+                length = length == -1 ? maxLength : Math.min(length,maxLength);
+                
+                byteOffset = isCharType ? offset : StringUtil.getByteLengthForUtf8SubStr(ptr.get(), ptr.getOffset(), offset, columnModifier);
+                byteLength = isCharType ? length : StringUtil.getByteLengthForUtf8SubStr(ptr.get(), ptr.getOffset() + byteOffset, length, columnModifier);
             }
-            int maxLength = strlen - offset;
-            length = length == -1 ? maxLength : Math.min(length,maxLength);
-            
-            int byteOffset = isCharType ? offset : StringUtil.getByteLengthForUtf8SubStr(ptr.get(), ptr.getOffset(), offset, columnModifier);
-            int byteLength = isCharType ? length : StringUtil.getByteLengthForUtf8SubStr(ptr.get(), ptr.getOffset() + byteOffset, length, columnModifier);
             ptr.set(ptr.get(), ptr.getOffset() + byteOffset, byteLength);
             return true;
         } catch (UnsupportedEncodingException e) {
@@ -72,7 +72,7 @@ public class SumAggregateFunction extends DelegateConstantToCountAggregateFuncti
         ColumnModifier columnModifier = getAggregatorExpression().getColumnModifier();
         switch( type ) {
             case DECIMAL:
-                return new DecimalSumAggregator(columnModifier);
+                return new DecimalSumAggregator(columnModifier, getAggregatorExpression().getScale());
             default:
                 return new NumberSumAggregator(columnModifier) {
                     @Override
@@ -90,7 +90,7 @@ public class SumAggregateFunction extends DelegateConstantToCountAggregateFuncti
                 // On the client, we'll always aggregate over non modified column values,
                 // because we always get them back from the server in their non modified
                 // form.
-                return new DecimalSumAggregator(null);
+                return new DecimalSumAggregator(null, getAggregatorExpression().getScale());
             case LONG:
                 return new LongSumAggregator(null);
             default:
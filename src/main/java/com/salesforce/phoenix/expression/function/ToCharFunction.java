@@ -89,6 +89,13 @@ public class ToCharFunction extends ScalarFunction {
         return true;
     }
 
+    @Override
+    public ToCharFunction copy() {
+        ToCharFunction copy = (ToCharFunction)super.copy();
+        copy.dateFormatter = (Format)dateFormatter.clone();
+        return copy;
+    }
+
     @Override
     public boolean evaluate(Tuple tuple, ImmutableBytesWritable ptr) {
         Expression expression = getExpression();
@@ -89,6 +89,13 @@ public class ToDateFunction extends ScalarFunction {
         return true;
     }
 
+    @Override
+    public ToDateFunction copy() {
+        ToDateFunction copy = (ToDateFunction)super.copy();
+        copy.dateParser = (Format)dateParser.clone();
+        return copy;
+    }
+
     @Override
     public boolean evaluate(Tuple tuple, ImmutableBytesWritable ptr) {
         Expression expression = getExpression();
@@ -81,6 +81,15 @@ public class ToNumberFunction extends ScalarFunction {
         return result;
     }
     
+    @Override
+    public ToNumberFunction copy() {
+        ToNumberFunction copy = (ToNumberFunction)super.copy();
+        if (format != null) {
+            copy.format = (DecimalFormat)format.clone();
+        }
+        return copy;
+    }
+
     @Override
     public boolean evaluate(Tuple tuple, ImmutableBytesWritable ptr) {
         Expression expression = getExpression();
@@ -9,6 +9,7 @@ import com.salesforce.phoenix.expression.Expression;
 import com.salesforce.phoenix.parse.FunctionParseNode;
 import com.salesforce.phoenix.schema.PDataType;
 import com.salesforce.phoenix.schema.tuple.Tuple;
+import com.salesforce.phoenix.util.StringUtil;
 
 @FunctionParseNode.BuiltInFunction(name=UpperFunction.NAME,  args={
         @FunctionParseNode.Argument(allowedTypes={PDataType.VARCHAR})} )
@@ -28,6 +29,10 @@ public class UpperFunction extends ScalarFunction {
             return false;
         }
 
+        if (StringUtil.toAsciiCase(ptr, getStrExpression().getColumnModifier(), true)) {
+            return true;
+        }
+
         String sourceStr = (String)PDataType.VARCHAR.toObject(ptr, getStrExpression().getColumnModifier());
         if (sourceStr == null) {
             return true;
@@ -35,6 +35,7 @@ import org.apache.hadoop.io.WritableUtils;
 
 import com.salesforce.phoenix.expression.Expression;
 import com.salesforce.phoenix.expression.ExpressionType;
+import com.salesforce.phoenix.expression.MemoizedExpression;
 import com.salesforce.phoenix.schema.IllegalDataException;
 import com.salesforce.phoenix.schema.tuple.Tuple;
 
@@ -106,8 +107,10 @@ abstract public class BooleanExpressionFilter extends FilterBase {
 
     @Override
     public void readFields(DataInput input) throws IOException {
-        expression = ExpressionType.values()[WritableUtils.readVInt(input)].newInstance();
+        expression = ExpressionType.fromValue(WritableUtils.readVInt(input)).newInstance();
         expression.readFields(input);
+        // Deserializing gives each occurrence of a repeated subexpression its own copy
+        expression = MemoizedExpression.memoize(expression);
     }
 
     @Override
@@ -27,10 +27,6 @@
  ******************************************************************************/
 package com.salesforce.phoenix.filter;
 
-import java.util.TreeSet;
-
-import org.apache.hadoop.hbase.util.Bytes;
-
 import com.salesforce.phoenix.expression.Expression;
 
 
@@ -43,8 +39,6 @@ import com.salesforce.phoenix.expression.Expression;
  * @since 0.1
  */
 public class MultiCFCQKeyValueComparisonFilter extends MultiKeyValueComparisonFilter {
-    private final ImmutablePairBytesPtr ptr = new ImmutablePairBytesPtr();
-    private TreeSet<byte[]> cfSet;
 
     public MultiCFCQKeyValueComparisonFilter() {
     }
@@ -52,91 +46,4 @@ public class MultiCFCQKeyValueComparisonFilter extends MultiKeyValueComparisonFi
     public MultiCFCQKeyValueComparisonFilter(Expression expression) {
         super(expression);
     }
-
-    @Override
-    protected void init() {
-        cfSet = new TreeSet<byte[]>(Bytes.BYTES_COMPARATOR);
-        super.init();
-    }
-
-    @Override
-    protected Object setColumnKey(byte[] cf, int cfOffset, int cfLength,
-            byte[] cq, int cqOffset, int cqLength) {
-        ptr.set(cf, cfOffset, cfLength, cq, cqOffset, cqLength);
-        return ptr;
-    }
-
-    @Override
-    protected Object newColumnKey(byte[] cf, int cfOffset, int cfLength,
-            byte[] cq, int cqOffset, int cqLength) {
-
-        byte[] cfKey;
-        if (cfOffset == 0 && cf.length == cfLength) {
-            cfKey = cf;
-        } else {
-            // Copy bytes here, but figure cf names are typically a few bytes at most,
-            // so this will be better than creating an ImmutableBytesPtr
-            cfKey = new byte[cfLength];
-            System.arraycopy(cf, cfOffset, cfKey, 0, cfLength);
-        }
-        cfSet.add(cfKey);
-        return new ImmutablePairBytesPtr(cf, cfOffset, cfLength, cq, cqOffset, cqLength);
-    }
-
-    private static class ImmutablePairBytesPtr {
-        private byte[] bytes1;
-        private int offset1;
-        private int length1;
-        private byte[] bytes2;
-        private int offset2;
-        private int length2;
-        private int hashCode;
-
-        private ImmutablePairBytesPtr() {
-        }
-
-        private ImmutablePairBytesPtr(byte[] bytes1, int offset1, int length1, byte[] bytes2, int offset2, int length2) {
-            set(bytes1, offset1, length1, bytes2, offset2, length2);
-        }
-
-        @Override
-        public int hashCode() {
-            return hashCode;
-        }
-
-        public void set(byte[] bytes1, int offset1, int length1, byte[] bytes2, int offset2, int length2) {
-            this.bytes1 = bytes1;
-            this.offset1 = offset1;
-            this.length1 = length1;
-            this.bytes2 = bytes2;
-            this.offset2 = offset2;
-            this.length2 = length2;
-            int hash = 1;
-            for (int i = offset1; i < offset1 + length1; i++)
-                hash = (31 * hash) + bytes1[i];
-            for (int i = offset2; i < offset2 + length2; i++)
-                hash = (31 * hash) + bytes2[i];
-            hashCode = hash;
-        }
-
-        @Override
-        public boolean equals(Object obj) {
-            if (this == obj) return true;
-            if (obj == null) return false;
-            if (getClass() != obj.getClass()) return false;
-            ImmutablePairBytesPtr that = (ImmutablePairBytesPtr)obj;
-            if (this.hashCode != that.hashCode) return false;
-            if (Bytes.compareTo(this.bytes2, this.offset2, this.length2, that.bytes2, that.offset2, that.length2) != 0) return false;
-            if (Bytes.compareTo(this.bytes1, this.offset1, this.length1, that.bytes1, that.offset1, that.length1) != 0) return false;
-            return true;
-        }
-    }
-
-
-    @SuppressWarnings("all") // suppressing missing @Override since this doesn't exist for HBase 0.94.4
-    public boolean isFamilyEssential(byte[] name) {
-        // Only the column families involved in the expression are essential.
-        // The others are for columns projected in the select expression.
-        return cfSet.contains(name);
-    }
 }
@@ -27,10 +27,7 @@
  ******************************************************************************/
 package com.salesforce.phoenix.filter;
 
-import org.apache.hadoop.hbase.util.Bytes;
-
 import com.salesforce.phoenix.expression.Expression;
-import com.salesforce.phoenix.util.ImmutableBytesPtr;
 
 /**
  *
@@ -41,8 +38,6 @@ import com.salesforce.phoenix.util.ImmutableBytesPtr;
  * @since 0.1
  */
 public class MultiCQKeyValueComparisonFilter extends MultiKeyValueComparisonFilter {
-    private ImmutableBytesPtr ptr = new ImmutableBytesPtr();
-    private byte[] cf;
 
     public MultiCQKeyValueComparisonFilter() {
     }
@@ -50,29 +45,4 @@ public class MultiCQKeyValueComparisonFilter extends MultiKeyValueComparisonFilt
     public MultiCQKeyValueComparisonFilter(Expression expression) {
         super(expression);
     }
-
-    @Override
-    protected Object setColumnKey(byte[] cf, int cfOffset, int cfLength, byte[] cq, int cqOffset,
-            int cqLength) {
-        ptr.set(cq, cqOffset, cqLength);
-        return ptr;
-    }
-
-    @Override
-    protected Object newColumnKey(byte[] cf, int cfOffset, int cfLength, byte[] cq, int cqOffset,
-            int cqLength) {
-        if (cfOffset == 0 && cf.length == cfLength) {
-            this.cf = cf;
-        } else {
-            this.cf = new byte[cfLength];
-            System.arraycopy(cf, cfOffset, this.cf, 0, cfLength);
-        }
-        return new ImmutableBytesPtr(cq, cqOffset, cqLength);
-    }
-
-
-    @SuppressWarnings("all") // suppressing missing @Override since this doesn't exist for HBase 0.94.4
-    public boolean isFamilyEssential(byte[] name) {
-        return Bytes.compareTo(cf, name) == 0;
-    }
 }
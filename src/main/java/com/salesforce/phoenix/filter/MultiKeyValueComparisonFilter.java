@@ -29,8 +29,7 @@ package com.salesforce.phoenix.filter;
 
 import java.io.DataInput;
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.*;
 
 import org.apache.hadoop.hbase.KeyValue;
 import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
@@ -55,6 +54,7 @@ public abstract class MultiKeyValueComparisonFilter extends BooleanExpressionFil
 
     private Boolean matchedColumn;
     protected final IncrementalResultTuple inputTuple = new IncrementalResultTuple();
+    private final TreeSet<byte[]> essentialCFs = new TreeSet<byte[]>(Bytes.BYTES_COMPARATOR);
 
     public MultiKeyValueComparisonFilter() {
     }
@@ -65,46 +65,109 @@ public abstract class MultiKeyValueComparisonFilter extends BooleanExpressionFil
     }
 
     private static final class KeyValueRef {
+        public final byte[] cf;
+        public final byte[] cq;
         public KeyValue keyValue;
         
+        public KeyValueRef(byte[] cf, byte[] cq) {
+            this.cf = cf;
+            this.cq = cq;
+        }
+        
+        public int compareTo(byte[] cf, int cfOffset, int cfLength, byte[] cq, int cqOffset, int cqLength) {
+            int c = Bytes.compareTo(this.cf, 0, this.cf.length, cf, cfOffset, cfLength);
+            if (c != 0) {
+                return c;
+            }
+            return Bytes.compareTo(this.cq, 0, this.cq.length, cq, cqOffset, cqLength);
+        }
+        
         @Override
         public String toString() {
-            return keyValue.toString() + " value= " + Bytes.toStringBinary(keyValue.getValue());
+            return keyValue == null ? "null" : keyValue.toString() + " value= " + Bytes.toStringBinary(keyValue.getValue());
         }
     }
     
-    protected abstract Object setColumnKey(byte[] cf, int cfOffset, int cfLength, byte[] cq, int cqOffset, int cqLength);
-    protected abstract Object newColumnKey(byte[] cf, int cfOffset, int cfLength, byte[] cq, int cqOffset, int cqLength);
-    
     private final class IncrementalResultTuple implements Tuple {
         private int refCount;
         private final ImmutableBytesWritable keyPtr = new ImmutableBytesWritable(UNITIALIZED_KEY_BUFFER);
-        private final Map<Object,KeyValueRef> foundColumns = new HashMap<Object,KeyValueRef>(5);
+        // The referenced columns, sorted by column family and then column qualifier
+        private KeyValueRef[] columns = new KeyValueRef[0];
+        // Index of the first referenced column that may still be found in the current row.
+        // Since key values arrive in column order, each one is usually resolved by moving
+        // this cursor forward instead of searching.
+        private int position;
         
         public void reset() {
             refCount = 0;
+            position = 0;
             keyPtr.set(UNITIALIZED_KEY_BUFFER);
-            for (KeyValueRef ref : foundColumns.values()) {
+            for (KeyValueRef ref : columns) {
                 ref.keyValue = null;
             }
         }
         
         @Override
         public boolean isImmutable() {
-            return refCount == foundColumns.size();
+            return refCount == columns.length;
         }
         
         public void setImmutable() {
-            refCount = foundColumns.size();
+            refCount = columns.length;
+        }
+        
+        /**
+         * Binary search of the referenced columns between fromIndex (inclusive) and toIndex (exclusive)
+         * @return the index of the column if found and otherwise (-(insertion point) - 1)
+         */
+        private int indexOf(int fromIndex, int toIndex, byte[] cf, int cfOffset, int cfLength, byte[] cq, int cqOffset, int cqLength) {
+            int low = fromIndex;
+            int high = toIndex - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                int c = columns[mid].compareTo(cf, cfOffset, cfLength, cq, cqOffset, cqLength);
+                if (c < 0) {
+                    low = mid + 1;
+                } else if (c > 0) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+        
+        private KeyValueRef findColumn(KeyValue value) {
+            byte[] buf = value.getBuffer();
+            int cfOffset = value.getFamilyOffset();
+            int cfLength = value.getFamilyLength();
+            int cqOffset = value.getQualifierOffset();
+            int cqLength = value.getQualifierLength();
+            int c = 1;
+            while (position < columns.length && (c = columns[position].compareTo(buf, cfOffset, cfLength, buf, cqOffset, cqLength)) < 0) {
+                position++;
+            }
+            if (c == 0) {
+                return columns[position];
+            }
+            // The columns of each column family arrive together, but the column families may
+            // not arrive in order, so search the columns already passed over if this one is
+            // behind them.
+            if (position > 0 && columns[position-1].compareTo(buf, cfOffset, cfLength, buf, cqOffset, cqLength) >= 0) {
+                int index = indexOf(0, position, buf, cfOffset, cfLength, buf, cqOffset, cqLength);
+                if (index >= 0) {
+                    position = index;
+                    return columns[index];
+                }
+            }
+            return null;
         }
         
         public ReturnCode resolveColumn(KeyValue value) {
             // Always set key, in case we never find a key value column of interest,
             // and our expression uses row key columns.
             setKey(value);
-            byte[] buf = value.getBuffer();
-            Object ptr = setColumnKey(buf, value.getFamilyOffset(), value.getFamilyLength(), buf, value.getQualifierOffset(), value.getQualifierLength());
-            KeyValueRef ref = foundColumns.get(ptr);
+            KeyValueRef ref = findColumn(value);
             if (ref == null) {
                 // Return INCLUDE here. Although this filter doesn't need this KV
                 // it should still be projected into the Result
@@ -126,8 +189,16 @@ public abstract class MultiKeyValueComparisonFilter extends BooleanExpressionFil
         }
         
         public void addColumn(byte[] cf, byte[] cq) {
-            Object ptr = MultiKeyValueComparisonFilter.this.newColumnKey(cf, 0, cf.length, cq, 0, cq.length);
-            foundColumns.put(ptr, new KeyValueRef());
+            int index = indexOf(0, columns.length, cf, 0, cf.length, cq, 0, cq.length);
+            if (index >= 0) {
+                return;
+            }
+            index = -(index + 1);
+            KeyValueRef[] newColumns = new KeyValueRef[columns.length + 1];
+            System.arraycopy(columns, 0, newColumns, 0, index);
+            newColumns[index] = new KeyValueRef(cf, cq);
+            System.arraycopy(columns, index, newColumns, index + 1, columns.length - index);
+            columns = newColumns;
         }
         
         public void setKey(KeyValue value) {
@@ -141,14 +212,13 @@ public abstract class MultiKeyValueComparisonFilter extends BooleanExpressionFil
         
         @Override
         public KeyValue getValue(byte[] cf, byte[] cq) {
-            Object ptr = setColumnKey(cf, 0, cf.length, cq, 0, cq.length);
-            KeyValueRef ref = foundColumns.get(ptr);
-            return ref == null ? null : ref.keyValue;
+            int index = indexOf(0, columns.length, cf, 0, cf.length, cq, 0, cq.length);
+            return index < 0 ? null : columns[index].keyValue;
         }
         
         @Override
         public String toString() {
-            return foundColumns.toString();
+            return Arrays.toString(columns);
         }
 
         @Override
@@ -158,9 +228,7 @@ public abstract class MultiKeyValueComparisonFilter extends BooleanExpressionFil
 
         @Override
         public KeyValue getValue(int index) {
-            // This won't perform very well, but it's not
-            // currently used anyway
-            for (KeyValueRef ref : foundColumns.values()) {
+            for (KeyValueRef ref : columns) {
                 if (ref.keyValue == null) {
                     continue;
                 }
@@ -178,6 +246,7 @@ public abstract class MultiKeyValueComparisonFilter extends BooleanExpressionFil
             @Override
             public Void visit(KeyValueColumnExpression expression) {
                 inputTuple.addColumn(expression.getColumnFamily(), expression.getColumnName());
+                essentialCFs.add(expression.getColumnFamily());
                 return null;
             }
         };
@@ -238,4 +307,13 @@ public abstract class MultiKeyValueComparisonFilter extends BooleanExpressionFil
         super.readFields(input);
         init();
     }
+
+    @SuppressWarnings("all") // suppressing missing @Override since this doesn't exist for HBase 0.94.4
+    public boolean isFamilyEssential(byte[] name) {
+        // Only the column families involved in the expression are essential.
+        // The others are for columns projected in the select expression. If
+        // the expression may pass a row without any of its columns, as with
+        // IS NULL, then every column family is needed to find the row.
+        return evaluateOnCompletion() || essentialCFs.contains(name);
+    }
 }
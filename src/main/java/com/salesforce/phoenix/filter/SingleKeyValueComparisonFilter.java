@@ -148,7 +148,9 @@ public abstract class SingleKeyValueComparisonFilter extends BooleanExpressionFi
     @SuppressWarnings("all") // suppressing missing @Override since this doesn't exist for HBase 0.94.4
     public boolean isFamilyEssential(byte[] name) {
         // Only the column families involved in the expression are essential.
-        // The others are for columns projected in the select expression
-        return Bytes.compareTo(cf, name) == 0;
+        // The others are for columns projected in the select expression. If
+        // the expression may pass a row without its column, as with IS NULL,
+        // then every column family is needed to find the row.
+        return evaluateOnCompletion() || Bytes.compareTo(cf, name) == 0;
     }
 }
@@ -123,6 +123,14 @@ public class SkipScanFilter extends FilterBase {
         return navigate(kv.getBuffer(), kv.getRowOffset(),kv.getRowLength());
     }
 
+    @Override
+    public boolean isFamilyEssential(byte[] name) {
+        // Only the row key is looked at, so leave it to the filter over the where
+        // clause that this is combined with to decide which families are essential.
+        // Column families are only loaded on demand when there is such a filter.
+        return false;
+    }
+
     @Override
     public KeyValue getNextKeyHint(KeyValue kv) {
         // TODO: don't allocate new key value every time here if possible
@@ -37,7 +37,6 @@ import org.apache.hadoop.hbase.client.Scan;
 import org.apache.hadoop.hbase.util.Bytes;
 
 import com.google.common.base.Preconditions;
-import com.google.common.base.Predicate;
 import com.google.common.collect.*;
 import com.salesforce.phoenix.compile.StatementContext;
 import com.salesforce.phoenix.query.*;
@@ -77,8 +76,8 @@ public class DefaultParallelIteratorRegionSplitter implements ParallelIteratorRe
     // Get the mapping between key range and the regions that contains them.
     protected List<Entry<HRegionInfo, ServerName>> getAllRegions() throws SQLException {
         Scan scan = context.getScan();
-        NavigableMap<HRegionInfo, ServerName> allTableRegions = context.getConnection().getQueryServices().getAllTableRegions(table);
-        return filterRegions(allTableRegions, scan.getStartRow(), scan.getStopRow());
+        RegionBoundaryIndex regionIndex = context.getConnection().getQueryServices().getTableRegionIndex(table);
+        return regionIndex.filterRegions(KeyRange.getKeyRange(scan.getStartRow(), true, scan.getStopRow(), false));
     }
 
     /**
@@ -90,20 +89,7 @@ public class DefaultParallelIteratorRegionSplitter implements ParallelIteratorRe
      */
     // exposed for tests
     public static List<Map.Entry<HRegionInfo, ServerName>> filterRegions(NavigableMap<HRegionInfo, ServerName> allTableRegions, byte[] startKey, byte[] stopKey) {
-        Iterable<Map.Entry<HRegionInfo, ServerName>> regions;
-        final KeyRange keyRange = KeyRange.getKeyRange(startKey, true, stopKey, false);
-        if (keyRange == KeyRange.EVERYTHING_RANGE) {
-            regions = allTableRegions.entrySet();
-        } else {
-            regions = Iterables.filter(allTableRegions.entrySet(), new Predicate<Map.Entry<HRegionInfo, ServerName>>() {
-                @Override
-                public boolean apply(Map.Entry<HRegionInfo, ServerName> region) {
-                    KeyRange regionKeyRange = KeyRange.getKeyRange(region.getKey().getStartKey(), region.getKey().getEndKey());
-                    return keyRange.intersect(regionKeyRange) != KeyRange.EMPTY_RANGE;
-                }
-            });
-        }
-        return Lists.newArrayList(regions);
+        return new RegionBoundaryIndex(allTableRegions).filterRegions(KeyRange.getKeyRange(startKey, true, stopKey, false));
     }
 
     protected List<KeyRange> genKeyRanges(List<Map.Entry<HRegionInfo, ServerName>> regions) {
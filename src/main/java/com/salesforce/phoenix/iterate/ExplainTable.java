@@ -50,7 +50,7 @@ public abstract class ExplainTable {
         this.table = table;
     }
 
-    private boolean explainSkipScan(StringBuilder buf) {
+    protected boolean explainSkipScan(StringBuilder buf) {
         ScanRanges scanRanges = context.getScanRanges();
         if (scanRanges.useSkipScanFilter()) {
             buf.append("SKIP SCAN ");
@@ -156,7 +156,7 @@ public abstract class ExplainTable {
         }
     }
     
-    private void appendKeyRanges(StringBuilder buf) {
+    protected void appendKeyRanges(StringBuilder buf) {
         ScanRanges scanRanges = context.getScanRanges();
         if (scanRanges == ScanRanges.EVERYTHING || scanRanges == ScanRanges.NOTHING) {
             return;
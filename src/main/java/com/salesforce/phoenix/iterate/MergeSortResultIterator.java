@@ -68,6 +68,15 @@ public class MergeSortResultIterator implements PeekingResultIterator {
         }
     }
 
+    /**
+     * Compares the rows at the head of two of the iterators being merged
+     * @return a negative number if t1 should be returned first, a positive
+     *  number if t2 should be returned first, and zero if either may be
+     */
+    protected int compare(Tuple t1, Tuple t2) {
+        return TupleUtil.compare(t1, t2, tempPtr);
+    }
+
     private PeekingResultIterator minIterator() throws SQLException {
         List<PeekingResultIterator> iterators = getIterators();
         Tuple minResult = null;
@@ -76,7 +85,7 @@ public class MergeSortResultIterator implements PeekingResultIterator {
             PeekingResultIterator iterator = iterators.get(i);
             Tuple r = iterator.peek();
             if (r != null) {
-                if (minResult == null || TupleUtil.compare(r, minResult, tempPtr) < 0) {
+                if (minResult == null || compare(r, minResult) < 0) {
                     minResult = r;
                     minIterator = iterator;
                 }
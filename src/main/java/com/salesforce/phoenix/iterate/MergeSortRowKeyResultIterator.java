@@ -0,0 +1,59 @@
+/*******************************************************************************
+ * Copyright (c) 2013, Salesforce.com, Inc.
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     Redistributions of source code must retain the above copyright notice,
+ *     this list of conditions and the following disclaimer.
+ *     Redistributions in binary form must reproduce the above copyright notice,
+ *     this list of conditions and the following disclaimer in the documentation
+ *     and/or other materials provided with the distribution.
+ *     Neither the name of Salesforce.com nor the names of its contributors may 
+ *     be used to endorse or promote products derived from this software without 
+ *     specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE 
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL 
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR 
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER 
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, 
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE 
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package com.salesforce.phoenix.iterate;
+
+import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
+
+import com.salesforce.phoenix.schema.tuple.Tuple;
+import com.salesforce.phoenix.util.TupleUtil;
+
+
+/**
+ * 
+ * Result iterator that does a merge sort on the row keys of the list of
+ * iterators provided, ignoring a fixed number of leading bytes of each
+ * row key. Used to return the rows of a salted table, scanned one salt
+ * bucket per iterator, in the order of their unsalted row key.
+ *
+ * @author jtaylor
+ * @since 1.2
+ */
+public class MergeSortRowKeyResultIterator extends MergeSortResultIterator {
+    private final int keyOffset;
+    private final ImmutableBytesWritable ptr = new ImmutableBytesWritable();
+    
+    public MergeSortRowKeyResultIterator(ResultIterators iterators, int keyOffset) {
+        super(iterators);
+        this.keyOffset = keyOffset;
+    }
+
+    @Override
+    protected int compare(Tuple t1, Tuple t2) {
+        return TupleUtil.compare(t1, t2, ptr, keyOffset);
+    }
+}
@@ -44,6 +44,7 @@ import com.salesforce.phoenix.execute.RowCounter;
 import com.salesforce.phoenix.job.JobManager.JobCallable;
 import com.salesforce.phoenix.memory.MemoryManager;
 import com.salesforce.phoenix.query.*;
+import com.salesforce.phoenix.schema.SaltingUtil;
 import com.salesforce.phoenix.schema.TableRef;
 import com.salesforce.phoenix.util.SQLCloseables;
 import com.salesforce.phoenix.util.ScanUtil;
@@ -86,7 +87,10 @@ public class ParallelIterators extends ExplainTable implements ResultIterators {
      */
     // exposed for tests
     public static List<KeyRange> getSplits(StatementContext context, TableRef table) throws SQLException {
-        return ParallelIteratorRegionSplitterFactory.getSplitter(context, table).getSplits();
+        List<KeyRange> splits = ParallelIteratorRegionSplitterFactory.getSplitter(context, table).getSplits();
+        // Scan each salt bucket separately, so that the results of each split are in row key order
+        Integer bucketNum = table.getTable().getBucketNum();
+        return bucketNum == null ? splits : SaltingUtil.splitOnBuckets(splits, bucketNum);
     }
 
     public List<KeyRange> getSplits() {
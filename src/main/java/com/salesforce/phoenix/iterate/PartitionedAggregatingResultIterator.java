@@ -0,0 +1,238 @@
+/*******************************************************************************
+ * Copyright (c) 2013, Salesforce.com, Inc.
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     Redistributions of source code must retain the above copyright notice,
+ *     this list of conditions and the following disclaimer.
+ *     Redistributions in binary form must reproduce the above copyright notice,
+ *     this list of conditions and the following disclaimer in the documentation
+ *     and/or other materials provided with the distribution.
+ *     Neither the name of Salesforce.com nor the names of its contributors may 
+ *     be used to endorse or promote products derived from this software without 
+ *     specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE 
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL 
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR 
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER 
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, 
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE 
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package com.salesforce.phoenix.iterate;
+
+import static com.salesforce.phoenix.query.QueryConstants.*;
+
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.*;
+
+import com.google.common.base.Function;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.salesforce.phoenix.expression.aggregator.Aggregator;
+import com.salesforce.phoenix.expression.aggregator.ClientAggregators;
+import com.salesforce.phoenix.job.JobManager.JobCallable;
+import com.salesforce.phoenix.memory.MemoryManager;
+import com.salesforce.phoenix.memory.MemoryManager.MemoryChunk;
+import com.salesforce.phoenix.schema.tuple.SingleKeyValueTuple;
+import com.salesforce.phoenix.schema.tuple.Tuple;
+import com.salesforce.phoenix.util.*;
+
+
+/**
+ * 
+ * Result scanner that finishes a grouped aggregation by merging the partial groups returned
+ * by each region in parallel. The backing result iterators are each drained on their own
+ * thread, with every partial group merged as it's read into the partition for the hash of
+ * its key, so that all the partial groups for a key end up in the same partition. Only the
+ * merged groups are held onto, with the memory they take tracked by the {@link MemoryManager}.
+ * Unlike {@link GroupedAggregatingResultIterator}, the rows from the backing result iterators
+ * may be in any order, and the groups are returned in no particular order either.
+ *
+ * @author jtaylor
+ * @since 1.2
+ */
+public class PartitionedAggregatingResultIterator implements AggregatingResultIterator {
+    private final ResultIterators resultIterators;
+    private final ClientAggregators aggregators;
+    private final int partitionCount;
+    private final ExecutorService executor;
+    private final MemoryManager memoryManager;
+    private final int timeoutMs;
+    private List<Partition> partitions;
+    private Iterator<Tuple> results;
+    
+    public PartitionedAggregatingResultIterator(ResultIterators resultIterators, ClientAggregators aggregators, int partitionCount, ExecutorService executor, MemoryManager memoryManager, int timeoutMs) {
+        if (resultIterators == null) throw new NullPointerException();
+        if (aggregators == null) throw new NullPointerException();
+        this.resultIterators = resultIterators;
+        this.aggregators = aggregators;
+        this.partitionCount = partitionCount;
+        this.executor = executor;
+        this.memoryManager = memoryManager;
+        this.timeoutMs = timeoutMs;
+    }
+    
+    /**
+     * 
+     * The merged groups for the keys that hash to a partition. Partial groups are merged
+     * into a partition by the threads draining the backing result iterators, one at a time.
+     *
+     * @author jtaylor
+     * @since 1.2
+     */
+    private static class Partition {
+        // Merges the groups with its own aggregators, since they hold state while aggregating
+        private final ClientAggregators aggregators;
+        private final Map<ImmutableBytesPtr, Aggregator[]> groups = Maps.newHashMap();
+        private final MemoryChunk chunk;
+        private long keySize;
+        
+        private Partition(ClientAggregators aggregators, MemoryChunk chunk) {
+            this.aggregators = aggregators;
+            this.chunk = chunk;
+        }
+        
+        /**
+         * Merges a partial group into the group for its key
+         * @param key the key of the partial group, which is copied if it's the first one for the group
+         */
+        private synchronized void aggregate(ImmutableBytesPtr key, Tuple result) {
+            Aggregator[] rowAggregators = groups.get(key);
+            if (rowAggregators == null) {
+                rowAggregators = aggregators.newAggregators();
+                // Copy the key, since an iterator spooled to disk reuses its buffer for the next row
+                groups.put(new ImmutableBytesPtr(key.copyBytes()), rowAggregators);
+                keySize += key.getLength();
+                long size = getSize();
+                if (size > chunk.getSize()) { // Increase the allocation by half again
+                    chunk.resize(size * 3 / 2);
+                }
+            }
+            aggregators.aggregate(rowAggregators, result);
+        }
+        
+        private long getSize() {
+            return SizedUtil.sizeOfMap(groups.size(), SizedUtil.IMMUTABLE_BYTES_WRITABLE_SIZE, aggregators.getSize()) + keySize;
+        }
+        
+        private Iterator<Tuple> getResults() {
+            return Iterators.transform(groups.entrySet().iterator(), new Function<Map.Entry<ImmutableBytesPtr, Aggregator[]>, Tuple>() {
+                @Override
+                public Tuple apply(Map.Entry<ImmutableBytesPtr, Aggregator[]> entry) {
+                    byte[] value = aggregators.toBytes(entry.getValue());
+                    return new SingleKeyValueTuple(KeyValueUtil.newKeyValue(entry.getKey(), SINGLE_COLUMN_FAMILY, SINGLE_COLUMN, AGG_TIMESTAMP, value, 0, value.length));
+                }
+            });
+        }
+    }
+    
+    /**
+     * Merges every partial group of a backing result iterator into its partition
+     */
+    private static void partition(PeekingResultIterator iterator, List<Partition> partitions) throws SQLException {
+        ImmutableBytesPtr key = new ImmutableBytesPtr();
+        int partitionCount = partitions.size();
+        for (Tuple next = iterator.next(); next != null; next = iterator.next()) {
+            next.getKey(key);
+            partitions.get((key.hashCode() & Integer.MAX_VALUE) % partitionCount).aggregate(key, next);
+        }
+    }
+    
+    private Iterator<Tuple> getResults() throws SQLException {
+        if (results != null) {
+            return results;
+        }
+        partitions = Lists.newArrayListWithExpectedSize(partitionCount);
+        for (int i = 0; i < partitionCount; i++) {
+            partitions.add(new Partition(aggregators.copy(), memoryManager.allocate(0)));
+        }
+        List<PeekingResultIterator> iterators = resultIterators.getIterators();
+        List<Future<Void>> futures = Lists.newArrayListWithExpectedSize(iterators.size());
+        boolean success = false;
+        try {
+            for (final PeekingResultIterator iterator : iterators) {
+                futures.add(executor.submit(new JobCallable<Void>() {
+                    
+                    @Override
+                    public Void call() throws Exception {
+                        partition(iterator, partitions);
+                        return null;
+                    }
+
+                    @Override
+                    public Object getJobId() {
+                        return PartitionedAggregatingResultIterator.this;
+                    }
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get(timeoutMs, TimeUnit.MILLISECONDS);
+            }
+            List<Iterator<Tuple>> partitionResults = Lists.newArrayListWithExpectedSize(partitionCount);
+            for (Partition partition : partitions) {
+                partitionResults.add(partition.getResults());
+            }
+            success = true;
+            this.results = Iterators.concat(partitionResults.iterator());
+            return this.results;
+        } catch (Exception e) {
+            throw new SQLException(e);
+        } finally {
+            try {
+                if (!success) {
+                    for (Future<Void> future : futures) {
+                        future.cancel(true);
+                    }
+                    close();
+                }
+            } finally {
+                SQLCloseables.closeAll(iterators);
+            }
+        }
+    }
+    
+    @Override
+    public Tuple next() throws SQLException {
+        Iterator<Tuple> results = getResults();
+        if (!results.hasNext()) {
+            return null;
+        }
+        Tuple result = results.next();
+        // The projected aggregate functions are evaluated against the state of the aggregators
+        aggregate(result);
+        return result;
+    }
+    
+    @Override
+    public void close() throws SQLException {
+        results = Collections.<Tuple>emptyList().iterator();
+        if (partitions != null) {
+            for (Partition partition : partitions) {
+                partition.chunk.close();
+            }
+            partitions = null;
+        }
+    }
+    
+    @Override
+    public void aggregate(Tuple result) {
+        Aggregator[] rowAggregators = aggregators.getAggregators();
+        aggregators.reset(rowAggregators);
+        aggregators.aggregate(rowAggregators, result);
+    }
+
+    @Override
+    public void explain(List<String> planSteps) {
+        resultIterators.explain(planSteps);
+        planSteps.add("CLIENT " + partitionCount + "-WAY PARALLEL HASH AGGREGATE");
+    }
+}
@@ -0,0 +1,250 @@
+/*******************************************************************************
+ * Copyright (c) 2013, Salesforce.com, Inc.
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     Redistributions of source code must retain the above copyright notice,
+ *     this list of conditions and the following disclaimer.
+ *     Redistributions in binary form must reproduce the above copyright notice,
+ *     this list of conditions and the following disclaimer in the documentation
+ *     and/or other materials provided with the distribution.
+ *     Neither the name of Salesforce.com nor the names of its contributors may 
+ *     be used to endorse or promote products derived from this software without 
+ *     specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE 
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL 
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR 
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER 
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, 
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE 
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package com.salesforce.phoenix.iterate;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.apache.hadoop.hbase.HRegionInfo;
+import org.apache.hadoop.hbase.ServerName;
+import org.apache.hadoop.hbase.client.*;
+import org.apache.hadoop.hbase.filter.Filter;
+import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
+import org.apache.hadoop.hbase.io.TimeRange;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.google.common.io.Closeables;
+import com.salesforce.phoenix.compile.StatementContext;
+import com.salesforce.phoenix.exception.PhoenixIOException;
+import com.salesforce.phoenix.job.JobManager.JobCallable;
+import com.salesforce.phoenix.query.*;
+import com.salesforce.phoenix.schema.SaltingUtil;
+import com.salesforce.phoenix.schema.TableRef;
+import com.salesforce.phoenix.schema.tuple.ResultTuple;
+import com.salesforce.phoenix.schema.tuple.Tuple;
+import com.salesforce.phoenix.util.ScanUtil;
+import com.salesforce.phoenix.util.TupleUtil;
+
+
+/**
+ *
+ * Result iterator that reads a fully qualified set of row keys through batched
+ * gets instead of scanning for them. The gets are grouped by region server, with
+ * each group issued in parallel using the ExecutorService provided. If all keys
+ * are served by a single region server, the gets are issued in the calling thread.
+ * Rows are returned in row key order.
+ *
+ * @author jtaylor
+ * @since 1.2
+ */
+public class PointLookupResultIterator extends ExplainTable implements ResultIterator {
+    private static final int DEFAULT_THREAD_TIMEOUT_MS = 60000; // 1min
+
+    private final List<byte[]> keys;
+    private final Integer limit;
+    private Iterator<Tuple> iterator;
+    private int count;
+
+    public PointLookupResultIterator(StatementContext context, TableRef table, Integer limit) {
+        super(context, table);
+        this.keys = context.getScanRanges().getPointKeys();
+        this.limit = limit;
+    }
+
+    @Override
+    public Tuple next() throws SQLException {
+        if (iterator == null) {
+            iterator = lookup().iterator();
+        }
+        if (!iterator.hasNext() || (limit != null && count >= limit)) {
+            return null;
+        }
+        count++;
+        return iterator.next();
+    }
+
+    @Override
+    public void close() throws SQLException {
+        iterator = Collections.<Tuple>emptyList().iterator();
+    }
+
+    private static Get newGet(Scan scan, Filter filter, byte[] key) throws IOException {
+        Get get = new Get(key);
+        for (Map.Entry<byte[], NavigableSet<byte[]>> entry : scan.getFamilyMap().entrySet()) {
+            if (entry.getValue() == null) {
+                get.addFamily(entry.getKey());
+            } else {
+                for (byte[] qualifier : entry.getValue()) {
+                    get.addColumn(entry.getKey(), qualifier);
+                }
+            }
+        }
+        TimeRange timeRange = scan.getTimeRange();
+        get.setTimeRange(timeRange.getMin(), timeRange.getMax());
+        get.setMaxVersions(scan.getMaxVersions());
+        get.setCacheBlocks(scan.getCacheBlocks());
+        get.setFilter(filter);
+        for (Map.Entry<String, byte[]> entry : scan.getAttributesMap().entrySet()) {
+            get.setAttribute(entry.getKey(), entry.getValue());
+        }
+        return get;
+    }
+
+    private Result[] get(List<Get> gets) throws SQLException {
+        HTableInterface htable = context.getConnection().getQueryServices().getTable(table.getTableName());
+        try {
+            return htable.get(gets);
+        } catch (IOException e) {
+            throw new PhoenixIOException(e);
+        } finally {
+            Closeables.closeQuietly(htable);
+        }
+    }
+
+    /**
+     * Groups the indexes of our sorted keys by the region server hosting them, binary
+     * searching the region boundaries for a key only when it is past the current region.
+     */
+    private Collection<List<Integer>> groupByServer() throws SQLException {
+        RegionBoundaryIndex regionIndex = context.getConnection().getQueryServices().getTableRegionIndex(table);
+        ListMultimap<ServerName,Integer> keysPerServer = ArrayListMultimap.create();
+        Map.Entry<HRegionInfo, ServerName> region = null;
+        for (int i = 0; i < keys.size(); i++) {
+            byte[] key = keys.get(i);
+            if (region == null || !region.getKey().containsRow(key)) {
+                region = regionIndex.getRegion(key);
+            }
+            keysPerServer.put(region.getValue(), i);
+        }
+        Collection<List<Integer>> groups = new ArrayList<List<Integer>>(keysPerServer.keySet().size());
+        for (ServerName server : keysPerServer.keySet()) {
+            groups.add(keysPerServer.get(server));
+        }
+        return groups;
+    }
+
+    private List<Tuple> lookup() throws SQLException {
+        Scan scan = context.getScan();
+        Filter filter = ScanUtil.removeSkipScanFilter(scan.getFilter());
+        final List<Get> gets = new ArrayList<Get>(keys.size());
+        try {
+            for (byte[] key : keys) {
+                gets.add(newGet(scan, filter, key));
+            }
+        } catch (IOException e) {
+            throw new PhoenixIOException(e);
+        }
+        Result[] results;
+        Collection<List<Integer>> groups;
+        if (gets.size() == 1 || (groups = groupByServer()).size() == 1) {
+            // No need to go through the executor when only one server is involved
+            results = get(gets);
+        } else {
+            results = new Result[gets.size()];
+            ConnectionQueryServices services = context.getConnection().getQueryServices();
+            ExecutorService executor = services.getExecutor();
+            int timeoutMs = services.getConfig().getInt(QueryServices.THREAD_TIMEOUT_MS_ATTRIB, DEFAULT_THREAD_TIMEOUT_MS);
+            List<Future<Result[]>> futures = new ArrayList<Future<Result[]>>(groups.size());
+            List<List<Integer>> indexesList = new ArrayList<List<Integer>>(groups);
+            boolean success = false;
+            try {
+                for (final List<Integer> indexes : indexesList) {
+                    futures.add(executor.submit(new JobCallable<Result[]>() {
+
+                        @Override
+                        public Result[] call() throws Exception {
+                            List<Get> serverGets = new ArrayList<Get>(indexes.size());
+                            for (Integer index : indexes) {
+                                serverGets.add(gets.get(index));
+                            }
+                            return get(serverGets);
+                        }
+
+                        @Override
+                        public Object getJobId() {
+                            return PointLookupResultIterator.this;
+                        }
+                    }));
+                }
+                for (int i = 0; i < futures.size(); i++) {
+                    Result[] serverResults = futures.get(i).get(timeoutMs, TimeUnit.MILLISECONDS);
+                    List<Integer> indexes = indexesList.get(i);
+                    for (int j = 0; j < serverResults.length; j++) {
+                        results[indexes.get(j)] = serverResults[j];
+                    }
+                }
+                success = true;
+            } catch (Exception e) {
+                throw new SQLException(e);
+            } finally {
+                if (!success) {
+                    for (Future<Result[]> future : futures) {
+                        future.cancel(true);
+                    }
+                }
+            }
+        }
+        List<Tuple> tuples = new ArrayList<Tuple>(results.length);
+        for (Result result : results) {
+            if (result != null && !result.isEmpty()) {
+                tuples.add(new ResultTuple(result));
+            }
+        }
+        // The keys of a salted table are sorted by salt byte first, so put the rows back in row key order
+        if (table.getTable().getBucketNum() != null) {
+            final ImmutableBytesWritable ptr = new ImmutableBytesWritable();
+            Collections.sort(tuples, new Comparator<Tuple>() {
+                @Override
+                public int compare(Tuple t1, Tuple t2) {
+                    return TupleUtil.compare(t1, t2, ptr, SaltingUtil.NUM_SALTING_BYTES);
+                }
+            });
+        }
+        return tuples;
+    }
+
+    @Override
+    protected boolean explainSkipScan(StringBuilder buf) {
+        buf.append("POINT LOOKUP ON ");
+        buf.append(keys.size());
+        buf.append(keys.size() > 1 ? " KEYS " : " KEY ");
+        return context.getScanRanges().useSkipScanFilter();
+    }
+
+    @Override
+    public void explain(List<String> planSteps) {
+        StringBuilder buf = new StringBuilder("CLIENT ");
+        if (limit != null) {
+            buf.append(limit + " ROW LIMIT ");
+        }
+        explain(buf.toString(), planSteps);
+    }
+}
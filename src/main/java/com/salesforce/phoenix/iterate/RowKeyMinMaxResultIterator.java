@@ -0,0 +1,253 @@
+/*******************************************************************************
+ * Copyright (c) 2013, Salesforce.com, Inc.
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     Redistributions of source code must retain the above copyright notice,
+ *     this list of conditions and the following disclaimer.
+ *     Redistributions in binary form must reproduce the above copyright notice,
+ *     this list of conditions and the following disclaimer in the documentation
+ *     and/or other materials provided with the distribution.
+ *     Neither the name of Salesforce.com nor the names of its contributors may 
+ *     be used to endorse or promote products derived from this software without 
+ *     specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE 
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL 
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR 
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER 
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, 
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE 
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package com.salesforce.phoenix.iterate;
+
+import static com.salesforce.phoenix.query.QueryConstants.*;
+
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.List;
+
+import org.apache.hadoop.hbase.HRegionInfo;
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.client.*;
+import org.apache.hadoop.hbase.io.TimeRange;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import com.google.common.io.Closeables;
+import com.salesforce.phoenix.compile.StatementContext;
+import com.salesforce.phoenix.coprocessor.GroupedAggregateRegionObserver;
+import com.salesforce.phoenix.exception.PhoenixIOException;
+import com.salesforce.phoenix.expression.aggregator.*;
+import com.salesforce.phoenix.expression.function.MaxAggregateFunction;
+import com.salesforce.phoenix.expression.function.SingleAggregateFunction;
+import com.salesforce.phoenix.schema.TableRef;
+import com.salesforce.phoenix.schema.tuple.*;
+import com.salesforce.phoenix.util.*;
+
+
+/**
+ *
+ * Result iterator for an ungrouped aggregate query consisting solely of MIN and MAX
+ * of the first row key column not constrained to a single value. Instead of aggregating
+ * every row in the key range, the first row of the range is found through a scan that
+ * stops at the first row and the last row of the range is found through a getRowOrBefore
+ * seek in each region, starting from the last one. Both rows are then run through the
+ * server aggregators, producing the same single row that the ungrouped aggregate
+ * coprocessor would return.
+ *
+ * @author jtaylor
+ * @since 1.2
+ */
+public class RowKeyMinMaxResultIterator extends ExplainTable implements PeekingResultIterator {
+    private static final byte[] MAX_BYTE_ARRAY = new byte[] {(byte)-1};
+    private static final Tuple UNINITIALIZED = new ResultTuple();
+    private Tuple next = UNINITIALIZED;
+
+    public RowKeyMinMaxResultIterator(StatementContext context, TableRef table) {
+        super(context, table);
+    }
+
+    @Override
+    public Tuple peek() throws SQLException {
+        if (next == UNINITIALIZED) {
+            next = aggregate();
+        }
+        return next;
+    }
+
+    @Override
+    public Tuple next() throws SQLException {
+        Tuple next = peek();
+        this.next = null;
+        return next;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        next = null;
+    }
+
+    private Result getFirstRow(HTableInterface htable, byte[] emptyCF) throws IOException {
+        Scan scan = context.getScan();
+        Scan firstRowScan = new Scan(scan.getStartRow(), scan.getStopRow());
+        firstRowScan.addColumn(emptyCF, EMPTY_COLUMN_BYTES);
+        TimeRange timeRange = scan.getTimeRange();
+        firstRowScan.setTimeRange(timeRange.getMin(), timeRange.getMax());
+        firstRowScan.setCaching(1);
+        ResultScanner scanner = htable.getScanner(firstRowScan);
+        try {
+            return scanner.next();
+        } finally {
+            scanner.close();
+        }
+    }
+
+    /**
+     * Determines whether any row visible at the time range of the scan starts with the
+     * given key and sorts before the stop row. Every row between the key and the
+     * stop row starts with the key when the key is the previous key of the stop row.
+     */
+    private boolean hasRowAfter(HTableInterface htable, byte[] key, byte[] stopRow, byte[] emptyCF) throws IOException {
+        Scan scan = new Scan(ByteUtil.concat(key, SEPARATOR_BYTE_ARRAY), stopRow);
+        scan.addColumn(emptyCF, EMPTY_COLUMN_BYTES);
+        TimeRange timeRange = context.getScan().getTimeRange();
+        scan.setTimeRange(timeRange.getMin(), timeRange.getMax());
+        scan.setCaching(1);
+        ResultScanner scanner = htable.getScanner(scan);
+        try {
+            return scanner.next() != null;
+        } finally {
+            scanner.close();
+        }
+    }
+
+    /**
+     * Calculates the key to seek to for the last row before the given row. The previous
+     * key of the row is exact when every row key has the same length. Otherwise, longer
+     * rows that start with it sort after it, so it's extended with 0xFF bytes for as long
+     * as such rows exist.
+     */
+    private byte[] getSeekKey(HTableInterface htable, byte[] row, byte[] emptyCF, boolean isFixedLengthKey) throws IOException {
+        byte[] key = row.length == 0 ? ByteUtil.EMPTY_BYTE_ARRAY : ByteUtil.previousKey(row);
+        if (key == null || isFixedLengthKey) {
+            return key;
+        }
+        while (hasRowAfter(htable, key, row, emptyCF)) {
+            key = ByteUtil.concat(key, MAX_BYTE_ARRAY);
+        }
+        return key;
+    }
+
+    /**
+     * Seeks backwards from the stop row of the scan, one region at a time, for the last row
+     * visible at the time range of the scan. The getRowOrBefore call does not take a time
+     * range, so each row it returns is confirmed with a get.
+     */
+    @SuppressWarnings("deprecation")
+    private Result getLastRow(HTableInterface htable, byte[] emptyCF) throws SQLException, IOException {
+        Scan scan = context.getScan();
+        byte[] startRow = scan.getStartRow();
+        byte[] stopRow = scan.getStopRow();
+        TimeRange timeRange = scan.getTimeRange();
+        boolean isFixedLengthKey = SchemaUtil.isFixedLengthKey(table.getTable());
+        byte[] key;
+        if (stopRow.length == 0) {
+            // Every row after the empty key starts with it, so this finds the last row of the table
+            key = getSeekKey(htable, stopRow, emptyCF, false);
+        } else {
+            // The stop row is exclusive, so it's skipped below if it's found
+            key = stopRow;
+        }
+        for (HRegionInfo region : context.getConnection().getQueryServices().getAllTableRegions(table).descendingKeySet()) {
+            byte[] regionStartKey = region.getStartKey();
+            // Skip regions that start after our seek key
+            if (Bytes.compareTo(regionStartKey, key) > 0) {
+                continue;
+            }
+            while (key != null && key.length > 0 && Bytes.compareTo(key, regionStartKey) >= 0) {
+                Result result = htable.getRowOrBefore(key, emptyCF);
+                if (result == null || result.isEmpty()) {
+                    break;
+                }
+                byte[] row = result.getRow();
+                if (Bytes.compareTo(row, startRow) < 0) {
+                    return null;
+                }
+                if (!Bytes.equals(row, stopRow)) {
+                    Get get = new Get(row);
+                    get.addColumn(emptyCF, EMPTY_COLUMN_BYTES);
+                    get.setTimeRange(timeRange.getMin(), timeRange.getMax());
+                    result = htable.get(get);
+                    if (!result.isEmpty()) {
+                        return result;
+                    }
+                }
+                key = getSeekKey(htable, row, emptyCF, isFixedLengthKey);
+            }
+            if (Bytes.compareTo(regionStartKey, startRow) <= 0) {
+                return null;
+            }
+            key = getSeekKey(htable, regionStartKey, emptyCF, isFixedLengthKey);
+        }
+        return null;
+    }
+
+    private Tuple aggregate() throws SQLException {
+        boolean needsFirst = false, needsLast = false;
+        for (SingleAggregateFunction function : context.getAggregationManager().getAggregators().getFunctions()) {
+            // The first row holds the minimum value unless the column is stored in descending order
+            if ((function instanceof MaxAggregateFunction) == (function.getAggregatorExpression().getColumnModifier() != null)) {
+                needsFirst = true;
+            } else {
+                needsLast = true;
+            }
+        }
+        byte[] emptyCF = SchemaUtil.getEmptyColumnFamily(table.getTable().getColumnFamilies());
+        HTableInterface htable = context.getConnection().getQueryServices().getTable(table.getTableName());
+        Result first = null, last = null;
+        try {
+            if (needsFirst) {
+                first = getFirstRow(htable, emptyCF);
+                if (first == null) {
+                    return null;
+                }
+            }
+            if (needsLast) {
+                last = getLastRow(htable, emptyCF);
+                if (last == null) {
+                    return null;
+                }
+            }
+        } catch (IOException e) {
+            throw new PhoenixIOException(e);
+        } finally {
+            Closeables.closeQuietly(htable);
+        }
+        Aggregators aggregators = ServerAggregators.deserialize(context.getScan().getAttribute(GroupedAggregateRegionObserver.AGGREGATORS));
+        Aggregator[] rowAggregators = aggregators.getAggregators();
+        if (first != null) {
+            aggregators.aggregate(rowAggregators, new ResultTuple(first));
+        }
+        if (last != null) {
+            aggregators.aggregate(rowAggregators, new ResultTuple(last));
+        }
+        byte[] value = aggregators.toBytes(rowAggregators);
+        KeyValue keyValue = KeyValueUtil.newKeyValue(UNGROUPED_AGG_ROW_KEY, SINGLE_COLUMN_FAMILY, SINGLE_COLUMN, AGG_TIMESTAMP, value, 0, value.length);
+        return new SingleKeyValueTuple(keyValue);
+    }
+
+    @Override
+    public void explain(List<String> planSteps) {
+        StringBuilder buf = new StringBuilder("CLIENT MIN/MAX KEY SEEK OVER ");
+        buf.append(SchemaUtil.getTableDisplayName(table.getSchema().getName(), table.getTable().getName().getString()));
+        appendKeyRanges(buf);
+        planSteps.add(buf.toString());
+        planSteps.add("    CLIENT AGGREGATE INTO SINGLE ROW");
+    }
+}
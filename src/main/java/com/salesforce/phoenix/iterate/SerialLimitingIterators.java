@@ -43,6 +43,7 @@ import com.salesforce.phoenix.exception.PhoenixIOException;
 import com.salesforce.phoenix.execute.RowCounter;
 import com.salesforce.phoenix.memory.MemoryManager;
 import com.salesforce.phoenix.query.ConnectionQueryServices;
+import com.salesforce.phoenix.query.KeyRange;
 import com.salesforce.phoenix.query.QueryServices;
 import com.salesforce.phoenix.schema.TableRef;
 import com.salesforce.phoenix.util.SQLCloseables;
@@ -69,9 +70,12 @@ public class SerialLimitingIterators extends ExplainTable implements ResultItera
         super(context, table);
         this.limit = limit;
         this.rowCounter = rowCounter;
-        NavigableMap<HRegionInfo, ServerName> regions = context.getConnection().getQueryServices().getAllTableRegions(this.table);
+        Scan scan = context.getScan();
+        List<Map.Entry<HRegionInfo, ServerName>> regions = context.getConnection().getQueryServices().getTableRegionIndex(this.table)
+                .filterRegions(KeyRange.getKeyRange(scan.getStartRow(), true, scan.getStopRow(), false));
         regionScans = Lists.newArrayListWithExpectedSize(regions.size());
-        for (HRegionInfo region : regions.keySet()) {
+        for (Map.Entry<HRegionInfo, ServerName> entry : regions) {
+            HRegionInfo region = entry.getKey();
             Scan regionScan;
             try {
                 regionScan = new Scan(context.getScan());
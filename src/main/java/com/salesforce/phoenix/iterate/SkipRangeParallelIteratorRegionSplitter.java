@@ -33,11 +33,9 @@ import java.util.*;
 import org.apache.hadoop.hbase.HRegionInfo;
 import org.apache.hadoop.hbase.ServerName;
 
-import com.google.common.base.Predicate;
-import com.google.common.collect.Iterables;
-import com.google.common.collect.Lists;
 import com.salesforce.phoenix.compile.ScanRanges;
 import com.salesforce.phoenix.compile.StatementContext;
+import com.salesforce.phoenix.query.RegionBoundaryIndex;
 import com.salesforce.phoenix.schema.TableRef;
 
 
@@ -56,26 +54,12 @@ public class SkipRangeParallelIteratorRegionSplitter extends DefaultParallelIter
 
     @Override
     protected List<Map.Entry<HRegionInfo, ServerName>> getAllRegions() throws SQLException {
-        NavigableMap<HRegionInfo, ServerName> allTableRegions = context.getConnection().getQueryServices().getAllTableRegions(table);
-        return filterRegions(allTableRegions, context.getScanRanges());
+        RegionBoundaryIndex regionIndex = context.getConnection().getQueryServices().getTableRegionIndex(table);
+        return regionIndex.filterRegions(context.getScanRanges());
     }
 
-    public static List<Map.Entry<HRegionInfo, ServerName>> filterRegions(NavigableMap<HRegionInfo, ServerName> allTableRegions, final ScanRanges ranges) {
-        Iterable<Map.Entry<HRegionInfo, ServerName>> regions;
-        if (ranges == ScanRanges.EVERYTHING) {
-            regions = allTableRegions.entrySet();
-        } else if (ranges == ScanRanges.NOTHING) {
-            return Lists.<Map.Entry<HRegionInfo, ServerName>>newArrayList();
-        } else {
-            regions = Iterables.filter(allTableRegions.entrySet(),
-                    new Predicate<Map.Entry<HRegionInfo, ServerName>>() {
-                    @Override
-                    public boolean apply(Map.Entry<HRegionInfo, ServerName> region) {
-                        return ranges.intersect(region.getKey().getStartKey(), region.getKey().getEndKey());
-                    }
-            });
-        }
-        return Lists.newArrayList(regions);
+    public static List<Map.Entry<HRegionInfo, ServerName>> filterRegions(NavigableMap<HRegionInfo, ServerName> allTableRegions, ScanRanges ranges) {
+        return new RegionBoundaryIndex(allTableRegions).filterRegions(ranges);
     }
 
 }
@@ -65,6 +65,9 @@ public class PhoenixConnection implements Connection, com.salesforce.phoenix.jdb
     private final Format[] formatters = new Format[PDataType.values().length];
     private final MutationState mutationState;
     private final int upsertBatchSize;
+    private final boolean isDeferServerMutations;
+    private final int clientAggregateThreads;
+    private final boolean isServerProjection;
     private final Long scn;
     private boolean isAutoCommit = false;
     private PMetaData metaData;
@@ -81,6 +84,9 @@ public class PhoenixConnection implements Connection, com.salesforce.phoenix.jdb
         this.scn = JDBCUtil.getCurrentSCN(url, this.info);
         this.tenantId = JDBCUtil.getTenantId(url, this.info);
         this.upsertBatchSize = JDBCUtil.getMutateBatchSize(url, this.info, services.getConfig());
+        this.isDeferServerMutations = JDBCUtil.getDeferServerMutations(url, this.info, services.getConfig());
+        this.clientAggregateThreads = JDBCUtil.getClientAggregateThreads(url, this.info, services.getConfig());
+        this.isServerProjection = JDBCUtil.getServerProjection(url, this.info, services.getConfig());
         datePattern = services.getConfig().get(QueryServices.DATE_FORMAT_ATTRIB, DateUtil.DEFAULT_DATE_FORMAT);
         int maxSize = services.getConfig().getInt(QueryServices.MAX_MUTATION_SIZE_ATTRIB,QueryServicesOptions.DEFAULT_MAX_MUTATION_SIZE);
         Format dateTimeFormat = DateUtil.getDateFormatter(datePattern);
@@ -90,6 +96,20 @@ public class PhoenixConnection implements Connection, com.salesforce.phoenix.jdb
         this.mutationState = new MutationState(maxSize, this);
     }
 
+    /**
+     * Constructor for a connection with the same properties and meta data as another
+     * connection, but that executes at the given time stamp instead.
+     */
+    public PhoenixConnection(PhoenixConnection connection, long scn) throws SQLException {
+        this(connection.getQueryServices(), connection.getURL(), newProperties(connection.info, scn), connection.getPMetaData());
+    }
+    
+    private static Properties newProperties(Properties info, long scn) {
+        Properties props = new Properties(info);
+        props.setProperty(PhoenixRuntime.CURRENT_SCN_ATTRIB, Long.toString(scn));
+        return props;
+    }
+
     public int executeStatements(Reader reader, List<Object> binds, PrintStream out) throws IOException, SQLException {
         int bindsOffset = 0;
         int nStatements = 0;
@@ -179,6 +199,18 @@ public class PhoenixConnection implements Connection, com.salesforce.phoenix.jdb
         return upsertBatchSize;
     }
     
+    public boolean isDeferServerMutations() {
+        return isDeferServerMutations;
+    }
+    
+    public int getClientAggregateThreads() {
+        return clientAggregateThreads;
+    }
+    
+    public boolean isServerProjection() {
+        return isServerProjection;
+    }
+    
     public PMetaData getPMetaData() {
         return metaData;
     }
@@ -343,12 +343,9 @@ public class PhoenixResultSet implements ResultSet, SQLCloseable, com.salesforce
     @Override
     public double getDouble(int columnIndex) throws SQLException {
         checkCursorState();
-        BigDecimal value = (BigDecimal)rowProjector.getColumnProjector(columnIndex-1).getValue(currentRow, PDataType.DECIMAL, ptr);
-        wasNull = (value == null);
-        if (value == null) {
-            return 0;
-        }
-        return value.doubleValue();
+        double value = rowProjector.getColumnProjector(columnIndex-1).getDouble(currentRow, ptr);
+        wasNull = (ptr.getLength() == 0);
+        return value;
     }
 
     @Override
@@ -390,11 +387,8 @@ public class PhoenixResultSet implements ResultSet, SQLCloseable, com.salesforce
     @Override
     public int getInt(int columnIndex) throws SQLException {
         checkCursorState();
-        Integer value = (Integer)rowProjector.getColumnProjector(columnIndex-1).getValue(currentRow, PDataType.INTEGER, ptr);
-        wasNull = (value == null);
-        if (value == null) {
-            return 0;
-        }
+        int value = rowProjector.getColumnProjector(columnIndex-1).getInt(currentRow, ptr);
+        wasNull = (ptr.getLength() == 0);
         return value;
     }
 
@@ -406,11 +400,8 @@ public class PhoenixResultSet implements ResultSet, SQLCloseable, com.salesforce
     @Override
     public long getLong(int columnIndex) throws SQLException {
         checkCursorState();
-        Long value = (Long)rowProjector.getColumnProjector(columnIndex-1).getValue(currentRow, PDataType.LONG, ptr);
-        wasNull = (value == null);
-        if (value == null) {
-            return 0;
-        }
+        long value = rowProjector.getColumnProjector(columnIndex-1).getLong(currentRow, ptr);
+        wasNull = (ptr.getLength() == 0);
         return value;
     }
 
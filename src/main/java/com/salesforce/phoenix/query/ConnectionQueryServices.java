@@ -65,6 +65,12 @@ public interface ConnectionQueryServices extends QueryServices, MetaDataMutated
     public StatsManager getStatsManager();
     
     public NavigableMap<HRegionInfo, ServerName> getAllTableRegions(TableRef table) throws SQLException;
+    
+    /**
+     * @return an index over the region boundaries of the table, used to find the
+     * regions touched by a query without testing each region of the table
+     */
+    public RegionBoundaryIndex getTableRegionIndex(TableRef table) throws SQLException;
 
     public PhoenixConnection connect(String url, Properties info) throws SQLException;
 
@@ -80,7 +80,7 @@ public class ConnectionQueryServicesImpl extends DelegateQueryServices implement
     /**
      * keep a cache of HRegionInfo objects
      */
-    private final LoadingCache<TableRef, NavigableMap<HRegionInfo, ServerName>> tableRegionCache;
+    private final LoadingCache<TableRef, RegionBoundaryIndex> tableRegionCache;
     
     public ConnectionQueryServicesImpl(QueryServices services, final Configuration config) throws SQLException {
         super(services);
@@ -101,21 +101,21 @@ public class ConnectionQueryServicesImpl extends DelegateQueryServices implement
         int maxStatsAgeMs = this.getConfig().getInt(QueryServices.MAX_STATS_AGE_MS_ATTRIB, QueryServicesOptions.DEFAULT_MAX_STATS_AGE_MS);
         this.statsManager = new StatsManagerImpl(this, statsUpdateFrequencyMs, maxStatsAgeMs);
         /**
-         * keep a cache of HRegionInfo objects
+         * keep a cache of HRegionInfo objects, indexed by their start key
          */
         tableRegionCache = CacheBuilder.newBuilder().
             expireAfterAccess(this.getConfig().getLong(QueryServices.REGION_BOUNDARY_CACHE_TTL_MS_ATTRIB,QueryServicesOptions.DEFAULT_REGION_BOUNDARY_CACHE_TTL_MS), TimeUnit.MILLISECONDS)
-            .removalListener(new RemovalListener<TableRef, NavigableMap<HRegionInfo, ServerName>>(){
+            .removalListener(new RemovalListener<TableRef, RegionBoundaryIndex>(){
                 @Override
-                public void onRemoval(RemovalNotification<TableRef, NavigableMap<HRegionInfo, ServerName>> notification) {
+                public void onRemoval(RemovalNotification<TableRef, RegionBoundaryIndex> notification) {
                     logger.info("REMOVE: {}", notification.getKey());
                 }
             })
-            .build(new CacheLoader<TableRef,NavigableMap<HRegionInfo, ServerName>>(){
+            .build(new CacheLoader<TableRef,RegionBoundaryIndex>(){
                 @Override
-                public NavigableMap<HRegionInfo, ServerName> load(TableRef key) throws Exception {
+                public RegionBoundaryIndex load(TableRef key) throws Exception {
                     logger.info("LOAD: {}", key);
-                    return MetaScanner.allTableRegions(config, key.getTableName(), false);
+                    return new RegionBoundaryIndex(MetaScanner.allTableRegions(config, key.getTableName(), false));
                 }
             });
     }
@@ -181,6 +181,11 @@ public class ConnectionQueryServicesImpl extends DelegateQueryServices implement
 
     @Override
     public NavigableMap<HRegionInfo, ServerName> getAllTableRegions(TableRef table) throws SQLException {
+        return getTableRegionIndex(table).getRegionMap();
+    }
+
+    @Override
+    public RegionBoundaryIndex getTableRegionIndex(TableRef table) throws SQLException {
         try {
             return tableRegionCache.get(table);
         } catch (ExecutionException e) {
@@ -88,6 +88,11 @@ public class ConnectionlessQueryServicesImpl extends DelegateQueryServices imple
         return null;
     }
 
+    @Override
+    public RegionBoundaryIndex getTableRegionIndex(TableRef table) throws SQLException {
+        return null;
+    }
+
     @Override
     public PMetaData addTable(String schemaName, PTable table) throws SQLException {
         return metaData = metaData.addTable(schemaName, table);
@@ -75,6 +75,11 @@ public class DelegateConnectionQueryServices extends DelegateQueryServices imple
         return getDelegate().getAllTableRegions(table);
     }
 
+    @Override
+    public RegionBoundaryIndex getTableRegionIndex(TableRef table) throws SQLException {
+        return getDelegate().getTableRegionIndex(table);
+    }
+
     @Override
     public PMetaData addTable(String schemaName, PTable table) throws SQLException {
         return getDelegate().addTable(schemaName, table);
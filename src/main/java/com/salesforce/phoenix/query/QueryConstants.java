@@ -84,6 +84,9 @@ public interface QueryConstants {
     public static final String EMPTY_COLUMN_NAME = "_0";
     public static final byte[] EMPTY_COLUMN_BYTES = Bytes.toBytes(EMPTY_COLUMN_NAME);
     public static final String DEFAULT_COLUMN_FAMILY = EMPTY_COLUMN_NAME;
+    // Column qualifier of the single key value holding all column values of a family for STORAGE=PACKED
+    public static final String PACKED_COLUMN_NAME = "_p";
+    public static final byte[] PACKED_COLUMN_BYTES = Bytes.toBytes(PACKED_COLUMN_NAME);
     public static final PName DEFAULT_COLUMN_FAMILY_NAME = new PNameImpl(DEFAULT_COLUMN_FAMILY);
     public static final byte[] DEFAULT_COLUMN_FAMILY_BYTES = DEFAULT_COLUMN_FAMILY_NAME.getBytes();
     public static final String ALL_FAMILY_PROPERTIES_KEY = "";
@@ -107,6 +110,9 @@ public interface QueryConstants {
             TABLE_SEQ_NUM + " BIGINT," +
             COLUMN_COUNT + " INTEGER," +
             SALT_BUCKETS + " INTEGER," +
+            COLUMN_ENCODED + " BOOLEAN," +
+            COLUMN_QUALIFIER_COUNTER + " INTEGER," +
+            STORAGE_SCHEME + " INTEGER," +
             // Column metadata (will be null for table row)
             COLUMN_SIZE + " INTEGER," +
             BUFFER_LENGTH + " INTEGER," +
@@ -124,7 +130,8 @@ public interface QueryConstants {
             SCOPE_TABLE + " VARCHAR," +
             SOURCE_DATA_TYPE + " INTEGER," + // supposed to be SHORT
             IS_AUTOINCREMENT + " VARCHAR," +
-            COLUMN_MODIFIER + " INTEGER\n" +
+            COLUMN_MODIFIER + " INTEGER," +
+            COLUMN_QUALIFIER + " INTEGER\n" +
             "CONSTRAINT " + SYSTEM_TABLE_PK_NAME + " PRIMARY KEY (" + TABLE_SCHEM_NAME + "," + TABLE_NAME_NAME + "," + COLUMN_NAME + "," + TABLE_CAT_NAME + "))\n" +
             HConstants.VERSIONS + "=" + MetaDataProtocol.DEFAULT_MAX_META_DATA_VERSIONS + ",\n" +
             HTableDescriptor.SPLIT_POLICY + "='" + MetaDataSplitPolicy.class.getName() + "'\n";
@@ -163,6 +163,10 @@ public interface QueryServices extends SQLCloseable {
     public static final String MUTATE_BATCH_SIZE_ATTRIB = "phoenix.mutate.batchSize";
     public static final String REGION_BOUNDARY_CACHE_TTL_MS_ATTRIB = "phoenix.query.regionBoundaryCacheTTL";
     public static final String MAX_HASH_CACHE_TIME_TO_LIVE_MS = "phoenix.coprocessor.maxHashCacheTimeToLiveMs";
+    public static final String MAX_POINT_LOOKUP_KEYS_ATTRIB = "phoenix.query.maxPointLookupKeys";
+    public static final String SERVER_PROJECTION_ATTRIB = "phoenix.query.serverProjection";
+    public static final String DEFER_SERVER_MUTATIONS_ATTRIB = "phoenix.mutate.deferServerMutations";
+    public static final String CLIENT_AGGREGATE_THREADS_ATTRIB = "phoenix.query.clientAggregateThreads";
 
     public static final String CALL_QUEUE_PRODUCER_ATTRIB_NAME = "CALL_QUEUE_PRODUCER";
     
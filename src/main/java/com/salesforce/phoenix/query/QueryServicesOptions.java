@@ -70,6 +70,10 @@ public class QueryServicesOptions {
 	public static final int DEFAULT_REGION_BOUNDARY_CACHE_TTL_MS = 60000; // How long to cache region boundary info for parallelization calculation
     public static final int DEFAULT_MAX_HASH_CACHE_TIME_TO_LIVE_MS = 30000; // 30 sec (with no activity)
     public static final int DEFAULT_SCAN_CACHE_SIZE = 1000;
+    public static final int DEFAULT_MAX_POINT_LOOKUP_KEYS = 10000; // Above this, use a skip scan instead of batched gets
+    public static final boolean DEFAULT_SERVER_PROJECTION = false; // Evaluate select expressions on the server for non aggregate scans
+    public static final boolean DEFAULT_DEFER_SERVER_MUTATIONS = false; // Run DELETE and UPSERT SELECT on the server at commit time when auto commit is off
+    public static final int DEFAULT_CLIENT_AGGREGATE_THREADS = 1; // Above one, merge the groups of a GROUP BY by hash in parallel instead of by merge sort
     
     private final Configuration config;
     
@@ -99,6 +103,10 @@ public class QueryServicesOptions {
             // TODO: remove usage of UPSERT_BATCH_SIZE_ATTRIB in next release
             .setIfUnset(MUTATE_BATCH_SIZE_ATTRIB, config.getInt(UPSERT_BATCH_SIZE_ATTRIB, DEFAULT_MUTATE_BATCH_SIZE))
             .setIfUnset(REGION_BOUNDARY_CACHE_TTL_MS_ATTRIB, DEFAULT_REGION_BOUNDARY_CACHE_TTL_MS)
+            .setIfUnset(MAX_POINT_LOOKUP_KEYS_ATTRIB, DEFAULT_MAX_POINT_LOOKUP_KEYS)
+            .setIfUnset(SERVER_PROJECTION_ATTRIB, DEFAULT_SERVER_PROJECTION)
+            .setIfUnset(DEFER_SERVER_MUTATIONS_ATTRIB, DEFAULT_DEFER_SERVER_MUTATIONS)
+            .setIfUnset(CLIENT_AGGREGATE_THREADS_ATTRIB, DEFAULT_CLIENT_AGGREGATE_THREADS)
             ;
         // HBase sets this to 1, so we reset it to something more appropriate.
         // Hopefully HBase will change this, because we can't know if a user set
@@ -224,6 +232,22 @@ public class QueryServicesOptions {
         return set(REGION_BOUNDARY_CACHE_TTL_MS_ATTRIB, regionBoundaryCacheTTL);
     }
     
+    public QueryServicesOptions setMaxPointLookupKeys(int maxPointLookupKeys) {
+        return set(MAX_POINT_LOOKUP_KEYS_ATTRIB, maxPointLookupKeys);
+    }
+    
+    public QueryServicesOptions setServerProjection(boolean serverProjection) {
+        return set(SERVER_PROJECTION_ATTRIB, serverProjection);
+    }
+    
+    public QueryServicesOptions setDeferServerMutations(boolean deferServerMutations) {
+        return set(DEFER_SERVER_MUTATIONS_ATTRIB, deferServerMutations);
+    }
+    
+    public QueryServicesOptions setClientAggregateThreads(int clientAggregateThreads) {
+        return set(CLIENT_AGGREGATE_THREADS_ATTRIB, clientAggregateThreads);
+    }
+    
     private QueryServicesOptions set(String name, boolean value) {
         config.set(name, Boolean.toString(value));
         return this;
@@ -283,4 +307,20 @@ public class QueryServicesOptions {
     public int getRegionBoundaryCacheTTLMs() {
         return config.getInt(REGION_BOUNDARY_CACHE_TTL_MS_ATTRIB, DEFAULT_REGION_BOUNDARY_CACHE_TTL_MS);
     }
+    
+    public int getMaxPointLookupKeys() {
+        return config.getInt(MAX_POINT_LOOKUP_KEYS_ATTRIB, DEFAULT_MAX_POINT_LOOKUP_KEYS);
+    }
+    
+    public boolean isServerProjection() {
+        return config.getBoolean(SERVER_PROJECTION_ATTRIB, DEFAULT_SERVER_PROJECTION);
+    }
+    
+    public boolean isDeferServerMutations() {
+        return config.getBoolean(DEFER_SERVER_MUTATIONS_ATTRIB, DEFAULT_DEFER_SERVER_MUTATIONS);
+    }
+    
+    public int getClientAggregateThreads() {
+        return config.getInt(CLIENT_AGGREGATE_THREADS_ATTRIB, DEFAULT_CLIENT_AGGREGATE_THREADS);
+    }
 }
@@ -0,0 +1,177 @@
+/*******************************************************************************
+ * Copyright (c) 2013, Salesforce.com, Inc.
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     Redistributions of source code must retain the above copyright notice,
+ *     this list of conditions and the following disclaimer.
+ *     Redistributions in binary form must reproduce the above copyright notice,
+ *     this list of conditions and the following disclaimer in the documentation
+ *     and/or other materials provided with the distribution.
+ *     Neither the name of Salesforce.com nor the names of its contributors may 
+ *     be used to endorse or promote products derived from this software without 
+ *     specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE 
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL 
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR 
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER 
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, 
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE 
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package com.salesforce.phoenix.query;
+
+import java.util.*;
+
+import org.apache.hadoop.hbase.HRegionInfo;
+import org.apache.hadoop.hbase.ServerName;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import com.google.common.collect.ImmutableList;
+import com.salesforce.phoenix.compile.ScanRanges;
+import com.salesforce.phoenix.util.ByteUtil;
+
+
+/**
+ * Index over the regions of a table ordered by their start key. The regions
+ * touched by a key range are found by binary searching the start keys, so that
+ * pruning regions costs in proportion to the ranges being queried instead of the
+ * number of regions of the table.
+ *
+ * @author jtaylor
+ * @since 1.2
+ */
+public class RegionBoundaryIndex {
+    private final NavigableMap<HRegionInfo, ServerName> regionMap;
+    private final List<Map.Entry<HRegionInfo, ServerName>> regions;
+    private final byte[][] startKeys;
+
+    public RegionBoundaryIndex(NavigableMap<HRegionInfo, ServerName> regionMap) {
+        this.regionMap = regionMap;
+        this.regions = ImmutableList.copyOf(regionMap.entrySet());
+        this.startKeys = new byte[regions.size()][];
+        for (int i = 0; i < startKeys.length; i++) {
+            startKeys[i] = regions.get(i).getKey().getStartKey();
+        }
+    }
+
+    public NavigableMap<HRegionInfo, ServerName> getRegionMap() {
+        return regionMap;
+    }
+
+    /**
+     * @return all regions of the table ordered by start key
+     */
+    public List<Map.Entry<HRegionInfo, ServerName>> getRegions() {
+        return regions;
+    }
+
+    /**
+     * @return the region containing the row key
+     */
+    public Map.Entry<HRegionInfo, ServerName> getRegion(byte[] key) {
+        return regions.get(Math.max(0, getRegionIndex(key, true)));
+    }
+
+    /**
+     * Search for the last region starting before the given key.
+     * @param key the row key
+     * @param inclusive if true, a region starting at the key is included
+     * @return the index of the last region whose start key is less than (or equal to if
+     * inclusive) the key, or -1 if there is no such region.
+     */
+    private int getRegionIndex(byte[] key, boolean inclusive) {
+        int low = 0, high = startKeys.length - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = Bytes.compareTo(startKeys[mid], key);
+            if (cmp < 0 || (cmp == 0 && inclusive)) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low - 1;
+    }
+
+    /**
+     * Find the candidate regions for the rows from the lower bound up to the upper bound.
+     * @param lowerRange the lower bound, where an empty array is unbound
+     * @param upperRange the upper bound, where an empty array is unbound
+     * @param upperInclusive true if the upper bound is inclusive
+     * @param candidates the set into which the region indexes are added
+     */
+    private void addRegionIndexes(byte[] lowerRange, byte[] upperRange, boolean upperInclusive, BitSet candidates) {
+        int first = Math.max(0, getRegionIndex(lowerRange, true));
+        int last = upperRange.length == 0 ? startKeys.length - 1 : getRegionIndex(upperRange, upperInclusive);
+        if (first <= last) {
+            candidates.set(first, last + 1);
+        }
+    }
+
+    /**
+     * Filters out regions that do not intersect with the key range.
+     * @param keyRange the key range
+     * @return regions that intersect with the key range, ordered by start key
+     */
+    public List<Map.Entry<HRegionInfo, ServerName>> filterRegions(KeyRange keyRange) {
+        if (keyRange == KeyRange.EVERYTHING_RANGE) {
+            return regions;
+        }
+        if (keyRange == KeyRange.EMPTY_RANGE) {
+            return Collections.emptyList();
+        }
+        BitSet candidates = new BitSet(startKeys.length);
+        addRegionIndexes(keyRange.getLowerRange(), keyRange.getUpperRange(), keyRange.isUpperInclusive(), candidates);
+        List<Map.Entry<HRegionInfo, ServerName>> filteredRegions = new ArrayList<Map.Entry<HRegionInfo, ServerName>>(candidates.cardinality());
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            Map.Entry<HRegionInfo, ServerName> region = regions.get(i);
+            KeyRange regionKeyRange = KeyRange.getKeyRange(region.getKey().getStartKey(), region.getKey().getEndKey());
+            if (keyRange.intersect(regionKeyRange) != KeyRange.EMPTY_RANGE) {
+                filteredRegions.add(region);
+            }
+        }
+        return filteredRegions;
+    }
+
+    /**
+     * Filters out regions that do not intersect with the scan ranges. Candidate regions
+     * are found by binary searching the key ranges of the leading slot and each of them
+     * is then checked against all of the slots.
+     * @param ranges the scan ranges
+     * @return regions that intersect with the scan ranges, ordered by start key
+     */
+    public List<Map.Entry<HRegionInfo, ServerName>> filterRegions(ScanRanges ranges) {
+        if (ranges == ScanRanges.EVERYTHING) {
+            return regions;
+        }
+        if (ranges == ScanRanges.NOTHING) {
+            return Collections.emptyList();
+        }
+        BitSet candidates = new BitSet(startKeys.length);
+        for (KeyRange range : ranges.getRanges().get(0)) {
+            // Row keys matching the range begin with a value no bigger than the upper range,
+            // followed by either nothing or a separator byte, so they all sort before the
+            // next key of the upper range.
+            byte[] upperRange = range.upperUnbound() ? KeyRange.UNBOUND : ByteUtil.nextKey(range.getUpperRange());
+            if (upperRange == null) {
+                upperRange = KeyRange.UNBOUND;
+            }
+            addRegionIndexes(range.getLowerRange(), upperRange, false, candidates);
+        }
+        List<Map.Entry<HRegionInfo, ServerName>> filteredRegions = new ArrayList<Map.Entry<HRegionInfo, ServerName>>(candidates.cardinality());
+        for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+            Map.Entry<HRegionInfo, ServerName> region = regions.get(i);
+            if (ranges.intersect(region.getKey().getStartKey(), region.getKey().getEndKey())) {
+                filteredRegions.add(region);
+            }
+        }
+        return filteredRegions;
+    }
+}
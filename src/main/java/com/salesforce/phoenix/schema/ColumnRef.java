@@ -93,6 +93,9 @@ public final class ColumnRef {
     public ColumnExpression newColumnExpression() throws SQLException {
         if (SchemaUtil.isPKColumn(this.getColumn())) {
             return new RowKeyColumnExpression(getColumn(), new RowKeyValueAccessor(this.getTable().getPKColumns(), pkSlotPosition));
+        } else if (getTable().getStorageScheme() == StorageScheme.PACKED) {
+            PColumnFamily family = getTable().getColumnFamily(getColumn().getFamilyName().getBytes());
+            return new KeyValueColumnExpression(getColumn(), SchemaUtil.newPackedSchema(family), SchemaUtil.getPackedPosition(family, getColumn()));
         } else {
             return new KeyValueColumnExpression(getColumn());
         }
@@ -69,4 +69,14 @@ public class DelegateColumn extends DelegateDatum implements PColumn {
     public int getPosition() {
         return getDelegate().getPosition();
     }
+
+    @Override
+    public Integer getEncodedQualifier() {
+        return getDelegate().getEncodedQualifier();
+    }
+
+    @Override
+    public byte[] getQualifier() {
+        return getDelegate().getQualifier();
+    }
 }
@@ -47,6 +47,9 @@ import com.salesforce.phoenix.util.ByteUtil;
 @Immutable
 public class KeyValueSchema extends ValueSchema {
     
+    public KeyValueSchema() {
+    }
+    
     protected KeyValueSchema(int minNullable, List<Field> fields) {
         super(minNullable, fields);
     }
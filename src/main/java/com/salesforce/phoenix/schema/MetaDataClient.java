@@ -121,8 +121,11 @@ public class MetaDataClient {
         TABLE_SEQ_NUM + "," +
         COLUMN_COUNT + "," +
         SALT_BUCKETS + "," +
-        PK_NAME + 
-        ") VALUES (?, ?, ?, ?, ?, ?, ?)";
+        PK_NAME + "," +
+        COLUMN_ENCODED + "," +
+        COLUMN_QUALIFIER_COUNTER + "," +
+        STORAGE_SCHEME +
+        ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
     private static final String MUTATE_TABLE =
         "UPSERT INTO " + TYPE_SCHEMA + ".\"" + TYPE_TABLE + "\"( " + 
         TABLE_SCHEM_NAME + "," +
@@ -131,6 +134,12 @@ public class MetaDataClient {
         TABLE_SEQ_NUM + "," +
         COLUMN_COUNT +
         ") VALUES (?, ?, ?, ?, ?)";
+    private static final String UPDATE_COLUMN_QUALIFIER_COUNTER =
+        "UPSERT INTO " + TYPE_SCHEMA + ".\"" + TYPE_TABLE + "\"( " + 
+        TABLE_SCHEM_NAME + "," +
+        TABLE_NAME_NAME + "," +
+        COLUMN_QUALIFIER_COUNTER +
+        ") VALUES (?, ?, ?)";
     private static final String INSERT_COLUMN =
         "UPSERT INTO " + TYPE_SCHEMA + ".\"" + TYPE_TABLE + "\"( " + 
         TABLE_SCHEM_NAME + "," +
@@ -142,8 +151,9 @@ public class MetaDataClient {
         COLUMN_SIZE + "," +
         DECIMAL_DIGITS + "," +
         ORDINAL_POSITION + "," + 
-        COLUMN_MODIFIER +
-        ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        COLUMN_MODIFIER + "," +
+        COLUMN_QUALIFIER +
+        ") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
     private static final String UPDATE_COLUMN_POSITION =
         "UPSERT INTO " + TYPE_SCHEMA + ".\"" + TYPE_TABLE + "\" ( " + 
         TABLE_SCHEM_NAME + "," +
@@ -172,10 +182,24 @@ public class MetaDataClient {
         }
         colUpsert.setInt(9, column.getPosition()+1);
         colUpsert.setInt(10, ColumnModifier.toSystemValue(column.getColumnModifier()));
+        if (column.getEncodedQualifier() == null) {
+            colUpsert.setNull(11, Types.INTEGER);
+        } else {
+            colUpsert.setInt(11, column.getEncodedQualifier());
+        }
         colUpsert.execute();
     }
 
     public PColumn newColumn(int position, ColumnDef def, PrimaryKeyConstraint pkConstraint) throws SQLException {
+        return newColumn(position, def, pkConstraint, null);
+    }
+
+    /**
+     * Create the column for a column definition.
+     * @param encodedQualifier the number under which a key value column is stored,
+     * or null to store it under its name. Ignored for primary key columns.
+     */
+    public PColumn newColumn(int position, ColumnDef def, PrimaryKeyConstraint pkConstraint, Integer encodedQualifier) throws SQLException {
         try {
         	Set<String> pkColumnNames = pkConstraint == null ? Collections.<String>emptySet() : pkConstraint.getColumnNames();
             String columnName = def.getColumnDefName().getColumnName().getName();
@@ -205,7 +229,7 @@ public class MetaDataClient {
             }            
             
             PColumn column = new PColumnImpl(new PNameImpl(columnName), familyName, def.getDataType(),
-                    def.getMaxLength(), def.getScale(), def.isNull(), position, columnModifier);
+                    def.getMaxLength(), def.getScale(), def.isNull(), position, columnModifier, isPK ? null : encodedQualifier);
             return column;
         } catch (IllegalArgumentException e) { // Based on precondition check in constructor
             throw new SQLException(e);
@@ -316,6 +340,26 @@ public class MetaDataClient {
                 }
             }
             
+            // Property values may be given as identifiers, so check the type of typed properties
+            Object columnEncodedValue = tableProps.remove(PhoenixDatabaseMetaData.COLUMN_ENCODED);
+            if (columnEncodedValue != null && !(columnEncodedValue instanceof Boolean)) {
+                throw new SQLExceptionInfo.Builder(SQLExceptionCode.INVALID_COLUMN_ENCODED).build().buildException();
+            }
+            boolean isColumnEncoded = Boolean.TRUE.equals(columnEncodedValue);
+            Integer columnQualifierCounter = null;
+            if (isColumnEncoded) {
+                int encodedQualifier = 0;
+                for (int i = 0; i < columns.size(); i++) {
+                    PColumn column = columns.get(i);
+                    if (!SchemaUtil.isPKColumn(column)) {
+                        encodedQualifier = SchemaUtil.getNextEncodedQualifier(encodedQualifier);
+                        columns.set(i, new PColumnImpl(column.getName(), column.getFamilyName(), column.getDataType(), column.getMaxLength(),
+                                column.getScale(), column.isNullable(), column.getPosition(), column.getColumnModifier(), encodedQualifier++));
+                    }
+                }
+                columnQualifierCounter = encodedQualifier;
+            }
+            
             // Bootstrapping for our SYSTEM.TABLE that creates itself before it exists 
             if (tableType == PTableType.SYSTEM) {
                 PTable table = new PTableImpl(new PNameImpl(tableName), tableType, MetaDataProtocol.MIN_TABLE_TIMESTAMP, 0, QueryConstants.SYSTEM_TABLE_PK_NAME, null, columns);
@@ -326,7 +370,21 @@ public class MetaDataClient {
                 addColumnMutation(schemaName, tableName, column, colUpsert);
             }
             
-            Integer saltBucketNum = (Integer) tableProps.remove(PhoenixDatabaseMetaData.SALT_BUCKETS);
+            StorageScheme storageScheme = StorageScheme.COLUMNS;
+            Object storageValue = tableProps.remove(PhoenixDatabaseMetaData.STORAGE);
+            if (storageValue != null) {
+                try {
+                    storageScheme = StorageScheme.valueOf(storageValue.toString().toUpperCase());
+                } catch (IllegalArgumentException e) {
+                    throw new SQLExceptionInfo.Builder(SQLExceptionCode.INVALID_STORAGE_SCHEME).build().buildException();
+                }
+            }
+            
+            Object saltBucketValue = tableProps.remove(PhoenixDatabaseMetaData.SALT_BUCKETS);
+            if (saltBucketValue != null && !(saltBucketValue instanceof Integer)) {
+                throw new SQLExceptionInfo.Builder(SQLExceptionCode.INVALID_BUCKET_NUM).build().buildException();
+            }
+            Integer saltBucketNum = (Integer) saltBucketValue;
             if (saltBucketNum != null && (saltBucketNum <= 0 || saltBucketNum > SaltingUtil.MAX_BUCKET_NUM)) {
                 throw new SQLExceptionInfo.Builder(SQLExceptionCode.INVALID_BUCKET_NUM).build().buildException();
             }
@@ -343,6 +401,18 @@ public class MetaDataClient {
                 tableUpsert.setNull(6, Types.INTEGER);
             }
             tableUpsert.setString(7, pkName);
+            if (isColumnEncoded) {
+                tableUpsert.setObject(8, Boolean.TRUE);
+                tableUpsert.setInt(9, columnQualifierCounter);
+            } else {
+                tableUpsert.setNull(8, Types.BOOLEAN);
+                tableUpsert.setNull(9, Types.INTEGER);
+            }
+            if (storageScheme != StorageScheme.COLUMNS) {
+                tableUpsert.setInt(10, storageScheme.ordinal());
+            } else {
+                tableUpsert.setNull(10, Types.INTEGER);
+            }
             tableUpsert.execute();
             
             final List<Mutation> tableMetaData = connection.getMutationState().toMutations();
@@ -364,7 +434,7 @@ public class MetaDataClient {
                 throw new SQLExceptionInfo.Builder(SQLExceptionCode.CANNOT_MUTATE_TABLE)
                     .setSchemaName(schemaName).setTableName(tableName).build().buildException();
             default:
-                PTable table = new PTableImpl(new PNameImpl(tableName), tableType, result.getMutationTime(), 0, pkName, saltBucketNum, columns);
+                PTable table = new PTableImpl(new PNameImpl(tableName), tableType, result.getMutationTime(), 0, pkName, saltBucketNum, isColumnEncoded, columnQualifierCounter, storageScheme, columns);
                 connection.addTable(schemaName, table);
                 if (tableType == PTableType.USER) {
                     connection.setAutoCommit(true);
@@ -513,10 +583,15 @@ public class MetaDataClient {
                     throw new SQLExceptionInfo.Builder(SQLExceptionCode.NOT_NULLABLE_COLUMN_IN_ROW_KEY)
                         .setColumnName(colDef.getColumnDefName().getColumnName().getName()).build().buildException();
                 }
+                // The fields of a packed key value are positional, so its columns are fixed at create time
+                if (!colDef.isPK() && table.getStorageScheme() == StorageScheme.PACKED) {
+                    throw new SQLExceptionInfo.Builder(SQLExceptionCode.CANNOT_ALTER_PACKED_TABLE)
+                        .setSchemaName(schemaName).setTableName(tableName).build().buildException();
+                }
                 
                 PreparedStatement colUpsert = connection.prepareStatement(INSERT_COLUMN);
                 Pair<byte[],Map<String,Object>> family = null;
-                PColumn column = newColumn(ordinalPosition++, colDef, null);
+                PColumn column = newColumn(ordinalPosition++, colDef, null, table.isColumnEncoded() ? SchemaUtil.getNextEncodedQualifier(table) : null);
                 addColumnMutation(schemaName, tableName, column, colUpsert);
                 columns.add(column);
                 if (column.getFamilyName() != null) {
@@ -530,6 +605,14 @@ public class MetaDataClient {
                 tableUpsert.setLong(4, seqNum);
                 tableUpsert.setInt(5, ordinalPosition);
                 tableUpsert.execute();
+                if (column.getEncodedQualifier() != null) {
+                    // Never hand out a qualifier again, since the cells of a dropped column are left behind
+                    PreparedStatement counterUpsert = connection.prepareStatement(UPDATE_COLUMN_QUALIFIER_COUNTER);
+                    counterUpsert.setString(1, schemaName);
+                    counterUpsert.setString(2, tableName);
+                    counterUpsert.setInt(3, column.getEncodedQualifier() + 1);
+                    counterUpsert.execute();
+                }
                 
                 final List<Mutation> tableMetaData = connection.getMutationState().toMutations();
                 connection.rollback();
@@ -598,6 +681,10 @@ public class MetaDataClient {
                     throw new SQLExceptionInfo.Builder(SQLExceptionCode.CANNOT_DROP_PK)
                         .setColumnName(columnToDrop.getName().getString()).build().buildException();
                 }
+                if (table.getStorageScheme() == StorageScheme.PACKED) {
+                    throw new SQLExceptionInfo.Builder(SQLExceptionCode.CANNOT_ALTER_PACKED_TABLE)
+                        .setSchemaName(schemaName).setTableName(tableName).build().buildException();
+                }
                 int columnCount = table.getColumns().size() - 1;
                 String familyName = null;
                 List<String> binds = Lists.newArrayListWithExpectedSize(4);
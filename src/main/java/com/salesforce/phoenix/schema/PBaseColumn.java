@@ -57,4 +57,14 @@ public abstract class PBaseColumn implements PColumn {
     public boolean isNullable() {
         return false;
     }
+
+    @Override
+    public Integer getEncodedQualifier() {
+        return null;
+    }
+
+    @Override
+    public byte[] getQualifier() {
+        return getName().getBytes();
+    }
 }
@@ -51,4 +51,17 @@ public interface PColumn extends PDatum, Writable {
      * @return the zero-based ordinal position of the column
      */
     int getPosition();
+
+    /**
+     * @return the number assigned to the column when its table encodes column qualifiers,
+     * or null if the column is stored under its name.
+     */
+    Integer getEncodedQualifier();
+
+    /**
+     * @return the KeyValue column qualifier under which the column value is stored:
+     * the compact form of {@link #getEncodedQualifier()} if the column has one and
+     * otherwise the bytes of {@link #getName()}.
+     */
+    byte[] getQualifier();
 }
@@ -37,11 +37,13 @@ import org.apache.hadoop.io.WritableUtils;
 import com.google.common.base.Preconditions;
 import com.salesforce.phoenix.query.QueryConstants;
 import com.salesforce.phoenix.util.ByteUtil;
+import com.salesforce.phoenix.util.SchemaUtil;
 
 
 public class PColumnImpl implements PColumn {
     private static final Integer NO_MAXLENGTH = Integer.MIN_VALUE;
     private static final Integer NO_SCALE = Integer.MIN_VALUE;
+    private static final Integer NO_ENCODED_QUALIFIER = Integer.MIN_VALUE;
 
     private PName name;
     private PName familyName;
@@ -51,6 +53,8 @@ public class PColumnImpl implements PColumn {
     private boolean nullable;
     private int position;
     private ColumnModifier columnModifier;
+    private Integer encodedQualifier;
+    private byte[] qualifier;
 
     public PColumnImpl() {
     }
@@ -63,12 +67,24 @@ public class PColumnImpl implements PColumn {
                        boolean nullable,
                        int position,
                        ColumnModifier sortOrder) {
-        init(name, familyName, dataType, maxLength, scale, nullable, position, sortOrder);
+        this(name, familyName, dataType, maxLength, scale, nullable, position, sortOrder, null);
+    }
+
+    public PColumnImpl(PName name,
+                       PName familyName,
+                       PDataType dataType,
+                       Integer maxLength,
+                       Integer scale,
+                       boolean nullable,
+                       int position,
+                       ColumnModifier sortOrder,
+                       Integer encodedQualifier) {
+        init(name, familyName, dataType, maxLength, scale, nullable, position, sortOrder, encodedQualifier);
     }
 
     public PColumnImpl(PColumn column, int position) {
         this(column.getName(), column.getFamilyName(), column.getDataType(), column.getMaxLength(),
-                column.getScale(), column.isNullable(), position, column.getColumnModifier());
+                column.getScale(), column.isNullable(), position, column.getColumnModifier(), column.getEncodedQualifier());
     }
 
     private void init(PName name,
@@ -78,7 +94,8 @@ public class PColumnImpl implements PColumn {
             Integer scale,
             boolean nullable,
             int position,
-            ColumnModifier columnModifier) {
+            ColumnModifier columnModifier,
+            Integer encodedQualifier) {
         this.dataType = dataType;
         if (familyName == null) {
             // Allow nullable columns in PK, but only if they're variable length.
@@ -96,6 +113,8 @@ public class PColumnImpl implements PColumn {
         this.nullable = nullable;
         this.position = position;
         this.columnModifier = columnModifier;
+        this.encodedQualifier = encodedQualifier;
+        this.qualifier = encodedQualifier == null ? name.getBytes() : SchemaUtil.getEncodedColumnQualifier(encodedQualifier);
     }
 
     @Override
@@ -145,6 +164,16 @@ public class PColumnImpl implements PColumn {
     	return columnModifier;
     }
 
+    @Override
+    public Integer getEncodedQualifier() {
+        return encodedQualifier;
+    }
+
+    @Override
+    public byte[] getQualifier() {
+        return qualifier;
+    }
+
     @Override
     public String toString() {
         return (familyName == null ? "" : familyName.toString() + QueryConstants.NAME_SEPARATOR) + name.toString();
@@ -163,8 +192,10 @@ public class PColumnImpl implements PColumn {
         boolean nullable = input.readBoolean();
         int position = WritableUtils.readVInt(input);
         ColumnModifier columnModifier = ColumnModifier.fromSystemValue(WritableUtils.readVInt(input));
+        int encodedQualifier = WritableUtils.readVInt(input);
         init(columnName, familyName, dataType, maxLength == NO_MAXLENGTH ? null : maxLength,
-                scale == NO_SCALE ? null : scale, nullable, position, columnModifier);
+                scale == NO_SCALE ? null : scale, nullable, position, columnModifier,
+                encodedQualifier == NO_ENCODED_QUALIFIER ? null : encodedQualifier);
     }
 
     @Override
@@ -177,5 +208,6 @@ public class PColumnImpl implements PColumn {
         output.writeBoolean(nullable);
         WritableUtils.writeVInt(output, position);
         WritableUtils.writeVInt(output, ColumnModifier.toSystemValue(columnModifier));
+        WritableUtils.writeVInt(output, encodedQualifier == null ? NO_ENCODED_QUALIFIER : encodedQualifier);
     }
 }
\ No newline at end of file
@@ -1685,10 +1685,18 @@ public enum PDataType {
 
         @Override
         public int decodeInt(byte[] b, int o, ColumnModifier columnModifier) {
-            if (columnModifier != null) {
-                b = columnModifier.apply(b, new byte[b.length], o, Bytes.SIZEOF_INT);
+            int v = 0;
+            if (columnModifier == null) {
+                for(int i = o; i < o + Bytes.SIZEOF_INT; i++) {
+                    v <<= 8;
+                    v ^= b[i] & 0xFF;
+                }
+            } else { // ColumnModifier.SORT_DESC
+                for(int i = o; i < o + Bytes.SIZEOF_INT; i++) {
+                    v <<= 8;
+                    v ^= (b[i] & 0xFF) ^ 0xFF;
+                }
             }
-            int v = Bytes.toInt(b, o);
             if (v < 0) {
                 throw new IllegalDataException();
             }
@@ -1722,6 +1730,8 @@ public enum PDataType {
     public static final int DEFAULT_SCALE = 0;
 
     private static final Integer MAX_BIG_DECIMAL_BYTES = 21;
+    // Exponent byte, terminal byte and up to ten base 100 digit bytes for the value of a long
+    public static final int MAX_SCALED_LONG_BYTES = 12;
 
     private static final byte ZERO_BYTE = (byte)0x80;
     private static final byte NEG_TERMINAL_BYTE = (byte)102;
@@ -1916,6 +1926,134 @@ public enum PDataType {
         return v;
     }
 
+    /**
+     * Deserialize a DECIMAL directly into its unscaled value at the given scale,
+     * without going through BigDecimal. Used for the fast path of DECIMAL arithmetic
+     * and aggregation when the scale is known up front.
+     * @param bytes the bytes containing the number
+     * @param offset the offset into the byte array
+     * @param length the length of the serialized DECIMAL
+     * @param columnModifier the modifier the bytes were stored with, or null
+     * @param scale the scale of the result
+     * @return the value multiplied by 10^scale
+     * @throws ArithmeticException if the value has more fractional digits than
+     * scale or if the result does not fit into a long
+     */
+    public static long toScaledLong(byte[] bytes, int offset, int length, ColumnModifier columnModifier, int scale) {
+        byte firstByte = columnModifier == null ? bytes[offset] : columnModifier.apply(bytes[offset]);
+        if (length == 1 && firstByte == ZERO_BYTE) {
+            return 0;
+        }
+        int signum = ((firstByte & 0x80) == 0) ? -1 : 1;
+        int valueScale;
+        int index;
+        int digitOffset;
+        if (signum == 1) {
+            valueScale = (byte)(((firstByte & 0x7F) - 65) * -2);
+            index = offset + length;
+            digitOffset = POS_DIGIT_OFFSET;
+        } else {
+            byte lastByte = columnModifier == null ? bytes[offset + length - 1] : columnModifier.apply(bytes[offset + length - 1]);
+            valueScale = (byte)((~firstByte - 65 - 128) * -2);
+            index = offset + length - (lastByte == NEG_TERMINAL_BYTE ? 1 : 0);
+            digitOffset = -NEG_DIGIT_OFFSET;
+        }
+        valueScale += (index - offset - 2) * 2;
+        long l = 0;
+        for (int i = offset + 1; i < index; i++) {
+            byte b = columnModifier == null ? bytes[i] : columnModifier.apply(bytes[i]);
+            int digit100 = signum * b - digitOffset;
+            if (i == index - 1 && digit100 % 10 == 0) { // trailing zero
+                // drop trailing zero and compensate in the scale, as it may be what lets the value fit
+                l = LongMath.checkedAdd(LongMath.checkedMultiply(l, 10), digit100 / 10);
+                valueScale--;
+            } else {
+                l = LongMath.checkedAdd(LongMath.checkedMultiply(l, 100), digit100);
+            }
+        }
+        while (valueScale > scale && l % 10 == 0) {
+            l /= 10;
+            valueScale--;
+        }
+        if (valueScale > scale) {
+            throw new ArithmeticException("Rounding necessary");
+        }
+        return signum * LongMath.checkedMultiply(l, LongMath.checkedPow(10, scale - valueScale));
+    }
+
+    /**
+     * Serialize the DECIMAL unscaledValue * 10^-scale the same way as a BigDecimal of
+     * that value would be, without going through BigDecimal.
+     * @param unscaledValue the unscaled value
+     * @param scale the scale of unscaledValue
+     * @return the serialized DECIMAL
+     */
+    public static byte[] toBytes(long unscaledValue, int scale) {
+        byte[] result = new byte[getScaledLongLength(unscaledValue, scale)];
+        toBytes(unscaledValue, scale, result, 0);
+        return result;
+    }
+
+    private static int getScaledLongLength(long unscaledValue, int scale) {
+        if (unscaledValue == 0) {
+            return 1;
+        }
+        while (unscaledValue % 10 == 0) {
+            unscaledValue /= 10;
+            scale--;
+        }
+        int precision = 0;
+        for (long l = unscaledValue; l != 0; l /= 10) {
+            precision++;
+        }
+        return (unscaledValue < 0 ? 2 : 1) + (precision +  1 + (scale % 2 == 0 ? 0 : 1)) / 2;
+    }
+
+    /**
+     * Serialize the DECIMAL unscaledValue * 10^-scale into result. See {@link #toBytes(long, int)}.
+     * @param result the byte array to contain the serialized bytes. Max size
+     * necessary would be {@link #MAX_SCALED_LONG_BYTES} bytes.
+     * @param offset the offset into result
+     * @return the number of bytes that make up the serialized DECIMAL
+     */
+    public static int toBytes(long unscaledValue, int scale, byte[] result, final int offset) {
+        if (unscaledValue == 0) {
+            result[offset] = ZERO_BYTE;
+            return 1;
+        }
+        // Normalize the same way NumberUtil.normalize does by stripping trailing zeros
+        while (unscaledValue % 10 == 0) {
+            unscaledValue /= 10;
+            scale--;
+        }
+        int signum = unscaledValue < 0 ? -1 : 1;
+        int length = getScaledLongLength(unscaledValue, scale);
+        int index = offset + length;
+        int expOffset = scale % 2 * (scale < 0 ? -1 : 1);
+        // See toBytes(BigDecimal, byte[], int, int) for how the exponent byte and digits are laid out
+        int multiplyBy = expOffset == 0 ? 1 : 10;
+        int digitOffset;
+        if (signum == 1) {
+            digitOffset = POS_DIGIT_OFFSET;
+            scale -= (length - 2) * 2;
+            result[offset] = (byte)((-(scale+expOffset)/2 + EXP_BYTE_OFFSET) | 0x80);
+        } else {
+            digitOffset = NEG_DIGIT_OFFSET;
+            scale -= (length - 2 - 1) * 2;
+            result[offset] = (byte)(~(-(scale+expOffset)/2 + EXP_BYTE_OFFSET + 128) & 0x7F);
+            result[--index] = NEG_TERMINAL_BYTE;
+        }
+        long l = unscaledValue;
+        do {
+            long divBy = 100/multiplyBy;
+            long digit = l % divBy;
+            l /= divBy;
+            result[--index] = (byte)(digit * multiplyBy + digitOffset);
+            multiplyBy = 1;
+        } while (l != 0);
+        return length;
+    }
+
     // Calculate the precisioin and scale of a raw decimal bytes. Returns the values as an int
     // array. The first value is precision, the second value is scale.
     public static int[] getDecimalPrecisionAndScale(byte[] bytes, int offset, int length) {
@@ -2048,6 +2186,85 @@ public enum PDataType {
         return coerceBytes(b, object, actualType);
     }
 
+    /**
+     * Coerce the value in ptr from actualType to this type directly on the serialized bytes,
+     * without going through an Object. ptr is left as is when both types serialize the value
+     * the same way and is otherwise set to a newly allocated array, since callers (for example
+     * GROUP BY) may hold on to the coerced value.
+     * @return true if ptr holds the coerced value and false if there is no byte level
+     * conversion between the two types, in which case ptr is left untouched.
+     */
+    public boolean coerceBytes(ImmutableBytesWritable ptr, PDataType actualType) {
+        if (ptr.getLength() == 0) {
+            return false;
+        }
+        if (this == actualType) {
+            return true;
+        }
+        byte[] b = ptr.get();
+        int o = ptr.getOffset();
+        byte[] bytes;
+        switch (this) {
+        case LONG:
+        case UNSIGNED_LONG:
+            if (!isIntegral(actualType)) {
+                return false;
+            }
+            bytes = new byte[Bytes.SIZEOF_LONG];
+            getCodec().encodeLong(actualType.getCodec().decodeLong(b, o, null), bytes, 0);
+            ptr.set(bytes);
+            return true;
+        case INTEGER:
+        case UNSIGNED_INT:
+            if (!isIntegral(actualType)) {
+                return false;
+            }
+            bytes = new byte[Bytes.SIZEOF_INT];
+            getCodec().encodeInt(actualType.getCodec().decodeInt(b, o, null), bytes, 0);
+            ptr.set(bytes);
+            return true;
+        case DECIMAL:
+            if (!isIntegral(actualType)) {
+                return false;
+            }
+            ptr.set(toBytes(actualType.getCodec().decodeLong(b, o, null), 0));
+            return true;
+        case DATE:
+        case TIME:
+            switch (actualType) {
+            case DATE:
+            case TIME:
+                return true; // Same serialization
+            case TIMESTAMP:
+                // The millis are serialized first, followed by the nanos which are dropped
+                ptr.set(b, o, Bytes.SIZEOF_LONG);
+                return true;
+            default:
+                return false;
+            }
+        case TIMESTAMP:
+            if (actualType != DATE && actualType != TIME) {
+                return false;
+            }
+            long millis = actualType.getCodec().decodeLong(b, o, null);
+            // Same nanos as new Timestamp(millis) would have
+            int nanos = (int)(millis % 1000) * 1000000;
+            if (nanos < 0) {
+                nanos += 1000000000;
+            }
+            bytes = new byte[getByteSize()];
+            Bytes.putInt(bytes, Bytes.putLong(bytes, 0, millis), nanos);
+            ptr.set(bytes);
+            return true;
+        default:
+            return false;
+        }
+    }
+
+    private static boolean isIntegral(PDataType type) {
+        return type == LONG || type == INTEGER || type == UNSIGNED_LONG || type == UNSIGNED_INT;
+    }
+
     /**
      * Convert from a string to the object representation of a given type
      * @param value a stringified value
@@ -33,6 +33,7 @@ import java.util.*;
 
 import com.google.common.collect.*;
 import com.salesforce.phoenix.query.QueryConstants;
+import com.salesforce.phoenix.util.SchemaUtil;
 
 public class PMetaDataImpl implements PMetaData {
     public static final PMetaData EMPTY_META_DATA = new PMetaDataImpl(Collections.<String,PSchema>emptyMap());
@@ -92,8 +93,9 @@ public class PMetaDataImpl implements PMetaData {
         List<PColumn> columns = Lists.newArrayListWithExpectedSize(table.getColumns().size() + 1);
         columns.addAll(table.getColumns());
         columns.addAll(newColumns);
+        int columnQualifierCounter = Math.max(table.getColumnQualifierCounter(), SchemaUtil.getNextEncodedQualifier(newColumns));
         Map<String,PTable> tables = Maps.newHashMap(schema.getTables());
-        PTable newTable = new PTableImpl(table.getName(), table.getType(), tableSeqNum, tableTimeStamp, table.getPKName(), table.getBucketNum(), columns);
+        PTable newTable = new PTableImpl(table.getName(), table.getType(), tableSeqNum, tableTimeStamp, table.getPKName(), table.getBucketNum(), table.isColumnEncoded(), columnQualifierCounter, table.getStorageScheme(), columns);
         tables.put(tableName, newTable);
         schema = new PSchemaImpl(schemaName, tables);
         schemas.put(schema.getName(), schema);
@@ -137,12 +139,12 @@ public class PMetaDataImpl implements PMetaData {
         // Update position of columns that follow removed column
         for (int i = position+1; i < oldColumns.size(); i++) {
             PColumn oldColumn = oldColumns.get(i);
-            PColumn newColumn = new PColumnImpl(oldColumn.getName(), oldColumn.getFamilyName(), oldColumn.getDataType(), oldColumn.getMaxLength(), oldColumn.getScale(), oldColumn.isNullable(), i-1, oldColumn.getColumnModifier());
+            PColumn newColumn = new PColumnImpl(oldColumn, i-1);
             columns.add(newColumn);
         }
         
         Map<String,PTable> tables = Maps.newHashMap(schema.getTables());
-        PTable newTable = new PTableImpl(table.getName(), table.getType(), tableSeqNum, tableTimeStamp, table.getPKName(), table.getBucketNum(), columns);
+        PTable newTable = new PTableImpl(table.getName(), table.getType(), tableSeqNum, tableTimeStamp, table.getPKName(), table.getBucketNum(), table.isColumnEncoded(), table.getColumnQualifierCounter(), table.getStorageScheme(), columns);
         tables.put(tableName, newTable);
         schema = new PSchemaImpl(schemaName, tables);
         schemas.put(schema.getName(), schema);
@@ -157,4 +157,26 @@ public interface PTable extends Writable {
      * @return number of buckets used by this table for salting, or null if salting is not used.
      */
     Integer getBucketNum();
+
+    /**
+     * Return whether the key value columns of this table are stored under compact
+     * numeric qualifiers instead of under their names.
+     * @return true if the table was created with COLUMN_ENCODED=true and false otherwise.
+     */
+    boolean isColumnEncoded();
+
+    /**
+     * Return the encoded qualifier to assign to the next column added to a table
+     * with encoded column qualifiers. The counter only ever grows, so the qualifier
+     * of a dropped column, whose cells may still be in the table, is never reused.
+     * @return the next encoded column qualifier of this table.
+     */
+    int getColumnQualifierCounter();
+
+    /**
+     * Return how the key value columns of this table are laid out in HBase.
+     * @return {@link StorageScheme#PACKED} if the table was created with STORAGE=PACKED
+     * and {@link StorageScheme#COLUMNS} otherwise.
+     */
+    StorageScheme getStorageScheme();
 }
@@ -73,6 +73,14 @@ public class PTableImpl implements PTable {
     private ListMultimap<String,PColumn> columnsByName;
     private String pkName;
     private Integer bucketNum;
+    private boolean isColumnEncoded;
+    private int columnQualifierCounter;
+    private StorageScheme storageScheme;
+    // For STORAGE=PACKED, the schema of the packed key value of each column family
+    // and the family index and field position of each column by column position
+    private KeyValueSchema[] packedSchemas;
+    private int[] packedFamilyIndexes;
+    private int[] packedPositions;
     // Statistics associated with this table.
     PTableStats stats;
     RowKeySchema rowKeySchema;
@@ -82,6 +90,7 @@ public class PTableImpl implements PTable {
 
     public PTableImpl(long timeStamp) { // For delete marker
         this.type = PTableType.USER;
+        this.storageScheme = StorageScheme.COLUMNS;
         this.timeStamp = timeStamp;
         this.pkColumns = this.allColumns = Collections.emptyList();
         this.families = Collections.emptyList();
@@ -91,7 +100,19 @@ public class PTableImpl implements PTable {
     }
 
     public PTableImpl(PName name, PTableType type, long timeStamp, long sequenceNumber, String pkName, Integer bucketNum, List<PColumn> columns) {
-        init(name, type, timeStamp, sequenceNumber, pkName, bucketNum, columns, new PTableStatsImpl());
+        this(name, type, timeStamp, sequenceNumber, pkName, bucketNum, false, columns);
+    }
+
+    public PTableImpl(PName name, PTableType type, long timeStamp, long sequenceNumber, String pkName, Integer bucketNum, boolean isColumnEncoded, List<PColumn> columns) {
+        this(name, type, timeStamp, sequenceNumber, pkName, bucketNum, isColumnEncoded, StorageScheme.COLUMNS, columns);
+    }
+
+    public PTableImpl(PName name, PTableType type, long timeStamp, long sequenceNumber, String pkName, Integer bucketNum, boolean isColumnEncoded, StorageScheme storageScheme, List<PColumn> columns) {
+        this(name, type, timeStamp, sequenceNumber, pkName, bucketNum, isColumnEncoded, null, storageScheme, columns);
+    }
+
+    public PTableImpl(PName name, PTableType type, long timeStamp, long sequenceNumber, String pkName, Integer bucketNum, boolean isColumnEncoded, Integer columnQualifierCounter, StorageScheme storageScheme, List<PColumn> columns) {
+        init(name, type, timeStamp, sequenceNumber, pkName, bucketNum, isColumnEncoded, columnQualifierCounter, storageScheme, columns, new PTableStatsImpl());
     }
 
     @Override
@@ -99,7 +120,7 @@ public class PTableImpl implements PTable {
         return name.getString();
     }
 
-    private void init(PName name, PTableType type, long timeStamp, long sequenceNumber, String pkName, Integer bucketNum, List<PColumn> columns, PTableStats stats) {
+    private void init(PName name, PTableType type, long timeStamp, long sequenceNumber, String pkName, Integer bucketNum, boolean isColumnEncoded, Integer columnQualifierCounter, StorageScheme storageScheme, List<PColumn> columns, PTableStats stats) {
         this.name = name;
         this.type = type;
         this.timeStamp = timeStamp;
@@ -130,6 +151,10 @@ public class PTableImpl implements PTable {
             columnsByName.put(column.getName().getString(), column);
         }
         this.bucketNum = bucketNum;
+        this.isColumnEncoded = isColumnEncoded;
+        // Tables created before the counter was stored start after their highest qualifier
+        this.columnQualifierCounter = columnQualifierCounter == null ? SchemaUtil.getNextEncodedQualifier(columns) : columnQualifierCounter;
+        this.storageScheme = storageScheme;
         this.pkColumns = ImmutableList.copyOf(pkColumns);
         this.rowKeySchema = builder.setMinNullable(pkColumns.size()).build();
         this.allColumns = ImmutableList.copyOf(allColumns);
@@ -166,6 +191,19 @@ public class PTableImpl implements PTable {
         this.familyByBytes = familyByBytes.build();
         this.familyByString = familyByString.build();
         this.stats = stats;
+        if (storageScheme == StorageScheme.PACKED) {
+            this.packedSchemas = new KeyValueSchema[families.length];
+            this.packedFamilyIndexes = new int[allColumns.length];
+            this.packedPositions = new int[allColumns.length];
+            for (int i = 0; i < families.length; i++) {
+                packedSchemas[i] = SchemaUtil.newPackedSchema(families[i]);
+                int position = 0;
+                for (PColumn column : families[i].getColumns()) {
+                    packedFamilyIndexes[column.getPosition()] = i;
+                    packedPositions[column.getPosition()] = position++;
+                }
+            }
+        }
     }
 
     @Override
@@ -306,6 +344,8 @@ public class PTableImpl implements PTable {
         private Put setValues;
         private Delete unsetValues;
         private Delete deleteRow;
+        // For STORAGE=PACKED, the values being set by column family index
+        private byte[][][] packedValues;
         private final long ts;
 
         public PRowImpl(ImmutableBytesWritable key, long ts, Integer bucketNum) {
@@ -330,6 +370,16 @@ public class PTableImpl implements PTable {
                 // we upsert it), se instead add a KV that is always emtpy. This allows us to imitate SQL semantics given the
                 // way HBase works.
                 setValues.add(SchemaUtil.getEmptyColumnFamily(getColumnFamilies()), QueryConstants.EMPTY_COLUMN_BYTES, ts, ByteUtil.EMPTY_BYTE_ARRAY);
+                if (packedValues != null) {
+                    ImmutableBytesWritable ptr = new ImmutableBytesWritable();
+                    for (int i = 0; i < packedValues.length; i++) {
+                        if (packedValues[i] != null) {
+                            KeyValueSchema schema = packedSchemas[i];
+                            byte[] value = schema.toBytes(packedValues[i], ValueBitSet.newInstance(schema), ptr);
+                            setValues.add(families.get(i).getName().getBytes(), QueryConstants.PACKED_COLUMN_BYTES, ts, value);
+                        }
+                    }
+                }
                 mutations.add(setValues);
                 if (!unsetValues.isEmpty()) {
                     mutations.add(unsetValues);
@@ -362,13 +412,17 @@ public class PTableImpl implements PTable {
         public void setValue(PColumn column, byte[] byteValue) {
             deleteRow = null;
             byte[] family = column.getFamilyName().getBytes();
-            byte[] qualifier = column.getName().getBytes();
+            byte[] qualifier = column.getQualifier();
             PDataType type = column.getDataType();
             // Check null, since some types have no byte representation for null
             if (byteValue == null || byteValue.length == 0) {
                 if (!column.isNullable()) { 
                     throw new ConstraintViolationException(name.getString() + "." + column.getName().getString() + " may not be null");
                 }
+                if (packedSchemas != null) {
+                    setPackedValue(column, null);
+                    return;
+                }
                 removeIfPresent(setValues, family, qualifier);
                 unsetValues.deleteColumns(family, qualifier, ts);
             } else {
@@ -380,15 +434,32 @@ public class PTableImpl implements PTable {
                 } else if (byteSize != null && byteValue.length > byteSize) {
                     throw new ConstraintViolationException(name.getString() + "." + column.getName().getString() + " may not exceed " + byteSize + " bytes (" + type.toObject(byteValue) + ")");
                 }
+                if (packedSchemas != null) {
+                    setPackedValue(column, byteValue);
+                    return;
+                }
                 removeIfPresent(unsetValues, family, qualifier);
                 setValues.add(family, qualifier, ts, byteValue);
             }
         }
 
+        private void setPackedValue(PColumn column, byte[] byteValue) {
+            if (packedValues == null) {
+                packedValues = new byte[packedSchemas.length][][];
+            }
+            int familyIndex = packedFamilyIndexes[column.getPosition()];
+            byte[][] values = packedValues[familyIndex];
+            if (values == null) {
+                values = packedValues[familyIndex] = new byte[packedSchemas[familyIndex].getFieldCount()][];
+            }
+            values[packedPositions[column.getPosition()]] = byteValue;
+        }
+
         @Override
         public void delete() {
             setValues = new Put(key);
             unsetValues = new Delete(key);
+            packedValues = null;
             @SuppressWarnings("deprecation") // FIXME: Remove when unintentionally deprecated method is fixed (HBASE-7870).
             // FIXME: the version of the Delete constructor without the lock args was introduced
             // in 0.94.4, thus if we try to use it here we can no longer use the 0.94.2 version
@@ -447,6 +518,9 @@ public class PTableImpl implements PTable {
         byte[] pkNameBytes = Bytes.readByteArray(input);
         String pkName = pkNameBytes.length == 0 ? null : Bytes.toString(pkNameBytes);
         Integer bucketNum = WritableUtils.readVInt(input);
+        boolean isColumnEncoded = input.readBoolean();
+        int columnQualifierCounter = WritableUtils.readVInt(input);
+        StorageScheme storageScheme = StorageScheme.fromSerializedValue(WritableUtils.readVInt(input));
         int nColumns = WritableUtils.readVInt(input);
         List<PColumn> columns = Lists.newArrayListWithExpectedSize(nColumns);
         for (int i = 0; i < nColumns; i++) {
@@ -467,7 +541,7 @@ public class PTableImpl implements PTable {
         }
         PTableStats stats = new PTableStatsImpl(guidePosts);
         init(tableName, tableType, timeStamp, sequenceNumber, pkName,
-                bucketNum == NO_SALTING ? null : bucketNum, columns, stats);
+                bucketNum == NO_SALTING ? null : bucketNum, isColumnEncoded, columnQualifierCounter, storageScheme, columns, stats);
     }
 
     @Override
@@ -482,6 +556,9 @@ public class PTableImpl implements PTable {
         } else {
             WritableUtils.writeVInt(output, NO_SALTING);
         }
+        output.writeBoolean(isColumnEncoded);
+        WritableUtils.writeVInt(output, columnQualifierCounter);
+        WritableUtils.writeVInt(output, storageScheme.ordinal());
         WritableUtils.writeVInt(output, allColumns.size());
         for (int i = 0; i < allColumns.size(); i++) {
             PColumn column = allColumns.get(i);
@@ -523,4 +600,19 @@ public class PTableImpl implements PTable {
     public Integer getBucketNum() {
         return bucketNum;
     }
+
+    @Override
+    public boolean isColumnEncoded() {
+        return isColumnEncoded;
+    }
+
+    @Override
+    public int getColumnQualifierCounter() {
+        return columnQualifierCounter;
+    }
+
+    @Override
+    public StorageScheme getStorageScheme() {
+        return storageScheme;
+    }
 }
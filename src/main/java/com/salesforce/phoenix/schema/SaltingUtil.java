@@ -78,6 +78,7 @@ public class SaltingUtil {
     }).build();
 
     public static final Integer MAX_BUCKET_NUM = 256; // Unsigned byte.
+    public static final int NUM_SALTING_BYTES = 1;
     public static final String SALTING_COLUMN_NAME = "_SALT";
     public static final String SALTED_ROW_KEY_NAME = "_SALTED_KEY";
     public static final PColumnImpl SALTING_COLUMN = new PColumnImpl(
@@ -124,11 +125,7 @@ public class SaltingUtil {
         if (ranges == null || ranges.isEmpty()) {
             return ScanRanges.NOTHING.getRanges();
         }
-        int count = 1;
-        for (List<KeyRange> orRanges: ranges) {
-            count *= orRanges.size();
-        }
-        KeyRange[] expandedRanges = new KeyRange[count];
+        KeyRange[] expandedRanges = new KeyRange[ScanUtil.getKeyCount(ranges)];
         int[] position = new int[ranges.size()];
         int estimatedKeyLength = ScanUtil.estimateMaximumKeyLength(schema, 1, ranges);
         int idx = 0, length;
@@ -142,18 +139,39 @@ public class SaltingUtil {
                     Arrays.copyOf(key, length + 1), true,
                     Arrays.copyOf(key, length + 1), true);
             expandedRanges[idx++] = range;
-        } while (incrementKey(ranges, position));
+        } while (ScanUtil.incrementKey(ranges, position));
         // The comparator is imperfect, but sufficient for all single keys.
         Arrays.sort(expandedRanges, KeyRange.COMPARATOR);
         List<KeyRange> expandedRangesList = Arrays.asList(expandedRanges);
         return Collections.singletonList(expandedRangesList);
     }
 
-    private static boolean incrementKey(List<List<KeyRange>> slots, int[] position) {
-        int idx = slots.size() - 1;
-        while (idx >= 0 && (position[idx] = (position[idx] + 1) % slots.get(idx).size()) == 0) {
-            idx--;
+    /**
+     * Splits the given key ranges at salt bucket boundaries, so that no range spans
+     * more than one bucket. The rows of each resulting range come back from a scan
+     * in the order of their unsalted row key.
+     * @param ranges the key ranges to split, as produced by a region splitter
+     * @param bucketNum the number of salt buckets of the table
+     * @return the key ranges, each restricted to a single bucket
+     */
+    public static List<KeyRange> splitOnBuckets(List<KeyRange> ranges, int bucketNum) {
+        List<KeyRange> bucketRanges = Lists.newArrayListWithExpectedSize(ranges.size());
+        for (KeyRange range : ranges) {
+            int bucket = range.lowerUnbound() || range.getLowerRange().length == 0 ? 0 : (range.getLowerRange()[0] & 0xFF);
+            for (; bucket < bucketNum; bucket++) {
+                KeyRange bucketRange = range.intersect(getBucketRange(bucket, bucketNum));
+                if (bucketRange == KeyRange.EMPTY_RANGE) {
+                    break;
+                }
+                bucketRanges.add(bucketRange);
+            }
         }
-        return idx >= 0;
+        return bucketRanges;
+    }
+    
+    private static KeyRange getBucketRange(int bucket, int bucketNum) {
+        byte[] lowerRange = bucket == 0 ? KeyRange.UNBOUND : new byte[] {(byte)bucket};
+        byte[] upperRange = bucket == bucketNum - 1 ? KeyRange.UNBOUND : new byte[] {(byte)(bucket + 1)};
+        return KeyRange.getKeyRange(lowerRange, true, upperRange, false);
     }
 }
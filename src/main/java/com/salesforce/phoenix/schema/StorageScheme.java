@@ -0,0 +1,58 @@
+/*******************************************************************************
+ * Copyright (c) 2013, Salesforce.com, Inc.
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     Redistributions of source code must retain the above copyright notice,
+ *     this list of conditions and the following disclaimer.
+ *     Redistributions in binary form must reproduce the above copyright notice,
+ *     this list of conditions and the following disclaimer in the documentation
+ *     and/or other materials provided with the distribution.
+ *     Neither the name of Salesforce.com nor the names of its contributors may 
+ *     be used to endorse or promote products derived from this software without 
+ *     specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE 
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL 
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR 
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER 
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, 
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE 
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package com.salesforce.phoenix.schema;
+
+/**
+ * 
+ * Enumeration of the ways in which the key value columns of a table may be
+ * laid out in HBase, as specified by the STORAGE table property.
+ *
+ * @author jtaylor
+ * @since 1.2
+ */
+public enum StorageScheme {
+    /**
+     * Each key value column is stored in its own HBase cell.
+     */
+    COLUMNS,
+    /**
+     * All key value columns of a column family are packed into a single
+     * HBase cell using a {@link KeyValueSchema}. An upsert rewrites that cell
+     * for each column family it sets a value in, storing null for the columns
+     * of the family that are not set, so this is best suited for tables whose
+     * rows are written once.
+     */
+    PACKED;
+    
+    public static StorageScheme fromSerializedValue(int serializedValue) {
+        if (serializedValue < 0 || serializedValue >= values().length) {
+            throw new IllegalArgumentException("Unable to find StorageScheme enum for serialized value of " + serializedValue);
+        }
+        return values()[serializedValue];
+    }
+}
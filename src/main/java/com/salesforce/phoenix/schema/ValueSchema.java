@@ -36,7 +36,9 @@ import org.apache.hadoop.io.WritableUtils;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
+import com.salesforce.phoenix.expression.Expression;
 import com.salesforce.phoenix.expression.aggregator.Aggregator;
+import com.salesforce.phoenix.schema.tuple.Tuple;
 
 /**
  * 
@@ -351,7 +353,7 @@ public abstract class ValueSchema implements Writable {
     
     protected static byte[] ensureSize(byte[] b, int offset, int size) {
         if (size > b.length) {
-            byte[] bBigger = new byte[Math.min(b.length * 2, size)];
+            byte[] bBigger = new byte[Math.max(b.length * 2, size)];
             System.arraycopy(b, 0, bBigger, 0, offset);
             return bBigger;
         }
@@ -382,6 +384,14 @@ public abstract class ValueSchema implements Writable {
      * @return byte representation of the ValueSchema
      */
     public byte[] toBytes(Aggregator[] aggregators, ValueBitSet valueSet, ImmutableBytesWritable ptr) {
+        return toBytes(null, aggregators, valueSet, ptr);
+    }
+    
+    /**
+     * @return byte representation of the values of the expressions evaluated against
+     *  the tuple, one field per expression
+     */
+    public byte[] toBytes(Tuple tuple, Expression[] expressions, ValueBitSet valueSet, ImmutableBytesWritable ptr) {
         int offset = 0;
         int index = 0;
         valueSet.clear();
@@ -394,11 +404,14 @@ public abstract class ValueSchema implements Writable {
             Field field = fields.get(i);
             PDataType type = field.getType();
             for (int j = 0; j < field.getCount(); j++) {
-                if (aggregators[index].evaluate(null, ptr)) { // Skip null values
+                // Skip null values, including empty fixed width values
+                if (expressions[index].evaluate(tuple, ptr) && (ptr.getLength() > 0 || !type.isFixedWidth())) {
                     if (index >= minNullableIndex) {
                         valueSet.set(index - minNullableIndex);
                     }
                     if (!type.isFixedWidth()) {
+                        // Make room for the value and its length up front, as the byte array cannot be grown by the callee
+                        b = ensureSize(b, offset, offset + ptr.getLength() + WritableUtils.getVIntSize(ptr.getLength()));
                         offset = writeVarLengthField(ptr, b, offset);
                     } else {
                         int nBytes = ptr.getLength();
@@ -426,6 +439,51 @@ public abstract class ValueSchema implements Writable {
         }
     }
 
+
+    /**
+     * @return byte representation of the values, one field per value, where
+     *  a null or empty value represents null
+     */
+    public byte[] toBytes(byte[][] values, ValueBitSet valueSet, ImmutableBytesWritable ptr) {
+        int offset = 0;
+        int index = 0;
+        valueSet.clear();
+        int minNullableIndex = getMinNullable();
+        byte[] b = new byte[getEstimatedValueLength() + valueSet.getEstimatedLength()];
+        List<Field> fields = getFields();
+        for (int i = 0; i < fields.size(); i++) {
+            Field field = fields.get(i);
+            PDataType type = field.getType();
+            for (int j = 0; j < field.getCount(); j++) {
+                byte[] value = values[index];
+                if (value != null && value.length > 0) {
+                    if (index >= minNullableIndex) {
+                        valueSet.set(index - minNullableIndex);
+                    }
+                    ptr.set(value);
+                    if (!type.isFixedWidth()) {
+                        b = ensureSize(b, offset, offset + value.length + WritableUtils.getVIntSize(value.length));
+                        offset = writeVarLengthField(ptr, b, offset);
+                    } else {
+                        b = ensureSize(b, offset, offset + value.length);
+                        System.arraycopy(value, 0, b, offset, value.length);
+                        offset += value.length;
+                    }
+                }
+                index++;
+            }
+        }
+        b = ensureSize(b, offset, offset + valueSet.getEstimatedLength());
+        offset = valueSet.toBytes(b, offset);
+
+        if (offset == b.length) {
+            return b;
+        } else {
+            byte[] bExact = new byte[offset];
+            System.arraycopy(b, 0, bExact, 0, offset);
+            return bExact;
+        }
+    }
     
     @Override
     public void readFields(DataInput in) throws IOException {
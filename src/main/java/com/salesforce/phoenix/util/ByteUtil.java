@@ -408,6 +408,27 @@ public class ByteUtil {
         return true;
     }
 
+    /**
+     * Decrement the key to the largest key no longer than it that sorts before it.
+     * A key ending in a zero byte is truncated, since its prefix is the key that
+     * immediately precedes it. Otherwise the last byte is decremented, so longer
+     * keys starting with the returned key still sort between it and the key.
+     * @param key the key to decrement
+     * @return a new byte array with the previous key or null
+     *  if the key is empty and thus has no previous key.
+     */
+    public static byte[] previousKey(byte[] key) {
+        if (key.length == 0) {
+            return null;
+        }
+        if (key[key.length-1] == 0) {
+            return Arrays.copyOf(key, key.length-1);
+        }
+        byte[] previousKey = Arrays.copyOf(key, key.length);
+        previousKey[key.length-1]--;
+        return previousKey;
+    }
+
     /**
      * Expand the key to length bytes using the fillByte to fill the
      * bytes beyond the current key length.
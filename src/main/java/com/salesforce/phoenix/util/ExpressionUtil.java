@@ -0,0 +1,81 @@
+/*******************************************************************************
+ * Copyright (c) 2013, Salesforce.com, Inc.
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     Redistributions of source code must retain the above copyright notice,
+ *     this list of conditions and the following disclaimer.
+ *     Redistributions in binary form must reproduce the above copyright notice,
+ *     this list of conditions and the following disclaimer in the documentation
+ *     and/or other materials provided with the distribution.
+ *     Neither the name of Salesforce.com nor the names of its contributors may 
+ *     be used to endorse or promote products derived from this software without 
+ *     specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE 
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL 
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR 
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER 
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, 
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE 
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package com.salesforce.phoenix.util;
+
+import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
+
+import com.salesforce.phoenix.expression.Expression;
+import com.salesforce.phoenix.expression.LongBatchExpression;
+import com.salesforce.phoenix.schema.ColumnModifier;
+import com.salesforce.phoenix.schema.PDataType;
+import com.salesforce.phoenix.schema.tuple.Tuple;
+
+/**
+ * 
+ * Utilities for evaluating expressions over a batch of rows.
+ *
+ * @author jtaylor
+ * @since 1.2
+ */
+public class ExpressionUtil {
+    
+    private ExpressionUtil() {
+    }
+    
+    /**
+     * @return true if the expression may be evaluated over a batch of rows into longs
+     * through {@link #evaluate(Expression, Tuple[], int, long[], boolean[], ImmutableBytesWritable)}
+     */
+    public static boolean isLongBatchEvaluable(Expression expression) {
+        return expression instanceof LongBatchExpression || expression.getDataType().getCodec() != null;
+    }
+    
+    /**
+     * Evaluate an expression for the first count rows of a batch. Expressions that implement
+     * {@link LongBatchExpression} evaluate the batch themselves, while for any other expression
+     * each row is evaluated and decoded through the codec of its type.
+     * @param values set to the value for each row that isn't null
+     * @param nulls set to true for each row for which the value is null and false otherwise
+     */
+    public static void evaluate(Expression expression, Tuple[] tuples, int count, long[] values, boolean[] nulls, ImmutableBytesWritable ptr) {
+        if (expression instanceof LongBatchExpression) {
+            ((LongBatchExpression)expression).evaluate(tuples, count, values, nulls, ptr);
+            return;
+        }
+        PDataType.PDataCodec codec = expression.getDataType().getCodec();
+        ColumnModifier columnModifier = expression.getColumnModifier();
+        for (int i = 0; i < count; i++) {
+            if (expression.evaluate(tuples[i], ptr) && ptr.getLength() != 0) {
+                values[i] = codec.decodeLong(ptr, columnModifier);
+                nulls[i] = false;
+            } else {
+                nulls[i] = true;
+            }
+        }
+    }
+}
@@ -94,6 +94,21 @@ public class JDBCUtil {
         return (batchSizeStr == null ? config.getInt(QueryServices.MUTATE_BATCH_SIZE_ATTRIB, config.getInt(QueryServices.UPSERT_BATCH_SIZE_ATTRIB, QueryServicesOptions.DEFAULT_MUTATE_BATCH_SIZE)) : Integer.parseInt(batchSizeStr));
     }
 
+    public static boolean getDeferServerMutations(String url, Properties info, Configuration config) throws SQLException {
+        String deferServerMutationsStr = findProperty(url, info, PhoenixRuntime.DEFER_SERVER_MUTATIONS_ATTRIB);
+        return (deferServerMutationsStr == null ? config.getBoolean(QueryServices.DEFER_SERVER_MUTATIONS_ATTRIB, QueryServicesOptions.DEFAULT_DEFER_SERVER_MUTATIONS) : Boolean.parseBoolean(deferServerMutationsStr));
+    }
+
+    public static int getClientAggregateThreads(String url, Properties info, Configuration config) throws SQLException {
+        String clientAggregateThreadsStr = findProperty(url, info, PhoenixRuntime.CLIENT_AGGREGATE_THREADS_ATTRIB);
+        return (clientAggregateThreadsStr == null ? config.getInt(QueryServices.CLIENT_AGGREGATE_THREADS_ATTRIB, QueryServicesOptions.DEFAULT_CLIENT_AGGREGATE_THREADS) : Integer.parseInt(clientAggregateThreadsStr));
+    }
+
+    public static boolean getServerProjection(String url, Properties info, Configuration config) throws SQLException {
+        String serverProjectionStr = findProperty(url, info, PhoenixRuntime.SERVER_PROJECTION_ATTRIB);
+        return (serverProjectionStr == null ? config.getBoolean(QueryServices.SERVER_PROJECTION_ATTRIB, QueryServicesOptions.DEFAULT_SERVER_PROJECTION) : Boolean.parseBoolean(serverProjectionStr));
+    }
+
     public static byte[] getTenantId(String url, Properties info) throws SQLException {
         String tenantId = findProperty(url, info, PhoenixRuntime.TENANT_ID_ATTRIB);
         return (tenantId == null ? null : Bytes.toBytes(tenantId));
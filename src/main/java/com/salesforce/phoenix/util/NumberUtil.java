@@ -29,6 +29,7 @@ package com.salesforce.phoenix.util;
 
 import java.math.*;
 
+import com.google.common.math.LongMath;
 import com.salesforce.phoenix.schema.PDataType;
 
 /**
@@ -57,4 +58,18 @@ public class NumberUtil {
         decimal = decimal.setScale(scale, BigDecimal.ROUND_DOWN);
         return decimal;
     }
+
+    /**
+     * Scaled long counterpart of {@link #setDecimalWidthAndScale(BigDecimal, int, int)} for a value
+     * that already has the desired scale.
+     * @return true if the unscaled value has no more than precision digits and false otherwise
+     */
+    public static boolean isWithinPrecision(long unscaledValue, int precision) {
+        // Any long has at most 19 digits
+        if (precision >= PDataType.LONG_PRECISION) {
+            return true;
+        }
+        long limit = LongMath.pow(10, precision);
+        return unscaledValue < limit && unscaledValue > -limit;
+    }
 }
@@ -73,6 +73,31 @@ public class PhoenixRuntime {
      */
     public final static String UPSERT_BATCH_SIZE_ATTRIB = "UpsertBatchSize";
     
+    /**
+     * Use this connection property to run DELETE and UPSERT SELECT statements that
+     * qualify for execution in a coprocessor on the server when autoCommit is false.
+     * Instead of the affected rows being collected on the client, the statements are
+     * run on the server in the order they were executed when the connection is
+     * committed. Their update count is not known until then, so 0 is returned.
+     */
+    public final static String DEFER_SERVER_MUTATIONS_ATTRIB = "DeferServerMutations";
+    
+    /**
+     * Use this connection property to set the number of client threads that finish
+     * the aggregation of a GROUP BY query without an ORDER BY. Above one, the groups
+     * returned by each region are merged by the hash of their key across that many
+     * threads, and are returned in no particular order, instead of being merge sorted
+     * and merged on a single thread.
+     */
+    public final static String CLIENT_AGGREGATE_THREADS_ATTRIB = "ClientAggregateThreads";
+    
+    /**
+     * Use this connection property to evaluate the select expressions of a non
+     * aggregate query without an ORDER BY on the server, returning only their
+     * values packed into a single cell per row instead of the full rows.
+     */
+    public final static String SERVER_PROJECTION_ATTRIB = "ServerProjection";
+    
     /**
      * Use this connection property to help with fairness of resource allocation
      * for the client and server. The value of the attribute determines the
@@ -128,6 +128,30 @@ public class ScanUtil {
         return mayHaveRows;
     }
 
+    /**
+     * Removes the {@link SkipScanFilter} from the given filter, if present. A skip scan
+     * filter is unnecessary when each row key being read is known up front, as is the
+     * case for point lookups.
+     * @param filter the filter of a scan
+     * @return the remaining filter or null if there is none
+     */
+    public static Filter removeSkipScanFilter(Filter filter) {
+        if (filter instanceof SkipScanFilter) {
+            return null;
+        }
+        if (filter instanceof FilterList) {
+            FilterList filterList = (FilterList)filter;
+            List<Filter> filters = filterList.getFilters();
+            if (!filters.isEmpty() && filters.get(0) instanceof SkipScanFilter) {
+                if (filters.size() == 2) {
+                    return filters.get(1);
+                }
+                return new FilterList(filterList.getOperator(), filters.subList(1, filters.size()));
+            }
+        }
+        return filter;
+    }
+
     public static void andFilter(Scan scan, Filter andWithFilter) {
         Filter filter = scan.getFilter();
         if (filter == null) {
@@ -193,7 +217,7 @@ public class ScanUtil {
             }
             int trailingByte = (schema.getField(schemaStartIndex++).getType().isFixedWidth() ? 0 : 1);
             maxLowerKeyLength += maxLowerRangeLength + trailingByte;
-            maxUpperKeyLength += maxUpperKeyLength + trailingByte;
+            maxUpperKeyLength += maxUpperRangeLength + trailingByte;
         }
         return Math.max(maxLowerKeyLength, maxUpperKeyLength);
     }
@@ -292,6 +316,35 @@ public class ScanUtil {
         return offset - byteOffset;
     }
 
+    /**
+     * Advances position to the next combination of key ranges across the slots,
+     * incrementing the last slot first.
+     * @return false if all combinations have been enumerated and true otherwise
+     */
+    public static boolean incrementKey(List<List<KeyRange>> slots, int[] position) {
+        int idx = slots.size() - 1;
+        while (idx >= 0 && (position[idx] = (position[idx] + 1) % slots.get(idx).size()) == 0) {
+            idx--;
+        }
+        return idx >= 0;
+    }
+
+    /**
+     * Computes the number of keys formed by the cross product of the key ranges of the slots
+     * without enumerating them.
+     * @return the number of combinations, capped at Integer.MAX_VALUE
+     */
+    public static int getKeyCount(List<List<KeyRange>> slots) {
+        long count = 1;
+        for (List<KeyRange> orRanges : slots) {
+            count *= orRanges.size();
+            if (count > Integer.MAX_VALUE) {
+                return Integer.MAX_VALUE;
+            }
+        }
+        return (int)count;
+    }
+
     public static boolean isAllSingleRowScan(List<List<KeyRange>> ranges, RowKeySchema schema, boolean rangesWithSaltByte) {
         if (schema == null || ranges.size() < (rangesWithSaltByte ? schema.getMaxFields() : schema.getMaxFields() - 1)) {
             return false;
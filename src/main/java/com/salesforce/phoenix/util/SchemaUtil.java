@@ -45,6 +45,7 @@ import com.salesforce.phoenix.jdbc.PhoenixConnection;
 import com.salesforce.phoenix.query.ConnectionQueryServices;
 import com.salesforce.phoenix.query.QueryConstants;
 import com.salesforce.phoenix.schema.*;
+import com.salesforce.phoenix.schema.KeyValueSchema.KeyValueSchemaBuilder;
 
 
 
@@ -133,6 +134,21 @@ public class SchemaUtil {
         return column.getFamilyName() == null;
     }
     
+    /**
+     * Determine whether every row key of a table has the same length, in which case
+     * no row key is a prefix of another one.
+     * @param table the table
+     * @return true if every PK column is fixed width and not nullable and false otherwise
+     */
+    public static boolean isFixedLengthKey(PTable table) {
+        for (PColumn keyColumn : table.getPKColumns()) {
+            if (!keyColumn.getDataType().isFixedWidth() || keyColumn.isNullable()) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
     /**
      * Estimate the max key length in bytes of the PK for a given table
      * @param table the table
@@ -356,6 +372,89 @@ public class SchemaUtil {
         return families.isEmpty() ? QueryConstants.EMPTY_COLUMN_BYTES : families.get(0).getName().getBytes();
     }
 
+    /**
+     * Get the KeyValue column qualifier for a column of a table created with
+     * COLUMN_ENCODED=true: the number assigned to the column written big endian
+     * in as few bytes as possible.
+     * @param encodedQualifier the non negative number assigned to the column
+     * @return the column qualifier
+     */
+    public static byte[] getEncodedColumnQualifier(int encodedQualifier) {
+        int length = 1;
+        for (int value = encodedQualifier >>> 8; value != 0; value >>>= 8) {
+            length++;
+        }
+        byte[] qualifier = new byte[length];
+        for (int i = length - 1, value = encodedQualifier; i >= 0; i--, value >>>= 8) {
+            qualifier[i] = (byte)value;
+        }
+        return qualifier;
+    }
+
+    /**
+     * Get the number to assign to the next column added to a table with encoded
+     * column qualifiers, skipping any number whose qualifier would collide with
+     * the empty key value column.
+     * @param encodedQualifier the lowest number that may be assigned
+     * @return the number to assign
+     */
+    public static int getNextEncodedQualifier(int encodedQualifier) {
+        if (Bytes.compareTo(getEncodedColumnQualifier(encodedQualifier), QueryConstants.EMPTY_COLUMN_BYTES) == 0) {
+            encodedQualifier++;
+        }
+        return encodedQualifier;
+    }
+
+    /**
+     * Get the number to assign to a column being added to an existing table
+     * with encoded column qualifiers. Numbers are never reused, not even the
+     * number of a dropped column.
+     */
+    public static int getNextEncodedQualifier(PTable table) {
+        return getNextEncodedQualifier(table.getColumnQualifierCounter());
+    }
+
+    /**
+     * Get the number following the largest encoded qualifier of the given columns.
+     */
+    public static int getNextEncodedQualifier(List<PColumn> columns) {
+        int encodedQualifier = 0;
+        for (PColumn column : columns) {
+            if (column.getEncodedQualifier() != null) {
+                encodedQualifier = Math.max(encodedQualifier, column.getEncodedQualifier() + 1);
+            }
+        }
+        return encodedQualifier;
+    }
+
+    /**
+     * Get the schema of the single key value holding the values of all columns
+     * of a column family for a table created with STORAGE=PACKED. The fields are
+     * in the order of {@link PColumnFamily#getColumns()} and are all nullable.
+     */
+    public static KeyValueSchema newPackedSchema(PColumnFamily family) {
+        KeyValueSchemaBuilder builder = new KeyValueSchemaBuilder();
+        for (PColumn column : family.getColumns()) {
+            builder.addField(column);
+        }
+        return builder.setMinNullable(0).build();
+    }
+
+    /**
+     * Get the position of a column within the packed key value of its column
+     * family for a table created with STORAGE=PACKED.
+     */
+    public static int getPackedPosition(PColumnFamily family, PColumn column) {
+        int position = 0;
+        for (PColumn familyColumn : family.getColumns()) {
+            if (familyColumn.getName().equals(column.getName())) {
+                return position;
+            }
+            position++;
+        }
+        throw new IllegalArgumentException("Column " + column.getName().getString() + " not found in column family " + family.getName().getString());
+    }
+
     public static boolean isMetaTable(byte[] tableName) {
         return Bytes.compareTo(tableName, TYPE_TABLE_NAME) == 0;
     }
@@ -29,6 +29,7 @@ package com.salesforce.phoenix.util;
 
 import java.io.UnsupportedEncodingException;
 
+import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
 import org.apache.hadoop.hbase.util.Bytes;
 
 import com.salesforce.phoenix.schema.ColumnModifier;
@@ -140,13 +141,75 @@ public class StringUtil {
         int i = offset, endOffset = offset + length;
         length = 0;
         while (i < endOffset) {
-            int charLength = getBytesInChar(bytes[i], columnModifier);
-            i += charLength;
+            byte b = bytes[i];
+            if (columnModifier != null) {
+                b = columnModifier.apply(b);
+            }
+            // Single byte chars are by far the most common, so skip the mask checks for them
+            i += b >= 0 ? 1 : getBytesInChar(b, null);
             length++;
         }
         return length;
     }
 
+    /**
+     * Returns the number of bytes taken by the first charLength UTF-8 characters starting at
+     * offset, without going past endOffset. Unlike {@link #getByteLengthForUtf8SubStr(byte[], int, int, ColumnModifier)}
+     * this does not require the length of the whole string to be known up front.
+     */
+    public static int getByteLengthForUtf8SubStr(byte[] bytes, int offset, int endOffset, int charLength, ColumnModifier columnModifier) {
+        int i = offset;
+        while (charLength > 0 && i < endOffset) {
+            byte b = bytes[i];
+            if (columnModifier != null) {
+                b = columnModifier.apply(b);
+            }
+            i += b >= 0 ? 1 : getBytesInChar(b, null);
+            charLength--;
+        }
+        return Math.min(i, endOffset) - offset;
+    }
+
+    /**
+     * Converts the ASCII letters of the UTF-8 string in ptr to upper or lower case directly on the bytes,
+     * leaving ptr untouched if no letter changes and the bytes are not inverted.
+     * @return false, without changing ptr, if the string has non ASCII characters, which need
+     * a locale aware conversion through {@link String}
+     */
+    public static boolean toAsciiCase(ImmutableBytesWritable ptr, ColumnModifier columnModifier, boolean toUpper) {
+        byte[] bytes = ptr.get();
+        int offset = ptr.getOffset();
+        int length = ptr.getLength();
+        byte first = toUpper ? (byte)'a' : (byte)'A';
+        byte last = toUpper ? (byte)'z' : (byte)'Z';
+        int delta = toUpper ? 'A' - 'a' : 'a' - 'A';
+        // Inverted bytes always need a copy, otherwise only allocate once a letter changes
+        byte[] result = columnModifier == null ? null : new byte[length];
+        for (int i = 0; i < length; i++) {
+            byte b = bytes[offset + i];
+            if (columnModifier != null) {
+                b = columnModifier.apply(b);
+            }
+            if (b < 0) {
+                return false;
+            }
+            if (b >= first && b <= last) {
+                if (result == null) {
+                    result = new byte[length];
+                    System.arraycopy(bytes, offset, result, 0, i);
+                }
+                b += delta;
+            }
+            if (result != null) {
+                result[i] = b;
+            }
+        }
+        if (result != null) {
+            ptr.set(result);
+        }
+        return true;
+    }
+
     // Given an array of bytes containing encoding utf-8 encoded strings, the offset and a length
     // parameter, return the actual index into the byte array which would represent a substring
     // of <length> starting from the character at <offset>. We assume the <offset> is the start
@@ -203,6 +266,38 @@ public class StringUtil {
         return i;
     }
 
+    /**
+     * Encodes chars as UTF-8 into buffer, which must have room for three bytes per char.
+     * An unpaired surrogate is encoded as '?', as String.getBytes does.
+     * @return the number of bytes written
+     */
+    public static int encodeUtf8(CharSequence chars, byte[] buffer) {
+        int length = chars.length();
+        int n = 0;
+        for (int i = 0; i < length; i++) {
+            char c = chars.charAt(i);
+            if (c < 0x80) {
+                buffer[n++] = (byte)c;
+            } else if (c < 0x800) {
+                buffer[n++] = (byte)(0xC0 | (c >> 6));
+                buffer[n++] = (byte)(0x80 | (c & 0x3F));
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(chars.charAt(i + 1))) {
+                int codePoint = Character.toCodePoint(c, chars.charAt(++i));
+                buffer[n++] = (byte)(0xF0 | (codePoint >> 18));
+                buffer[n++] = (byte)(0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[n++] = (byte)(0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[n++] = (byte)(0x80 | (codePoint & 0x3F));
+            } else if (c >= Character.MIN_SURROGATE && c <= Character.MAX_SURROGATE) {
+                buffer[n++] = '?';
+            } else {
+                buffer[n++] = (byte)(0xE0 | (c >> 12));
+                buffer[n++] = (byte)(0x80 | ((c >> 6) & 0x3F));
+                buffer[n++] = (byte)(0x80 | (c & 0x3F));
+            }
+        }
+        return n;
+    }
+
     // A toBytes function backed up HBase's utility function, but would accept null input, in which
     // case it returns an empty byte array.
     public static byte[] toBytes(String input) {
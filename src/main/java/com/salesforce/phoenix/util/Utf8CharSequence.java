@@ -0,0 +1,185 @@
+/*******************************************************************************
+ * Copyright (c) 2013, Salesforce.com, Inc.
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     Redistributions of source code must retain the above copyright notice,
+ *     this list of conditions and the following disclaimer.
+ *     Redistributions in binary form must reproduce the above copyright notice,
+ *     this list of conditions and the following disclaimer in the documentation
+ *     and/or other materials provided with the distribution.
+ *     Neither the name of Salesforce.com nor the names of its contributors may 
+ *     be used to endorse or promote products derived from this software without 
+ *     specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE 
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL 
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR 
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER 
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, 
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE 
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package com.salesforce.phoenix.util;
+
+import java.nio.CharBuffer;
+
+import com.salesforce.phoenix.schema.ColumnModifier;
+
+/**
+ * 
+ * Reusable CharSequence over UTF-8 encoded bytes, for matching a regular expression
+ * against a value without creating a String for it. The characters of each value are
+ * decoded into a buffer kept across values, and the byte offset of each character is
+ * remembered so that a match can be returned as a slice of the original bytes. Bytes
+ * that are not valid UTF-8 are each decoded as the replacement character U+FFFD.
+ * 
+ * @author jtaylor
+ * @since 1.2
+ */
+public class Utf8CharSequence implements CharSequence {
+    private static final char REPLACEMENT_CHAR = '\uFFFD';
+    
+    private byte[] bytes;
+    private int offset;
+    private int length;
+    private byte[] invertedBytes = ByteUtil.EMPTY_BYTE_ARRAY;
+    private char[] chars = new char[0];
+    private int[] byteOffsets = new int[1];
+    private int charLength;
+    private boolean isAscii;
+    
+    /**
+     * Points this sequence at a new value.
+     * @param columnModifier the modifier the bytes are stored with, or null if none
+     */
+    public void set(byte[] bytes, int offset, int length, ColumnModifier columnModifier) {
+        if (columnModifier != null) {
+            if (invertedBytes.length < length) {
+                invertedBytes = new byte[length];
+            }
+            for (int i = 0; i < length; i++) {
+                invertedBytes[i] = columnModifier.apply(bytes[offset + i]);
+            }
+            bytes = invertedBytes;
+            offset = 0;
+        }
+        this.bytes = bytes;
+        this.offset = offset;
+        this.length = length;
+        if (chars.length < length) {
+            chars = new char[length];
+        }
+        int end = offset + length;
+        int i = offset;
+        while (i < end && bytes[i] >= 0) {
+            chars[i - offset] = (char)bytes[i];
+            i++;
+        }
+        isAscii = i == end;
+        if (isAscii) {
+            charLength = length;
+            return;
+        }
+        if (byteOffsets.length < length + 1) {
+            byteOffsets = new int[length + 1];
+        }
+        int n = i - offset;
+        for (int j = 0; j < n; j++) {
+            byteOffsets[j] = offset + j;
+        }
+        while (i < end) {
+            int b = bytes[i] & 0xFF;
+            int charBytes;
+            int codePoint;
+            if (b < 0x80) {
+                charBytes = 1;
+                codePoint = b;
+            } else if ((b & 0xE0) == 0xC0) {
+                charBytes = 2;
+                codePoint = b & 0x1F;
+            } else if ((b & 0xF0) == 0xE0) {
+                charBytes = 3;
+                codePoint = b & 0x0F;
+            } else if ((b & 0xF8) == 0xF0) {
+                charBytes = 4;
+                codePoint = b & 0x07;
+            } else {
+                charBytes = 0;
+                codePoint = REPLACEMENT_CHAR;
+            }
+            for (int k = 1; k < charBytes; k++) {
+                if (i + k >= end || (bytes[i + k] & 0xC0) != 0x80) {
+                    charBytes = 0;
+                    codePoint = REPLACEMENT_CHAR;
+                    break;
+                }
+                codePoint = (codePoint << 6) | (bytes[i + k] & 0x3F);
+            }
+            if (charBytes == 0 || codePoint > Character.MAX_CODE_POINT) {
+                charBytes = Math.max(charBytes, 1);
+                codePoint = REPLACEMENT_CHAR;
+            }
+            byteOffsets[n] = i;
+            if (codePoint >= Character.MIN_SUPPLEMENTARY_CODE_POINT) {
+                codePoint -= Character.MIN_SUPPLEMENTARY_CODE_POINT;
+                chars[n++] = (char)((codePoint >>> 10) + Character.MIN_HIGH_SURROGATE);
+                byteOffsets[n] = i;
+                chars[n++] = (char)((codePoint & 0x3FF) + Character.MIN_LOW_SURROGATE);
+            } else {
+                chars[n++] = (char)codePoint;
+            }
+            i += charBytes;
+        }
+        byteOffsets[n] = end;
+        charLength = n;
+    }
+    
+    /**
+     * @return the bytes backing the value, which differ from the ones it was set
+     * with when those were stored with a column modifier
+     */
+    public byte[] getBytes() {
+        return bytes;
+    }
+    
+    public int getOffset() {
+        return offset;
+    }
+    
+    public int getByteLength() {
+        return length;
+    }
+    
+    /**
+     * @return the offset into {@link #getBytes()} of the character at index
+     */
+    public int getByteOffset(int index) {
+        return isAscii ? offset + index : byteOffsets[index];
+    }
+    
+    @Override
+    public int length() {
+        return charLength;
+    }
+
+    @Override
+    public char charAt(int index) {
+        return chars[index];
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return CharBuffer.wrap(chars, start, end - start);
+    }
+    
+    @Override
+    public String toString() {
+        return new String(chars, 0, charLength);
+    }
+}
@@ -0,0 +1,108 @@
+package com.salesforce.phoenix.coprocessor;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import com.salesforce.phoenix.expression.Expression;
+import com.salesforce.phoenix.expression.RowKeyColumnExpression;
+import com.salesforce.phoenix.schema.*;
+import com.salesforce.phoenix.schema.tuple.MultiKeyValueTuple;
+import com.salesforce.phoenix.util.TrustedByteArrayOutputStream;
+
+/**
+ * Measures the bytes allocated per row by the row loop of the aggregating region observers
+ * when grouping by a CHAR(4) and an INTEGER row key column. The fresh run allocates the
+ * result list, tuple and key buffers for every row, as the loops used to. The reused run
+ * keeps them across rows, as the loops do now. Keys are not copied in either run, since
+ * they are only copied when they start a new group.
+ */
+public class GroupByKeyBenchmark {
+    private static final int ROWS = 1000000;
+    private static final int RUNS = 10;
+    private static final byte[] CF = Bytes.toBytes("a");
+    private static final byte[] CQ = Bytes.toBytes("v");
+
+    private static List<Expression> newGroupByExpressions() {
+        List<PColumn> columns = Arrays.<PColumn>asList(
+                new PColumnImpl(new PNameImpl("K1"), null, PDataType.CHAR, 4, null, false, 0, null),
+                new PColumnImpl(new PNameImpl("K2"), null, PDataType.INTEGER, null, null, false, 1, null));
+        List<Expression> expressions = new ArrayList<Expression>(columns.size());
+        for (int i = 0; i < columns.size(); i++) {
+            expressions.add(new RowKeyColumnExpression(columns.get(i), new RowKeyValueAccessor(columns, i)));
+        }
+        return expressions;
+    }
+
+    private static KeyValue[] newRows() {
+        KeyValue[] rows = new KeyValue[ROWS];
+        for (int i = 0; i < rows.length; i++) {
+            byte[] key = Bytes.add(Bytes.toBytes(String.format("%04d", i % 100)), PDataType.INTEGER.toBytes(i % 1000));
+            rows[i] = new KeyValue(key, CF, CQ, 0, PDataType.LONG.toBytes(i));
+        }
+        return rows;
+    }
+
+    private static long scanFresh(List<Expression> expressions, KeyValue[] rows) throws IOException {
+        long hash = 0;
+        for (KeyValue row : rows) {
+            List<KeyValue> results = new ArrayList<KeyValue>();
+            results.add(row);
+            MultiKeyValueTuple result = new MultiKeyValueTuple();
+            result.setKeyValues(results);
+            ImmutableBytesWritable key = GroupedAggregateRegionObserver.getKey(expressions, result,
+                    new ImmutableBytesWritable(), new TrustedByteArrayOutputStream(8));
+            hash += key.hashCode();
+        }
+        return hash;
+    }
+
+    private static long scanReused(List<Expression> expressions, KeyValue[] rows) throws IOException {
+        long hash = 0;
+        List<KeyValue> results = new ArrayList<KeyValue>();
+        MultiKeyValueTuple result = new MultiKeyValueTuple();
+        ImmutableBytesWritable groupByValue = new ImmutableBytesWritable();
+        TrustedByteArrayOutputStream output = new TrustedByteArrayOutputStream(8);
+        for (KeyValue row : rows) {
+            results.clear();
+            results.add(row);
+            result.setKeyValues(results);
+            ImmutableBytesWritable key = GroupedAggregateRegionObserver.getKey(expressions, result, groupByValue, output);
+            hash += key.hashCode();
+        }
+        return hash;
+    }
+
+    private static long getAllocatedBytes() {
+        return ((com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean()).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    public static void main(String[] args) throws IOException {
+        List<Expression> expressions = newGroupByExpressions();
+        KeyValue[] rows = newRows();
+        // Warm up
+        for (int i = 0; i < RUNS; i++) {
+            scanFresh(expressions, rows);
+            scanReused(expressions, rows);
+        }
+        for (boolean reuse : new boolean[] {false, true}) {
+            long hash = 0;
+            long allocated = getAllocatedBytes();
+            long start = System.nanoTime();
+            for (int i = 0; i < RUNS; i++) {
+                hash += reuse ? scanReused(expressions, rows) : scanFresh(expressions, rows);
+            }
+            long elapsed = System.nanoTime() - start;
+            allocated = getAllocatedBytes() - allocated;
+            long nRows = (long)ROWS * RUNS;
+            System.out.println((reuse ? "reused" : "fresh") + ": " + (allocated / nRows) + " bytes allocated/row, "
+                    + (long)(nRows / (elapsed / 1e9)) + " rows/sec (" + hash + ")");
+        }
+    }
+}
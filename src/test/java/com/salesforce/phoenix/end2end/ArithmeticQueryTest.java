@@ -436,4 +436,99 @@ public class ArithmeticQueryTest extends BaseHBaseManagedTimeTest {
             conn.close();
         }
     }
+
+    @Test
+    public void testScaledDecimalSumAndArithmetic() throws Exception {
+        Properties props = new Properties(TEST_PROPERTIES);
+        Connection conn = DriverManager.getConnection(getUrl(), props);
+        conn.setAutoCommit(false);
+        try {
+            String ddl = "CREATE TABLE IF NOT EXISTS testScaledDecimal" + 
+                    "  (pk VARCHAR NOT NULL, col1 DECIMAL(8, 3) NOT NULL, col2 DECIMAL(10, 2), col3 DECIMAL(19, 10)" +
+                    "  CONSTRAINT pk PRIMARY KEY (pk, col1 DESC))";
+            createTestTable(getUrl(), ddl);
+            
+            PreparedStatement stmt = conn.prepareStatement("UPSERT INTO testScaledDecimal(pk, col1, col2, col3) VALUES(?,?,?,?)");
+            String[][] values = {{"1.25", "100", "999999999.9999999999"}, {"-3.5", "-0.01", "999999999.9999999999"}, {"0.125", "20.5", "-1"}};
+            for (int i = 0; i < values.length; i++) {
+                stmt.setString(1, "k" + i);
+                stmt.setBigDecimal(2, new BigDecimal(values[i][0]));
+                stmt.setBigDecimal(3, new BigDecimal(values[i][1]));
+                stmt.setBigDecimal(4, new BigDecimal(values[i][2]));
+                stmt.execute();
+            }
+            conn.commit();
+            
+            ResultSet rs = conn.createStatement().executeQuery("SELECT sum(col1), sum(col2), avg(col2), sum(col3) FROM testScaledDecimal");
+            assertTrue(rs.next());
+            assertEquals(0, new BigDecimal("-2.125").compareTo(rs.getBigDecimal(1)));
+            assertEquals(0, new BigDecimal("120.49").compareTo(rs.getBigDecimal(2)));
+            assertEquals(0, new BigDecimal("40.1633").compareTo(rs.getBigDecimal(3)));
+            // Doesn't fit into a long scaled by 10^10, so is summed as a BigDecimal
+            assertEquals(0, new BigDecimal("1999999998.9999999998").compareTo(rs.getBigDecimal(4)));
+            assertFalse(rs.next());
+            
+            rs = conn.createStatement().executeQuery("SELECT col1 + col2, col2 - col1 FROM testScaledDecimal WHERE pk = 'k2'");
+            assertTrue(rs.next());
+            assertEquals(0, new BigDecimal("20.625").compareTo(rs.getBigDecimal(1)));
+            assertEquals(0, new BigDecimal("20.375").compareTo(rs.getBigDecimal(2)));
+            assertFalse(rs.next());
+        } finally {
+            conn.close();
+        }
+    }
+
+    @Test
+    public void testBatchedIntegralSumAndArithmetic() throws Exception {
+        Properties props = new Properties(TEST_PROPERTIES);
+        Connection conn = DriverManager.getConnection(getUrl(), props);
+        conn.setAutoCommit(false);
+        try {
+            String ddl = "CREATE TABLE IF NOT EXISTS testBatchedSum" + 
+                    "  (pk INTEGER NOT NULL, a BIGINT, b INTEGER" +
+                    "  CONSTRAINT pk PRIMARY KEY (pk DESC))";
+            createTestTable(getUrl(), ddl);
+            
+            // More rows than are aggregated in one batch, with some null values of b
+            PreparedStatement stmt = conn.prepareStatement("UPSERT INTO testBatchedSum(pk, a, b) VALUES(?,?,?)");
+            long sumA = 0, sumB = 0, sumAPlusB = 0, sumATimesB = 0, sumPkMinusB = 0;
+            int nRows = 2500;
+            for (int i = 0; i < nRows; i++) {
+                long a = i * 1000003L;
+                stmt.setInt(1, i - 100);
+                stmt.setLong(2, a);
+                sumA += a;
+                if (i % 7 == 0) {
+                    stmt.setNull(3, Types.INTEGER);
+                } else {
+                    int b = i - 1000;
+                    stmt.setInt(3, b);
+                    sumB += b;
+                    sumAPlusB += a + b;
+                    sumATimesB += a * b;
+                    sumPkMinusB += i - 100 - b;
+                }
+                stmt.execute();
+            }
+            conn.commit();
+            
+            ResultSet rs = conn.createStatement().executeQuery("SELECT sum(a), sum(b), sum(a + b), sum(a * b), sum(pk - b), count(*) FROM testBatchedSum");
+            assertTrue(rs.next());
+            assertEquals(sumA, rs.getLong(1));
+            assertEquals(sumB, rs.getLong(2));
+            assertEquals(sumAPlusB, rs.getLong(3));
+            assertEquals(sumATimesB, rs.getLong(4));
+            assertEquals(sumPkMinusB, rs.getLong(5));
+            assertEquals(nRows, rs.getLong(6));
+            assertFalse(rs.next());
+            
+            rs = conn.createStatement().executeQuery("SELECT sum(b) FROM testBatchedSum WHERE b IS NULL");
+            assertTrue(rs.next());
+            assertEquals(0, rs.getLong(1));
+            assertTrue(rs.wasNull());
+            assertFalse(rs.next());
+        } finally {
+            conn.close();
+        }
+    }
 }
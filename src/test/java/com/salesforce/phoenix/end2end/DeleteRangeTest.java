@@ -28,13 +28,15 @@
 package com.salesforce.phoenix.end2end;
 
 import static com.salesforce.phoenix.util.TestUtil.PHOENIX_JDBC_URL;
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.*;
 
 import java.sql.*;
+import java.util.Properties;
 
 import org.junit.Test;
 
+import com.salesforce.phoenix.util.PhoenixRuntime;
+
 public class DeleteRangeTest extends BaseHBaseManagedTimeTest {
     private static final int NUMBER_OF_ROWS = 20;
     private static final int NTH_ROW_NULL = 5;
@@ -99,4 +101,121 @@ public class DeleteRangeTest extends BaseHBaseManagedTimeTest {
     public void testDeleteRangeAutoCommit() throws Exception {
         testDeleteRange(true);
     }
+    
+    @Test
+    public void testDeferredDeleteRange() throws Exception {
+        Connection conn = DriverManager.getConnection(PHOENIX_JDBC_URL);
+        initTableValues(conn);
+        conn.close();
+        // Run at explicit time stamps past the initial rows, so that each connection sees
+        // exactly the rows committed at the time stamps before its own.
+        long ts = System.currentTimeMillis() + 1;
+        
+        Properties props = new Properties();
+        props.setProperty(PhoenixRuntime.CURRENT_SCN_ATTRIB, Long.toString(ts));
+        props.setProperty(PhoenixRuntime.DEFER_SERVER_MUTATIONS_ATTRIB, Boolean.TRUE.toString());
+        conn = DriverManager.getConnection(PHOENIX_JDBC_URL, props);
+        conn.setAutoCommit(false);
+        // Upserted before the delete, so deleted by it
+        conn.createStatement().execute("UPSERT INTO IntIntKeyTest VALUES(100,1)");
+        PreparedStatement stmt = conn.prepareStatement("DELETE FROM IntIntKeyTest WHERE i >= ? and i < ?");
+        stmt.setInt(1, 5);
+        stmt.setInt(2, 1000);
+        stmt.execute();
+        // Upserted after the delete, so not deleted by it
+        conn.createStatement().execute("UPSERT INTO IntIntKeyTest VALUES(200,2)");
+        
+        ResultSet rs = conn.createStatement().executeQuery("SELECT count(*) FROM IntIntKeyTest");
+        assertTrue(rs.next());
+        assertEquals(NUMBER_OF_ROWS, rs.getInt(1));
+        conn.commit();
+        conn.close();
+        
+        // The rows of the transaction are written from the SCN on, so they're not visible at it
+        props.setProperty(PhoenixRuntime.CURRENT_SCN_ATTRIB, Long.toString(ts));
+        conn = DriverManager.getConnection(PHOENIX_JDBC_URL, props);
+        rs = conn.createStatement().executeQuery("SELECT count(*) FROM IntIntKeyTest");
+        assertTrue(rs.next());
+        assertEquals(NUMBER_OF_ROWS, rs.getInt(1));
+        conn.close();
+        
+        // The rows before the delete, the delete and the rows after it are written at
+        // successive time stamps
+        props.setProperty(PhoenixRuntime.CURRENT_SCN_ATTRIB, Long.toString(ts + 3));
+        conn = DriverManager.getConnection(PHOENIX_JDBC_URL, props);
+        rs = conn.createStatement().executeQuery("SELECT i FROM IntIntKeyTest WHERE i >= 5");
+        assertTrue(rs.next());
+        assertEquals(200, rs.getInt(1));
+        assertFalse(rs.next());
+        rs = conn.createStatement().executeQuery("SELECT count(*) FROM IntIntKeyTest");
+        assertTrue(rs.next());
+        assertEquals(6, rs.getInt(1));
+        
+        // Nothing is deleted if the connection is rolled back
+        conn.setAutoCommit(false);
+        conn.createStatement().execute("DELETE FROM IntIntKeyTest");
+        conn.rollback();
+        conn.commit();
+        conn.close();
+        
+        props.setProperty(PhoenixRuntime.CURRENT_SCN_ATTRIB, Long.toString(ts + 4));
+        conn = DriverManager.getConnection(PHOENIX_JDBC_URL, props);
+        rs = conn.createStatement().executeQuery("SELECT count(*) FROM IntIntKeyTest");
+        assertTrue(rs.next());
+        assertEquals(6, rs.getInt(1));
+        conn.close();
+    }
+    
+    private static void deleteAndUpsertSameRow(Properties props) throws Exception {
+        props.setProperty(PhoenixRuntime.DEFER_SERVER_MUTATIONS_ATTRIB, Boolean.TRUE.toString());
+        Connection conn = DriverManager.getConnection(PHOENIX_JDBC_URL, props);
+        conn.setAutoCommit(false);
+        conn.createStatement().execute("UPSERT INTO IntIntKeyTest VALUES(7,1)");
+        conn.createStatement().execute("DELETE FROM IntIntKeyTest WHERE i >= 5 and i < 10");
+        // Upserted again after the delete, so not masked by it
+        conn.createStatement().execute("UPSERT INTO IntIntKeyTest VALUES(7,2)");
+        conn.commit();
+        conn.close();
+    }
+    
+    private static void assertRows(Connection conn, int[][] expectedRows) throws SQLException {
+        ResultSet rs = conn.createStatement().executeQuery("SELECT i, j FROM IntIntKeyTest WHERE i >= 5 and i < 10");
+        for (int[] expectedRow : expectedRows) {
+            assertTrue(rs.next());
+            assertEquals(expectedRow[0], rs.getInt(1));
+            assertEquals(expectedRow[1], rs.getInt(2));
+        }
+        assertFalse(rs.next());
+    }
+    
+    @Test
+    public void testDeferredDeleteAndUpsertSameRow() throws Exception {
+        Connection conn = DriverManager.getConnection(PHOENIX_JDBC_URL);
+        initTableValues(conn);
+        deleteAndUpsertSameRow(new Properties());
+        assertRows(conn, new int[][] {{7,2}});
+        
+        // Rows committed next at the time of the server aren't masked by the rows of the
+        // transaction, even though they were written just ahead of it
+        conn.createStatement().execute("UPSERT INTO IntIntKeyTest VALUES(7,3)");
+        conn.commit();
+        assertRows(conn, new int[][] {{7,3}});
+        conn.close();
+    }
+    
+    @Test
+    public void testDeferredDeleteAndUpsertSameRowAtSCN() throws Exception {
+        Connection conn = DriverManager.getConnection(PHOENIX_JDBC_URL);
+        initTableValues(conn);
+        conn.close();
+        
+        long ts = System.currentTimeMillis() + 1;
+        Properties props = new Properties();
+        props.setProperty(PhoenixRuntime.CURRENT_SCN_ATTRIB, Long.toString(ts));
+        deleteAndUpsertSameRow(props);
+        props.setProperty(PhoenixRuntime.CURRENT_SCN_ATTRIB, Long.toString(ts + 3));
+        conn = DriverManager.getConnection(PHOENIX_JDBC_URL, props);
+        assertRows(conn, new int[][] {{7,2}});
+        conn.close();
+    }
 }
@@ -35,6 +35,7 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
+import java.sql.Types;
 import java.util.Calendar;
 import java.sql.Date;
 import java.util.GregorianCalendar;
@@ -57,6 +58,47 @@ public class DescColumnSortOrderTest extends BaseHBaseManagedTimeTest {
         runQueryTest(ddl, "pk", new Object[][]{{"a"}, {"b"}, {"c"}}, new Object[][]{{"a"}, {"b"}, {"c"}});
     }                                                           
 
+    @Test
+    public void typedGettersOnDescCompositePK() throws Exception {
+        Connection conn = DriverManager.getConnection(getUrl(), new Properties(TEST_PROPERTIES));
+        try {
+            conn.createStatement().execute("CREATE TABLE DescTypedGetters (i INTEGER NOT NULL, l BIGINT NOT NULL, d DECIMAL(10,2), n BIGINT constraint pk primary key (i DESC, l DESC))");
+            PreparedStatement stmt = conn.prepareStatement("UPSERT INTO DescTypedGetters VALUES(?, ?, ?, ?)");
+            stmt.setInt(1, -3);
+            stmt.setLong(2, 9876543210L);
+            stmt.setBigDecimal(3, new BigDecimal("1.5"));
+            stmt.setNull(4, Types.BIGINT);
+            stmt.execute();
+            stmt.setInt(1, 2);
+            stmt.setLong(2, -7);
+            stmt.setNull(3, Types.DECIMAL);
+            stmt.setLong(4, 4);
+            stmt.execute();
+            conn.commit();
+            ResultSet rs = conn.createStatement().executeQuery("SELECT i, l, d, n FROM DescTypedGetters");
+            Assert.assertTrue(rs.next());
+            Assert.assertEquals(2, rs.getInt(1));
+            Assert.assertEquals(2L, rs.getLong(1));
+            Assert.assertEquals(-7L, rs.getLong(2));
+            Assert.assertEquals(-7.0, rs.getDouble(2), 0);
+            Assert.assertEquals(0, rs.getInt(3));
+            Assert.assertTrue(rs.wasNull());
+            Assert.assertEquals(4, rs.getInt(4));
+            Assert.assertFalse(rs.wasNull());
+            Assert.assertTrue(rs.next());
+            Assert.assertEquals(-3, rs.getInt(1));
+            Assert.assertEquals(-3.0, rs.getDouble(1), 0);
+            Assert.assertEquals(9876543210L, rs.getLong(2));
+            Assert.assertEquals(1.5, rs.getDouble(3), 0);
+            Assert.assertFalse(rs.wasNull());
+            Assert.assertEquals(0L, rs.getLong(4));
+            Assert.assertTrue(rs.wasNull());
+            Assert.assertFalse(rs.next());
+        } finally {
+            conn.close();
+        }
+    }
+
     @Test
     public void noOrderCompositePK() throws Exception {
         String ddl = "CREATE TABLE " + TABLE + " (oid CHAR(2) NOT NULL, code INTEGER NOT NULL constraint pk primary key (oid, code))";
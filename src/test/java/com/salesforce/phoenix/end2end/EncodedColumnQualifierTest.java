@@ -0,0 +1,198 @@
+/*******************************************************************************
+ * Copyright (c) 2013, Salesforce.com, Inc.
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     Redistributions of source code must retain the above copyright notice,
+ *     this list of conditions and the following disclaimer.
+ *     Redistributions in binary form must reproduce the above copyright notice,
+ *     this list of conditions and the following disclaimer in the documentation
+ *     and/or other materials provided with the distribution.
+ *     Neither the name of Salesforce.com nor the names of its contributors may 
+ *     be used to endorse or promote products derived from this software without 
+ *     specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE 
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL 
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR 
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER 
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, 
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE 
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package com.salesforce.phoenix.end2end;
+
+import static org.junit.Assert.*;
+
+import java.sql.*;
+import java.util.Properties;
+
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.client.*;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Test;
+
+import com.salesforce.phoenix.jdbc.PhoenixConnection;
+import com.salesforce.phoenix.query.QueryConstants;
+import com.salesforce.phoenix.util.PhoenixRuntime;
+import com.salesforce.phoenix.util.SchemaUtil;
+
+public class EncodedColumnQualifierTest extends BaseHBaseManagedTimeTest {
+
+    private static void initTable(Connection conn) throws SQLException {
+        conn.createStatement().execute("CREATE TABLE encodedTest (k VARCHAR NOT NULL PRIMARY KEY, active_visitor INTEGER, b.description VARCHAR) COLUMN_ENCODED=true");
+        PreparedStatement stmt = conn.prepareStatement("UPSERT INTO encodedTest VALUES(?,?,?)");
+        for (int i = 1; i <= 3; i++) {
+            stmt.setString(1, "k" + i);
+            stmt.setInt(2, i);
+            stmt.setString(3, "desc" + i);
+            stmt.execute();
+        }
+        conn.commit();
+    }
+
+    private static void assertQualifiersEncoded(Connection conn) throws Exception {
+        HTableInterface htable = conn.unwrap(PhoenixConnection.class).getQueryServices().getTable(SchemaUtil.getTableName(Bytes.toBytes("ENCODEDTEST")));
+        ResultScanner scanner = htable.getScanner(new Scan());
+        try {
+            int count = 0;
+            for (Result result = scanner.next(); result != null; result = scanner.next()) {
+                for (KeyValue kv : result.raw()) {
+                    assertTrue(kv.getQualifierLength() == 1 || Bytes.equals(kv.getQualifier(), QueryConstants.EMPTY_COLUMN_BYTES));
+                    count++;
+                }
+            }
+            assertTrue(count > 0);
+        } finally {
+            scanner.close();
+            htable.close();
+        }
+    }
+
+    @Test
+    public void testQueryEncodedColumns() throws Exception {
+        Connection conn = DriverManager.getConnection(getUrl());
+        try {
+            initTable(conn);
+            assertQualifiersEncoded(conn);
+
+            ResultSet rs = conn.createStatement().executeQuery("SELECT k, active_visitor, description FROM encodedTest WHERE active_visitor > 1 AND k < 'k9'");
+            assertTrue(rs.next());
+            assertEquals("k2", rs.getString(1));
+            assertEquals(2, rs.getInt(2));
+            assertEquals("desc2", rs.getString(3));
+            assertTrue(rs.next());
+            assertEquals("k3", rs.getString(1));
+            assertEquals(3, rs.getInt(2));
+            assertEquals("desc3", rs.getString(3));
+            assertFalse(rs.next());
+
+            rs = conn.createStatement().executeQuery("SELECT k FROM encodedTest WHERE description = 'desc1'");
+            assertTrue(rs.next());
+            assertEquals("k1", rs.getString(1));
+            assertFalse(rs.next());
+
+            rs = conn.createStatement().executeQuery("SELECT SUM(active_visitor) FROM encodedTest");
+            assertTrue(rs.next());
+            assertEquals(6, rs.getInt(1));
+            assertFalse(rs.next());
+
+            conn.createStatement().execute("UPSERT INTO encodedTest(k, active_visitor) VALUES('k1', null)");
+            conn.commit();
+            rs = conn.createStatement().executeQuery("SELECT k, active_visitor, description FROM encodedTest WHERE k = 'k1'");
+            assertTrue(rs.next());
+            assertNull(rs.getObject(2));
+            assertEquals("desc1", rs.getString(3));
+            assertFalse(rs.next());
+        } finally {
+            conn.close();
+        }
+    }
+
+    @Test
+    public void testAlterEncodedTable() throws Exception {
+        Connection conn = DriverManager.getConnection(getUrl());
+        try {
+            initTable(conn);
+            conn.createStatement().execute("ALTER TABLE encodedTest ADD c.extra BIGINT");
+            conn.createStatement().execute("UPSERT INTO encodedTest(k, extra) VALUES('k2', 20)");
+            conn.commit();
+            conn.createStatement().execute("ALTER TABLE encodedTest DROP COLUMN active_visitor");
+            conn.createStatement().execute("ALTER TABLE encodedTest ADD visits INTEGER");
+            assertQualifiersEncoded(conn);
+
+            ResultSet rs = conn.createStatement().executeQuery("SELECT k, description, extra, visits FROM encodedTest");
+            for (int i = 1; i <= 3; i++) {
+                assertTrue(rs.next());
+                assertEquals("k" + i, rs.getString(1));
+                assertEquals("desc" + i, rs.getString(2));
+                if (i == 2) {
+                    assertEquals(20, rs.getLong(3));
+                } else {
+                    assertNull(rs.getObject(3));
+                }
+                assertNull(rs.getObject(4));
+            }
+            assertFalse(rs.next());
+        } finally {
+            conn.close();
+        }
+    }
+
+    private static void execute(long ts, String sql) throws SQLException {
+        Properties props = new Properties();
+        props.setProperty(PhoenixRuntime.CURRENT_SCN_ATTRIB, Long.toString(ts));
+        Connection conn = DriverManager.getConnection(getUrl(), props);
+        try {
+            conn.createStatement().execute(sql);
+            conn.commit();
+        } finally {
+            conn.close();
+        }
+    }
+
+    private static void assertColumnNull(long ts, String columnName) throws SQLException {
+        Properties props = new Properties();
+        props.setProperty(PhoenixRuntime.CURRENT_SCN_ATTRIB, Long.toString(ts));
+        Connection conn = DriverManager.getConnection(getUrl(), props);
+        try {
+            ResultSet rs = conn.createStatement().executeQuery("SELECT k, description, " + columnName + " FROM encodedTest");
+            for (int i = 1; i <= 3; i++) {
+                assertTrue(rs.next());
+                assertEquals("k" + i, rs.getString(1));
+                assertEquals("desc" + i, rs.getString(2));
+                assertNull(rs.getObject(3));
+            }
+            assertFalse(rs.next());
+        } finally {
+            conn.close();
+        }
+    }
+
+    @Test
+    public void testDropAndAddLastEncodedColumn() throws Exception {
+        Connection conn = DriverManager.getConnection(getUrl());
+        try {
+            initTable(conn);
+            conn.createStatement().execute("ALTER TABLE encodedTest ADD b.extra BIGINT");
+        } finally {
+            conn.close();
+        }
+        long ts = System.currentTimeMillis() + 1000;
+        // Cells written after the time stamp of the drop survive its delete markers
+        execute(ts + 10, "UPSERT INTO encodedTest(k, extra) VALUES('k2', 20)");
+        execute(ts + 5, "ALTER TABLE encodedTest DROP COLUMN extra");
+        execute(ts + 6, "ALTER TABLE encodedTest ADD b.visits BIGINT");
+        assertColumnNull(ts + 20, "visits");
+        
+        execute(ts + 50, "UPSERT INTO encodedTest(k, visits) VALUES('k3', 30)");
+        execute(ts + 40, "ALTER TABLE encodedTest DROP COLUMN visits");
+        execute(ts + 41, "ALTER TABLE encodedTest ADD b.visits2 BIGINT");
+        assertColumnNull(ts + 60, "visits2");
+    }
+}
@@ -236,4 +236,58 @@ public class MultiCfQueryExecTest extends BaseClientMangedTimeTest {
         }
     }
     
+    @Test
+    public void testEssentialColumnFamilyForNullFilter() throws Exception {
+        long ts = nextTimestamp();
+        String query = "SELECT ID,G.RESPONSE_TIME from multi_cf where UNIQUE_ORG_COUNT IS NULL";
+        String url = PHOENIX_JDBC_URL + ";" + PhoenixRuntime.CURRENT_SCN_ATTRIB + "=" + (ts + 5); // Run query at timestamp 5
+        Properties props = new Properties(TEST_PROPERTIES);
+        Connection conn = DriverManager.getConnection(url, props);
+        try {
+            initTableValues(ts);
+            // No row has a value in the filtered column family, so the filter
+            // must still see the rows through the empty column family.
+            PreparedStatement statement = conn.prepareStatement(query);
+            ResultSet rs = statement.executeQuery();
+            assertTrue(rs.next());
+            assertEquals("000000000000001", rs.getString(1));
+            assertEquals(11112, rs.getLong(2));
+            assertTrue(rs.next());
+            assertEquals("000000000000002", rs.getString(1));
+            assertEquals(22222, rs.getLong(2));
+            assertFalse(rs.next());
+        } finally {
+            conn.close();
+        }
+    }
+    
+    @Test
+    public void testEssentialColumnFamiliesForDisjunction() throws Exception {
+        long ts = nextTimestamp();
+        initTableValues(ts);
+        String url = PHOENIX_JDBC_URL + ";" + PhoenixRuntime.CURRENT_SCN_ATTRIB + "=" + (ts + 3);
+        Connection conn = DriverManager.getConnection(url);
+        conn.createStatement().execute("upsert into MULTI_CF(ID, TRANSACTION_COUNT) VALUES ('000000000000003', 300)");
+        conn.commit();
+        conn.close();
+
+        // Each column family referenced by the filter must be read to find the rows
+        String query = "SELECT ID,G.RESPONSE_TIME from multi_cf where TRANSACTION_COUNT = 300 OR CPU_UTILIZATION = 2.5";
+        url = PHOENIX_JDBC_URL + ";" + PhoenixRuntime.CURRENT_SCN_ATTRIB + "=" + (ts + 5); // Run query at timestamp 5
+        conn = DriverManager.getConnection(url);
+        try {
+            PreparedStatement statement = conn.prepareStatement(query);
+            ResultSet rs = statement.executeQuery();
+            assertTrue(rs.next());
+            assertEquals("000000000000002", rs.getString(1));
+            assertEquals(22222, rs.getLong(2));
+            assertTrue(rs.next());
+            assertEquals("000000000000003", rs.getString(1));
+            assertNull(rs.getObject(2));
+            assertFalse(rs.next());
+        } finally {
+            conn.close();
+        }
+    }
+    
 }
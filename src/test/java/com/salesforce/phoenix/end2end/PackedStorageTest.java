@@ -0,0 +1,199 @@
+/*******************************************************************************
+ * Copyright (c) 2013, Salesforce.com, Inc.
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     Redistributions of source code must retain the above copyright notice,
+ *     this list of conditions and the following disclaimer.
+ *     Redistributions in binary form must reproduce the above copyright notice,
+ *     this list of conditions and the following disclaimer in the documentation
+ *     and/or other materials provided with the distribution.
+ *     Neither the name of Salesforce.com nor the names of its contributors may 
+ *     be used to endorse or promote products derived from this software without 
+ *     specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE 
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL 
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR 
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER 
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, 
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE 
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package com.salesforce.phoenix.end2end;
+
+import static org.junit.Assert.*;
+
+import java.sql.*;
+
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.client.*;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Test;
+
+import com.salesforce.phoenix.exception.SQLExceptionCode;
+import com.salesforce.phoenix.jdbc.PhoenixConnection;
+import com.salesforce.phoenix.query.QueryConstants;
+import com.salesforce.phoenix.util.SchemaUtil;
+
+public class PackedStorageTest extends BaseHBaseManagedTimeTest {
+
+    private static void initTable(Connection conn) throws SQLException {
+        conn.createStatement().execute("CREATE TABLE packedTest (k VARCHAR NOT NULL PRIMARY KEY, i INTEGER, l BIGINT, c CHAR(2), v VARCHAR, b.d DECIMAL) STORAGE=PACKED");
+        PreparedStatement stmt = conn.prepareStatement("UPSERT INTO packedTest VALUES(?,?,?,?,?,?)");
+        for (int i = 1; i <= 3; i++) {
+            stmt.setString(1, "k" + i);
+            stmt.setInt(2, i);
+            stmt.setLong(3, i * 100L);
+            stmt.setString(4, "c" + i);
+            stmt.setString(5, "value" + i);
+            stmt.setInt(6, i * 10);
+            stmt.execute();
+        }
+        conn.commit();
+    }
+
+    @Test
+    public void testPackedCells() throws Exception {
+        Connection conn = DriverManager.getConnection(getUrl());
+        try {
+            initTable(conn);
+            HTableInterface htable = conn.unwrap(PhoenixConnection.class).getQueryServices().getTable(SchemaUtil.getTableName(Bytes.toBytes("PACKEDTEST")));
+            ResultScanner scanner = htable.getScanner(new Scan());
+            try {
+                int rowCount = 0;
+                for (Result result = scanner.next(); result != null; result = scanner.next()) {
+                    // Empty key value plus one packed key value per column family
+                    assertEquals(3, result.size());
+                    for (KeyValue kv : result.raw()) {
+                        assertTrue(Bytes.equals(kv.getQualifier(), QueryConstants.PACKED_COLUMN_BYTES) || Bytes.equals(kv.getQualifier(), QueryConstants.EMPTY_COLUMN_BYTES));
+                    }
+                    rowCount++;
+                }
+                assertEquals(3, rowCount);
+            } finally {
+                scanner.close();
+                htable.close();
+            }
+        } finally {
+            conn.close();
+        }
+    }
+
+    @Test
+    public void testQueryPackedColumns() throws Exception {
+        Connection conn = DriverManager.getConnection(getUrl());
+        try {
+            initTable(conn);
+            ResultSet rs = conn.createStatement().executeQuery("SELECT k, i, l, c, v, d FROM packedTest WHERE l > 100 AND v < 'value9'");
+            for (int i = 2; i <= 3; i++) {
+                assertTrue(rs.next());
+                assertEquals("k" + i, rs.getString(1));
+                assertEquals(i, rs.getInt(2));
+                assertEquals(i * 100L, rs.getLong(3));
+                assertEquals("c" + i, rs.getString(4));
+                assertEquals("value" + i, rs.getString(5));
+                assertEquals(i * 10, rs.getInt(6));
+            }
+            assertFalse(rs.next());
+
+            rs = conn.createStatement().executeQuery("SELECT k FROM packedTest WHERE d = 10");
+            assertTrue(rs.next());
+            assertEquals("k1", rs.getString(1));
+            assertFalse(rs.next());
+
+            rs = conn.createStatement().executeQuery("SELECT SUM(i), MAX(v) FROM packedTest");
+            assertTrue(rs.next());
+            assertEquals(6, rs.getInt(1));
+            assertEquals("value3", rs.getString(2));
+            assertFalse(rs.next());
+
+            // Only the packed key values of the families being upserted are written
+            conn.createStatement().execute("UPSERT INTO packedTest(k, d) VALUES('k1', 11)");
+            conn.commit();
+            rs = conn.createStatement().executeQuery("SELECT i, l, c, v, d FROM packedTest WHERE k = 'k1'");
+            assertTrue(rs.next());
+            assertEquals(1, rs.getInt(1));
+            assertEquals(100L, rs.getLong(2));
+            assertEquals("c1", rs.getString(3));
+            assertEquals("value1", rs.getString(4));
+            assertEquals(11, rs.getInt(5));
+            assertFalse(rs.next());
+        } finally {
+            conn.close();
+        }
+    }
+
+    @Test
+    public void testUpsertPartOfPackedFamily() throws Exception {
+        Connection conn = DriverManager.getConnection(getUrl());
+        try {
+            initTable(conn);
+            try {
+                conn.createStatement().execute("UPSERT INTO packedTest(k, v) VALUES('k1', 'other')");
+                fail();
+            } catch (SQLException e) {
+                assertEquals(SQLExceptionCode.PACKED_FAMILY_PARTIALLY_SET.getErrorCode(), e.getErrorCode());
+            }
+            try {
+                conn.createStatement().execute("UPSERT INTO packedTest(k, i, l, c) SELECT k, i, l, c FROM packedTest");
+                fail();
+            } catch (SQLException e) {
+                assertEquals(SQLExceptionCode.PACKED_FAMILY_PARTIALLY_SET.getErrorCode(), e.getErrorCode());
+            }
+            // Nulls may be upserted explicitly
+            conn.createStatement().execute("UPSERT INTO packedTest(k, i, l, c, v) VALUES('k1', null, null, null, 'other')");
+            conn.commit();
+            ResultSet rs = conn.createStatement().executeQuery("SELECT i, l, c, v, d FROM packedTest WHERE k = 'k1'");
+            assertTrue(rs.next());
+            assertNull(rs.getObject(1));
+            assertNull(rs.getObject(2));
+            assertNull(rs.getObject(3));
+            assertEquals("other", rs.getString(4));
+            assertEquals(10, rs.getInt(5));
+            assertFalse(rs.next());
+        } finally {
+            conn.close();
+        }
+    }
+
+    @Test
+    public void testAlterPackedTable() throws Exception {
+        Connection conn = DriverManager.getConnection(getUrl());
+        try {
+            initTable(conn);
+            try {
+                conn.createStatement().execute("ALTER TABLE packedTest ADD extra INTEGER");
+                fail();
+            } catch (SQLException e) {
+                assertEquals(SQLExceptionCode.CANNOT_ALTER_PACKED_TABLE.getErrorCode(), e.getErrorCode());
+            }
+            try {
+                conn.createStatement().execute("ALTER TABLE packedTest DROP COLUMN v");
+                fail();
+            } catch (SQLException e) {
+                assertEquals(SQLExceptionCode.CANNOT_ALTER_PACKED_TABLE.getErrorCode(), e.getErrorCode());
+            }
+        } finally {
+            conn.close();
+        }
+    }
+
+    @Test
+    public void testInvalidStorage() throws Exception {
+        Connection conn = DriverManager.getConnection(getUrl());
+        try {
+            conn.createStatement().execute("CREATE TABLE badStorage (k VARCHAR NOT NULL PRIMARY KEY, v VARCHAR) STORAGE=ROWS");
+            fail();
+        } catch (SQLException e) {
+            assertEquals(SQLExceptionCode.INVALID_STORAGE_SCHEME.getErrorCode(), e.getErrorCode());
+        } finally {
+            conn.close();
+        }
+    }
+}
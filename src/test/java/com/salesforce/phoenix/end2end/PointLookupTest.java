@@ -0,0 +1,143 @@
+/*******************************************************************************
+ * Copyright (c) 2013, Salesforce.com, Inc.
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     Redistributions of source code must retain the above copyright notice,
+ *     this list of conditions and the following disclaimer.
+ *     Redistributions in binary form must reproduce the above copyright notice,
+ *     this list of conditions and the following disclaimer in the documentation
+ *     and/or other materials provided with the distribution.
+ *     Neither the name of Salesforce.com nor the names of its contributors may 
+ *     be used to endorse or promote products derived from this software without 
+ *     specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE 
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL 
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR 
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER 
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, 
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE 
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package com.salesforce.phoenix.end2end;
+
+import static org.junit.Assert.*;
+
+import java.sql.*;
+
+import org.junit.Test;
+
+public class PointLookupTest extends BaseHBaseManagedTimeTest {
+    
+    private static void initTable(Connection conn) throws SQLException {
+        String ddl = "CREATE TABLE IF NOT EXISTS lookupTest (" + 
+                     "  k1 VARCHAR NOT NULL, k2 INTEGER NOT NULL, v VARCHAR CONSTRAINT pk PRIMARY KEY (k1,k2)) SPLIT ON ('b','c')";
+        conn.createStatement().executeUpdate(ddl);
+        PreparedStatement stmt = conn.prepareStatement("UPSERT INTO lookupTest VALUES(?,?,?)");
+        for (String k1 : new String[] {"a","b","c","d"}) {
+            for (int k2 = 1; k2 <= 3; k2++) {
+                stmt.setString(1, k1);
+                stmt.setInt(2, k2);
+                stmt.setString(3, k1 + k2);
+                stmt.execute();
+            }
+        }
+        conn.commit();
+    }
+    
+    private static String getPlan(Connection conn, String query) throws SQLException {
+        ResultSet rs = conn.createStatement().executeQuery("EXPLAIN " + query);
+        StringBuilder buf = new StringBuilder();
+        while (rs.next()) {
+            buf.append(rs.getString(1));
+            buf.append('\n');
+        }
+        return buf.toString();
+    }
+    
+    @Test
+    public void testMultiKeyLookupAcrossRegions() throws Exception {
+        Connection conn = DriverManager.getConnection(getUrl());
+        initTable(conn);
+        try {
+            String query = "SELECT k1,k2,v FROM lookupTest WHERE k1 IN ('d','a','c','x') AND k2 IN (3,1)";
+            assertTrue(getPlan(conn, query).startsWith("CLIENT POINT LOOKUP ON 8 KEYS OVER LOOKUPTEST"));
+            ResultSet rs = conn.createStatement().executeQuery(query);
+            String[] expected = new String[] {"a1","a3","c1","c3","d1","d3"};
+            for (String v : expected) {
+                assertTrue(rs.next());
+                assertEquals(v, rs.getString(3));
+                assertEquals(v.substring(0,1), rs.getString(1));
+                assertEquals(Integer.parseInt(v.substring(1)), rs.getInt(2));
+            }
+            assertFalse(rs.next());
+        } finally {
+            conn.close();
+        }
+    }
+    
+    @Test
+    public void testSingleKeyLookup() throws Exception {
+        Connection conn = DriverManager.getConnection(getUrl());
+        initTable(conn);
+        try {
+            String query = "SELECT v FROM lookupTest WHERE k1 = 'b' AND k2 = 2";
+            assertTrue(getPlan(conn, query).startsWith("CLIENT POINT LOOKUP ON 1 KEY OVER LOOKUPTEST"));
+            ResultSet rs = conn.createStatement().executeQuery(query);
+            assertTrue(rs.next());
+            assertEquals("b2", rs.getString(1));
+            assertFalse(rs.next());
+            
+            rs = conn.createStatement().executeQuery("SELECT v FROM lookupTest WHERE k1 = 'b' AND k2 = 4");
+            assertFalse(rs.next());
+        } finally {
+            conn.close();
+        }
+    }
+    
+    @Test
+    public void testLookupWithFilterAndLimit() throws Exception {
+        Connection conn = DriverManager.getConnection(getUrl());
+        initTable(conn);
+        try {
+            String query = "SELECT v FROM lookupTest WHERE k1 IN ('a','b','c') AND k2 IN (1,2) AND v != 'a2' LIMIT 3";
+            String plan = getPlan(conn, query);
+            assertTrue(plan.startsWith("CLIENT 3 ROW LIMIT POINT LOOKUP ON 6 KEYS OVER LOOKUPTEST"));
+            assertTrue(plan.contains("SERVER FILTER BY V != 'a2'"));
+            ResultSet rs = conn.createStatement().executeQuery(query);
+            assertTrue(rs.next());
+            assertEquals("a1", rs.getString(1));
+            assertTrue(rs.next());
+            assertEquals("b1", rs.getString(1));
+            assertTrue(rs.next());
+            assertEquals("b2", rs.getString(1));
+            assertFalse(rs.next());
+        } finally {
+            conn.close();
+        }
+    }
+    
+    @Test
+    public void testLookupWithOrderBy() throws Exception {
+        Connection conn = DriverManager.getConnection(getUrl());
+        initTable(conn);
+        try {
+            String query = "SELECT v FROM lookupTest WHERE k1 IN ('a','d') AND k2 IN (1,2) ORDER BY v DESC LIMIT 10";
+            ResultSet rs = conn.createStatement().executeQuery(query);
+            String[] expected = new String[] {"d2","d1","a2","a1"};
+            for (String v : expected) {
+                assertTrue(rs.next());
+                assertEquals(v, rs.getString(1));
+            }
+            assertFalse(rs.next());
+        } finally {
+            conn.close();
+        }
+    }
+}
@@ -585,6 +585,44 @@ public class QueryExecTest extends BaseClientMangedTimeTest {
         }
     }
 
+    @Test
+    public void testHashPartitionedGroupedAggregation() throws Exception {
+        long ts = nextTimestamp();
+        String tenantId = getOrganizationId();
+        initATableValues(tenantId, getDefaultSplits(tenantId), null, ts);
+        Properties props = new Properties(TEST_PROPERTIES);
+        props.setProperty(PhoenixRuntime.CURRENT_SCN_ATTRIB, Long.toString(ts + 2)); // Execute at timestamp 2
+        props.setProperty(PhoenixRuntime.CLIENT_AGGREGATE_THREADS_ATTRIB, Integer.toString(3));
+        Connection conn = DriverManager.getConnection(PHOENIX_JDBC_URL, props);
+        try {
+            // Without an ORDER BY, the groups are returned in no particular order
+            PreparedStatement statement = conn.prepareStatement("SELECT a_string, count(1) FROM atable WHERE organization_id=? GROUP BY a_string");
+            statement.setString(1, tenantId);
+            ResultSet rs = statement.executeQuery();
+            Map<String,Long> counts = new HashMap<String,Long>();
+            while (rs.next()) {
+                assertNull(counts.put(rs.getString(1), rs.getLong(2)));
+            }
+            assertEquals(3, counts.size());
+            assertEquals(4L, counts.get(A_VALUE).longValue());
+            assertEquals(4L, counts.get(B_VALUE).longValue());
+            assertEquals(1L, counts.get(C_VALUE).longValue());
+            
+            statement = conn.prepareStatement("SELECT a_string, count(1) FROM atable WHERE organization_id=? GROUP BY a_string HAVING count(1) > 1 ORDER BY a_string DESC");
+            statement.setString(1, tenantId);
+            rs = statement.executeQuery();
+            assertTrue(rs.next());
+            assertEquals(B_VALUE, rs.getString(1));
+            assertEquals(4L, rs.getLong(2));
+            assertTrue(rs.next());
+            assertEquals(A_VALUE, rs.getString(1));
+            assertEquals(4L, rs.getLong(2));
+            assertFalse(rs.next());
+        } finally {
+            conn.close();
+        }
+    }
+
     @Test
     public void testGroupedLimitedAggregation() throws Exception {
         long ts = nextTimestamp();
@@ -80,6 +80,15 @@ public class QueryPlanTest extends BaseConnectedQueryTest {
                 "    SERVER FILTER BY FirstKeyOnlyFilter\n" + 
                 "    SERVER AGGREGATE INTO SINGLE ROW",
 
+                "SELECT min(date), max(date) FROM ptsdb WHERE inst='na1' AND host='h1'",
+                "CLIENT MIN/MAX KEY SEEK OVER PTSDB 'na1','h1'\n" +
+                "    CLIENT AGGREGATE INTO SINGLE ROW",
+
+                "SELECT max(date) FROM ptsdb WHERE inst='na1' AND host='h1' AND val > 0",
+                "CLIENT PARALLEL 1-WAY RANGE SCAN OVER PTSDB 'na1','h1'\n" +
+                "    SERVER FILTER BY VAL > 0\n" +
+                "    SERVER AGGREGATE INTO SINGLE ROW",
+
                 "SELECT a_string FROM atable WHERE organization_id='000000000000001' AND SUBSTR(entity_id,1,3) > '002' AND SUBSTR(entity_id,1,3) <= '003'",
                 "CLIENT PARALLEL 1-WAY RANGE SCAN OVER ATABLE '000000000000001',['003'-'004')",
 
@@ -115,7 +124,7 @@ public class QueryPlanTest extends BaseConnectedQueryTest {
                 "CLIENT SORT BY [B_STRING asc nulls first]",
 
                 "SELECT a_string,b_string FROM atable WHERE organization_id = '000000000000001' AND entity_id = '000000000000002' AND x_integer = 2 AND a_integer < 5 ",
-                "CLIENT PARALLEL 1-WAY RANGE SCAN OVER ATABLE '000000000000001','000000000000002'\n" + 
+                "CLIENT POINT LOOKUP ON 1 KEY OVER ATABLE '000000000000001','000000000000002'\n" + 
                 "    SERVER FILTER BY (X_INTEGER = 2 AND A_INTEGER < 5)",
 
                 "SELECT a_string,b_string FROM atable WHERE organization_id = '000000000000001' AND entity_id != '000000000000002' AND x_integer = 2 AND a_integer < 5 LIMIT 10",
@@ -140,7 +149,7 @@ public class QueryPlanTest extends BaseConnectedQueryTest {
                 "CLIENT PARALLEL 1-WAY SKIP SCAN ON 2 KEYS OVER ATABLE '000000000000001'...'000000000000005'",
 
                 "SELECT a_string,b_string FROM atable WHERE organization_id IN ('00D000000000001', '00D000000000005') AND entity_id IN('00E00000000000X','00E00000000000Z')",
-                "CLIENT PARALLEL 1-WAY SKIP SCAN ON 4 KEYS OVER ATABLE '00D000000000001'...'00D000000000005','00E00000000000X'...'00E00000000000Z'",
+                "CLIENT POINT LOOKUP ON 4 KEYS OVER ATABLE '00D000000000001'...'00D000000000005','00E00000000000X'...'00E00000000000Z'",
         };
         for (int i = 0; i < queryPlans.length; i+=2) {
             String query = queryPlans[i];
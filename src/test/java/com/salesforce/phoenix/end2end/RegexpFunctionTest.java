@@ -0,0 +1,96 @@
+/*******************************************************************************
+ * Copyright (c) 2013, Salesforce.com, Inc.
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     Redistributions of source code must retain the above copyright notice,
+ *     this list of conditions and the following disclaimer.
+ *     Redistributions in binary form must reproduce the above copyright notice,
+ *     this list of conditions and the following disclaimer in the documentation
+ *     and/or other materials provided with the distribution.
+ *     Neither the name of Salesforce.com nor the names of its contributors may 
+ *     be used to endorse or promote products derived from this software without 
+ *     specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE 
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL 
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR 
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER 
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, 
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE 
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package com.salesforce.phoenix.end2end;
+
+import static org.junit.Assert.*;
+
+import java.sql.*;
+
+import org.junit.Test;
+
+public class RegexpFunctionTest extends BaseHBaseManagedTimeTest {
+
+    private static void initTable(Connection conn) throws SQLException {
+        conn.createStatement().execute("CREATE TABLE regexpTest (k VARCHAR NOT NULL PRIMARY KEY, v VARCHAR)");
+        PreparedStatement stmt = conn.prepareStatement("UPSERT INTO regexpTest VALUES(?,?)");
+        String[] values = {"na11-app5-26-sjl", "ĎďĒĕĜĞ", "abc 123 def 45"};
+        for (int i = 0; i < values.length; i++) {
+            stmt.setString(1, "k" + (i + 1));
+            stmt.setString(2, values[i]);
+            stmt.execute();
+        }
+        conn.commit();
+    }
+
+    private static void assertKeys(Connection conn, String query, String... keys) throws SQLException {
+        ResultSet rs = conn.createStatement().executeQuery(query);
+        for (String key : keys) {
+            assertTrue(rs.next());
+            assertEquals(key, rs.getString(1));
+        }
+        assertFalse(rs.next());
+    }
+
+    @Test
+    public void testRegexpFunctionsInFilter() throws Exception {
+        Connection conn = DriverManager.getConnection(getUrl());
+        try {
+            initTable(conn);
+            assertKeys(conn, "SELECT k FROM regexpTest WHERE REGEXP_SUBSTR(v, '[^-]+') = 'na11'", "k1");
+            assertKeys(conn, "SELECT k FROM regexpTest WHERE REGEXP_SUBSTR(v, '[^-]+', 6) = 'app5'", "k1");
+            assertKeys(conn, "SELECT k FROM regexpTest WHERE REGEXP_SUBSTR(v, '[Ď-ě]+', 3) = 'Ēĕ'", "k2");
+            assertKeys(conn, "SELECT k FROM regexpTest WHERE REGEXP_SUBSTR(v, '\\\\d+') = '123'", "k3");
+            assertKeys(conn, "SELECT k FROM regexpTest WHERE REGEXP_REPLACE(v, '[0-9]+', '#') = 'abc # def #'", "k3");
+            assertKeys(conn, "SELECT k FROM regexpTest WHERE REGEXP_REPLACE(v, 'ĕ', 'e') = 'ĎďĒeĜĞ'", "k2");
+            assertKeys(conn, "SELECT k FROM regexpTest WHERE REGEXP_REPLACE(v, 'x') = v", "k1", "k2", "k3");
+        } finally {
+            conn.close();
+        }
+    }
+
+    @Test
+    public void testRegexpFunctionsInGroupBy() throws Exception {
+        Connection conn = DriverManager.getConnection(getUrl());
+        try {
+            initTable(conn);
+            ResultSet rs = conn.createStatement().executeQuery("SELECT REGEXP_REPLACE(v, '[^a-z]', ''), count(1) FROM regexpTest GROUP BY REGEXP_REPLACE(v, '[^a-z]', '')");
+            assertTrue(rs.next());
+            assertNull(rs.getString(1));
+            assertEquals(1, rs.getLong(2));
+            assertTrue(rs.next());
+            assertEquals("abcdef", rs.getString(1));
+            assertEquals(1, rs.getLong(2));
+            assertTrue(rs.next());
+            assertEquals("naappsjl", rs.getString(1));
+            assertEquals(1, rs.getLong(2));
+            assertFalse(rs.next());
+        } finally {
+            conn.close();
+        }
+    }
+}
@@ -0,0 +1,255 @@
+/*******************************************************************************
+ * Copyright (c) 2013, Salesforce.com, Inc.
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     Redistributions of source code must retain the above copyright notice,
+ *     this list of conditions and the following disclaimer.
+ *     Redistributions in binary form must reproduce the above copyright notice,
+ *     this list of conditions and the following disclaimer in the documentation
+ *     and/or other materials provided with the distribution.
+ *     Neither the name of Salesforce.com nor the names of its contributors may 
+ *     be used to endorse or promote products derived from this software without 
+ *     specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE 
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL 
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR 
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER 
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, 
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE 
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package com.salesforce.phoenix.end2end;
+
+import static org.junit.Assert.*;
+
+import java.sql.*;
+
+import org.junit.Test;
+
+public class RowKeyMinMaxTest extends BaseHBaseManagedTimeTest {
+    
+    private static void initTable(Connection conn, String tableName, String pkConstraint) throws SQLException {
+        String ddl = "CREATE TABLE IF NOT EXISTS " + tableName + " (" + 
+                     "  k1 VARCHAR NOT NULL, k2 INTEGER NOT NULL, v VARCHAR CONSTRAINT pk PRIMARY KEY " + pkConstraint + ") SPLIT ON ('b','c')";
+        conn.createStatement().executeUpdate(ddl);
+        PreparedStatement stmt = conn.prepareStatement("UPSERT INTO " + tableName + " VALUES(?,?,?)");
+        for (String k1 : new String[] {"a","b","c","d"}) {
+            for (int k2 = 1; k2 <= 3; k2++) {
+                stmt.setString(1, k1);
+                stmt.setInt(2, k2);
+                stmt.setString(3, k1 + k2);
+                stmt.execute();
+            }
+        }
+        conn.commit();
+    }
+    
+    private static final String LONG_PREFIX = "abcdefghijklmnopqrstuvw";
+
+    private static void initLongKeyTable(Connection conn, String tableName, String pkConstraint) throws SQLException {
+        // The prefix is longer than the length estimated for a VARCHAR row key column
+        String ddl = "CREATE TABLE IF NOT EXISTS " + tableName + " (" + 
+                     "  k1 VARCHAR NOT NULL, k2 VARCHAR NOT NULL, v VARCHAR CONSTRAINT pk PRIMARY KEY " + pkConstraint + ") SPLIT ON ('" + LONG_PREFIX + "')";
+        conn.createStatement().executeUpdate(ddl);
+        PreparedStatement stmt = conn.prepareStatement("UPSERT INTO " + tableName + " VALUES(?,?,?)");
+        for (String k1 : new String[] {LONG_PREFIX.substring(0, 22), LONG_PREFIX, LONG_PREFIX + "x"}) {
+            for (String k2 : new String[] {"a","b","c"}) {
+                stmt.setString(1, k1);
+                stmt.setString(2, k2);
+                stmt.setString(3, k1 + k2);
+                stmt.execute();
+            }
+        }
+        conn.commit();
+    }
+    
+    private static String getPlan(Connection conn, String query) throws SQLException {
+        ResultSet rs = conn.createStatement().executeQuery("EXPLAIN " + query);
+        StringBuilder buf = new StringBuilder();
+        while (rs.next()) {
+            buf.append(rs.getString(1));
+            buf.append('\n');
+        }
+        return buf.toString();
+    }
+    
+    @Test
+    public void testMinMaxWithinPrefix() throws Exception {
+        Connection conn = DriverManager.getConnection(getUrl());
+        initTable(conn, "minMaxTest", "(k1,k2)");
+        try {
+            String query = "SELECT MIN(k2), MAX(k2) FROM minMaxTest WHERE k1 = 'b'";
+            assertTrue(getPlan(conn, query).startsWith("CLIENT MIN/MAX KEY SEEK OVER MINMAXTEST 'b'"));
+            ResultSet rs = conn.createStatement().executeQuery(query);
+            assertTrue(rs.next());
+            assertEquals(1, rs.getInt(1));
+            assertEquals(3, rs.getInt(2));
+            assertFalse(rs.next());
+            
+            rs = conn.createStatement().executeQuery("SELECT MIN(k2), MAX(k2) FROM minMaxTest WHERE k1 = 'c' AND k2 > 1");
+            assertTrue(rs.next());
+            assertEquals(2, rs.getInt(1));
+            assertEquals(3, rs.getInt(2));
+            assertFalse(rs.next());
+        } finally {
+            conn.close();
+        }
+    }
+    
+    @Test
+    public void testMinMaxAcrossRegions() throws Exception {
+        Connection conn = DriverManager.getConnection(getUrl());
+        initTable(conn, "minMaxTest", "(k1,k2)");
+        try {
+            String query = "SELECT MAX(k1), MIN(k1) FROM minMaxTest";
+            assertTrue(getPlan(conn, query).startsWith("CLIENT MIN/MAX KEY SEEK OVER MINMAXTEST"));
+            ResultSet rs = conn.createStatement().executeQuery(query);
+            assertTrue(rs.next());
+            assertEquals("d", rs.getString(1));
+            assertEquals("a", rs.getString(2));
+            assertFalse(rs.next());
+            
+            // Force the seek for the last row to step back over the empty last region
+            conn.createStatement().execute("DELETE FROM minMaxTest WHERE k1 >= 'c'");
+            conn.commit();
+            rs = conn.createStatement().executeQuery(query);
+            assertTrue(rs.next());
+            assertEquals("b", rs.getString(1));
+            assertEquals("a", rs.getString(2));
+            assertFalse(rs.next());
+        } finally {
+            conn.close();
+        }
+    }
+    
+    @Test
+    public void testMinMaxOfEmptyRange() throws Exception {
+        Connection conn = DriverManager.getConnection(getUrl());
+        initTable(conn, "minMaxTest", "(k1,k2)");
+        try {
+            ResultSet rs = conn.createStatement().executeQuery("SELECT MIN(k2), MAX(k2) FROM minMaxTest WHERE k1 = 'bb'");
+            assertTrue(rs.next());
+            assertNull(rs.getObject(1));
+            assertNull(rs.getObject(2));
+            assertFalse(rs.next());
+        } finally {
+            conn.close();
+        }
+    }
+    
+    @Test
+    public void testMinMaxOfDescColumn() throws Exception {
+        Connection conn = DriverManager.getConnection(getUrl());
+        initTable(conn, "minMaxDescTest", "(k1,k2 DESC)");
+        try {
+            String query = "SELECT MIN(k2), MAX(k2) FROM minMaxDescTest WHERE k1 = 'd'";
+            assertTrue(getPlan(conn, query).startsWith("CLIENT MIN/MAX KEY SEEK OVER MINMAXDESCTEST 'd'"));
+            ResultSet rs = conn.createStatement().executeQuery(query);
+            assertTrue(rs.next());
+            assertEquals(1, rs.getInt(1));
+            assertEquals(3, rs.getInt(2));
+            assertFalse(rs.next());
+        } finally {
+            conn.close();
+        }
+    }
+    
+    @Test
+    public void testMinMaxWithinLongPrefix() throws Exception {
+        Connection conn = DriverManager.getConnection(getUrl());
+        initLongKeyTable(conn, "minMaxLongTest", "(k1,k2)");
+        try {
+            String query = "SELECT MIN(k2), MAX(k2) FROM minMaxLongTest WHERE k1 = '" + LONG_PREFIX + "'";
+            assertTrue(getPlan(conn, query).startsWith("CLIENT MIN/MAX KEY SEEK OVER MINMAXLONGTEST"));
+            ResultSet rs = conn.createStatement().executeQuery(query);
+            assertTrue(rs.next());
+            assertEquals("a", rs.getString(1));
+            assertEquals("c", rs.getString(2));
+            assertFalse(rs.next());
+            
+            // The last row of the range is in the region before the one starting with the prefix
+            rs = conn.createStatement().executeQuery("SELECT MIN(k2), MAX(k2) FROM minMaxLongTest WHERE k1 = '" + LONG_PREFIX.substring(0, 22) + "'");
+            assertTrue(rs.next());
+            assertEquals("a", rs.getString(1));
+            assertEquals("c", rs.getString(2));
+            assertFalse(rs.next());
+        } finally {
+            conn.close();
+        }
+    }
+    
+    @Test
+    public void testMinMaxOfDescColumnWithinLongPrefix() throws Exception {
+        Connection conn = DriverManager.getConnection(getUrl());
+        initLongKeyTable(conn, "minMaxLongDescTest", "(k1,k2 DESC)");
+        try {
+            // The minimum is in the last row, since k2 is stored in descending order
+            String query = "SELECT MIN(k2), MAX(k2) FROM minMaxLongDescTest WHERE k1 = '" + LONG_PREFIX + "'";
+            assertTrue(getPlan(conn, query).startsWith("CLIENT MIN/MAX KEY SEEK OVER MINMAXLONGDESCTEST"));
+            ResultSet rs = conn.createStatement().executeQuery(query);
+            assertTrue(rs.next());
+            assertEquals("a", rs.getString(1));
+            assertEquals("c", rs.getString(2));
+            assertFalse(rs.next());
+            
+            conn.createStatement().execute("DELETE FROM minMaxLongDescTest WHERE k1 = '" + LONG_PREFIX + "' AND k2 = 'a'");
+            conn.commit();
+            rs = conn.createStatement().executeQuery(query);
+            assertTrue(rs.next());
+            assertEquals("b", rs.getString(1));
+            assertEquals("c", rs.getString(2));
+            assertFalse(rs.next());
+        } finally {
+            conn.close();
+        }
+    }
+    
+    @Test
+    public void testMaxOfRowExtendingPreviousKey() throws Exception {
+        Connection conn = DriverManager.getConnection(getUrl());
+        conn.createStatement().executeUpdate("CREATE TABLE IF NOT EXISTS minMaxPrefixTest (k VARCHAR NOT NULL PRIMARY KEY, v VARCHAR)");
+        PreparedStatement stmt = conn.prepareStatement("UPSERT INTO minMaxPrefixTest VALUES(?,?)");
+        for (String k : new String[] {"aa","aab","ab"}) {
+            stmt.setString(1, k);
+            stmt.setString(2, k);
+            stmt.execute();
+        }
+        conn.commit();
+        try {
+            // The previous key of 'ab' is 'aa', which 'aab' extends
+            String query = "SELECT MAX(k), MIN(k) FROM minMaxPrefixTest WHERE k < 'ab'";
+            assertTrue(getPlan(conn, query).startsWith("CLIENT MIN/MAX KEY SEEK OVER MINMAXPREFIXTEST"));
+            ResultSet rs = conn.createStatement().executeQuery(query);
+            assertTrue(rs.next());
+            assertEquals("aab", rs.getString(1));
+            assertEquals("aa", rs.getString(2));
+            assertFalse(rs.next());
+        } finally {
+            conn.close();
+        }
+    }
+    
+    @Test
+    public void testMinMaxWithFilter() throws Exception {
+        Connection conn = DriverManager.getConnection(getUrl());
+        initTable(conn, "minMaxTest", "(k1,k2)");
+        try {
+            String query = "SELECT MIN(k2), MAX(k2) FROM minMaxTest WHERE k1 = 'a' AND v <> 'a1'";
+            assertFalse(getPlan(conn, query).startsWith("CLIENT MIN/MAX KEY SEEK"));
+            ResultSet rs = conn.createStatement().executeQuery(query);
+            assertTrue(rs.next());
+            assertEquals(2, rs.getInt(1));
+            assertEquals(3, rs.getInt(2));
+            assertFalse(rs.next());
+        } finally {
+            conn.close();
+        }
+    }
+}
@@ -144,6 +144,17 @@ public class SaltedTableTest extends BaseClientMangedTimeTest {
         } finally {
             conn.close();
         }
+        conn = DriverManager.getConnection(url, props);
+        try {
+            String query = "create table salted_table (a_integer integer not null CONSTRAINT pk PRIMARY KEY (a_integer)) SALT_BUCKETS = foo";
+            PreparedStatement stmt = conn.prepareStatement(query);
+            stmt.execute();
+            fail("Should have caught exception");
+        } catch (SQLException e) {
+            assertTrue(e.getMessage(), e.getMessage().contains("ERROR 1021 (42Y80): Salt bucket numbers should be with 1 and 256."));
+        } finally {
+            conn.close();
+        }
     }
 
     @Test
@@ -160,16 +171,16 @@ public class SaltedTableTest extends BaseClientMangedTimeTest {
             ResultSet rs = statement.executeQuery();
             
             assertTrue(rs.next());
-            assertEquals(3, rs.getInt(1));
-            assertEquals("abc", rs.getString(2));
+            assertEquals(1, rs.getInt(1));
+            assertEquals("ab", rs.getString(2));
             assertEquals("123", rs.getString(3));
-            assertEquals("ghi", rs.getString(4));
-            assertEquals(333, rs.getInt(5));
+            assertEquals("abc", rs.getString(4));
+            assertEquals(111, rs.getInt(5));
             
             assertTrue(rs.next());
             assertEquals(1, rs.getInt(1));
-            assertEquals("ab", rs.getString(2));
-            assertEquals("123", rs.getString(3));
+            assertEquals("abc", rs.getString(2));
+            assertEquals("456", rs.getString(3));
             assertEquals("abc", rs.getString(4));
             assertEquals(111, rs.getInt(5));
             
@@ -188,18 +199,18 @@ public class SaltedTableTest extends BaseClientMangedTimeTest {
             assertEquals(222, rs.getInt(5));
             
             assertTrue(rs.next());
-            assertEquals(4, rs.getInt(1));
+            assertEquals(3, rs.getInt(1));
             assertEquals("abc", rs.getString(2));
             assertEquals("123", rs.getString(3));
-            assertEquals("jkl", rs.getString(4));
-            assertEquals(444, rs.getInt(5));
+            assertEquals("ghi", rs.getString(4));
+            assertEquals(333, rs.getInt(5));
             
             assertTrue(rs.next());
-            assertEquals(1, rs.getInt(1));
+            assertEquals(4, rs.getInt(1));
             assertEquals("abc", rs.getString(2));
-            assertEquals("456", rs.getString(3));
-            assertEquals("abc", rs.getString(4));
-            assertEquals(111, rs.getInt(5));
+            assertEquals("123", rs.getString(3));
+            assertEquals("jkl", rs.getString(4));
+            assertEquals(444, rs.getInt(5));
             
             assertFalse(rs.next());
         } finally {
@@ -272,13 +283,6 @@ public class SaltedTableTest extends BaseClientMangedTimeTest {
             stmt = conn.prepareStatement(query);
             rs = stmt.executeQuery();
             
-            assertTrue(rs.next());
-            assertEquals(3, rs.getInt(1));
-            assertEquals("abc", rs.getString(2));
-            assertEquals("123", rs.getString(3));
-            assertEquals("ghi", rs.getString(4));
-            assertEquals(333, rs.getInt(5));
-            
             assertTrue(rs.next());
             assertEquals(1, rs.getInt(1));
             assertEquals("de", rs.getString(2));
@@ -293,6 +297,13 @@ public class SaltedTableTest extends BaseClientMangedTimeTest {
             assertEquals("def", rs.getString(4));
             assertEquals(222, rs.getInt(5));
             
+            assertTrue(rs.next());
+            assertEquals(3, rs.getInt(1));
+            assertEquals("abc", rs.getString(2));
+            assertEquals("123", rs.getString(3));
+            assertEquals("ghi", rs.getString(4));
+            assertEquals(333, rs.getInt(5));
+            
             assertTrue(rs.next());
             assertEquals(4, rs.getInt(1));
             assertEquals("abc", rs.getString(2));
@@ -307,18 +318,18 @@ public class SaltedTableTest extends BaseClientMangedTimeTest {
             stmt = conn.prepareStatement(query);
             rs = stmt.executeQuery();
             assertTrue(rs.next());
-            assertEquals(3, rs.getInt(1));
+            assertEquals(2, rs.getInt(1));
             assertEquals("abc", rs.getString(2));
             assertEquals("123", rs.getString(3));
-            assertEquals("ghi", rs.getString(4));
-            assertEquals(333, rs.getInt(5));
+            assertEquals("def", rs.getString(4));
+            assertEquals(222, rs.getInt(5));
             
             assertTrue(rs.next());
-            assertEquals(2, rs.getInt(1));
+            assertEquals(3, rs.getInt(1));
             assertEquals("abc", rs.getString(2));
             assertEquals("123", rs.getString(3));
-            assertEquals("def", rs.getString(4));
-            assertEquals(222, rs.getInt(5));
+            assertEquals("ghi", rs.getString(4));
+            assertEquals(333, rs.getInt(5));
             assertFalse(rs.next());
             
             // fixed length slot with unbound ranges.
@@ -327,18 +338,18 @@ public class SaltedTableTest extends BaseClientMangedTimeTest {
             stmt = conn.prepareStatement(query);
             rs = stmt.executeQuery();
             assertTrue(rs.next());
-            assertEquals(3, rs.getInt(1));
+            assertEquals(2, rs.getInt(1));
             assertEquals("abc", rs.getString(2));
             assertEquals("123", rs.getString(3));
-            assertEquals("ghi", rs.getString(4));
-            assertEquals(333, rs.getInt(5));
+            assertEquals("def", rs.getString(4));
+            assertEquals(222, rs.getInt(5));
             
             assertTrue(rs.next());
-            assertEquals(2, rs.getInt(1));
+            assertEquals(3, rs.getInt(1));
             assertEquals("abc", rs.getString(2));
             assertEquals("123", rs.getString(3));
-            assertEquals("def", rs.getString(4));
-            assertEquals(222, rs.getInt(5));
+            assertEquals("ghi", rs.getString(4));
+            assertEquals(333, rs.getInt(5));
             
             assertTrue(rs.next());
             assertEquals(4, rs.getInt(1));
@@ -395,18 +406,18 @@ public class SaltedTableTest extends BaseClientMangedTimeTest {
             stmt = conn.prepareStatement(query);
             rs = stmt.executeQuery();
             assertTrue(rs.next());
-            assertEquals(3, rs.getInt(1));
+            assertEquals(2, rs.getInt(1));
             assertEquals("abc", rs.getString(2));
             assertEquals("123", rs.getString(3));
-            assertEquals("ghi", rs.getString(4));
-            assertEquals(333, rs.getInt(5));
+            assertEquals("def", rs.getString(4));
+            assertEquals(222, rs.getInt(5));
             
             assertTrue(rs.next());
-            assertEquals(2, rs.getInt(1));
+            assertEquals(3, rs.getInt(1));
             assertEquals("abc", rs.getString(2));
             assertEquals("123", rs.getString(3));
-            assertEquals("def", rs.getString(4));
-            assertEquals(222, rs.getInt(5));
+            assertEquals("ghi", rs.getString(4));
+            assertEquals(333, rs.getInt(5));
             
             assertTrue(rs.next());
             assertEquals(4, rs.getInt(1));
@@ -436,4 +447,89 @@ public class SaltedTableTest extends BaseClientMangedTimeTest {
             conn.close();
         }
     }
+
+    @Test
+    public void testSelectWithLimitAndGroupBy() throws Exception {
+        long ts = nextTimestamp();
+        String url = PHOENIX_JDBC_URL + ";" + PhoenixRuntime.CURRENT_SCN_ATTRIB + "=" + (ts + 5);
+        Properties props = new Properties(TEST_PROPERTIES);
+        Connection conn = DriverManager.getConnection(url, props);
+        try {
+            initTableValues(splits, ts);
+            
+            // Rows come back in row key order across salt buckets
+            String query = "SELECT a_integer, a_string FROM " + TABLE_WITH_SALTING + " LIMIT 3";
+            PreparedStatement stmt = conn.prepareStatement(query);
+            ResultSet rs = stmt.executeQuery();
+            assertTrue(rs.next());
+            assertEquals(1, rs.getInt(1));
+            assertEquals("ab", rs.getString(2));
+            assertTrue(rs.next());
+            assertEquals(1, rs.getInt(1));
+            assertEquals("abc", rs.getString(2));
+            assertTrue(rs.next());
+            assertEquals(1, rs.getInt(1));
+            assertEquals("de", rs.getString(2));
+            assertFalse(rs.next());
+            
+            query = "SELECT a_integer, count(1) FROM " + TABLE_WITH_SALTING + " GROUP BY a_integer";
+            stmt = conn.prepareStatement(query);
+            rs = stmt.executeQuery();
+            assertTrue(rs.next());
+            assertEquals(1, rs.getInt(1));
+            assertEquals(3, rs.getLong(2));
+            for (int i = 2; i <= 4; i++) {
+                assertTrue(rs.next());
+                assertEquals(i, rs.getInt(1));
+                assertEquals(1, rs.getLong(2));
+            }
+            assertFalse(rs.next());
+            
+            query = "SELECT a_integer, count(1) FROM " + TABLE_WITH_SALTING + " GROUP BY a_integer LIMIT 2";
+            stmt = conn.prepareStatement(query);
+            rs = stmt.executeQuery();
+            assertTrue(rs.next());
+            assertEquals(1, rs.getInt(1));
+            assertEquals(3, rs.getLong(2));
+            assertTrue(rs.next());
+            assertEquals(2, rs.getInt(1));
+            assertEquals(1, rs.getLong(2));
+            assertFalse(rs.next());
+        } finally {
+            conn.close();
+        }
+    }
+
+    @Test
+    public void testSelectWithLargeInLists() throws Exception {
+        long ts = nextTimestamp();
+        String url = PHOENIX_JDBC_URL + ";" + PhoenixRuntime.CURRENT_SCN_ATTRIB + "=" + (ts + 5);
+        Properties props = new Properties(TEST_PROPERTIES);
+        Connection conn = DriverManager.getConnection(url, props);
+        try {
+            initTableValues(splits, ts);
+            // The IN lists form 200 * 100 * 500 point keys, too many to materialize
+            StringBuilder integers = new StringBuilder("1");
+            for (int i = 2; i <= 200; i++) {
+                integers.append(',').append(i);
+            }
+            StringBuilder strings = new StringBuilder("'ab','abc','de'");
+            for (int i = 3; i < 100; i++) {
+                strings.append(",'s").append(i).append('\'');
+            }
+            StringBuilder ids = new StringBuilder("'123','456'");
+            for (int i = 2; i < 500; i++) {
+                ids.append(",'").append(498 + i).append('\'');
+            }
+            String query = "SELECT count(1), sum(b_integer) FROM " + TABLE_WITH_SALTING + 
+                    " WHERE a_integer IN (" + integers + ") AND a_string IN (" + strings + ") AND a_id IN (" + ids + ")";
+            ResultSet rs = conn.createStatement().executeQuery(query);
+            assertTrue(rs.next());
+            assertEquals(6, rs.getLong(1));
+            assertEquals(111 * 3 + 222 + 333 + 444, rs.getLong(2));
+            assertFalse(rs.next());
+        } finally {
+            conn.close();
+        }
+    }
 }
@@ -0,0 +1,151 @@
+/*******************************************************************************
+ * Copyright (c) 2013, Salesforce.com, Inc.
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     Redistributions of source code must retain the above copyright notice,
+ *     this list of conditions and the following disclaimer.
+ *     Redistributions in binary form must reproduce the above copyright notice,
+ *     this list of conditions and the following disclaimer in the documentation
+ *     and/or other materials provided with the distribution.
+ *     Neither the name of Salesforce.com nor the names of its contributors may 
+ *     be used to endorse or promote products derived from this software without 
+ *     specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE 
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL 
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR 
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER 
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, 
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE 
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package com.salesforce.phoenix.end2end;
+
+import static org.junit.Assert.*;
+
+import java.math.BigDecimal;
+import java.sql.*;
+import java.util.Properties;
+
+import org.junit.Test;
+
+import com.salesforce.phoenix.util.PhoenixRuntime;
+
+public class ServerProjectionTest extends BaseHBaseManagedTimeTest {
+    
+    private static Connection getServerProjectionConnection() throws SQLException {
+        Properties props = new Properties();
+        props.setProperty(PhoenixRuntime.SERVER_PROJECTION_ATTRIB, Boolean.TRUE.toString());
+        return DriverManager.getConnection(getUrl(), props);
+    }
+    
+    private static void initTable(Connection conn) throws SQLException {
+        String ddl = "CREATE TABLE IF NOT EXISTS projectionTest (" + 
+                     "  k1 CHAR(3) NOT NULL, k2 INTEGER NOT NULL, a.i INTEGER, a.s VARCHAR, b.c CHAR(2), b.d DECIMAL, b.l BIGINT" +
+                     "  CONSTRAINT pk PRIMARY KEY (k1,k2))";
+        conn.createStatement().executeUpdate(ddl);
+        PreparedStatement stmt = conn.prepareStatement("UPSERT INTO projectionTest VALUES(?,?,?,?,?,?,?)");
+        for (int k2 = 1; k2 <= 20; k2++) {
+            stmt.setString(1, "abc");
+            stmt.setInt(2, k2);
+            if (k2 % 2 == 0) {
+                stmt.setInt(3, k2 * 10);
+                stmt.setString(4, "s" + k2);
+                stmt.setString(5, "cc");
+            } else {
+                stmt.setNull(3, Types.INTEGER);
+                stmt.setNull(4, Types.VARCHAR);
+                stmt.setNull(5, Types.CHAR);
+            }
+            stmt.setBigDecimal(6, BigDecimal.valueOf(k2));
+            stmt.setLong(7, Long.MAX_VALUE - k2);
+            stmt.execute();
+        }
+        conn.commit();
+    }
+    
+    @Test
+    public void testProjectionOfColumnsAndExpressions() throws Exception {
+        Connection conn = getServerProjectionConnection();
+        initTable(conn);
+        try {
+            ResultSet rs = conn.createStatement().executeQuery("SELECT k2, k1, i, s, c, d, l, i + k2, LENGTH(s) FROM projectionTest WHERE d > 3");
+            for (int k2 = 4; k2 <= 20; k2++) {
+                assertTrue(rs.next());
+                assertEquals(k2, rs.getInt(1));
+                assertEquals("abc", rs.getString(2));
+                if (k2 % 2 == 0) {
+                    assertEquals(k2 * 10, rs.getInt(3));
+                    assertEquals("s" + k2, rs.getString(4));
+                    assertEquals("cc", rs.getString(5));
+                    assertEquals(k2 * 11, rs.getInt(8));
+                    assertEquals(Integer.toString(k2).length() + 1, rs.getInt(9));
+                } else {
+                    assertNull(rs.getObject(3));
+                    assertNull(rs.getString(4));
+                    assertNull(rs.getString(5));
+                    assertNull(rs.getObject(8));
+                    assertNull(rs.getObject(9));
+                }
+                assertEquals(0, BigDecimal.valueOf(k2).compareTo(rs.getBigDecimal(6)));
+                assertEquals(Long.MAX_VALUE - k2, rs.getLong(7));
+            }
+            assertFalse(rs.next());
+        } finally {
+            conn.close();
+        }
+    }
+    
+    @Test
+    public void testProjectionWithLimitAndWildcard() throws Exception {
+        Connection conn = getServerProjectionConnection();
+        initTable(conn);
+        try {
+            ResultSet rs = conn.createStatement().executeQuery("SELECT * FROM projectionTest LIMIT 3");
+            for (int k2 = 1; k2 <= 3; k2++) {
+                assertTrue(rs.next());
+                assertEquals("abc", rs.getString("K1"));
+                assertEquals(k2, rs.getInt("K2"));
+                assertEquals(Long.MAX_VALUE - k2, rs.getLong("L"));
+            }
+            assertFalse(rs.next());
+        } finally {
+            conn.close();
+        }
+    }
+    
+    @Test
+    public void testProjectionOfRepeatedSubexpressions() throws Exception {
+        Connection conn = getServerProjectionConnection();
+        initTable(conn);
+        try {
+            String select = "SELECT k2, CASE WHEN i + k2 > 100 THEN i + k2 ELSE 0 - (i + k2) END, LENGTH(s) + LENGTH(s) FROM projectionTest WHERE i + k2 > 50 AND i + k2 < 200";
+            // Projected on the server
+            ResultSet rs = conn.createStatement().executeQuery(select);
+            for (int k2 = 6; k2 <= 18; k2 += 2) {
+                assertTrue(rs.next());
+                assertEquals(k2, rs.getInt(1));
+                assertEquals(k2 >= 10 ? k2 * 11 : -k2 * 11, rs.getInt(2));
+                assertEquals(2 * ("s" + k2).length(), rs.getInt(3));
+            }
+            assertFalse(rs.next());
+            // Projected on the client, which also evaluates the ORDER BY
+            rs = conn.createStatement().executeQuery(select + " ORDER BY i + k2 DESC LIMIT 10");
+            for (int k2 = 18; k2 >= 6; k2 -= 2) {
+                assertTrue(rs.next());
+                assertEquals(k2, rs.getInt(1));
+                assertEquals(k2 >= 10 ? k2 * 11 : -k2 * 11, rs.getInt(2));
+                assertEquals(2 * ("s" + k2).length(), rs.getInt(3));
+            }
+            assertFalse(rs.next());
+        } finally {
+            conn.close();
+        }
+    }
+}
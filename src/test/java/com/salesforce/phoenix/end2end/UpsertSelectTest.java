@@ -142,6 +142,88 @@ public class UpsertSelectTest extends BaseClientMangedTimeTest {
         conn.close();
     }
 
+    @Test
+    public void testUpsertSelectAcrossTablesOnClient() throws Exception {
+        long ts = nextTimestamp();
+        String tenantId = getOrganizationId();
+        initATableValues(tenantId, getDefaultSplits(tenantId), null, ts-1);
+        ensureTableCreated(PHOENIX_JDBC_URL, CUSTOM_ENTITY_DATA_FULL_NAME, ts-1);
+        Properties props = new Properties();
+        props.setProperty(PhoenixRuntime.CURRENT_SCN_ATTRIB, Long.toString(ts + 1));
+        Connection conn = DriverManager.getConnection(PHOENIX_JDBC_URL, props);
+        conn.setAutoCommit(true);
+        String upsert = "UPSERT INTO " + CUSTOM_ENTITY_DATA_FULL_NAME + "(custom_entity_data_id, key_prefix, organization_id, created_by) " +
+            "SELECT substr(entity_id, 4), substr(entity_id, 1, 3), organization_id, a_string  FROM ATABLE WHERE organization_id = '" + tenantId + "'";
+        // The region servers only write rows through the region they scan,
+        // so the rows of another table are upserted from the client
+        ResultSet rs = conn.createStatement().executeQuery("EXPLAIN " + upsert);
+        assertTrue(rs.next());
+        assertEquals("UPSERT SELECT", rs.getString(1));
+        assertEquals(9, conn.createStatement().executeUpdate(upsert));
+        conn.close();
+        
+        props.setProperty(PhoenixRuntime.CURRENT_SCN_ATTRIB, Long.toString(ts + 2));
+        conn = DriverManager.getConnection(PHOENIX_JDBC_URL, props);
+        rs = conn.createStatement().executeQuery("SELECT count(*), count(created_by) FROM " + CUSTOM_ENTITY_DATA_FULL_NAME + " WHERE organization_id = '" + tenantId + "'");
+        assertTrue(rs.next());
+        assertEquals(9, rs.getLong(1));
+        assertEquals(9, rs.getLong(2));
+        assertFalse(rs.next());
+        conn.close();
+    }
+
+    @Test
+    public void testDeferredUpsertSelect() throws Exception {
+        long ts = nextTimestamp();
+        Properties props = new Properties();
+        props.setProperty(PhoenixRuntime.CURRENT_SCN_ATTRIB, Long.toString(ts));
+        Connection conn = DriverManager.getConnection(PHOENIX_JDBC_URL, props);
+        conn.createStatement().execute("CREATE TABLE DeferredUpsertSelect (k BIGINT NOT NULL PRIMARY KEY, v BIGINT)");
+        conn.close();
+        
+        props.setProperty(PhoenixRuntime.CURRENT_SCN_ATTRIB, Long.toString(ts + 1));
+        conn = DriverManager.getConnection(PHOENIX_JDBC_URL, props);
+        conn.createStatement().execute("UPSERT INTO DeferredUpsertSelect VALUES(1,10)");
+        conn.createStatement().execute("UPSERT INTO DeferredUpsertSelect VALUES(2,20)");
+        conn.commit();
+        conn.close();
+        
+        props.setProperty(PhoenixRuntime.CURRENT_SCN_ATTRIB, Long.toString(ts + 2));
+        props.setProperty(PhoenixRuntime.DEFER_SERVER_MUTATIONS_ATTRIB, Boolean.TRUE.toString());
+        conn = DriverManager.getConnection(PHOENIX_JDBC_URL, props);
+        conn.setAutoCommit(false);
+        // Upserted before the UPSERT SELECT, so copied by it
+        conn.createStatement().execute("UPSERT INTO DeferredUpsertSelect VALUES(3,30)");
+        String upsert = "UPSERT INTO DeferredUpsertSelect SELECT k + 100, v + 1 FROM DeferredUpsertSelect WHERE k < 100";
+        ResultSet rs = conn.createStatement().executeQuery("EXPLAIN " + upsert);
+        assertTrue(rs.next());
+        assertEquals("UPSERT ROWS", rs.getString(1));
+        // The rows are only known once the statement runs on the server at commit time
+        assertEquals(0, conn.createStatement().executeUpdate(upsert));
+        // Upserted after the UPSERT SELECT, so not copied by it
+        conn.createStatement().execute("UPSERT INTO DeferredUpsertSelect VALUES(4,40)");
+        
+        rs = conn.createStatement().executeQuery("SELECT count(*) FROM DeferredUpsertSelect");
+        assertTrue(rs.next());
+        assertEquals(2, rs.getInt(1));
+        conn.commit();
+        conn.close();
+        
+        // The rows before the UPSERT SELECT, its rows and the rows after it are written at
+        // successive time stamps
+        props.setProperty(PhoenixRuntime.CURRENT_SCN_ATTRIB, Long.toString(ts + 5));
+        conn = DriverManager.getConnection(PHOENIX_JDBC_URL, props);
+        rs = conn.createStatement().executeQuery("SELECT k, v FROM DeferredUpsertSelect");
+        int[][] expectedRows = new int[][] {{1,10}, {2,20}, {3,30}, {4,40}, {101,11}, {102,21}, {103,31}};
+        for (int[] expectedRow : expectedRows) {
+            assertTrue(rs.next());
+            assertEquals(expectedRow[0], rs.getLong(1));
+            assertEquals(expectedRow[1], rs.getLong(2));
+        }
+        assertFalse(rs.next());
+        conn.close();
+    }
+
     // TODO: more tests - nullable fixed length last PK column
     @Test
     public void testUpsertSelectEmptyPKColumn() throws Exception {
@@ -0,0 +1,124 @@
+package com.salesforce.phoenix.expression;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.filter.CompareFilter.CompareOp;
+import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import com.salesforce.phoenix.schema.*;
+import com.salesforce.phoenix.schema.tuple.SingleKeyValueTuple;
+import com.salesforce.phoenix.schema.tuple.Tuple;
+
+/**
+ * Measures the rows per second filtered by the comparison of an integral column against a
+ * constant, as in query 5 of performance.sh (WHERE CORE<10), and against a descending row
+ * key column. The generic run hides the constant from the comparison, so that it's evaluated
+ * and compared through PDataType.compareTo for every row, as comparisons used to be. The
+ * specialized run compares the decoded column value against the constant decoded up front.
+ */
+public class ComparisonExpressionBenchmark {
+    private static final int ROWS = 1000000;
+    private static final int RUNS = 10;
+    private static final byte[] CF = Bytes.toBytes("USAGE");
+    private static final byte[] CQ = Bytes.toBytes("CORE");
+
+    /**
+     * Evaluates to the value of a literal without being one
+     */
+    private static class HiddenConstantExpression extends BaseTerminalExpression {
+        private final LiteralExpression literal;
+
+        private HiddenConstantExpression(LiteralExpression literal) {
+            this.literal = literal;
+        }
+
+        @Override
+        public boolean evaluate(Tuple tuple, ImmutableBytesWritable ptr) {
+            return literal.evaluate(tuple, ptr);
+        }
+
+        @Override
+        public PDataType getDataType() {
+            return literal.getDataType();
+        }
+
+        @Override
+        public void readFields(DataInput input) throws IOException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void write(DataOutput output) throws IOException {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static Expression newColumnExpression() {
+        return new KeyValueColumnExpression(new PColumnImpl(new PNameImpl("CORE"), new PNameImpl("USAGE"), PDataType.LONG, null, null, true, 1, null));
+    }
+
+    private static Expression newDescRowKeyColumnExpression() {
+        List<PColumn> columns = Arrays.<PColumn>asList(
+                new PColumnImpl(new PNameImpl("K"), null, PDataType.LONG, null, null, false, 0, ColumnModifier.SORT_DESC));
+        return new RowKeyColumnExpression(columns.get(0), new RowKeyValueAccessor(columns, 0));
+    }
+
+    private static Expression newComparison(Expression lhs, long value, boolean isSpecialized) throws Exception {
+        LiteralExpression rhs = LiteralExpression.newConstant(value, PDataType.LONG);
+        return new ComparisonExpression(CompareOp.LESS, Arrays.<Expression>asList(lhs, isSpecialized ? rhs : new HiddenConstantExpression(rhs)));
+    }
+
+    private static Tuple[] newRows() {
+        Tuple[] rows = new Tuple[ROWS];
+        for (int i = 0; i < rows.length; i++) {
+            byte[] key = ColumnModifier.SORT_DESC.apply(PDataType.LONG.toBytes(i % 1000), new byte[PDataType.LONG.getByteSize()], 0, PDataType.LONG.getByteSize());
+            rows[i] = new SingleKeyValueTuple(new KeyValue(key, CF, CQ, 0, PDataType.LONG.toBytes(i % 20)));
+        }
+        return rows;
+    }
+
+    private static long filter(Expression expression, Tuple[] rows) {
+        long count = 0;
+        ImmutableBytesWritable ptr = new ImmutableBytesWritable();
+        for (Tuple row : rows) {
+            if (expression.evaluate(row, ptr) && Boolean.TRUE.equals(PDataType.BOOLEAN.toObject(ptr))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Tuple[] rows = newRows();
+        String[] names = new String[] {"CORE<10", "K<500 (DESC)"};
+        Expression[][] comparisons = new Expression[][] {
+                {newComparison(newColumnExpression(), 10, false), newComparison(newColumnExpression(), 10, true)},
+                {newComparison(newDescRowKeyColumnExpression(), 500, false), newComparison(newDescRowKeyColumnExpression(), 500, true)}};
+        // Warm up
+        for (int i = 0; i < RUNS; i++) {
+            for (Expression[] pair : comparisons) {
+                filter(pair[0], rows);
+                filter(pair[1], rows);
+            }
+        }
+        for (int i = 0; i < comparisons.length; i++) {
+            for (int j = 0; j < 2; j++) {
+                long count = 0;
+                long start = System.nanoTime();
+                for (int k = 0; k < RUNS; k++) {
+                    count += filter(comparisons[i][j], rows);
+                }
+                long elapsed = System.nanoTime() - start;
+                long nRows = (long)ROWS * RUNS;
+                System.out.println(names[i] + " " + (j == 0 ? "generic" : "specialized") + ": "
+                        + (long)(nRows / (elapsed / 1e9)) + " rows/sec (" + count + ")");
+            }
+        }
+    }
+}
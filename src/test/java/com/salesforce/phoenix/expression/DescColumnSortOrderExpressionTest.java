@@ -28,6 +28,7 @@
 package com.salesforce.phoenix.expression;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 import java.math.BigDecimal;
@@ -123,7 +124,28 @@ public class DescColumnSortOrderExpressionTest {
         List<Expression> args = Lists.newArrayList(getInvertedLiteral("blah", PDataType.CHAR));
         evaluateAndAssertResult(new LengthFunction(args), 4);
     }
-    
+
+    @Test
+    public void multiByteChars() throws Exception {
+        List<Expression> args = Lists.newArrayList(getInvertedLiteral("ĎďĒblah", PDataType.VARCHAR), getLiteral(3), getLiteral(2));
+        evaluateAndAssertResult(new SubstrFunction(args), "Ēb");
+        args = Lists.newArrayList(getLiteral("ĎďĒblah", PDataType.VARCHAR), getLiteral(3), getLiteral(10));
+        evaluateAndAssertResult(new SubstrFunction(args), "Ēblah");
+        args = Lists.newArrayList(getInvertedLiteral("ĎďĒblah", PDataType.VARCHAR), getLiteral(-5), getLiteral(2));
+        evaluateAndAssertResult(new SubstrFunction(args), "Ēb");
+        args = Lists.newArrayList(getLiteral("ĎďĒ", PDataType.VARCHAR), getLiteral(4), getLiteral(1));
+        assertFalse(new SubstrFunction(args).evaluate(null, new ImmutableBytesWritable()));
+
+        args = Lists.newArrayList(getInvertedLiteral("ĎďĒ", PDataType.VARCHAR));
+        evaluateAndAssertResult(new LengthFunction(args), 3);
+        args = Lists.newArrayList(getInvertedLiteral("ĕaB", PDataType.VARCHAR));
+        evaluateAndAssertResult(new UpperFunction(args), "ĔAB");
+        args = Lists.newArrayList(getLiteral("ĔaB", PDataType.VARCHAR));
+        evaluateAndAssertResult(new LowerFunction(args), "ĕab");
+        args = Lists.newArrayList(getLiteral("BLAH", PDataType.VARCHAR));
+        evaluateAndAssertResult(new UpperFunction(args), "BLAH");
+    }
+
     @Test
     public void round() throws Exception {
         List<Expression> args = Lists.newArrayList(getInvertedLiteral(date(12, 11, 2001), PDataType.DATE), getLiteral("hour"), getLiteral(1));
@@ -188,7 +210,20 @@ public class DescColumnSortOrderExpressionTest {
             }
         }
     }
-    
+
+    @Test
+    public void compareSignedNumbers() throws Exception {
+        PDataType[] numberDataTypes = new PDataType[]{PDataType.INTEGER, PDataType.LONG};
+        for (PDataType lhsDataType : numberDataTypes) {
+            for (PDataType rhsDataType : numberDataTypes) {
+                runCompareTest(CompareOp.LESS, true, -10, lhsDataType, 2, rhsDataType);
+                runCompareTest(CompareOp.GREATER_OR_EQUAL, true, 2, lhsDataType, -10, rhsDataType);
+                runCompareTest(CompareOp.EQUAL, true, -10, lhsDataType, -10, rhsDataType);
+                runCompareTest(CompareOp.NOT_EQUAL, false, -10, lhsDataType, -10, rhsDataType);
+            }
+        }
+    }
+
     @Test
     public void compareCharacters() throws Exception {
         PDataType[] textDataTypes = new PDataType[]{PDataType.CHAR, PDataType.VARCHAR};
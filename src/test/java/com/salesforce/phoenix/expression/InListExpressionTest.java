@@ -0,0 +1,104 @@
+/*******************************************************************************
+ * Copyright (c) 2013, Salesforce.com, Inc.
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     Redistributions of source code must retain the above copyright notice,
+ *     this list of conditions and the following disclaimer.
+ *     Redistributions in binary form must reproduce the above copyright notice,
+ *     this list of conditions and the following disclaimer in the documentation
+ *     and/or other materials provided with the distribution.
+ *     Neither the name of Salesforce.com nor the names of its contributors may 
+ *     be used to endorse or promote products derived from this software without 
+ *     specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE 
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL 
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR 
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER 
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, 
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE 
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package com.salesforce.phoenix.expression;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.concurrent.*;
+
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Test;
+
+import com.salesforce.phoenix.schema.PDataType;
+import com.salesforce.phoenix.schema.tuple.SingleKeyValueTuple;
+import com.salesforce.phoenix.schema.tuple.Tuple;
+
+public class InListExpressionTest {
+    private static final int ITERATIONS = 200000;
+    
+    /**
+     * Evaluates to the row key
+     */
+    private static class RowKeyExpression extends BaseTerminalExpression {
+        @Override
+        public boolean evaluate(Tuple tuple, ImmutableBytesWritable ptr) {
+            tuple.getKey(ptr);
+            return true;
+        }
+
+        @Override
+        public PDataType getDataType() {
+            return PDataType.VARCHAR;
+        }
+    }
+    
+    private static Tuple newTuple(String row) {
+        return new SingleKeyValueTuple(new KeyValue(Bytes.toBytes(row), Bytes.toBytes("a"), Bytes.toBytes("b"), Bytes.toBytes(0L)));
+    }
+    
+    private static Callable<Boolean> newEvaluator(final Expression expression, final Tuple tuple, final boolean expected, final CyclicBarrier barrier) {
+        return new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception {
+                ImmutableBytesWritable ptr = new ImmutableBytesWritable();
+                barrier.await();
+                for (int i = 0; i < ITERATIONS; i++) {
+                    assertTrue(expression.evaluate(tuple, ptr));
+                    if (!Boolean.valueOf(expected).equals(PDataType.BOOLEAN.toObject(ptr))) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        };
+    }
+    
+    @Test
+    public void testCopiesEvaluatedInterleaved() throws Exception {
+        InListExpression in = new InListExpression(Arrays.<Expression>asList(new RowKeyExpression(),
+                LiteralExpression.newConstant("a", PDataType.VARCHAR), LiteralExpression.newConstant("b", PDataType.VARCHAR), LiteralExpression.newConstant("c", PDataType.VARCHAR)));
+        Expression copy1 = in.copy();
+        Expression copy2 = in.copy();
+        assertNotSame(copy1, copy2);
+        
+        // Each copy is evaluated by its own thread, as by two scans of a region
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Boolean> future1 = executor.submit(newEvaluator(copy1, newTuple("b"), true, barrier));
+            Future<Boolean> future2 = executor.submit(newEvaluator(copy2, newTuple("x"), false, barrier));
+            assertTrue(future1.get());
+            assertTrue(future2.get());
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
@@ -27,13 +27,13 @@
  ******************************************************************************/
 package com.salesforce.phoenix.expression;
 
-import static org.junit.Assert.assertEquals;
-import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.*;
 
 import java.util.Arrays;
 import java.util.List;
 
 import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
+import org.apache.hadoop.hbase.util.Bytes;
 import org.junit.Test;
 
 public class LikeExpressionTest {
@@ -50,4 +50,62 @@ public class LikeExpressionTest {
         assertEquals(Boolean.FALSE,result);
     }
 
+    private static boolean like(String value, String pattern) {
+        LikeExpression e = new LikeExpression(Arrays.<Expression>asList(LiteralExpression.newConstant(value), LiteralExpression.newConstant(pattern)));
+        ImmutableBytesWritable ptr = new ImmutableBytesWritable();
+        assertTrue(e.evaluate(null, ptr));
+        return (Boolean)e.getDataType().toObject(ptr);
+    }
+
+    @Test
+    public void testMultiCharWildcards() throws Exception {
+        assertTrue(like("abc", "abc"));
+        assertFalse(like("abcd", "abc"));
+        assertTrue(like("abcd", "abc%"));
+        assertFalse(like("xabcd", "abc%"));
+        assertTrue(like("xabc", "%abc"));
+        assertFalse(like("abcx", "%abc"));
+        assertTrue(like("xxabcxx", "%abc%"));
+        assertTrue(like("abc", "%abc%"));
+        assertFalse(like("abxc", "%abc%"));
+        assertTrue(like("", "%"));
+        assertTrue(like("anything", "%%"));
+        assertTrue(like("ab-cd-ef", "ab%cd%ef"));
+        assertFalse(like("abef", "ab%ef%ef"));
+        assertFalse(like("abc", "abc%bc"));
+        assertTrue(like("abcbc", "abc%bc"));
+        assertTrue(like("50% off", "50\\%%"));
+        assertFalse(like("500 off", "50\\%%"));
+        assertTrue(like("line\nbreak", "line%break"));
+    }
+
+    @Test
+    public void testSingleCharWildcards() throws Exception {
+        assertTrue(like("abc", "a_c"));
+        assertFalse(like("ac", "a_c"));
+        assertFalse(like("abbc", "a_c"));
+        assertTrue(like("a\u00e9c", "a_c"));
+        assertTrue(like("\u4e2d\u6587", "__"));
+        assertFalse(like("\u4e2d\u6587", "_"));
+        assertTrue(like("a_c", "a\\_c"));
+        assertFalse(like("abc", "a\\_c"));
+    }
+
+    @Test
+    public void testMixedWildcards() throws Exception {
+        assertTrue(like("abcdef", "a_c%f"));
+        assertFalse(like("abcdef", "a_d%f"));
+        assertTrue(like("x\ny", "x_%"));
+    }
+
+    @Test
+    public void testMatcherOffset() throws Exception {
+        byte[] b = Bytes.toBytes("xxhello worldxx");
+        assertTrue(LikeMatcher.compile("hello%").matches(b, 2, 11));
+        assertTrue(LikeMatcher.compile("%world").matches(b, 2, 11));
+        assertFalse(LikeMatcher.compile("%worldx").matches(b, 2, 11));
+        assertTrue(LikeMatcher.compile("%o w%").matches(b, 2, 11));
+        assertFalse(LikeMatcher.compile("%dx%").matches(b, 2, 11));
+        assertTrue(LikeMatcher.compile("h___o_w___d").matches(b, 2, 11));
+    }
 }
@@ -0,0 +1,175 @@
+/*******************************************************************************
+ * Copyright (c) 2013, Salesforce.com, Inc.
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     Redistributions of source code must retain the above copyright notice,
+ *     this list of conditions and the following disclaimer.
+ *     Redistributions in binary form must reproduce the above copyright notice,
+ *     this list of conditions and the following disclaimer in the documentation
+ *     and/or other materials provided with the distribution.
+ *     Neither the name of Salesforce.com nor the names of its contributors may 
+ *     be used to endorse or promote products derived from this software without 
+ *     specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE 
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL 
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR 
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER 
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, 
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE 
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package com.salesforce.phoenix.expression;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Test;
+
+import com.salesforce.phoenix.expression.visitor.ExpressionVisitor;
+import com.salesforce.phoenix.schema.PDataType;
+import com.salesforce.phoenix.schema.tuple.SingleKeyValueTuple;
+import com.salesforce.phoenix.schema.tuple.Tuple;
+
+public class MemoizedExpressionTest {
+    private static final byte[] CF = Bytes.toBytes("a");
+    private static final byte[] CQ = Bytes.toBytes("b");
+    
+    /**
+     * Evaluates to the row key followed by its child, counting how many times it's evaluated
+     */
+    private static class RowKeyPrefixExpression extends BaseCompoundExpression {
+        private int evaluateCount;
+        
+        private RowKeyPrefixExpression(String suffix) {
+            super(Arrays.<Expression>asList(LiteralExpression.newConstant(suffix)));
+        }
+
+        @Override
+        public boolean evaluate(Tuple tuple, ImmutableBytesWritable ptr) {
+            evaluateCount++;
+            tuple.getKey(ptr);
+            byte[] key = ptr.copyBytes();
+            children.get(0).evaluate(tuple, ptr);
+            ptr.set(Bytes.add(key, ptr.copyBytes()));
+            return true;
+        }
+
+        @Override
+        public PDataType getDataType() {
+            return PDataType.VARCHAR;
+        }
+
+        @Override
+        public <T> T accept(ExpressionVisitor<T> visitor) {
+            return null;
+        }
+    }
+    
+    private static Tuple newTuple(String row) {
+        return new SingleKeyValueTuple(new KeyValue(Bytes.toBytes(row), CF, CQ, Bytes.toBytes(0L)));
+    }
+    
+    private static String evaluate(Expression expression, Tuple tuple) {
+        ImmutableBytesWritable ptr = new ImmutableBytesWritable();
+        assertTrue(expression.evaluate(tuple, ptr));
+        return (String)PDataType.VARCHAR.toObject(ptr);
+    }
+    
+    @Test
+    public void testRepeatedSubexpressionEvaluatedOncePerRow() throws Exception {
+        RowKeyPrefixExpression prefix1 = new RowKeyPrefixExpression("x");
+        RowKeyPrefixExpression prefix2 = new RowKeyPrefixExpression("x");
+        Expression concat1 = new StringConcatExpression(Arrays.<Expression>asList(prefix1, LiteralExpression.newConstant("1")));
+        Expression concat2 = new StringConcatExpression(Arrays.<Expression>asList(LiteralExpression.newConstant("2"), prefix2));
+        List<Expression> expressions = MemoizedExpression.memoize(Arrays.asList(concat1, concat2));
+        assertSame(concat1, expressions.get(0));
+        assertSame(concat2, expressions.get(1));
+        Expression memo = concat1.getChildren().get(0);
+        assertTrue(memo instanceof MemoizedExpression);
+        assertSame(memo, concat2.getChildren().get(1));
+        
+        Tuple tuple = newTuple("r1");
+        assertEquals("r1x1", evaluate(concat1, tuple));
+        assertEquals("2r1x", evaluate(concat2, tuple));
+        assertEquals(1, prefix1.evaluateCount + prefix2.evaluateCount);
+        
+        // The same tuple holding the next row
+        ((SingleKeyValueTuple)tuple).setKeyValue(new KeyValue(Bytes.toBytes("r2"), CF, CQ, Bytes.toBytes(0L)));
+        assertEquals("r2x1", evaluate(concat1, tuple));
+        assertEquals("2r2x", evaluate(concat2, tuple));
+        assertEquals(2, prefix1.evaluateCount + prefix2.evaluateCount);
+        
+        memo.reset();
+        assertEquals("2r2x", evaluate(concat2, tuple));
+        assertEquals(3, prefix1.evaluateCount + prefix2.evaluateCount);
+    }
+    
+    @Test
+    public void testRepeatedExpressionReplaced() throws Exception {
+        RowKeyPrefixExpression prefix1 = new RowKeyPrefixExpression("x");
+        RowKeyPrefixExpression prefix2 = new RowKeyPrefixExpression("x");
+        RowKeyPrefixExpression prefix3 = new RowKeyPrefixExpression("y");
+        List<Expression> expressions = MemoizedExpression.memoize(Arrays.<Expression>asList(prefix1, prefix2, prefix3));
+        assertTrue(expressions.get(0) instanceof MemoizedExpression);
+        assertSame(expressions.get(0), expressions.get(1));
+        assertSame(prefix3, expressions.get(2));
+        
+        Tuple tuple = newTuple("r1");
+        assertEquals("r1x", evaluate(expressions.get(0), tuple));
+        assertEquals("r1x", evaluate(expressions.get(1), tuple));
+        assertEquals("r1y", evaluate(expressions.get(2), tuple));
+        assertEquals(1, prefix1.evaluateCount + prefix2.evaluateCount);
+    }
+    
+    @Test
+    public void testMemoizedAgainAfterDeserialization() throws Exception {
+        // Each occurrence has its own instance once deserialized
+        Expression concat1 = new StringConcatExpression(Arrays.<Expression>asList(new MemoizedExpression(new RowKeyPrefixExpression("x")), LiteralExpression.newConstant("1")));
+        Expression concat2 = new StringConcatExpression(Arrays.<Expression>asList(new MemoizedExpression(new RowKeyPrefixExpression("x")), LiteralExpression.newConstant("2")));
+        MemoizedExpression.memoize(Arrays.asList(concat1, concat2));
+        assertSame(concat1.getChildren().get(0), concat2.getChildren().get(0));
+        assertFalse(((MemoizedExpression)concat1.getChildren().get(0)).getChild() instanceof MemoizedExpression);
+        
+        // An occurrence that isn't repeated is unwrapped
+        Expression concat3 = new StringConcatExpression(Arrays.<Expression>asList(new MemoizedExpression(new RowKeyPrefixExpression("x")), LiteralExpression.newConstant("3")));
+        MemoizedExpression.memoize(concat3);
+        assertTrue(concat3.getChildren().get(0) instanceof RowKeyPrefixExpression);
+        assertEquals("r1x3", evaluate(concat3, newTuple("r1")));
+    }
+    
+    @Test
+    public void testCopiesShareNoState() throws Exception {
+        Expression concat1 = new StringConcatExpression(Arrays.<Expression>asList(new RowKeyPrefixExpression("x"), LiteralExpression.newConstant("1")));
+        Expression concat2 = new StringConcatExpression(Arrays.<Expression>asList(LiteralExpression.newConstant("2"), new RowKeyPrefixExpression("x")));
+        List<Expression> expressions = MemoizedExpression.memoize(Arrays.asList(concat1, concat2));
+        Expression memo = concat1.getChildren().get(0);
+        
+        // Memoizing the copies has them share a memo of their own
+        List<Expression> copies = MemoizedExpression.memoize(BaseExpression.copy(expressions));
+        Expression copy1 = copies.get(0);
+        Expression copy2 = copies.get(1);
+        assertNotSame(concat1, copy1);
+        Expression copyMemo = copy1.getChildren().get(0);
+        assertTrue(copyMemo instanceof MemoizedExpression);
+        assertSame(copyMemo, copy2.getChildren().get(1));
+        assertNotSame(memo, copyMemo);
+        assertNotSame(((MemoizedExpression)memo).getChild(), ((MemoizedExpression)copyMemo).getChild());
+        
+        assertEquals("r1x1", evaluate(concat1, newTuple("r1")));
+        assertEquals("r2x1", evaluate(copy1, newTuple("r2")));
+        assertEquals("2r2x", evaluate(copy2, newTuple("r2")));
+        assertEquals("r1x1", evaluate(concat1, newTuple("r1")));
+    }
+}
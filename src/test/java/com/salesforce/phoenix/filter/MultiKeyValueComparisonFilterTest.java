@@ -0,0 +1,92 @@
+/*******************************************************************************
+ * Copyright (c) 2013, Salesforce.com, Inc.
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     Redistributions of source code must retain the above copyright notice,
+ *     this list of conditions and the following disclaimer.
+ *     Redistributions in binary form must reproduce the above copyright notice,
+ *     this list of conditions and the following disclaimer in the documentation
+ *     and/or other materials provided with the distribution.
+ *     Neither the name of Salesforce.com nor the names of its contributors may 
+ *     be used to endorse or promote products derived from this software without 
+ *     specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE 
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL 
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR 
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER 
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, 
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE 
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package com.salesforce.phoenix.filter;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.filter.CompareFilter.CompareOp;
+import org.apache.hadoop.hbase.filter.Filter.ReturnCode;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Test;
+
+import com.salesforce.phoenix.expression.*;
+import com.salesforce.phoenix.schema.*;
+
+public class MultiKeyValueComparisonFilterTest {
+    private static final byte[] ROW = Bytes.toBytes("r");
+
+    private static Expression equalTo(String family, String name, long value) throws Exception {
+        Expression column = new KeyValueColumnExpression(new PColumnImpl(new PNameImpl(name), new PNameImpl(family), PDataType.LONG, null, null, true, 1, null));
+        return new ComparisonExpression(CompareOp.EQUAL, Arrays.asList(column, LiteralExpression.newConstant(value, PDataType.LONG)));
+    }
+
+    private static MultiKeyValueComparisonFilter newFilter() throws Exception {
+        // B.Y = 2 AND A.X = 1 AND A.Z = 3
+        return new MultiCFCQKeyValueComparisonFilter(new AndExpression(Arrays.asList(equalTo("B", "Y", 2), equalTo("A", "X", 1), equalTo("A", "Z", 3))));
+    }
+
+    private static KeyValue newKeyValue(String family, String name, long value) {
+        return new KeyValue(ROW, Bytes.toBytes(family), Bytes.toBytes(name), 0, PDataType.LONG.toBytes(value));
+    }
+
+    private static boolean filterRow(MultiKeyValueComparisonFilter filter, KeyValue... row) {
+        filter.reset();
+        for (KeyValue keyValue : row) {
+            if (filter.filterKeyValue(keyValue) == ReturnCode.NEXT_ROW) {
+                break;
+            }
+        }
+        return filter.filterRow();
+    }
+
+    @Test
+    public void testColumnsInOrder() throws Exception {
+        MultiKeyValueComparisonFilter filter = newFilter();
+        assertFalse(filterRow(filter, newKeyValue("A", "W", 0), newKeyValue("A", "X", 1), newKeyValue("A", "Y", 0), newKeyValue("A", "Z", 3), newKeyValue("B", "Y", 2)));
+        assertTrue(filterRow(filter, newKeyValue("A", "X", 1), newKeyValue("A", "Z", 4), newKeyValue("B", "Y", 2)));
+        assertFalse(filterRow(filter, newKeyValue("A", "X", 1), newKeyValue("A", "Z", 3), newKeyValue("B", "Y", 2), newKeyValue("C", "A", 0)));
+    }
+
+    @Test
+    public void testColumnFamiliesOutOfOrder() throws Exception {
+        MultiKeyValueComparisonFilter filter = newFilter();
+        // The key values of each column family are in order, but the column families are not
+        assertFalse(filterRow(filter, newKeyValue("B", "X", 0), newKeyValue("B", "Y", 2), newKeyValue("A", "X", 1), newKeyValue("A", "Y", 0), newKeyValue("A", "Z", 3)));
+        assertTrue(filterRow(filter, newKeyValue("B", "Y", 2), newKeyValue("A", "X", 5), newKeyValue("A", "Z", 3)));
+    }
+
+    @Test
+    public void testMissingColumn() throws Exception {
+        MultiKeyValueComparisonFilter filter = newFilter();
+        assertTrue(filterRow(filter, newKeyValue("A", "X", 1), newKeyValue("A", "Y", 2), newKeyValue("B", "Y", 2)));
+        assertFalse(filterRow(filter, newKeyValue("A", "X", 1), newKeyValue("A", "Z", 3), newKeyValue("B", "Y", 2)));
+    }
+}
@@ -0,0 +1,139 @@
+package com.salesforce.phoenix.filter;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.hadoop.hbase.KeyValue;
+import org.apache.hadoop.hbase.filter.Filter.ReturnCode;
+import org.apache.hadoop.hbase.util.Bytes;
+
+import com.google.common.collect.Lists;
+import com.salesforce.phoenix.query.KeyRange;
+import com.salesforce.phoenix.schema.*;
+import com.salesforce.phoenix.schema.RowKeySchema.RowKeySchemaBuilder;
+
+/**
+ * Measures the seeks per second of a {@link SkipScanFilter} over a single CHAR(8) key slot
+ * with 10, 1k and 100k point keys on every third key. With dense rows, each row in between
+ * the point keys causes a seek to the next one. With sparse rows, on every 100th key, each
+ * seek also lands past many point keys that the filter has to skip.
+ */
+public class SkipScanFilterBenchmark {
+    private static final int KEY_LENGTH = 8;
+    private static final int ROWS_PER_RUN = 3000000;
+    private static final int ROUNDS = 7;
+    private static final int[] RANGE_COUNTS = {10, 1000, 100000};
+    private static final int[] ROW_STEPS = {1, 100};
+
+    private static byte[] toKey(int i) {
+        return Bytes.toBytes(String.format("%0" + KEY_LENGTH + "d", i));
+    }
+
+    private static int fromKey(byte[] buf, int offset) {
+        int value = 0;
+        for (int i = 0; i < KEY_LENGTH; i++) {
+            value = value * 10 + (buf[offset + i] - '0');
+        }
+        return value;
+    }
+
+    private static RowKeySchema newSchema() {
+        return new RowKeySchemaBuilder().setMinNullable(1).addField(new PDatum() {
+
+            @Override
+            public boolean isNullable() {
+                return false;
+            }
+
+            @Override
+            public PDataType getDataType() {
+                return PDataType.CHAR;
+            }
+
+            @Override
+            public Integer getByteSize() {
+                return KEY_LENGTH;
+            }
+
+            @Override
+            public Integer getMaxLength() {
+                return KEY_LENGTH;
+            }
+
+            @Override
+            public Integer getScale() {
+                return null;
+            }
+
+            @Override
+            public ColumnModifier getColumnModifier() {
+                return null;
+            }
+        }).build();
+    }
+
+    /**
+     * Feeds the rows through the filter, seeking to the hint when asked to.
+     * @return the number of seeks
+     */
+    private static long scan(SkipScanFilter filter, KeyValue[] rows, int rowStep) {
+        long seeks = 0;
+        int row = 0;
+        while (row < rows.length && !filter.filterAllRemaining()) {
+            if (filter.filterKeyValue(rows[row]) == ReturnCode.SEEK_NEXT_USING_HINT) {
+                KeyValue hint = filter.getNextKeyHint(rows[row]);
+                row = (fromKey(hint.getBuffer(), hint.getRowOffset()) + rowStep - 1) / rowStep;
+                seeks++;
+            } else {
+                row++;
+            }
+        }
+        return seeks;
+    }
+
+    public static void main(String[] args) {
+        RowKeySchema schema = newSchema();
+        for (int rowStep : ROW_STEPS) {
+            for (int nRanges : RANGE_COUNTS) {
+                // Skip row counts too small to seek
+                if (nRanges * 3 / rowStep > 1) {
+                    run(schema, nRanges, rowStep);
+                }
+            }
+        }
+    }
+
+    private static void run(RowKeySchema schema, int nRanges, int rowStep) {
+        List<KeyRange> ranges = Lists.newArrayListWithExpectedSize(nRanges);
+        for (int i = 0; i < nRanges; i++) {
+            byte[] key = toKey(i * 3);
+            ranges.add(KeyRange.getKeyRange(key, true, key, true));
+        }
+        List<List<KeyRange>> slots = Collections.singletonList(ranges);
+        KeyValue[] rows = new KeyValue[nRanges * 3 / rowStep];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = KeyValue.createFirstOnRow(toKey(i * rowStep));
+        }
+        int runs = Math.max(1, ROWS_PER_RUN / rows.length);
+        // Warm up
+        for (int i = 0; i < runs; i++) {
+            scan(new SkipScanFilter(slots, schema), rows, rowStep);
+        }
+        // Report the median of several rounds, since a single round is easily skewed by GC
+        long[] rates = new long[ROUNDS];
+        long seeks = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            seeks = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < runs; i++) {
+                seeks += scan(new SkipScanFilter(slots, schema), rows, rowStep);
+            }
+            long elapsed = System.nanoTime() - start;
+            rates[round] = (long)(seeks / (elapsed / 1e9));
+        }
+        Arrays.sort(rates);
+        System.out.println(nRanges + " ranges, row every " + rowStep + " keys: " + seeks + " seeks per round, median "
+                + rates[ROUNDS / 2] + " seeks/sec (min " + rates[0] + ", max " + rates[ROUNDS - 1] + ")");
+    }
+}
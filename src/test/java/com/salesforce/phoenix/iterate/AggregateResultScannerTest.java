@@ -29,16 +29,21 @@ package com.salesforce.phoenix.iterate;
 
 import static com.salesforce.phoenix.query.QueryConstants.*;
 import static com.salesforce.phoenix.util.TestUtil.TEST_PROPERTIES;
+import static org.junit.Assert.*;
 
 import java.io.*;
 import java.sql.*;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.apache.hadoop.hbase.KeyValue;
 import org.apache.hadoop.hbase.client.Scan;
+import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
 import org.apache.hadoop.hbase.util.Bytes;
 import org.junit.Test;
 
+import com.google.common.base.Throwables;
 import com.salesforce.phoenix.compile.AggregationManager;
 import com.salesforce.phoenix.compile.StatementContext;
 import com.salesforce.phoenix.expression.Expression;
@@ -47,6 +52,7 @@ import com.salesforce.phoenix.expression.aggregator.ClientAggregators;
 import com.salesforce.phoenix.expression.function.SingleAggregateFunction;
 import com.salesforce.phoenix.expression.function.SumAggregateFunction;
 import com.salesforce.phoenix.jdbc.PhoenixConnection;
+import com.salesforce.phoenix.memory.*;
 import com.salesforce.phoenix.query.BaseConnectionlessQueryTest;
 import com.salesforce.phoenix.schema.*;
 import com.salesforce.phoenix.schema.tuple.SingleKeyValueTuple;
@@ -59,32 +65,11 @@ public class AggregateResultScannerTest extends BaseConnectionlessQueryTest {
     private final static byte[] A = Bytes.toBytes("a");
     private final static byte[] B = Bytes.toBytes("b");
 
-    @Test
-    public void testAggregatingMergeSort() throws Throwable {
-        Tuple[] results1 = new Tuple[] {
-                new SingleKeyValueTuple(new KeyValue(A, SINGLE_COLUMN_FAMILY, SINGLE_COLUMN, PDataType.LONG.toBytes(1L))),
-            };
-        Tuple[] results2 = new Tuple[] {
-                new SingleKeyValueTuple(new KeyValue(B, SINGLE_COLUMN_FAMILY, SINGLE_COLUMN, PDataType.LONG.toBytes(1L)))
-            };
-        Tuple[] results3 = new Tuple[] {
-                new SingleKeyValueTuple(new KeyValue(A, SINGLE_COLUMN_FAMILY, SINGLE_COLUMN, PDataType.LONG.toBytes(1L))),
-                new SingleKeyValueTuple(new KeyValue(B, SINGLE_COLUMN_FAMILY, SINGLE_COLUMN, PDataType.LONG.toBytes(1L))),
-            };
-        Tuple[] results4 = new Tuple[] {
-                new SingleKeyValueTuple(new KeyValue(A, SINGLE_COLUMN_FAMILY, SINGLE_COLUMN, PDataType.LONG.toBytes(1L))),
-            };
-        final List<PeekingResultIterator>results = new ArrayList<PeekingResultIterator>(Arrays.asList(new PeekingResultIterator[] {
-                new MaterializedResultIterator(Arrays.asList(results1)), 
-                new MaterializedResultIterator(Arrays.asList(results2)), 
-                new MaterializedResultIterator(Arrays.asList(results3)), 
-                new MaterializedResultIterator(Arrays.asList(results4))}));
-
-        Tuple[] expectedResults = new Tuple[] {
-                new SingleKeyValueTuple(new KeyValue(A, SINGLE_COLUMN_FAMILY, SINGLE_COLUMN, PDataType.LONG.toBytes(3L))),
-                new SingleKeyValueTuple(new KeyValue(B, SINGLE_COLUMN_FAMILY, SINGLE_COLUMN, PDataType.LONG.toBytes(2L))),
-            };
-
+    private static Tuple newTuple(byte[] key, long value) {
+        return new SingleKeyValueTuple(new KeyValue(key, SINGLE_COLUMN_FAMILY, SINGLE_COLUMN, PDataType.LONG.toBytes(value)));
+    }
+    
+    private static ClientAggregators newAggregators() throws SQLException {
         PhoenixConnection pconn = DriverManager.getConnection(getUrl(), TEST_PROPERTIES).unwrap(PhoenixConnection.class);
         StatementContext context = new StatementContext(pconn, null, Collections.emptyList(), 0, new Scan());
         AggregationManager aggregationManager = context.getAggregationManager();
@@ -115,7 +100,11 @@ public class AggregateResultScannerTest extends BaseConnectionlessQueryTest {
             }
         })), null);
         aggregationManager.setAggregators(new ClientAggregators(Collections.<SingleAggregateFunction>singletonList(func), 1));
-        ResultIterators iterators = new ResultIterators() {
+        return aggregationManager.getAggregators();
+    }
+    
+    private static ResultIterators newIterators(final List<PeekingResultIterator> results) {
+        return new ResultIterators() {
 
             @Override
             public List<PeekingResultIterator> getIterators() throws SQLException {
@@ -132,7 +121,90 @@ public class AggregateResultScannerTest extends BaseConnectionlessQueryTest {
             }
             
         };
-        ResultIterator scanner = new GroupedAggregatingResultIterator(new MergeSortResultIterator(iterators), aggregationManager.getAggregators());
+    }
+    
+    @Test
+    public void testAggregatingMergeSort() throws Throwable {
+        Tuple[] results1 = new Tuple[] {
+                new SingleKeyValueTuple(new KeyValue(A, SINGLE_COLUMN_FAMILY, SINGLE_COLUMN, PDataType.LONG.toBytes(1L))),
+            };
+        Tuple[] results2 = new Tuple[] {
+                new SingleKeyValueTuple(new KeyValue(B, SINGLE_COLUMN_FAMILY, SINGLE_COLUMN, PDataType.LONG.toBytes(1L)))
+            };
+        Tuple[] results3 = new Tuple[] {
+                new SingleKeyValueTuple(new KeyValue(A, SINGLE_COLUMN_FAMILY, SINGLE_COLUMN, PDataType.LONG.toBytes(1L))),
+                new SingleKeyValueTuple(new KeyValue(B, SINGLE_COLUMN_FAMILY, SINGLE_COLUMN, PDataType.LONG.toBytes(1L))),
+            };
+        Tuple[] results4 = new Tuple[] {
+                new SingleKeyValueTuple(new KeyValue(A, SINGLE_COLUMN_FAMILY, SINGLE_COLUMN, PDataType.LONG.toBytes(1L))),
+            };
+        final List<PeekingResultIterator>results = new ArrayList<PeekingResultIterator>(Arrays.asList(new PeekingResultIterator[] {
+                new MaterializedResultIterator(Arrays.asList(results1)), 
+                new MaterializedResultIterator(Arrays.asList(results2)), 
+                new MaterializedResultIterator(Arrays.asList(results3)), 
+                new MaterializedResultIterator(Arrays.asList(results4))}));
+
+        Tuple[] expectedResults = new Tuple[] {
+                new SingleKeyValueTuple(new KeyValue(A, SINGLE_COLUMN_FAMILY, SINGLE_COLUMN, PDataType.LONG.toBytes(3L))),
+                new SingleKeyValueTuple(new KeyValue(B, SINGLE_COLUMN_FAMILY, SINGLE_COLUMN, PDataType.LONG.toBytes(2L))),
+            };
+
+        ResultIterator scanner = new GroupedAggregatingResultIterator(new MergeSortResultIterator(newIterators(results)), newAggregators());
         AssertResults.assertResults(scanner, expectedResults);
     }
+    
+    private static List<PeekingResultIterator> newPartialGroups(int regionCount, int groupCount) {
+        List<PeekingResultIterator> results = new ArrayList<PeekingResultIterator>(regionCount);
+        for (int i = 0; i < regionCount; i++) {
+            List<Tuple> groups = new ArrayList<Tuple>(groupCount);
+            for (int j = 0; j < groupCount; j++) {
+                groups.add(newTuple(Bytes.toBytes(j), 1L));
+            }
+            results.add(new MaterializedResultIterator(groups));
+        }
+        return results;
+    }
+    
+    @Test
+    public void testPartitionedAggregating() throws Throwable {
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            ClientAggregators aggregators = newAggregators();
+            MemoryManager memoryManager = new GlobalMemoryManager(Integer.MAX_VALUE, 0);
+            PartitionedAggregatingResultIterator scanner = new PartitionedAggregatingResultIterator(newIterators(newPartialGroups(4, 100)), aggregators, 3, executor, memoryManager, 60000);
+            Map<Integer,Long> sums = new HashMap<Integer,Long>();
+            ImmutableBytesWritable ptr = new ImmutableBytesWritable();
+            for (Tuple result = scanner.next(); result != null; result = scanner.next()) {
+                aggregators.getAggregators()[0].evaluate(result, ptr);
+                assertNull(sums.put(Bytes.toInt(result.getValue(0).getRow()), (Long)PDataType.LONG.toObject(ptr)));
+            }
+            assertEquals(100, sums.size());
+            for (Long sum : sums.values()) {
+                assertEquals(4L, sum.longValue());
+            }
+            assertTrue(memoryManager.getAvailableMemory() < memoryManager.getMaxMemory());
+            scanner.close();
+            assertEquals(memoryManager.getMaxMemory(), memoryManager.getAvailableMemory());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    @Test
+    public void testPartitionedAggregatingOutOfMemory() throws Throwable {
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            MemoryManager memoryManager = new GlobalMemoryManager(1000, 0);
+            PartitionedAggregatingResultIterator scanner = new PartitionedAggregatingResultIterator(newIterators(newPartialGroups(4, 100)), newAggregators(), 3, executor, memoryManager, 60000);
+            try {
+                scanner.next();
+                fail();
+            } catch (SQLException e) {
+                assertTrue(Throwables.getRootCause(e) instanceof InsufficientMemoryException);
+            }
+            assertEquals(memoryManager.getMaxMemory(), memoryManager.getAvailableMemory());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
 }
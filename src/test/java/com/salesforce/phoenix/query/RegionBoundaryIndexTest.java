@@ -0,0 +1,91 @@
+/*******************************************************************************
+ * Copyright (c) 2013, Salesforce.com, Inc.
+ * All rights reserved.
+ * 
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ * 
+ *     Redistributions of source code must retain the above copyright notice,
+ *     this list of conditions and the following disclaimer.
+ *     Redistributions in binary form must reproduce the above copyright notice,
+ *     this list of conditions and the following disclaimer in the documentation
+ *     and/or other materials provided with the distribution.
+ *     Neither the name of Salesforce.com nor the names of its contributors may 
+ *     be used to endorse or promote products derived from this software without 
+ *     specific prior written permission.
+ * 
+ * THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ * ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT HOLDER OR CONTRIBUTORS BE LIABLE 
+ * FOR ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL 
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR 
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER 
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, 
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE 
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ ******************************************************************************/
+package com.salesforce.phoenix.query;
+
+import static org.junit.Assert.*;
+
+import java.util.*;
+
+import org.apache.hadoop.hbase.HRegionInfo;
+import org.apache.hadoop.hbase.ServerName;
+import org.apache.hadoop.hbase.util.Bytes;
+import org.junit.Test;
+
+public class RegionBoundaryIndexTest {
+    private static final byte[] TABLE_NAME = Bytes.toBytes("T");
+    private static final byte[][] SPLITS = new byte[][] {Bytes.toBytes("c"), Bytes.toBytes("d"), Bytes.toBytes("i"), Bytes.toBytes("k")};
+
+    private static RegionBoundaryIndex newIndex() {
+        NavigableMap<HRegionInfo, ServerName> regions = new TreeMap<HRegionInfo, ServerName>();
+        byte[] startKey = KeyRange.UNBOUND;
+        for (int i = 0; i <= SPLITS.length; i++) {
+            byte[] endKey = i == SPLITS.length ? KeyRange.UNBOUND : SPLITS[i];
+            regions.put(new HRegionInfo(TABLE_NAME, startKey, endKey), new ServerName("host" + (i % 2), 60020, 1L));
+            startKey = endKey;
+        }
+        return new RegionBoundaryIndex(regions);
+    }
+
+    private static List<Map.Entry<HRegionInfo, ServerName>> filterLinearly(RegionBoundaryIndex index, KeyRange keyRange) {
+        List<Map.Entry<HRegionInfo, ServerName>> regions = new ArrayList<Map.Entry<HRegionInfo, ServerName>>();
+        for (Map.Entry<HRegionInfo, ServerName> region : index.getRegions()) {
+            if (keyRange.intersect(KeyRange.getKeyRange(region.getKey().getStartKey(), region.getKey().getEndKey())) != KeyRange.EMPTY_RANGE) {
+                regions.add(region);
+            }
+        }
+        return regions;
+    }
+
+    @Test
+    public void testGetRegion() {
+        RegionBoundaryIndex index = newIndex();
+        assertArrayEquals(KeyRange.UNBOUND, index.getRegion(Bytes.toBytes("a")).getKey().getStartKey());
+        assertArrayEquals(KeyRange.UNBOUND, index.getRegion(KeyRange.UNBOUND).getKey().getStartKey());
+        assertArrayEquals(Bytes.toBytes("c"), index.getRegion(Bytes.toBytes("c")).getKey().getStartKey());
+        assertArrayEquals(Bytes.toBytes("d"), index.getRegion(Bytes.toBytes("h")).getKey().getStartKey());
+        assertArrayEquals(Bytes.toBytes("k"), index.getRegion(Bytes.toBytes("z")).getKey().getStartKey());
+    }
+
+    @Test
+    public void testFilterRegions() {
+        RegionBoundaryIndex index = newIndex();
+        String[] keys = new String[] {"", "a", "c", "ca", "d", "e", "i", "j", "k", "z"};
+        for (String lower : keys) {
+            for (String upper : keys) {
+                for (boolean lowerInclusive : new boolean[] {true, false}) {
+                    for (boolean upperInclusive : new boolean[] {true, false}) {
+                        KeyRange keyRange = KeyRange.getKeyRange(Bytes.toBytes(lower), lowerInclusive, Bytes.toBytes(upper), upperInclusive);
+                        assertEquals(keyRange.toString(), filterLinearly(index, keyRange), index.filterRegions(keyRange));
+                    }
+                }
+            }
+        }
+        assertEquals(5, index.filterRegions(KeyRange.EVERYTHING_RANGE).size());
+        assertTrue(index.filterRegions(KeyRange.EMPTY_RANGE).isEmpty());
+    }
+}
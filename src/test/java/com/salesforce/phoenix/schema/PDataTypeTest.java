@@ -43,6 +43,7 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
+import org.apache.hadoop.hbase.io.ImmutableBytesWritable;
 import org.apache.hadoop.hbase.util.Bytes;
 import org.junit.Test;
 
@@ -421,6 +422,71 @@ public class PDataTypeTest {
         assertEquals(o.getClass(), java.sql.Timestamp.class); 
     }
 
+    @Test
+    public void testScaledLongDecimal() {
+        long[] values = {0, 1, -1, 5, -5, 10, -10, 99, 100, -100, 123456789, -123456789, 1000000, -1000000,
+                Long.MAX_VALUE / 10, Long.MIN_VALUE / 10, Long.MAX_VALUE, Long.MIN_VALUE + 1};
+        for (long value : values) {
+            for (int scale = -3; scale <= 6; scale++) {
+                BigDecimal bd = BigDecimal.valueOf(value, scale);
+                byte[] expected = PDataType.DECIMAL.toBytes(bd);
+                byte[] b = new byte[PDataType.MAX_SCALED_LONG_BYTES];
+                int len = PDataType.toBytes(value, scale, b, 0);
+                assertTrue(bd.toString(), Bytes.equals(expected, 0, expected.length, b, 0, len));
+                if (scale >= 0) {
+                    assertEquals(bd.toString(), value, PDataType.toScaledLong(expected, 0, expected.length, null, scale));
+                    byte[] inverted = ColumnModifier.SORT_DESC.apply(expected, new byte[expected.length], 0, expected.length);
+                    assertEquals(bd.toString(), value, PDataType.toScaledLong(inverted, 0, inverted.length, ColumnModifier.SORT_DESC, scale));
+                }
+            }
+        }
+        byte[] b = PDataType.DECIMAL.toBytes(new BigDecimal("1.25"));
+        assertEquals(12500, PDataType.toScaledLong(b, 0, b.length, null, 4));
+        try {
+            PDataType.toScaledLong(b, 0, b.length, null, 1);
+            fail();
+        } catch (ArithmeticException e) {
+        }
+        b = PDataType.DECIMAL.toBytes(new BigDecimal("123456789012345678901"));
+        try {
+            PDataType.toScaledLong(b, 0, b.length, null, 0);
+            fail();
+        } catch (ArithmeticException e) {
+        }
+    }
+
+    @Test
+    public void testCoerceBytes() {
+        long now = System.currentTimeMillis();
+        Object[][] values = {
+                {PDataType.LONG, 5L}, {PDataType.LONG, -5L}, {PDataType.INTEGER, 7}, {PDataType.INTEGER, -7},
+                {PDataType.UNSIGNED_LONG, 9L}, {PDataType.UNSIGNED_INT, 11},
+                {PDataType.DATE, new Date(now)}, {PDataType.TIME, new Time(now)}, {PDataType.TIMESTAMP, new Timestamp(now)}};
+        PDataType[] targetTypes = {PDataType.LONG, PDataType.INTEGER, PDataType.UNSIGNED_LONG, PDataType.UNSIGNED_INT,
+                PDataType.DECIMAL, PDataType.DATE, PDataType.TIME, PDataType.TIMESTAMP, PDataType.VARCHAR};
+        for (Object[] value : values) {
+            PDataType actualType = (PDataType)value[0];
+            byte[] b = actualType.toBytes(value[1]);
+            for (PDataType targetType : targetTypes) {
+                ImmutableBytesWritable ptr = new ImmutableBytesWritable(b);
+                boolean coerced;
+                try {
+                    coerced = targetType.coerceBytes(ptr, actualType);
+                } catch (IllegalDataException e) {
+                    // Unsigned types don't allow negative values either way
+                    assertTrue(value[1].toString(), value[1].toString().startsWith("-"));
+                    continue;
+                }
+                if (coerced) {
+                    byte[] expected = targetType.toBytes(targetType.toObject(b, 0, b.length, actualType));
+                    assertTrue(actualType + " to " + targetType, Bytes.equals(expected, 0, expected.length, ptr.get(), ptr.getOffset(), ptr.getLength()));
+                } else {
+                    assertTrue(actualType + " to " + targetType, targetType == PDataType.VARCHAR || actualType.isCoercibleTo(PDataType.LONG) != targetType.isCoercibleTo(PDataType.DECIMAL));
+                }
+            }
+        }
+    }
+
     private void testReadDecimalPrecisionAndScaleFromRawBytes(BigDecimal bd) {
         byte[] b = PDataType.DECIMAL.toBytes(bd);
         int[] v = PDataType.getDecimalPrecisionAndScale(b, 0, b.length);
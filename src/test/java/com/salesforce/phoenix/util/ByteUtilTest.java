@@ -75,4 +75,17 @@ public class ByteUtilTest {
         key = new byte[] {(byte)255};
         assertNull(ByteUtil.nextKey(key));
     }
+    
+    @Test
+    public void testPreviousKey() {
+        byte[] key = new byte[] {1, 2};
+        assertArrayEquals(new byte[] {1, 1}, ByteUtil.previousKey(key));
+        key = new byte[] {1, 0};
+        assertArrayEquals(new byte[] {1}, ByteUtil.previousKey(key));
+        key = new byte[] {1, (byte)255};
+        assertArrayEquals(new byte[] {1, (byte)254}, ByteUtil.previousKey(key));
+        key = new byte[] {0};
+        assertArrayEquals(new byte[0], ByteUtil.previousKey(key));
+        assertNull(ByteUtil.previousKey(new byte[0]));
+    }
 }